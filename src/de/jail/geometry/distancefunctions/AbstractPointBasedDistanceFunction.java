@@ -0,0 +1,146 @@
+package de.jail.geometry.distancefunctions;
+
+import de.jail.geometry.schemas.PointSet;
+
+/**
+ * Base class for distance functions which implements the batch methods of {@link PointBasedDistanceFunction}. The
+ * arguments of a batch are validated once, afterwards the distances are computed by
+ * {@link #calculateBlock(double[], int, double[], int, int, int, double[], int)}, which only has to loop over a
+ * block of consecutive points in a flat array.
+ * <p>
+ * The distance matrix is computed in tiles: the columns are split into blocks of about {@value #TILE_COORDINATES}
+ * coordinates, which fit into the first level cache, and every row is compared with a whole block before the next
+ * block is loaded. Points of sets which are not backed by an array are copied block by block into a buffer.
+ * </p>
+ *
+ * @author Christian Vogel
+ */
+public abstract class AbstractPointBasedDistanceFunction implements PointBasedDistanceFunction {
+
+	/** number of coordinates of a single tile, 4096 doubles use 32 KB */
+	private static final int TILE_COORDINATES = 4096;
+
+	/**
+	 * Default constructor doing nothing special.
+	 */
+	protected AbstractPointBasedDistanceFunction() {}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public void calculateAll(double[] query, int queryOffset, PointSet points, int from, int count, double[] result,
+			int resultOffset) {
+		if(query == null || points == null || result == null) {
+			throw new IllegalArgumentException("arguments must not be null");
+		}
+
+		int dimension = points.getDimension();
+
+		checkRange(query.length, queryOffset, dimension, "query");
+		checkRange(points.size(), from, count, "points");
+		checkRange(result.length, resultOffset, count, "result");
+
+		if(points.hasArray()) {
+			calculateBlock(query, queryOffset, points.getData(), points.offsetOf(from), count, dimension, result,
+					resultOffset);
+			return;
+		}
+
+		int tileSize = tileSize(dimension);
+		double[] buffer = new double[Math.min(tileSize, count) * dimension];
+
+		for(int start = 0; start < count; start += tileSize) {
+			int length = Math.min(tileSize, count - start);
+
+			points.readPoints(from + start, length, buffer, 0);
+			calculateBlock(query, queryOffset, buffer, 0, length, dimension, result, resultOffset + start);
+		}
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public void calculateMatrix(PointSet rows, int rowFrom, int rowCount, PointSet columns, int columnFrom,
+			int columnCount, double[] result, int resultOffset) {
+		if(rows == null || columns == null || result == null) {
+			throw new IllegalArgumentException("arguments must not be null");
+		}
+
+		if(rows.getDimension() != columns.getDimension()) {
+			throw new IllegalArgumentException("Both sets should be in the same dimensional space.");
+		}
+
+		int dimension = rows.getDimension();
+
+		checkRange(rows.size(), rowFrom, rowCount, "rows");
+		checkRange(columns.size(), columnFrom, columnCount, "columns");
+
+		if((long)rowCount * columnCount > Integer.MAX_VALUE) {
+			throw new IllegalArgumentException("distance matrix has too many elements for an array");
+		}
+
+		checkRange(result.length, resultOffset, rowCount * columnCount, "result");
+
+		int tileSize = tileSize(dimension);
+
+		double[] rowData = rows.hasArray() ? rows.getData() : new double[dimension];
+		double[] columnData = columns.hasArray() ? columns.getData()
+				: new double[Math.min(tileSize, columnCount) * dimension];
+
+		for(int start = 0; start < columnCount; start += tileSize) {
+			int length = Math.min(tileSize, columnCount - start);
+			int columnOffset;
+
+			if(columns.hasArray()) {
+				columnOffset = columns.offsetOf(columnFrom + start);
+			} else {
+				columns.readPoints(columnFrom + start, length, columnData, 0);
+				columnOffset = 0;
+			}
+
+			for(int row = 0; row < rowCount; row++) {
+				int rowOffset;
+
+				if(rows.hasArray()) {
+					rowOffset = rows.offsetOf(rowFrom + row);
+				} else {
+					rows.readPoint(rowFrom + row, rowData, 0);
+					rowOffset = 0;
+				}
+
+				calculateBlock(rowData, rowOffset, columnData, columnOffset, length, dimension, result,
+						resultOffset + row * columnCount + start);
+			}
+		}
+	}
+
+	/**
+	 * Calculates the distances between one point and a block of consecutive points in a flat array. All arguments
+	 * are already validated.
+	 *
+	 * @param query array containing the single point
+	 * @param queryOffset position of the first coordinate of the single point in {@code query}
+	 * @param data array containing the block of points
+	 * @param dataOffset position of the first coordinate of the first point of the block in {@code data}
+	 * @param count number of points in the block
+	 * @param dimension number of coordinates of every point
+	 * @param result array into which the distances are written
+	 * @param resultOffset position of the distance to the first point of the block in {@code result}
+	 */
+	protected abstract void calculateBlock(double[] query, int queryOffset, double[] data, int dataOffset, int count,
+			int dimension, double[] result, int resultOffset);
+
+	private static int tileSize(final int dimension) {
+		return Math.max(1, TILE_COORDINATES / dimension);
+	}
+
+	private static void checkRange(final int length, final int offset, final int count, final String name) {
+		if(offset < 0 || count < 0 || (long)offset + count > length) {
+			throw new IndexOutOfBoundsException("range [" + offset + ", " + ((long)offset + count) 
+					+ ") is not inside of " + name);
+		}
+	}
+
+}
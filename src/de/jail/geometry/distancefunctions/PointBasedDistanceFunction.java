@@ -1,9 +1,15 @@
 package de.jail.geometry.distancefunctions;
 
 import de.jail.geometry.schemas.Point;
+import de.jail.geometry.schemas.PointSet;
 
 /**
  * Interface introducing a default distance calculating function based on points for all implementations
+ * <p>
+ * Only the distance between two {@link Point} objects has to be implemented. All other methods have default 
+ * implementations which fall back to it, without any surrogate or early abandoning. Implementations like 
+ * {@link AbstractPointBasedDistanceFunction} override them with faster versions.
+ * </p>
  * 
  * @author Christian Vogel
  */
@@ -17,5 +23,144 @@ public interface PointBasedDistanceFunction {
 	 * @return the calculated distance between first and second argument
 	 */
 	double calculate(Point arg1, Point arg2);
+	
+	/**
+	 * Calculates the distance between two points whose coordinates are stored in flat arrays, for example in the
+	 * array of a {@link de.jail.geometry.schemas.PointSet}. The arguments are not validated, so this method can be 
+	 * used in hot loops.
+	 * 
+	 * @param data1 array containing the first point
+	 * @param offset1 position of the first coordinate of the first point in {@code data1}
+	 * @param data2 array containing the second point
+	 * @param offset2 position of the first coordinate of the second point in {@code data2}
+	 * @param dimension number of coordinates of both points
+	 * 
+	 * @return the calculated distance between first and second point
+	 */
+	default double calculate(double[] data1, int offset1, double[] data2, int offset2, int dimension) {
+		return calculate(new Point(data1, offset1, dimension), new Point(data2, offset2, dimension));
+	}
+	
+	/**
+	 * Calculates the distance between two points like {@link #calculate(double[], int, double[], int, int)}, but
+	 * stops as soon as it is clear that the distance is not smaller than a threshold.
+	 * 
+	 * @param data1 array containing the first point
+	 * @param offset1 position of the first coordinate of the first point in {@code data1}
+	 * @param data2 array containing the second point
+	 * @param offset2 position of the first coordinate of the second point in {@code data2}
+	 * @param dimension number of coordinates of both points
+	 * @param threshold distance from which on the calculation may stop
+	 * 
+	 * @return the calculated distance, if it is smaller than {@code threshold}, otherwise a value which is not 
+	 * smaller than {@code threshold}
+	 */
+	default double calculateWithin(double[] data1, int offset1, double[] data2, int offset2, int dimension, 
+			double threshold) {
+		return calculate(data1, offset1, data2, offset2, dimension);
+	}
+	
+	/**
+	 * Calculates a surrogate of the distance between two points, which is cheaper to compute than the distance, but
+	 * has the same order, like the squared Euclidean distance. Comparisons of distances can be done with surrogates, 
+	 * if the compared distance is converted with {@link #toSurrogate(double)}. The calculation stops as soon as it 
+	 * is clear that the surrogate is not smaller than a bound. 
+	 * 
+	 * @param data1 array containing the first point
+	 * @param offset1 position of the first coordinate of the first point in {@code data1}
+	 * @param data2 array containing the second point
+	 * @param offset2 position of the first coordinate of the second point in {@code data2}
+	 * @param dimension number of coordinates of both points
+	 * @param bound surrogate from which on the calculation may stop, {@link Double#POSITIVE_INFINITY} to always 
+	 * calculate the whole surrogate
+	 * 
+	 * @return the calculated surrogate, if it is smaller than {@code bound}, otherwise a value which is not smaller
+	 * than {@code bound}
+	 */
+	default double calculateSurrogate(double[] data1, int offset1, double[] data2, int offset2, int dimension, 
+			double bound) {
+		return calculate(data1, offset1, data2, offset2, dimension);
+	}
+	
+	/**
+	 * Converts a distance into the surrogate of {@link #calculateSurrogate(double[], int, double[], int, int, double)}.
+	 * 
+	 * @param distance distance, a negative distance gives a surrogate which is smaller than every calculated surrogate
+	 * @return surrogate of the distance
+	 */
+	default double toSurrogate(double distance) {
+		return distance;
+	}
+	
+	/**
+	 * Converts a surrogate of {@link #calculateSurrogate(double[], int, double[], int, int, double)} back into the 
+	 * distance.
+	 * 
+	 * @param surrogate surrogate which is not negative
+	 * @return distance of the surrogate
+	 */
+	default double fromSurrogate(double surrogate) {
+		return surrogate;
+	}
+	
+	/**
+	 * Calculates the distances between one point and a block of consecutive points of a set. The arguments are 
+	 * validated once for the whole block.
+	 * 
+	 * @param query array containing the single point
+	 * @param queryOffset position of the first coordinate of the single point in {@code query}
+	 * @param points set containing the block of points
+	 * @param from position of the first point of the block in {@code points}
+	 * @param count number of points in the block
+	 * @param result array into which the distances are written, the distance to point {@code from + i} is written to
+	 * position {@code resultOffset + i}
+	 * @param resultOffset position of the first distance in {@code result}
+	 */
+	default void calculateAll(double[] query, int queryOffset, PointSet points, int from, int count, double[] result, 
+			int resultOffset) {
+		if(query == null || points == null || result == null) {
+			throw new IllegalArgumentException("arguments must not be null");
+		}
+		
+		int dimension = points.getDimension();
+		double[] buffer = new double[dimension];
+		
+		for(int i = 0; i < count; i++) {
+			points.readPoint(from + i, buffer, 0);
+			result[resultOffset + i] = calculate(query, queryOffset, buffer, 0, dimension);
+		}
+	}
+	
+	/**
+	 * Calculates the distances between all points of two blocks of consecutive points. The matrix is written row by 
+	 * row, so the distance between row point {@code rowFrom + i} and column point {@code columnFrom + j} is written to
+	 * position {@code resultOffset + i * columnCount + j}. The arguments are validated once for the whole matrix.
+	 * 
+	 * @param rows set containing the points of the rows
+	 * @param rowFrom position of the first row point in {@code rows}
+	 * @param rowCount number of rows
+	 * @param columns set containing the points of the columns, may be the same set as {@code rows}
+	 * @param columnFrom position of the first column point in {@code columns}
+	 * @param columnCount number of columns
+	 * @param result array into which the distance matrix is written
+	 * @param resultOffset position of the first distance in {@code result}
+	 */
+	default void calculateMatrix(PointSet rows, int rowFrom, int rowCount, PointSet columns, int columnFrom, 
+			int columnCount, double[] result, int resultOffset) {
+		if(rows == null || columns == null || result == null) {
+			throw new IllegalArgumentException("arguments must not be null");
+		}
+		
+		if(rows.getDimension() != columns.getDimension()) {
+			throw new IllegalArgumentException("Both sets should be in the same dimensional space.");
+		}
+		
+		double[] row = new double[rows.getDimension()];
+		
+		for(int i = 0; i < rowCount; i++) {
+			rows.readPoint(rowFrom + i, row, 0);
+			calculateAll(row, 0, columns, columnFrom, columnCount, result, resultOffset + i * columnCount);
+		}
+	}
 
 }
@@ -1,7 +1,8 @@
 package de.jail.geometry.distancefunctions.impl;
 
-import de.jail.geometry.distancefunctions.PointBasedDistanceFunction;
+import de.jail.geometry.distancefunctions.AbstractPointBasedDistanceFunction;
 import de.jail.geometry.schemas.Point;
+import de.jail.utils.MathUtil;
 
 /**
  * 
@@ -14,7 +15,7 @@ import de.jail.geometry.schemas.Point;
  * 
  * @author Christian Vogel
  */
-public class EuclideanDistance implements PointBasedDistanceFunction {
+public class EuclideanDistance extends AbstractPointBasedDistanceFunction {
 	
 	/**
 	 * Default constructor doing nothing special.
@@ -30,20 +31,80 @@ public class EuclideanDistance implements PointBasedDistanceFunction {
 			throw new IllegalArgumentException("arguments should not be null");
 		}
 		
-		final double[] vector1 = arg1.getVector();
-		final double[] vector2 = arg2.getVector();
-		
-		if(vector1.length != vector2.length) {
+		if(arg1.getDimension() != arg2.getDimension()) {
 			throw new IllegalArgumentException("Both points should be in the same dimensional space.");
 		}
 		
-		double sum = 0;
-		
-		for(int i = 0; i < vector1.length; i++) {
-			sum += Math.pow((vector1[i] - vector2[i]), 2);
+		return calculate(arg1.getData(), arg1.getOffset(), arg2.getData(), arg2.getOffset(), arg1.getDimension());
+	}
+	
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public double calculate(double[] data1, int offset1, double[] data2, int offset2, int dimension) {
+		return Math.sqrt(MathUtil.squaredDistance(data1, offset1, data2, offset2, dimension));
+	}
+	
+	/**
+	 * {@inheritDoc}
+	 * <p>
+	 * The squared distance is compared with the squared threshold, so the square root is only computed for 
+	 * distances which are smaller than the threshold. No distance is smaller than a threshold which is not positive.
+	 * </p>
+	 */
+	@Override
+	public double calculateWithin(double[] data1, int offset1, double[] data2, int offset2, int dimension, 
+			double threshold) {
+		if(!(threshold > 0)) {
+			return Double.POSITIVE_INFINITY;
 		}
 		
-		return Math.sqrt(sum);
+		double bound = threshold * threshold;
+		double squaredDistance = MathUtil.squaredDistance(data1, offset1, data2, offset2, dimension, bound);
+		
+		return squaredDistance < bound ? Math.sqrt(squaredDistance) : Double.POSITIVE_INFINITY;
+	}
+	
+	/**
+	 * Calculates the squared distance, which saves the square root.
+	 */
+	@Override
+	public double calculateSurrogate(double[] data1, int offset1, double[] data2, int offset2, int dimension, 
+			double bound) {
+		return MathUtil.squaredDistance(data1, offset1, data2, offset2, dimension, bound);
+	}
+	
+	/**
+	 * {@inheritDoc}
+	 * <p>
+	 * The square keeps the sign of the distance, so a negative distance stays a bound which no surrogate is smaller 
+	 * than.
+	 * </p>
+	 */
+	@Override
+	public double toSurrogate(double distance) {
+		return Math.copySign(distance * distance, distance);
+	}
+	
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public double fromSurrogate(double surrogate) {
+		return Math.sqrt(surrogate);
+	}
+	
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	protected void calculateBlock(double[] query, int queryOffset, double[] data, int dataOffset, int count, 
+			int dimension, double[] result, int resultOffset) {
+		for(int i = 0; i < count; i++) {
+			result[resultOffset + i] = Math.sqrt(MathUtil.squaredDistance(query, queryOffset, data, 
+					dataOffset + i * dimension, dimension));
+		}
 	}
 
 }
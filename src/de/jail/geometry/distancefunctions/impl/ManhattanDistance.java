@@ -1,7 +1,8 @@
 package de.jail.geometry.distancefunctions.impl;
 
-import de.jail.geometry.distancefunctions.PointBasedDistanceFunction;
+import de.jail.geometry.distancefunctions.AbstractPointBasedDistanceFunction;
 import de.jail.geometry.schemas.Point;
+import de.jail.utils.MathUtil;
 
 /**
  * This class calculates the distance between two point through the manhattan distance function. 
@@ -12,7 +13,7 @@ import de.jail.geometry.schemas.Point;
  * 
  * @author Christian Vogel
  */
-public class ManhattanDistance implements PointBasedDistanceFunction {
+public class ManhattanDistance extends AbstractPointBasedDistanceFunction {
 	
 	/**
 	 * Default constructor doing nothing special.
@@ -31,20 +32,65 @@ public class ManhattanDistance implements PointBasedDistanceFunction {
 			throw new IllegalArgumentException("arguments cannot be null");
 		}
 		
-		final double[] vector1 = arg1.getVector();
-		final double[] vector2 = arg2.getVector();
-		
-		if(vector1.length != vector2.length) {
+		if(arg1.getDimension() != arg2.getDimension()) {
 			throw new IllegalArgumentException("Both points should be in the same dimensional space.");
 		}
 		
-		double sum = 0;
-		
-		for(int i = 0; i < vector1.length; i++) {
-			sum = Math.abs(vector1[i] - vector2[i]);
+		return calculate(arg1.getData(), arg1.getOffset(), arg2.getData(), arg2.getOffset(), arg1.getDimension());
+	}
+	
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public double calculate(double[] data1, int offset1, double[] data2, int offset2, int dimension) {
+		return MathUtil.absoluteDistance(data1, offset1, data2, offset2, dimension);
+	}
+	
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public double calculateWithin(double[] data1, int offset1, double[] data2, int offset2, int dimension, 
+			double threshold) {
+		return MathUtil.absoluteDistance(data1, offset1, data2, offset2, dimension, threshold);
+	}
+	
+	/**
+	 * The Manhattan distance is already cheap, so it is its own surrogate.
+	 */
+	@Override
+	public double calculateSurrogate(double[] data1, int offset1, double[] data2, int offset2, int dimension, 
+			double bound) {
+		return MathUtil.absoluteDistance(data1, offset1, data2, offset2, dimension, bound);
+	}
+	
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public double toSurrogate(double distance) {
+		return distance;
+	}
+	
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public double fromSurrogate(double surrogate) {
+		return surrogate;
+	}
+	
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	protected void calculateBlock(double[] query, int queryOffset, double[] data, int dataOffset, int count, 
+			int dimension, double[] result, int resultOffset) {
+		for(int i = 0; i < count; i++) {
+			result[resultOffset + i] = MathUtil.absoluteDistance(query, queryOffset, data, 
+					dataOffset + i * dimension, dimension);
 		}
-		
-		return sum;
 	}
 
 }
@@ -0,0 +1,71 @@
+package de.jail.geometry.neighborsearch;
+
+import de.jail.geometry.distancefunctions.PointBasedDistanceFunction;
+import de.jail.geometry.schemas.PointSet;
+import de.jail.utils.DoubleList;
+import de.jail.utils.IntList;
+
+/**
+ * Interface introducing neighbor queries on a fixed set of points for all index implementations. Points are
+ * addressed by their position in the {@link PointSet} which was used to build the index.
+ * <p>
+ * Once built, an index is only read by queries, so an index can be queried from several threads at the same time.
+ * </p>
+ *
+ * @author Christian Vogel
+ */
+public interface NeighborIndex {
+
+	/**
+	 * Builds the index for the given points. A previously built index will be discarded.
+	 *
+	 * @param points the points to index, their positions are used as ids in all queries
+	 * @param distFunction distance function which is used to compute the distance between to points
+	 */
+	void build(PointSet points, PointBasedDistanceFunction distFunction);
+
+	/**
+	 * Finds all points whose distance to a given point is smaller than {@code eps}. The given point itself is not
+	 * part of the result.
+	 * <p>
+	 * Implementations compare {@link PointBasedDistanceFunction#calculateSurrogate(double[], int, double[], int, int,
+	 * double) surrogates} with the converted {@code eps}, so no square root is computed and the calculation for a 
+	 * candidate stops as soon as it is too far away.
+	 * </p>
+	 *
+	 * @param index position of the query point
+	 * @param eps defines the area in which a neighbor point should be
+	 * @param result list to which the ids of all found neighbors will be appended
+	 */
+	void rangeQuery(int index, double eps, IntList result);
+
+	/**
+	 * Finds all points whose distance to a given point is smaller than {@code eps} like
+	 * {@link #rangeQuery(int, double, IntList)} and appends the distance of every found neighbor as well. The
+	 * distances are converted back from the surrogates, so no distance is computed twice.
+	 *
+	 * @param index position of the query point
+	 * @param eps defines the area in which a neighbor point should be
+	 * @param result list to which the ids of all found neighbors will be appended
+	 * @param distances list to which the distances of all found neighbors will be appended in the same order
+	 */
+	void rangeQuery(int index, double eps, IntList result, DoubleList distances);
+
+	/**
+	 * Finds the {@code k} points which are nearest to a given point, or all other points if there are not more than
+	 * {@code k}. The given point itself is not part of the result. The neighbors are appended nearest first, points
+	 * with the same distance in any order.
+	 * <p>
+	 * Like a range query, the candidates are compared by their surrogates. The surrogate of the {@code k}-th nearest
+	 * candidate found so far bounds the calculation of the following candidates.
+	 * </p>
+	 *
+	 * @param index position of the query point
+	 * @param k number of neighbors to find
+	 * @param result list to which the ids of the found neighbors will be appended
+	 * @param distances list to which the distances of the found neighbors will be appended in the same order, or
+	 * {@code null}
+	 */
+	void knnQuery(int index, int k, IntList result, DoubleList distances);
+
+}
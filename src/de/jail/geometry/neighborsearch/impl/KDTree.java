@@ -0,0 +1,415 @@
+package de.jail.geometry.neighborsearch.impl;
+
+import de.jail.geometry.distancefunctions.PointBasedDistanceFunction;
+import de.jail.geometry.neighborsearch.NeighborIndex;
+import de.jail.geometry.schemas.PointSet;
+import de.jail.utils.DoubleList;
+import de.jail.utils.IntList;
+
+/**
+ * This index organizes the points in a k-d tree. Every inner node splits its points at the median of the dimension
+ * with the widest spread, so the tree is balanced and a range query for a small area only visits O(log n) nodes.
+ * <p>
+ * The tree is stored implicitly in a permutation of the point ids: a node covers a range of the permutation and its
+ * splitting point is located in the middle of that range. Besides this permutation the index needs no memory.
+ * </p>
+ * <p>
+ * Points of a set which is not backed by an array, like a {@link de.jail.geometry.schemas.MappedPointSet}, are read 
+ * coordinate by coordinate, so the coordinates are never copied to the heap as a whole.
+ * </p>
+ * <p>
+ * Subtrees are pruned by the difference of a single coordinate, so the distance function has to be at least as
+ * large as the difference in every single dimension. This is true for the Euclidean and the Manhattan distance.
+ * </p>
+ *
+ * @author Christian Vogel
+ */
+public class KDTree implements NeighborIndex {
+
+	/** number of points in a node which will be scanned instead of being split further */
+	private static final int LEAF_SIZE = 8;
+
+	private PointSet points;
+
+	private double[] data;
+
+	private int dimension;
+
+	private int[] order;
+
+	private int[] splitDimension;
+
+	private PointBasedDistanceFunction distFunction;
+
+	/**
+	 * Default constructor doing nothing special.
+	 */
+	public KDTree() {}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public void build(PointSet points, PointBasedDistanceFunction distFunction) {
+		if(points == null || distFunction == null) {
+			throw new IllegalArgumentException("arguments must not be null");
+		}
+
+		int numberOfPoints = points.size();
+
+		this.points = points;
+		this.distFunction = distFunction;
+
+		data = points.hasArray() ? points.getData() : null;
+		dimension = points.getDimension();
+		order = new int[numberOfPoints];
+		splitDimension = new int[numberOfPoints];
+
+		for(int index = 0; index < numberOfPoints; index++) {
+			order[index] = index;
+		}
+
+		buildNode(0, numberOfPoints);
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public void rangeQuery(int index, double eps, IntList result) {
+		rangeQuery(index, eps, result, null);
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public void rangeQuery(int index, double eps, IntList result, DoubleList distances) {
+		if(points == null) {
+			throw new IllegalStateException("index has not been built");
+		}
+
+		new Query(index, eps, result, distances).searchNode(0, order.length);
+	}
+
+	/**
+	 * {@inheritDoc}
+	 * <p>
+	 * The search descends into the half of a node containing the query point first, so the bound shrinks early
+	 * and the other half is skipped as soon as the splitting plane is not nearer than the current {@code k}-th
+	 * neighbor.
+	 * </p>
+	 */
+	@Override
+	public void knnQuery(int index, int k, IntList result, DoubleList distances) {
+		if(points == null) {
+			throw new IllegalStateException("index has not been built");
+		}
+
+		NearestQuery query = new NearestQuery(index, k);
+		query.searchNode(0, order.length);
+		query.nearest.drainTo(result, distances, distFunction);
+	}
+
+	/**
+	 * Splits the points in the range {@code [from, to)} of the permutation at the median of the widest dimension
+	 * and continues with both halves.
+	 *
+	 * @param from first position of the node in the permutation
+	 * @param to position after the last position of the node in the permutation
+	 */
+	private void buildNode(final int from, final int to) {
+		if(to - from <= LEAF_SIZE) {
+			return;
+		}
+
+		int dim = widestDimension(from, to);
+		int mid = (from + to) >>> 1;
+
+		select(from, to - 1, mid, dim);
+		splitDimension[mid] = dim;
+
+		buildNode(from, mid);
+		buildNode(mid + 1, to);
+	}
+
+	/**
+	 * Determines the dimension in which the points of a node have the largest spread.
+	 *
+	 * @param from first position of the node in the permutation
+	 * @param to position after the last position of the node in the permutation
+	 * @return dimension with the largest difference between minimum and maximum
+	 */
+	private int widestDimension(final int from, final int to) {
+		int widest = 0;
+		double widestSpread = -1;
+
+		for(int dim = 0; dim < dimension; dim++) {
+			double min = Double.POSITIVE_INFINITY;
+			double max = Double.NEGATIVE_INFINITY;
+
+			for(int i = from; i < to; i++) {
+				double value = coordinate(order[i], dim);
+
+				if(value < min) {
+					min = value;
+				}
+
+				if(value > max) {
+					max = value;
+				}
+			}
+
+			if(max - min > widestSpread) {
+				widestSpread = max - min;
+				widest = dim;
+			}
+		}
+
+		return widest;
+	}
+
+	/**
+	 * Rearranges the permutation in the range {@code [left, right]}, so that position {@code k} contains the point
+	 * which would be there if the range was sorted by dimension {@code dim}. All points before have a smaller or
+	 * equal, all points after a larger or equal coordinate.
+	 *
+	 * @param left first position of the range
+	 * @param right last position of the range
+	 * @param k position which has to be selected
+	 * @param dim dimension by which the points are compared
+	 */
+	private void select(int left, int right, final int k, final int dim) {
+		while(left < right) {
+			double pivot = coordinate(order[(left + right) >>> 1], dim);
+
+			int i = left;
+			int j = right;
+
+			while(i <= j) {
+				while(coordinate(order[i], dim) < pivot) {
+					i++;
+				}
+
+				while(coordinate(order[j], dim) > pivot) {
+					j--;
+				}
+
+				if(i <= j) {
+					int tmp = order[i];
+					order[i] = order[j];
+					order[j] = tmp;
+
+					i++;
+					j--;
+				}
+			}
+
+			if(k <= j) {
+				right = j;
+			} else if(k >= i) {
+				left = i;
+			} else {
+				return;
+			}
+		}
+	}
+
+	/**
+	 * Returns a single coordinate of a point.
+	 *
+	 * @param id id of the point
+	 * @param dim dimension of the coordinate
+	 * @return value of the coordinate
+	 */
+	private double coordinate(final int id, final int dim) {
+		return data != null ? data[id * dimension + dim] : points.get(id, dim);
+	}
+
+	/**
+	 * State of a single range query. Every query has its own state, so queries can run in parallel.
+	 */
+	private final class Query {
+
+		private final int index;
+
+		private final double eps;
+
+		/** eps converted into the surrogate of the distance function */
+		private final double bound;
+
+		private final IntList result;
+
+		/** distances of the found neighbors, or {@code null} if they are not requested */
+		private final DoubleList distances;
+
+		private final double[] query;
+
+		private final int queryOffset;
+
+		private final double[] candidate;
+
+		private Query(final int index, final double eps, final IntList result, final DoubleList distances) {
+			this.index = index;
+			this.eps = eps;
+			this.bound = distFunction.toSurrogate(eps);
+			this.result = result;
+			this.distances = distances;
+
+			if(data != null) {
+				query = data;
+				queryOffset = index * dimension;
+				candidate = null;
+			} else {
+				query = new double[dimension];
+				queryOffset = 0;
+				candidate = new double[dimension];
+
+				points.readPoint(index, query, 0);
+			}
+		}
+
+		/**
+		 * Collects all neighbors of the query point inside the node covering the range {@code [from, to)}.
+		 *
+		 * @param from first position of the node in the permutation
+		 * @param to position after the last position of the node in the permutation
+		 */
+		private void searchNode(final int from, final int to) {
+			if(to - from <= LEAF_SIZE) {
+				for(int i = from; i < to; i++) {
+					addIfNeighbor(order[i]);
+				}
+
+				return;
+			}
+
+			int mid = (from + to) >>> 1;
+			int splitPoint = order[mid];
+			int dim = splitDimension[mid];
+
+			addIfNeighbor(splitPoint);
+
+			double diff = query[queryOffset + dim] - coordinate(splitPoint, dim);
+
+			if(diff <= eps) {
+				searchNode(from, mid);
+			}
+
+			if(diff >= -eps) {
+				searchNode(mid + 1, to);
+			}
+		}
+
+		private void addIfNeighbor(final int id) {
+			if(id == index) {
+				return;
+			}
+
+			double surrogate;
+
+			if(candidate == null) {
+				surrogate = distFunction.calculateSurrogate(query, queryOffset, data, id * dimension, dimension, 
+						bound);
+			} else {
+				points.readPoint(id, candidate, 0);
+				surrogate = distFunction.calculateSurrogate(query, 0, candidate, 0, dimension, bound);
+			}
+
+			if(surrogate < bound) {
+				result.add(id);
+
+				if(distances != null) {
+					distances.add(distFunction.fromSurrogate(surrogate));
+				}
+			}
+		}
+	}
+
+	/**
+	 * State of a single nearest neighbor query. Every query has its own state, so queries can run in parallel.
+	 */
+	private final class NearestQuery {
+
+		private final int index;
+
+		private final NearestNeighbors nearest;
+
+		private final double[] query;
+
+		private final int queryOffset;
+
+		private final double[] candidate;
+
+		private NearestQuery(final int index, final int k) {
+			this.index = index;
+			this.nearest = new NearestNeighbors(k);
+
+			if(data != null) {
+				query = data;
+				queryOffset = index * dimension;
+				candidate = null;
+			} else {
+				query = new double[dimension];
+				queryOffset = 0;
+				candidate = new double[dimension];
+
+				points.readPoint(index, query, 0);
+			}
+		}
+
+		/**
+		 * Offers all points inside the node covering the range {@code [from, to)} which may be nearer than the
+		 * current {@code k}-th neighbor.
+		 *
+		 * @param from first position of the node in the permutation
+		 * @param to position after the last position of the node in the permutation
+		 */
+		private void searchNode(final int from, final int to) {
+			if(to - from <= LEAF_SIZE) {
+				for(int i = from; i < to; i++) {
+					offer(order[i]);
+				}
+
+				return;
+			}
+
+			int mid = (from + to) >>> 1;
+			int splitPoint = order[mid];
+
+			offer(splitPoint);
+
+			double diff = query[queryOffset + splitDimension[mid]] - coordinate(splitPoint, splitDimension[mid]);
+
+			if(diff <= 0) {
+				searchNode(from, mid);
+
+				if(-diff < distFunction.fromSurrogate(nearest.bound())) {
+					searchNode(mid + 1, to);
+				}
+			} else {
+				searchNode(mid + 1, to);
+
+				if(diff < distFunction.fromSurrogate(nearest.bound())) {
+					searchNode(from, mid);
+				}
+			}
+		}
+
+		private void offer(final int id) {
+			if(id == index) {
+				return;
+			}
+
+			if(candidate == null) {
+				nearest.offer(id, distFunction.calculateSurrogate(query, queryOffset, data, id * dimension, 
+						dimension, nearest.bound()));
+			} else {
+				points.readPoint(id, candidate, 0);
+				nearest.offer(id, distFunction.calculateSurrogate(query, 0, candidate, 0, dimension, 
+						nearest.bound()));
+			}
+		}
+	}
+
+}
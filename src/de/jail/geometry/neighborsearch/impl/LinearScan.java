@@ -0,0 +1,144 @@
+package de.jail.geometry.neighborsearch.impl;
+
+import de.jail.geometry.distancefunctions.PointBasedDistanceFunction;
+import de.jail.geometry.neighborsearch.NeighborIndex;
+import de.jail.geometry.schemas.PointSet;
+import de.jail.utils.DoubleList;
+import de.jail.utils.IntList;
+
+/**
+ * This index answers every query by comparing the query point with all other points. It needs no additional
+ * memory and works with every distance function, but a query takes linear time.
+ *
+ * @author Christian Vogel
+ */
+public class LinearScan implements NeighborIndex {
+
+	private PointSet points;
+
+	private PointBasedDistanceFunction distFunction;
+
+	/**
+	 * Default constructor doing nothing special.
+	 */
+	public LinearScan() {}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public void build(PointSet points, PointBasedDistanceFunction distFunction) {
+		if(points == null || distFunction == null) {
+			throw new IllegalArgumentException("arguments must not be null");
+		}
+
+		this.points = points;
+		this.distFunction = distFunction;
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public void rangeQuery(int index, double eps, IntList result) {
+		rangeQuery(index, eps, result, null);
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public void rangeQuery(int index, double eps, IntList result, DoubleList distances) {
+		if(points == null) {
+			throw new IllegalStateException("index has not been built");
+		}
+
+		int dimension = points.getDimension();
+		double bound = distFunction.toSurrogate(eps);
+
+		if(!points.hasArray()) {
+			double[] query = new double[dimension];
+			double[] candidate = new double[dimension];
+
+			points.readPoint(index, query, 0);
+
+			for(int ptrIndex = 0; ptrIndex < points.size(); ptrIndex++) {
+				if(ptrIndex != index) {
+					points.readPoint(ptrIndex, candidate, 0);
+
+					double surrogate = distFunction.calculateSurrogate(query, 0, candidate, 0, dimension, bound);
+
+					if(surrogate < bound) {
+						add(ptrIndex, surrogate, result, distances);
+					}
+				}
+			}
+
+			return;
+		}
+
+		double[] data = points.getData();
+		int queryOffset = points.offsetOf(index);
+
+		for(int ptrIndex = 0; ptrIndex < points.size(); ptrIndex++) {
+			if(ptrIndex != index) {
+				double surrogate = distFunction.calculateSurrogate(data, queryOffset, data, ptrIndex * dimension, 
+						dimension, bound);
+
+				if(surrogate < bound) {
+					add(ptrIndex, surrogate, result, distances);
+				}
+			}
+		}
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public void knnQuery(int index, int k, IntList result, DoubleList distances) {
+		if(points == null) {
+			throw new IllegalStateException("index has not been built");
+		}
+
+		NearestNeighbors nearest = new NearestNeighbors(k);
+		int dimension = points.getDimension();
+
+		if(!points.hasArray()) {
+			double[] query = new double[dimension];
+			double[] candidate = new double[dimension];
+
+			points.readPoint(index, query, 0);
+
+			for(int ptrIndex = 0; ptrIndex < points.size(); ptrIndex++) {
+				if(ptrIndex != index) {
+					points.readPoint(ptrIndex, candidate, 0);
+
+					nearest.offer(ptrIndex, distFunction.calculateSurrogate(query, 0, candidate, 0, dimension, 
+							nearest.bound()));
+				}
+			}
+		} else {
+			double[] data = points.getData();
+			int queryOffset = points.offsetOf(index);
+
+			for(int ptrIndex = 0; ptrIndex < points.size(); ptrIndex++) {
+				if(ptrIndex != index) {
+					nearest.offer(ptrIndex, distFunction.calculateSurrogate(data, queryOffset, data, 
+							ptrIndex * dimension, dimension, nearest.bound()));
+				}
+			}
+		}
+
+		nearest.drainTo(result, distances, distFunction);
+	}
+
+	private void add(final int id, final double surrogate, final IntList result, final DoubleList distances) {
+		result.add(id);
+
+		if(distances != null) {
+			distances.add(distFunction.fromSurrogate(surrogate));
+		}
+	}
+
+}
@@ -0,0 +1,155 @@
+package de.jail.geometry.neighborsearch.impl;
+
+import de.jail.geometry.distancefunctions.PointBasedDistanceFunction;
+import de.jail.utils.DoubleList;
+import de.jail.utils.IntList;
+
+/**
+ * Collects the {@code k} nearest candidates of a query in a max-heap of their surrogates, so the farthest of them
+ * can be replaced in O(log k). The surrogate of the farthest candidate is the bound for the following candidates.
+ *
+ * @author Christian Vogel
+ */
+final class NearestNeighbors {
+
+	private final int k;
+
+	private final int[] ids;
+
+	private final double[] surrogates;
+
+	private int size;
+
+	NearestNeighbors(final int k) {
+		if(k < 0) {
+			throw new IllegalArgumentException("k must not be negative");
+		}
+
+		this.k = k;
+		this.ids = new int[k];
+		this.surrogates = new double[k];
+	}
+
+	/**
+	 * Returns the surrogate which a candidate has to undercut, which is infinite as long as less than {@code k}
+	 * candidates were collected.
+	 *
+	 * @return bound for the surrogate of the next candidate
+	 */
+	double bound() {
+		return size < k ? Double.POSITIVE_INFINITY : surrogates[0];
+	}
+
+	/**
+	 * Adds a candidate, if it is nearer than the bound. The farthest candidate is removed, if there are more than
+	 * {@code k} afterwards.
+	 *
+	 * @param id id of the candidate
+	 * @param surrogate surrogate of the distance between the query and the candidate
+	 */
+	void offer(final int id, final double surrogate) {
+		if(!(surrogate < bound())) {
+			return;
+		}
+
+		int position;
+
+		if(size < k) {
+			position = size++;
+
+			while(position > 0) {
+				int parent = (position - 1) >>> 1;
+
+				if(surrogates[parent] >= surrogate) {
+					break;
+				}
+
+				ids[position] = ids[parent];
+				surrogates[position] = surrogates[parent];
+				position = parent;
+			}
+		} else {
+			position = 0;
+
+			while(true) {
+				int child = 2 * position + 1;
+
+				if(child >= size) {
+					break;
+				}
+
+				if(child + 1 < size && surrogates[child + 1] > surrogates[child]) {
+					child++;
+				}
+
+				if(surrogates[child] <= surrogate) {
+					break;
+				}
+
+				ids[position] = ids[child];
+				surrogates[position] = surrogates[child];
+				position = child;
+			}
+		}
+
+		ids[position] = id;
+		surrogates[position] = surrogate;
+	}
+
+	/**
+	 * Appends the collected candidates ordered by their distance, nearest first, and empties the heap.
+	 *
+	 * @param result list to which the ids will be appended
+	 * @param distances list to which the distances will be appended, or {@code null}
+	 * @param distFunction distance function which converts the surrogates back into distances
+	 */
+	void drainTo(final IntList result, final DoubleList distances, final PointBasedDistanceFunction distFunction) {
+		int count = size;
+		int[] sortedIds = new int[count];
+		double[] sortedSurrogates = new double[count];
+
+		// removing the farthest candidate again and again fills the arrays from the back
+		for(int position = count - 1; position >= 0; position--) {
+			sortedIds[position] = ids[0];
+			sortedSurrogates[position] = surrogates[0];
+
+			size--;
+
+			int lastId = ids[size];
+			double last = surrogates[size];
+			int hole = 0;
+
+			while(true) {
+				int child = 2 * hole + 1;
+
+				if(child >= size) {
+					break;
+				}
+
+				if(child + 1 < size && surrogates[child + 1] > surrogates[child]) {
+					child++;
+				}
+
+				if(surrogates[child] <= last) {
+					break;
+				}
+
+				ids[hole] = ids[child];
+				surrogates[hole] = surrogates[child];
+				hole = child;
+			}
+
+			ids[hole] = lastId;
+			surrogates[hole] = last;
+		}
+
+		for(int position = 0; position < count; position++) {
+			result.add(sortedIds[position]);
+
+			if(distances != null) {
+				distances.add(distFunction.fromSurrogate(sortedSurrogates[position]));
+			}
+		}
+	}
+
+}
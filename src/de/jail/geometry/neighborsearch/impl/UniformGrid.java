@@ -0,0 +1,375 @@
+package de.jail.geometry.neighborsearch.impl;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+
+import de.jail.geometry.distancefunctions.PointBasedDistanceFunction;
+import de.jail.geometry.neighborsearch.NeighborIndex;
+import de.jail.geometry.schemas.PointSet;
+import de.jail.utils.DoubleList;
+import de.jail.utils.IntList;
+
+/**
+ * This index puts the points into the cells of a uniform grid. A range query only has to look into the cells which
+ * are near enough to the cell of the query point. Only non empty cells are stored, so the memory is linear in the
+ * number of points.
+ * <p>
+ * A query visits up to {@code (2r+1)^d} cells, where {@code r = ceil(eps / cellWidth)} and {@code d} is the
+ * dimension, but never cells outside of the box around all non empty cells. The grid is therefore best suited for
+ * low dimensional data and a cell width near to the {@code eps} of the queries.
+ * </p>
+ * <p>
+ * A nearest neighbor query visits the cells in rings of growing distance around the cell of the query point and
+ * stops as soon as the next ring cannot contain a nearer point than the {@code k}-th neighbor found so far. Its
+ * cost depends on the cell width in the same way, the {@code k}-th neighbor should be a few cells away at most.
+ * </p>
+ * <p>
+ * Cells are selected by the difference of single coordinates, so the distance function has to be at least as large
+ * as the difference in every single dimension. This is true for the Euclidean and the Manhattan distance.
+ * </p>
+ *
+ * @author Christian Vogel
+ */
+public class UniformGrid implements NeighborIndex {
+
+	private final double cellWidth;
+
+	private PointSet points;
+
+	private Map<Cell, IntList> cells;
+
+	/** smallest and largest coordinates of all non empty cells */
+	private long[] minCell;
+
+	private long[] maxCell;
+
+	private PointBasedDistanceFunction distFunction;
+
+	/**
+	 * Constructor with the width of a single cell in every dimension.
+	 *
+	 * @param cellWidth width of a cell, usually the {@code eps} of the following range queries
+	 */
+	public UniformGrid(final double cellWidth) {
+		if(!(cellWidth > 0)) {
+			throw new IllegalArgumentException("cell width must be greater than zero");
+		}
+
+		this.cellWidth = cellWidth;
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public void build(PointSet points, PointBasedDistanceFunction distFunction) {
+		if(points == null || distFunction == null) {
+			throw new IllegalArgumentException("arguments must not be null");
+		}
+
+		this.points = points;
+		this.distFunction = distFunction;
+
+		cells = new HashMap<Cell, IntList>();
+		minCell = new long[points.getDimension()];
+		maxCell = new long[points.getDimension()];
+
+		Arrays.fill(minCell, Long.MAX_VALUE);
+		Arrays.fill(maxCell, Long.MIN_VALUE);
+
+		for(int index = 0; index < points.size(); index++) {
+			Cell cell = cellOf(index);
+			IntList members = cells.get(cell);
+
+			for(int dim = 0; dim < minCell.length; dim++) {
+				minCell[dim] = Math.min(minCell[dim], cell.coordinates[dim]);
+				maxCell[dim] = Math.max(maxCell[dim], cell.coordinates[dim]);
+			}
+
+			if(members == null) {
+				members = new IntList(4);
+				cells.put(cell, members);
+			}
+
+			members.add(index);
+		}
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public void rangeQuery(int index, double eps, IntList result) {
+		rangeQuery(index, eps, result, null);
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public void rangeQuery(int index, double eps, IntList result, DoubleList distances) {
+		if(points == null) {
+			throw new IllegalStateException("index has not been built");
+		}
+
+		double[] data = null;
+		double[] query = null;
+		double[] candidateVector = null;
+		int queryOffset = 0;
+
+		if(points.hasArray()) {
+			data = points.getData();
+			query = data;
+			queryOffset = points.offsetOf(index);
+		} else {
+			query = new double[points.getDimension()];
+			candidateVector = new double[points.getDimension()];
+
+			points.readPoint(index, query, 0);
+		}
+
+		Cell center = cellOf(index);
+		double bound = distFunction.toSurrogate(eps);
+
+		long reach = (long)Math.ceil(eps / cellWidth);
+		int dimension = center.coordinates.length;
+
+		Cell probe = new Cell(new long[dimension]);
+		long[] offset = new long[dimension];
+		long[] low = new long[dimension];
+		long[] high = new long[dimension];
+
+		// offsets are limited to the cells between the smallest and the largest non empty cell
+		for(int dim = 0; dim < dimension; dim++) {
+			low[dim] = Math.max(-reach, minCell[dim] - center.coordinates[dim]);
+			high[dim] = Math.min(reach, maxCell[dim] - center.coordinates[dim]);
+			offset[dim] = low[dim];
+		}
+
+		while(true) {
+			for(int dim = 0; dim < dimension; dim++) {
+				probe.coordinates[dim] = center.coordinates[dim] + offset[dim];
+			}
+
+			probe.rehash();
+
+			IntList members = cells.get(probe);
+
+			if(members != null) {
+				for(int i = 0; i < members.size(); i++) {
+					int candidate = members.get(i);
+
+					if(candidate == index) {
+						continue;
+					}
+
+					double surrogate;
+
+					if(data != null) {
+						surrogate = distFunction.calculateSurrogate(query, queryOffset, data, 
+								points.offsetOf(candidate), dimension, bound);
+					} else {
+						points.readPoint(candidate, candidateVector, 0);
+						surrogate = distFunction.calculateSurrogate(query, 0, candidateVector, 0, dimension, bound);
+					}
+
+					if(surrogate < bound) {
+						result.add(candidate);
+
+						if(distances != null) {
+							distances.add(distFunction.fromSurrogate(surrogate));
+						}
+					}
+				}
+			}
+
+			int dim = 0;
+
+			while(dim < dimension && offset[dim] == high[dim]) {
+				offset[dim] = low[dim];
+				dim++;
+			}
+
+			if(dim == dimension) {
+				return;
+			}
+
+			offset[dim]++;
+		}
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public void knnQuery(int index, int k, IntList result, DoubleList distances) {
+		if(points == null) {
+			throw new IllegalStateException("index has not been built");
+		}
+
+		double[] data = null;
+		double[] query = null;
+		double[] candidateVector = null;
+		int queryOffset = 0;
+
+		if(points.hasArray()) {
+			data = points.getData();
+			query = data;
+			queryOffset = points.offsetOf(index);
+		} else {
+			query = new double[points.getDimension()];
+			candidateVector = new double[points.getDimension()];
+
+			points.readPoint(index, query, 0);
+		}
+
+		NearestNeighbors nearest = new NearestNeighbors(k);
+		Cell center = cellOf(index);
+		int dimension = center.coordinates.length;
+
+		// all cells are visited after the ring reaching the farthest non empty cell
+		long lastRing = 0;
+
+		for(int dim = 0; dim < dimension; dim++) {
+			lastRing = Math.max(lastRing, Math.max(center.coordinates[dim] - minCell[dim], 
+					maxCell[dim] - center.coordinates[dim]));
+		}
+
+		Cell probe = new Cell(new long[dimension]);
+		long[] offset = new long[dimension];
+		long[] low = new long[dimension];
+		long[] high = new long[dimension];
+
+		for(long ring = 0; ring <= lastRing; ring++) {
+			// offsets are limited to the cells between the smallest and the largest non empty cell
+			for(int dim = 0; dim < dimension; dim++) {
+				low[dim] = Math.max(-ring, minCell[dim] - center.coordinates[dim]);
+				high[dim] = Math.min(ring, maxCell[dim] - center.coordinates[dim]);
+				offset[dim] = low[dim];
+			}
+
+			while(true) {
+				boolean onRing = false;
+
+				for(int dim = 1; dim < dimension; dim++) {
+					probe.coordinates[dim] = center.coordinates[dim] + offset[dim];
+					onRing |= offset[dim] == ring || offset[dim] == -ring;
+				}
+
+				// inside the ring only the cells at both ends of the first dimension belong to it
+				long first = onRing ? low[0] : -ring;
+				long last = onRing ? high[0] : ring;
+				long step = onRing || ring == 0 ? 1 : 2 * ring;
+
+				for(; first <= last; first += step) {
+					if(first < low[0] || first > high[0]) {
+						continue;
+					}
+
+					probe.coordinates[0] = center.coordinates[0] + first;
+					probe.rehash();
+
+					IntList members = cells.get(probe);
+
+					if(members == null) {
+						continue;
+					}
+
+					for(int i = 0; i < members.size(); i++) {
+						int candidate = members.get(i);
+
+						if(candidate == index) {
+							continue;
+						}
+
+						if(data != null) {
+							nearest.offer(candidate, distFunction.calculateSurrogate(query, queryOffset, data, 
+									points.offsetOf(candidate), dimension, nearest.bound()));
+						} else {
+							points.readPoint(candidate, candidateVector, 0);
+							nearest.offer(candidate, distFunction.calculateSurrogate(query, 0, candidateVector, 0, 
+									dimension, nearest.bound()));
+						}
+					}
+				}
+
+				int dim = 1;
+
+				while(dim < dimension && offset[dim] == high[dim]) {
+					offset[dim] = low[dim];
+					dim++;
+				}
+
+				if(dim >= dimension) {
+					break;
+				}
+
+				offset[dim]++;
+			}
+
+			// every point beyond this ring differs by more than ring * cellWidth in a single coordinate
+			if(distFunction.fromSurrogate(nearest.bound()) <= ring * cellWidth) {
+				break;
+			}
+		}
+
+		nearest.drainTo(result, distances, distFunction);
+	}
+
+	/**
+	 * Determines the cell in which a point is located.
+	 *
+	 * @param index position of the point
+	 * @return the cell containing the point
+	 */
+	private Cell cellOf(final int index) {
+		long[] coordinates = new long[points.getDimension()];
+
+		for(int dim = 0; dim < coordinates.length; dim++) {
+			coordinates[dim] = (long)Math.floor(points.get(index, dim) / cellWidth);
+		}
+
+		Cell cell = new Cell(coordinates);
+		cell.rehash();
+
+		return cell;
+	}
+
+	/**
+	 * Integer coordinates of a single grid cell which are used as key of the cell map.
+	 */
+	private static final class Cell {
+
+		private final long[] coordinates;
+
+		private int hash;
+
+		private Cell(final long[] coordinates) {
+			this.coordinates = coordinates;
+		}
+
+		private void rehash() {
+			hash = Arrays.hashCode(coordinates);
+		}
+
+		@Override
+		public int hashCode() {
+			return hash;
+		}
+
+		@Override
+		public boolean equals(Object obj) {
+			if(this == obj) {
+				return true;
+			}
+
+			if(!(obj instanceof Cell)) {
+				return false;
+			}
+
+			return Arrays.equals(coordinates, ((Cell)obj).coordinates);
+		}
+	}
+
+}
@@ -0,0 +1,4 @@
+/**
+ * This package contains the implementations of neighbor indices.
+ */
+package de.jail.geometry.neighborsearch.impl;
\ No newline at end of file
@@ -0,0 +1,4 @@
+/**
+ * This package contains index structures which answer neighbor queries on a set of points.
+ */
+package de.jail.geometry.neighborsearch;
\ No newline at end of file
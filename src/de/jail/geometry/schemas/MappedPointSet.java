@@ -0,0 +1,237 @@
+package de.jail.geometry.schemas;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.DoubleBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+
+/**
+ * This class represents a set of points whose coordinates are stored in a memory-mapped file instead of the Java
+ * heap. The operating system pages the coordinates in and out as needed, so a set can be much larger than the heap
+ * and does not cause any work for the garbage collector.
+ * <p>
+ * The file has a fixed binary layout: a header of {@value #HEADER_SIZE} bytes, which contains a magic number, the
+ * dimension as int and the number of points as long, followed by the coordinates of all points as row-major doubles.
+ * All values are stored in little-endian byte order.
+ * </p>
+ * <p>
+ * A single mapping is limited to 2 GB, so the file is mapped in several segments. Every segment contains a power of
+ * two number of points and the segment of a point is found by a shift. The set is not backed by an array, so
+ * {@link #getData()} is not supported and {@link #getPoint(int)} returns a copy of the coordinates.
+ * </p>
+ * <p>
+ * Reading from several threads at the same time is safe. The mapping is released by the garbage collector when the
+ * set is no longer referenced, changes are written to the file by {@link #flush()} or at the latest when the mapping
+ * is released.
+ * </p>
+ *
+ * @author Christian Vogel
+ */
+public class MappedPointSet extends PointSet {
+
+	/** size of the file header in bytes */
+	public static final int HEADER_SIZE = 16;
+
+	/** magic number at the beginning of the file, the characters "JAPS" */
+	private static final int MAGIC = 0x4A415053;
+
+	/** maximum number of bytes in a single segment */
+	private static final long MAX_SEGMENT_SIZE = 1L << 30;
+
+	private final MappedByteBuffer[] mappings;
+
+	private final DoubleBuffer[] segments;
+
+	private final int shift;
+
+	private final int mask;
+
+	/**
+	 * Maps the coordinates of a file which already contains a valid header.
+	 *
+	 * @param channel channel of the opened file
+	 * @param mode mode of the mapping
+	 * @param size number of points
+	 * @param dimension number of coordinates of a single point
+	 * @throws IOException thrown if mapping the file is unsuccessfully
+	 */
+	private MappedPointSet(final FileChannel channel, final FileChannel.MapMode mode, final int size,
+			final int dimension) throws IOException {
+		super(size, dimension, null);
+
+		int pointsPerSegment = Integer.highestOneBit((int)Math.min(Integer.MAX_VALUE,
+				MAX_SEGMENT_SIZE / (8L * dimension)));
+
+		if(pointsPerSegment == 0) {
+			throw new IllegalArgumentException("dimension is too large to be mapped");
+		}
+
+		shift = Integer.numberOfTrailingZeros(pointsPerSegment);
+		mask = pointsPerSegment - 1;
+
+		int numberOfSegments = (int)(((long)size + pointsPerSegment - 1) >>> shift);
+		long segmentSize = 8L * pointsPerSegment * dimension;
+		long length = 8L * size * dimension;
+
+		mappings = new MappedByteBuffer[numberOfSegments];
+		segments = new DoubleBuffer[numberOfSegments];
+
+		for(int i = 0; i < numberOfSegments; i++) {
+			long position = i * segmentSize;
+
+			mappings[i] = channel.map(mode, HEADER_SIZE + position, Math.min(segmentSize, length - position));
+			segments[i] = mappings[i].order(ByteOrder.LITTLE_ENDIAN).asDoubleBuffer();
+		}
+	}
+
+	/**
+	 * Creates a new file for a set of points and maps it. All coordinates are zero. An existing file will be
+	 * overwritten.
+	 *
+	 * @param file the file to create
+	 * @param size number of points
+	 * @param dimension number of coordinates of a single point
+	 * @return the mapped set of points, which can be read and written
+	 * @throws IOException thrown if creating or mapping the file is unsuccessfully
+	 */
+	public static MappedPointSet create(final File file, final int size, final int dimension) throws IOException {
+		if(file == null) {
+			throw new IllegalArgumentException("argument must not be null");
+		}
+
+		if(size < 0 || dimension < 1) {
+			throw new IllegalArgumentException("size must not be negative and dimension must be at least one");
+		}
+
+		RandomAccessFile raf = new RandomAccessFile(file, "rw");
+
+		try {
+			FileChannel channel = raf.getChannel();
+
+			raf.setLength(0);
+			raf.setLength(HEADER_SIZE + 8L * size * dimension);
+
+			ByteBuffer header = ByteBuffer.allocate(HEADER_SIZE).order(ByteOrder.LITTLE_ENDIAN);
+			header.putInt(MAGIC).putInt(dimension).putLong(size);
+			header.flip();
+
+			while(header.hasRemaining()) {
+				channel.write(header, header.position());
+			}
+
+			return new MappedPointSet(channel, FileChannel.MapMode.READ_WRITE, size, dimension);
+		} finally {
+			raf.close();
+		}
+	}
+
+	/**
+	 * Maps an existing file which has been created by {@link #create(File, int, int)}.
+	 *
+	 * @param file the file to map
+	 * @param writable {@code true}, if the coordinates should be writable, otherwise {@code false}
+	 * @return the mapped set of points
+	 * @throws IOException thrown if reading or mapping the file is unsuccessfully or the file has no valid layout
+	 */
+	public static MappedPointSet open(final File file, final boolean writable) throws IOException {
+		if(file == null) {
+			throw new IllegalArgumentException("argument must not be null");
+		}
+
+		RandomAccessFile raf = new RandomAccessFile(file, writable ? "rw" : "r");
+
+		try {
+			FileChannel channel = raf.getChannel();
+
+			ByteBuffer header = ByteBuffer.allocate(HEADER_SIZE).order(ByteOrder.LITTLE_ENDIAN);
+
+			while(header.hasRemaining()) {
+				if(channel.read(header, header.position()) < 0) {
+					throw new IOException("file is too short for the header");
+				}
+			}
+
+			header.flip();
+
+			int magic = header.getInt();
+			int dimension = header.getInt();
+			long size = header.getLong();
+
+			if(magic != MAGIC) {
+				throw new IOException("file does not contain a set of points");
+			}
+
+			if(dimension < 1 || size < 0 || size > Integer.MAX_VALUE) {
+				throw new IOException("header of the file is corrupt");
+			}
+
+			if(channel.size() < HEADER_SIZE + 8L * size * dimension) {
+				throw new IOException("file is too short for the coordinates");
+			}
+
+			return new MappedPointSet(channel, writable ? FileChannel.MapMode.READ_WRITE : FileChannel.MapMode.READ_ONLY,
+					(int)size, dimension);
+		} finally {
+			raf.close();
+		}
+	}
+
+	/**
+	 * Writes all changed coordinates to the file.
+	 */
+	public void flush() {
+		for(MappedByteBuffer mapping : mappings) {
+			if(!mapping.isReadOnly()) {
+				mapping.force();
+			}
+		}
+	}
+
+	/* (non-Javadoc)
+	 * @see de.jail.geometry.schemas.PointSet#get(int, int)
+	 */
+	@Override
+	public double get(final int index, final int dim) {
+		return segments[index >>> shift].get((index & mask) * getDimension() + dim);
+	}
+
+	/* (non-Javadoc)
+	 * @see de.jail.geometry.schemas.PointSet#set(int, int, double)
+	 */
+	@Override
+	public void set(final int index, final int dim, final double value) {
+		segments[index >>> shift].put((index & mask) * getDimension() + dim, value);
+	}
+
+	/* (non-Javadoc)
+	 * @see de.jail.geometry.schemas.PointSet#readPoint(int, double[], int)
+	 */
+	@Override
+	public void readPoint(final int index, final double[] target, final int targetOffset) {
+		int dimension = getDimension();
+
+		DoubleBuffer segment = segments[index >>> shift];
+		int position = (index & mask) * dimension;
+
+		for(int dim = 0; dim < dimension; dim++) {
+			target[targetOffset + dim] = segment.get(position + dim);
+		}
+	}
+
+	/* (non-Javadoc)
+	 * @see de.jail.geometry.schemas.PointSet#readPoints(int, int, double[], int)
+	 */
+	@Override
+	public void readPoints(final int from, final int count, final double[] target, final int targetOffset) {
+		int dimension = getDimension();
+
+		for(int i = 0; i < count; i++) {
+			readPoint(from + i, target, targetOffset + i * dimension);
+		}
+	}
+
+}
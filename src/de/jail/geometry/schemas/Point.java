@@ -1,9 +1,16 @@
 package de.jail.geometry.schemas;
 
+import java.util.Arrays;
+
 import de.jail.utils.HashCodeUtil;
 
 /**
  * This class represents a normal point which can be in a multidimensional space. 
+ * <p>
+ * A point either owns its vector or is a view of a range in a larger array, for example a single point of a 
+ * {@link PointSet}. A view does not copy any coordinate, it reads and writes directly in the shared array. Only
+ * {@link #getVector()} returns a copy for a view, since a view has no array of its own.
+ * </p>
  * 
  * @author Christian Vogel
  */
@@ -11,16 +18,83 @@ public class Point {
 	
 	private double[] vector;
 	
+	private final int offset;
+	
+	private final int dimension;
+	
 	public Point(double[] vector) {
-		this.vector = vector;
+		this(vector, 0, vector.length);
 	}
 	
 	public Point(int dim) {
-		vector = new double[dim];
+		this(new double[dim]);
+	}
+	
+	/**
+	 * Initializes a view of the coordinates which are stored in {@code data} from position {@code offset} on.
+	 * 
+	 * @param data array containing the coordinates of the point
+	 * @param offset position of the first coordinate in {@code data}
+	 * @param dimension number of coordinates
+	 */
+	public Point(double[] data, int offset, int dimension) {
+		if(data == null) {
+			throw new IllegalArgumentException("argument must not be null");
+		}
+		
+		if(offset < 0 || dimension < 0 || offset + dimension > data.length) {
+			throw new IndexOutOfBoundsException("the coordinates have to be inside of the array");
+		}
+		
+		this.vector = data;
+		this.offset = offset;
+		this.dimension = dimension;
 	}
 	
 	public int getDimension() {
-		return vector.length;
+		return dimension;
+	}
+	
+	/**
+	 * Returns a single coordinate of this point.
+	 * 
+	 * @param dim dimension of the coordinate
+	 * @return value of the coordinate
+	 */
+	public double getCoordinate(int dim) {
+		if(dim >= dimension) {
+			throw new IndexOutOfBoundsException("dim should be smaller than the dimension of the point");
+		}
+		
+		return vector[offset + dim];
+	}
+	
+	/**
+	 * Returns the array in which the coordinates are stored. The coordinates start at {@link #getOffset()}. 
+	 * Together with the offset this gives direct access to the coordinates without copying them.
+	 * 
+	 * @return array containing the coordinates
+	 */
+	public double[] getData() {
+		return vector;
+	}
+	
+	/**
+	 * Returns the position of the first coordinate in {@link #getData()}.
+	 * 
+	 * @return position of the first coordinate
+	 */
+	public int getOffset() {
+		return offset;
+	}
+	
+	/**
+	 * Returns if this point is a view of a range in a larger array.
+	 * 
+	 * @return {@code true}, if the point does not own its whole array, otherwise {@code false}
+	 */
+	public boolean isView() {
+		return offset != 0 || dimension != vector.length;
 	}
 	
 	/**
@@ -38,12 +112,13 @@ public class Point {
 			throw new IllegalArgumentException("points not equal, means calculation not possible");
 		}
 		
-		double[] otherVector = other.getVector();
+		double[] otherVector = other.vector;
+		int otherOffset = other.offset;
 		
-		double[] sumVector = new double[vector.length];
+		double[] sumVector = new double[dimension];
 		
-		for(int i = 0; i < vector.length; i++) {
-			sumVector[i] = vector[i] + otherVector[i];
+		for(int i = 0; i < dimension; i++) {
+			sumVector[i] = vector[offset + i] + otherVector[otherOffset + i];
 		}
 		
 		return new Point(sumVector);
@@ -56,25 +131,46 @@ public class Point {
 	 * @return new calculated point
 	 */
 	public Point multiply(final double scalar) {
-		double[] result = new double[vector.length];
+		double[] result = new double[dimension];
 		
-		for(int i = 0; i < vector.length; i++) {
-			result[i] = scalar * vector[i];
+		for(int i = 0; i < dimension; i++) {
+			result[i] = scalar * vector[offset + i];
 		}
 		
 		return new Point(result);
 	}
 	
+	/**
+	 * Returns the coordinates of this point. A point which owns its vector returns the vector itself, so writes 
+	 * into the returned array change the point. A view returns a copy of its coordinates instead, writes into this 
+	 * copy are lost. Use {@link #setVector(double[])} to change the coordinates of any point, or {@link #getData()} 
+	 * and {@link #getOffset()} for direct access without a copy.
+	 * 
+	 * @return vector with all coordinates, a copy if this point is a view
+	 */
 	public double[] getVector() {
+		if(isView()) {
+			return Arrays.copyOfRange(vector, offset, offset + dimension);
+		}
+		
 		return vector;
 	}
 	
+	/**
+	 * Sets the coordinates of this point. A view copies the coordinates into its shared array.
+	 * 
+	 * @param vector the new coordinates
+	 */
 	public void setVector(double[] vector) {
-		if(this.vector != null && this.vector.length != vector.length) {
+		if(vector.length != dimension) {
 			throw new IllegalArgumentException("Both vectors should have the same size.");
 		}
 		
-		this.vector = vector;
+		if(isView()) {
+			System.arraycopy(vector, 0, this.vector, offset, dimension);
+		} else {
+			this.vector = vector;
+		}
 	}
 	
 	/**
@@ -86,13 +182,11 @@ public class Point {
 		
 		builder.append("[");
 		
-		if(vector != null) {
-			for(int i = 0; i < vector.length; i++) {
-				builder.append(vector[i]);
-				
-				if(i != (vector.length - 1)) {
-					builder.append(",");
-				}
+		for(int i = 0; i < dimension; i++) {
+			builder.append(vector[offset + i]);
+			
+			if(i != (dimension - 1)) {
+				builder.append(",");
 			}
 		}
 		
@@ -124,15 +218,12 @@ public class Point {
 		
 		Point other = (Point)obj;
 		
-		double[] otherVector = other.getVector();
-		double[] actualVector = getVector();
-		
-		if(otherVector.length != actualVector.length) {
+		if(other.dimension != dimension) {
 			return false;
 		}
 				
-		for(int i = 0; i < actualVector.length; i++) {
-			if(actualVector[i] != otherVector[i]) {
+		for(int i = 0; i < dimension; i++) {
+			if(vector[offset + i] != other.vector[other.offset + i]) {
 				return false;
 			}
 		}
@@ -152,7 +243,11 @@ public class Point {
 	public int hashCode() 
 	{ 
 	    int result = HashCodeUtil.SEED;
-	    result = HashCodeUtil.hash(result, vector);
+	    
+	    // same value as hashing the whole vector, without copying the coordinates of a view
+	    for(int i = 0; i < dimension; i++) {
+	    	result = HashCodeUtil.hash(result, vector[offset + i]);
+	    }
 	 
 	    return result; 
 	}
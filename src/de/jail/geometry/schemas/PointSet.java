@@ -0,0 +1,300 @@
+package de.jail.geometry.schemas;
+
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+
+/**
+ * This class represents a set of points of the same dimension, whose coordinates are stored in one contiguous
+ * row-major array. The coordinates of point {@code i} start at position {@code i * dimension}.
+ * <p>
+ * In contrast to a collection of {@link Point} objects, the whole set consists of two objects and a loop over the
+ * points reads the memory sequentially. Algorithms should work directly on {@link #getData()}. Single points are
+ * available as {@link Point} views, which share the coordinates with this set.
+ * </p>
+ * <p>
+ * Subclasses may store the coordinates outside of the Java heap, see {@link MappedPointSet}. Such a set is not backed
+ * by an array, {@link #hasArray()} returns {@code false} and the coordinates can only be accessed by {@link #get(int, int)},
+ * {@link #readPoint(int, double[], int)} and {@link #readPoints(int, int, double[], int)}.
+ * </p>
+ *
+ * @author Christian Vogel
+ */
+public class PointSet implements Iterable<Point> {
+
+	private final double[] data;
+
+	private final int size;
+
+	private final int dimension;
+
+	/**
+	 * Initializes a set of points where all coordinates are zero.
+	 *
+	 * @param size number of points
+	 * @param dimension number of coordinates of a single point
+	 */
+	public PointSet(final int size, final int dimension) {
+		if(size < 0 || dimension < 1) {
+			throw new IllegalArgumentException("size must not be negative and dimension must be at least one");
+		}
+
+		this.data = new double[size * dimension];
+		this.size = size;
+		this.dimension = dimension;
+	}
+
+	/**
+	 * Initializes a set of points which uses a given array to store the coordinates. The array is not copied.
+	 *
+	 * @param data row-major coordinates of all points
+	 * @param dimension number of coordinates of a single point
+	 */
+	public PointSet(final double[] data, final int dimension) {
+		if(data == null) {
+			throw new IllegalArgumentException("data must not be null");
+		}
+
+		if(dimension < 1 || data.length % dimension != 0) {
+			throw new IllegalArgumentException("length of data has to be a multiple of the dimension");
+		}
+
+		this.data = data;
+		this.size = data.length / dimension;
+		this.dimension = dimension;
+	}
+
+	/**
+	 * Initializes a set of points for subclasses which store the coordinates themselves.
+	 *
+	 * @param size number of points
+	 * @param dimension number of coordinates of a single point
+	 * @param data row-major coordinates of all points or {@code null} if the set is not backed by an array
+	 */
+	protected PointSet(final int size, final int dimension, final double[] data) {
+		if(size < 0 || dimension < 1) {
+			throw new IllegalArgumentException("size must not be negative and dimension must be at least one");
+		}
+
+		this.data = data;
+		this.size = size;
+		this.dimension = dimension;
+	}
+
+	/**
+	 * Creates a set of points by copying the coordinates of all points in a collection.
+	 *
+	 * @param points collection of points which all have the same dimension
+	 * @return new set containing the points in the order of the collection
+	 */
+	public static PointSet fromPoints(final Collection<Point> points) {
+		if(points == null) {
+			throw new IllegalArgumentException("argument must not be null");
+		}
+
+		if(points.isEmpty()) {
+			throw new IllegalArgumentException("at least one point is needed to determine the dimension");
+		}
+
+		int dimension = points.iterator().next().getDimension();
+		PointSet set = new PointSet(points.size(), dimension);
+
+		int index = 0;
+
+		for(Point p : points) {
+			set.setPoint(index++, p);
+		}
+
+		return set;
+	}
+
+	/**
+	 * Returns the number of points.
+	 *
+	 * @return number of points in the set
+	 */
+	public int size() {
+		return size;
+	}
+
+	/**
+	 * Returns the number of coordinates of a single point.
+	 *
+	 * @return dimension of all points
+	 */
+	public int getDimension() {
+		return dimension;
+	}
+
+	/**
+	 * Returns if the coordinates are stored in an array which is accessible by {@link #getData()}.
+	 *
+	 * @return {@code true}, if the set is backed by an array, otherwise {@code false}
+	 */
+	public boolean hasArray() {
+		return data != null;
+	}
+
+	/**
+	 * Returns the array in which all coordinates are stored.
+	 *
+	 * @return row-major coordinates of all points
+	 * @throws UnsupportedOperationException if the set is not backed by an array
+	 */
+	public double[] getData() {
+		if(data == null) {
+			throw new UnsupportedOperationException("set is not backed by an array");
+		}
+
+		return data;
+	}
+
+	/**
+	 * Returns the position of the first coordinate of a point in {@link #getData()}.
+	 *
+	 * @param index position of the point in the set
+	 * @return position of the first coordinate
+	 */
+	public int offsetOf(final int index) {
+		return index * dimension;
+	}
+
+	/**
+	 * Returns a single coordinate of a point.
+	 *
+	 * @param index position of the point in the set
+	 * @param dim dimension of the coordinate
+	 * @return value of the coordinate
+	 */
+	public double get(final int index, final int dim) {
+		return data[index * dimension + dim];
+	}
+
+	/**
+	 * Sets a single coordinate of a point.
+	 *
+	 * @param index position of the point in the set
+	 * @param dim dimension of the coordinate
+	 * @param value new value of the coordinate
+	 */
+	public void set(final int index, final int dim, final double value) {
+		data[index * dimension + dim] = value;
+	}
+
+	/**
+	 * Copies the coordinates of a point into an array.
+	 *
+	 * @param index position of the point in the set
+	 * @param target array receiving the coordinates
+	 * @param targetOffset position of the first coordinate in {@code target}
+	 */
+	public void readPoint(final int index, final double[] target, final int targetOffset) {
+		System.arraycopy(data, index * dimension, target, targetOffset, dimension);
+	}
+
+	/**
+	 * Copies the coordinates of consecutive points into an array, the coordinates are stored row-major like in this
+	 * set.
+	 *
+	 * @param from position of the first point in the set
+	 * @param count number of points
+	 * @param target array receiving the coordinates
+	 * @param targetOffset position of the first coordinate in {@code target}
+	 */
+	public void readPoints(final int from, final int count, final double[] target, final int targetOffset) {
+		System.arraycopy(data, from * dimension, target, targetOffset, count * dimension);
+	}
+
+	/**
+	 * Returns a single point. For a set which is backed by an array the point is a view sharing its coordinates 
+	 * with this set, otherwise the point owns a copy of the coordinates.
+	 *
+	 * @param index position of the point in the set
+	 * @return the point at the given position
+	 */
+	public Point getPoint(final int index) {
+		if(index < 0 || index >= size) {
+			throw new IndexOutOfBoundsException("index " + index + " is not inside of the set");
+		}
+
+		if(data == null) {
+			double[] vector = new double[dimension];
+			readPoint(index, vector, 0);
+
+			return new Point(vector);
+		}
+
+		return new Point(data, index * dimension, dimension);
+	}
+
+	/**
+	 * Copies the coordinates of a point into this set.
+	 *
+	 * @param index position of the point in the set
+	 * @param point point whose coordinates are copied
+	 */
+	public void setPoint(final int index, final Point point) {
+		if(point == null) {
+			throw new IllegalArgumentException("point must not be null");
+		}
+
+		if(point.getDimension() != dimension) {
+			throw new IllegalArgumentException("All points should be in the same dimensional space.");
+		}
+
+		if(data != null) {
+			System.arraycopy(point.getData(), point.getOffset(), data, index * dimension, dimension);
+			return;
+		}
+
+		for(int dim = 0; dim < dimension; dim++) {
+			set(index, dim, point.getCoordinate(dim));
+		}
+	}
+
+	/**
+	 * Returns all points in the set, see {@link #getPoint(int)}.
+	 *
+	 * @return array containing every point
+	 */
+	public Point[] toPoints() {
+		Point[] points = new Point[size];
+
+		for(int index = 0; index < size; index++) {
+			points[index] = getPoint(index);
+		}
+
+		return points;
+	}
+
+	/**
+	 * Returns an iterator over all points in the set, see {@link #getPoint(int)}.
+	 */
+	@Override
+	public Iterator<Point> iterator() {
+		return new Iterator<Point>() {
+
+			private int index = 0;
+
+			@Override
+			public boolean hasNext() {
+				return index < size;
+			}
+
+			@Override
+			public Point next() {
+				if(index >= size) {
+					throw new NoSuchElementException();
+				}
+
+				return getPoint(index++);
+			}
+
+			@Override
+			public void remove() {
+				throw new UnsupportedOperationException();
+			}
+		};
+	}
+
+}
@@ -0,0 +1,234 @@
+package de.jail.geometry.schemas.matrices;
+
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+/**
+ * Multiplies matrices which are stored row by row in flat arrays. Every operand is given by an array, the position
+ * of its first element and its stride, which is the distance between the first elements of two neighboring rows.
+ * <p>
+ * The right matrix is packed once into panels of {@value #PANEL_WIDTH} columns, where the rows of a panel are stored
+ * one after the other. The product is then computed in blocks: {@value #ROW_BLOCK} rows of the left matrix are
+ * multiplied with {@value #DEPTH_BLOCK} rows of a panel, so both fit into the second level cache. The innermost
+ * loop runs over the contiguous columns of a panel and of the result, which the JIT compiler can vectorize, and
+ * handles four elements of the left matrix at once, so every element of the result is only loaded and stored once
+ * for four products.
+ * </p>
+ * <p>
+ * The panels are packed into a buffer which is kept by the calling thread and reused by later products, as long as
+ * it is not larger than {@value #MAX_CACHED_PANELS} elements. Repeated products of matrices up to this size, like
+ * in iterative algorithms, therefore do not allocate memory.
+ * </p>
+ * <p>
+ * The blocks of rows are independent of each other and are computed in parallel on a {@link ForkJoinPool}. For
+ * every element of the result the products are summed in the order of the inner index, exactly like in the
+ * textbook algorithm, so the result does not depend on the blocking or the number of threads.
+ * </p>
+ *
+ * @author Christian Vogel
+ */
+final class BlockedMultiplication {
+
+	/** number of rows of the left matrix which are computed by a single task */
+	static final int ROW_BLOCK = 64;
+
+	/** number of rows of a panel which are multiplied at once */
+	static final int DEPTH_BLOCK = 256;
+
+	/** number of columns of a panel */
+	static final int PANEL_WIDTH = 256;
+
+	/** maximum number of elements of a panel buffer which is kept for later products, 32 MB */
+	private static final int MAX_CACHED_PANELS = 1 << 22;
+
+	private static final ThreadLocal<double[]> PANEL_BUFFER = new ThreadLocal<double[]>();
+
+	private BlockedMultiplication() {}
+
+	/**
+	 * Adds the product of two matrices to a third matrix, {@code c += a * b}. The result must not overlap with the
+	 * operands.
+	 *
+	 * @param a array containing the left matrix
+	 * @param aOffset position of the first element of the left matrix
+	 * @param aStride stride of the left matrix
+	 * @param b array containing the right matrix
+	 * @param bOffset position of the first element of the right matrix
+	 * @param bStride stride of the right matrix
+	 * @param c array containing the result
+	 * @param cOffset position of the first element of the result
+	 * @param cStride stride of the result
+	 * @param rows number of rows of the left matrix and the result
+	 * @param inner number of columns of the left and rows of the right matrix
+	 * @param columns number of columns of the right matrix and the result
+	 * @param pool pool which computes the blocks of rows, or {@code null} to compute them in the calling thread
+	 */
+	static void multiplyAdd(final double[] a, final int aOffset, final int aStride, final double[] b,
+			final int bOffset, final int bStride, final double[] c, final int cOffset, final int cStride,
+			final int rows, final int inner, final int columns, final ForkJoinPool pool) {
+		if(rows == 0 || inner == 0 || columns == 0) {
+			return;
+		}
+
+		int size = inner * columns;
+		double[] panels = size <= MAX_CACHED_PANELS ? PANEL_BUFFER.get() : null;
+
+		if(panels == null || panels.length < size) {
+			panels = new double[size];
+		} else {
+			// a product which is started while this one is running must not use the same buffer
+			PANEL_BUFFER.remove();
+		}
+
+		pack(b, bOffset, bStride, inner, columns, panels);
+
+		if(pool == null || rows <= ROW_BLOCK) {
+			multiplyRows(a, aOffset, aStride, panels, c, cOffset, cStride, 0, rows, inner, columns);
+		} else {
+			pool.invoke(new RowTask(a, aOffset, aStride, panels, c, cOffset, cStride, 0, rows, inner, columns));
+		}
+
+		if(size <= MAX_CACHED_PANELS) {
+			PANEL_BUFFER.set(panels);
+		}
+	}
+
+	/**
+	 * Copies a matrix into panels of {@value #PANEL_WIDTH} columns. The panel which starts at column {@code j} is
+	 * stored at position {@code j * inner} and contains the rows of the panel one after the other.
+	 */
+	private static void pack(final double[] b, final int bOffset, final int bStride, final int inner,
+			final int columns, final double[] panels) {
+		for(int column = 0; column < columns; column += PANEL_WIDTH) {
+			int width = Math.min(PANEL_WIDTH, columns - column);
+			int target = column * inner;
+
+			for(int k = 0; k < inner; k++) {
+				System.arraycopy(b, bOffset + k * bStride + column, panels, target, width);
+				target += width;
+			}
+		}
+	}
+
+	/**
+	 * Multiplies a range of rows of the left matrix with all panels in the calling thread.
+	 */
+	private static void multiplyRows(final double[] a, final int aOffset, final int aStride, final double[] panels,
+			final double[] c, final int cOffset, final int cStride, final int from, final int to, final int inner,
+			final int columns) {
+		for(int rowBlock = from; rowBlock < to; rowBlock += ROW_BLOCK) {
+			int rowEnd = Math.min(rowBlock + ROW_BLOCK, to);
+
+			for(int column = 0; column < columns; column += PANEL_WIDTH) {
+				int width = Math.min(PANEL_WIDTH, columns - column);
+				int panel = column * inner;
+
+				for(int depth = 0; depth < inner; depth += DEPTH_BLOCK) {
+					int depthEnd = Math.min(depth + DEPTH_BLOCK, inner);
+
+					for(int row = rowBlock; row < rowEnd; row++) {
+						multiplyRow(a, aOffset + row * aStride, panels, panel, c, cOffset + row * cStride + column,
+								depth, depthEnd, width);
+					}
+				}
+			}
+		}
+	}
+
+	/**
+	 * Adds the product of a part of a row of the left matrix and the rows of a panel to a part of a row of the
+	 * result.
+	 */
+	private static void multiplyRow(final double[] a, final int aRow, final double[] panels, final int panel,
+			final double[] c, final int cRow, final int depthFrom, final int depthTo, final int width) {
+		int k = depthFrom;
+
+		for(; k + 3 < depthTo; k += 4) {
+			double a0 = a[aRow + k];
+			double a1 = a[aRow + k + 1];
+			double a2 = a[aRow + k + 2];
+			double a3 = a[aRow + k + 3];
+
+			int b0 = panel + k * width;
+			int b1 = b0 + width;
+			int b2 = b1 + width;
+			int b3 = b2 + width;
+
+			for(int j = 0; j < width; j++) {
+				c[cRow + j] = c[cRow + j] + a0 * panels[b0 + j] + a1 * panels[b1 + j] + a2 * panels[b2 + j]
+						+ a3 * panels[b3 + j];
+			}
+		}
+
+		for(; k < depthTo; k++) {
+			double a0 = a[aRow + k];
+			int b0 = panel + k * width;
+
+			for(int j = 0; j < width; j++) {
+				c[cRow + j] += a0 * panels[b0 + j];
+			}
+		}
+	}
+
+	/**
+	 * Multiplies a range of rows of the left matrix with all panels. Ranges with more than {@value #ROW_BLOCK} rows
+	 * are split into halves which are computed in parallel.
+	 */
+	private static final class RowTask extends RecursiveAction {
+
+		private static final long serialVersionUID = 1L;
+
+		private final double[] a;
+
+		private final int aOffset;
+
+		private final int aStride;
+
+		private final double[] panels;
+
+		private final double[] c;
+
+		private final int cOffset;
+
+		private final int cStride;
+
+		private final int from;
+
+		private final int to;
+
+		private final int inner;
+
+		private final int columns;
+
+		private RowTask(final double[] a, final int aOffset, final int aStride, final double[] panels,
+				final double[] c, final int cOffset, final int cStride, final int from, final int to,
+				final int inner, final int columns) {
+			this.a = a;
+			this.aOffset = aOffset;
+			this.aStride = aStride;
+			this.panels = panels;
+			this.c = c;
+			this.cOffset = cOffset;
+			this.cStride = cStride;
+			this.from = from;
+			this.to = to;
+			this.inner = inner;
+			this.columns = columns;
+		}
+
+		@Override
+		protected void compute() {
+			if(to - from > ROW_BLOCK) {
+				int mid = (from + to) >>> 1;
+				mid = from + (mid - from + ROW_BLOCK - 1) / ROW_BLOCK * ROW_BLOCK;
+
+				invokeAll(new RowTask(a, aOffset, aStride, panels, c, cOffset, cStride, from, mid, inner, columns),
+						new RowTask(a, aOffset, aStride, panels, c, cOffset, cStride, mid, to, inner, columns));
+				return;
+			}
+
+			multiplyRows(a, aOffset, aStride, panels, c, cOffset, cStride, from, to, inner, columns);
+		}
+	}
+
+}
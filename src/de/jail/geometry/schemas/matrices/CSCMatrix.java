@@ -0,0 +1,79 @@
+package de.jail.geometry.schemas.matrices;
+
+/**
+ * This class represents a sparse matrix in compressed sparse column format. The entries of column {@code j} are
+ * stored at positions {@code pointers[j]} to {@code pointers[j + 1] - 1}, sorted by their row. Products with vectors
+ * and dense matrices add the entries of a column to the rows of the product.
+ *
+ * @author Christian Vogel
+ */
+public class CSCMatrix extends SparseMatrix {
+
+	/**
+	 * Initializes a sparse matrix which uses the given arrays as storage, they are not copied.
+	 *
+	 * @param row_order number of rows of the matrix
+	 * @param column_order number of columns of the matrix
+	 * @param columnPointers first position of every column, followed by the number of entries
+	 * @param rowIndices row of every entry, strictly increasing within a column
+	 * @param values value of every entry
+	 */
+	public CSCMatrix(final int row_order, final int column_order, final int[] columnPointers, final int[] rowIndices,
+			final double[] values) {
+		super(row_order, column_order, column_order, columnPointers, rowIndices, values, true);
+	}
+
+	CSCMatrix(final int row_order, final int column_order, final int[] columnPointers, final int[] rowIndices,
+			final double[] values, final boolean check) {
+		super(row_order, column_order, column_order, columnPointers, rowIndices, values, check);
+	}
+
+	/**
+	 * Builds a sparse matrix from triplets of row, column and value, which may be given in any order. The values
+	 * of triplets with the same row and column are added, see {@link CSRMatrix#fromTriplets}.
+	 *
+	 * @param row_order number of rows of the matrix
+	 * @param column_order number of columns of the matrix
+	 * @param rowIndices row of every triplet
+	 * @param columnIndices column of every triplet
+	 * @param values value of every triplet
+	 * @return new sparse matrix
+	 */
+	public static CSCMatrix fromTriplets(final int row_order, final int column_order, final int[] rowIndices,
+			final int[] columnIndices, final double[] values) {
+		// the rows of the transpose are the columns of the matrix
+		return CSRMatrix.fromTriplets(column_order, row_order, columnIndices, rowIndices, values).transpose();
+	}
+
+	@Override
+	final boolean isRowMajor() {
+		return false;
+	}
+
+	/**
+	 * Returns the transpose of this matrix in compressed sparse row format, which shares its storage with this
+	 * matrix.
+	 *
+	 * @return transposed matrix
+	 */
+	@Override
+	public CSRMatrix transpose() {
+		return new CSRMatrix(numberOfColumns(), numberOfRows(), getPointers(), getIndices(), getValues(), false);
+	}
+
+	/**
+	 * Converts this matrix into compressed sparse row format.
+	 *
+	 * @return new matrix with the same entries
+	 */
+	public CSRMatrix toCSR() {
+		int[] rowPointers = new int[numberOfRows() + 1];
+		int[] columnIndices = new int[numberOfNonZeros()];
+		double[] values = new double[numberOfNonZeros()];
+
+		recompress(numberOfRows(), rowPointers, columnIndices, values);
+
+		return new CSRMatrix(numberOfRows(), numberOfColumns(), rowPointers, columnIndices, values, false);
+	}
+
+}
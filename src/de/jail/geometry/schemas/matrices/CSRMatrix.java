@@ -0,0 +1,216 @@
+package de.jail.geometry.schemas.matrices;
+
+import java.util.Arrays;
+
+/**
+ * This class represents a sparse matrix in compressed sparse row format. The entries of row {@code i} are stored at
+ * positions {@code pointers[i]} to {@code pointers[i + 1] - 1}, sorted by their column. Products with vectors and
+ * dense matrices read the entries of a row one after the other.
+ *
+ * @author Christian Vogel
+ */
+public class CSRMatrix extends SparseMatrix {
+
+	/**
+	 * Initializes a sparse matrix which uses the given arrays as storage, they are not copied.
+	 *
+	 * @param row_order number of rows of the matrix
+	 * @param column_order number of columns of the matrix
+	 * @param rowPointers first position of every row, followed by the number of entries
+	 * @param columnIndices column of every entry, strictly increasing within a row
+	 * @param values value of every entry
+	 */
+	public CSRMatrix(final int row_order, final int column_order, final int[] rowPointers, final int[] columnIndices,
+			final double[] values) {
+		super(row_order, column_order, row_order, rowPointers, columnIndices, values, true);
+	}
+
+	CSRMatrix(final int row_order, final int column_order, final int[] rowPointers, final int[] columnIndices,
+			final double[] values, final boolean check) {
+		super(row_order, column_order, row_order, rowPointers, columnIndices, values, check);
+	}
+
+	/**
+	 * Builds a sparse matrix from triplets of row, column and value, which may be given in any order. The values
+	 * of triplets with the same row and column are added. The triplets are sorted by two passes of a counting sort,
+	 * first by column and then by row, so the time grows linearly with the number of triplets, rows and columns.
+	 *
+	 * @param row_order number of rows of the matrix
+	 * @param column_order number of columns of the matrix
+	 * @param rowIndices row of every triplet
+	 * @param columnIndices column of every triplet
+	 * @param values value of every triplet
+	 * @return new sparse matrix
+	 */
+	public static CSRMatrix fromTriplets(final int row_order, final int column_order, final int[] rowIndices,
+			final int[] columnIndices, final double[] values) {
+		if(rowIndices == null || columnIndices == null || values == null) {
+			throw new IllegalArgumentException("indices and values must not be null");
+		}
+
+		if(rowIndices.length != columnIndices.length || rowIndices.length != values.length) {
+			throw new IllegalArgumentException("indices and values must have the same length");
+		}
+
+		if(row_order < 0 || column_order < 0) {
+			throw new IllegalArgumentException("orders must not be negative");
+		}
+
+		int count = values.length;
+
+		for(int triplet = 0; triplet < count; triplet++) {
+			if(rowIndices[triplet] < 0 || rowIndices[triplet] >= row_order || columnIndices[triplet] < 0
+					|| columnIndices[triplet] >= column_order) {
+				throw new IndexOutOfBoundsException("triplet " + triplet + " is not inside of the matrix");
+			}
+		}
+
+		// order of the triplets sorted by column
+		int[] columnPointers = new int[column_order + 1];
+
+		for(int triplet = 0; triplet < count; triplet++) {
+			columnPointers[columnIndices[triplet] + 1]++;
+		}
+
+		for(int column = 0; column < column_order; column++) {
+			columnPointers[column + 1] += columnPointers[column];
+		}
+
+		int[] byColumn = new int[count];
+
+		for(int triplet = 0; triplet < count; triplet++) {
+			byColumn[columnPointers[columnIndices[triplet]]++] = triplet;
+		}
+
+		// stable sort by row, so the columns of every row are increasing
+		int[] rowPointers = new int[row_order + 1];
+
+		for(int triplet = 0; triplet < count; triplet++) {
+			rowPointers[rowIndices[triplet] + 1]++;
+		}
+
+		for(int row = 0; row < row_order; row++) {
+			rowPointers[row + 1] += rowPointers[row];
+		}
+
+		int[] next = new int[row_order];
+		System.arraycopy(rowPointers, 0, next, 0, row_order);
+
+		int[] indices = new int[count];
+		double[] entries = new double[count];
+
+		for(int position = 0; position < count; position++) {
+			int triplet = byColumn[position];
+			int target = next[rowIndices[triplet]]++;
+
+			indices[target] = columnIndices[triplet];
+			entries[target] = values[triplet];
+		}
+
+		// add the values of duplicates
+		int size = 0;
+
+		for(int row = 0; row < row_order; row++) {
+			int start = size;
+
+			for(int position = rowPointers[row]; position < rowPointers[row + 1]; position++) {
+				if(size > start && indices[size - 1] == indices[position]) {
+					entries[size - 1] += entries[position];
+				} else {
+					indices[size] = indices[position];
+					entries[size] = entries[position];
+					size++;
+				}
+			}
+
+			rowPointers[row] = start;
+		}
+
+		rowPointers[row_order] = size;
+
+		if(size < count) {
+			indices = Arrays.copyOf(indices, size);
+			entries = Arrays.copyOf(entries, size);
+		}
+
+		return new CSRMatrix(row_order, column_order, rowPointers, indices, entries, false);
+	}
+
+	/**
+	 * Builds a sparse matrix from the non-zero entries of a dense matrix.
+	 *
+	 * @param matrix the dense matrix
+	 * @return new sparse matrix
+	 */
+	public static CSRMatrix fromDense(final Matrix matrix) {
+		if(matrix == null || !matrix.hasData()) {
+			throw new IllegalArgumentException("matrix must not be null and must have data");
+		}
+
+		int rows = matrix.numberOfRows();
+		int columns = matrix.numberOfColumns();
+		int[] rowPointers = new int[rows + 1];
+
+		for(int row = 0; row < rows; row++) {
+			int count = 0;
+
+			for(int column = 0; column < columns; column++) {
+				if(matrix.getElementAt(row, column) != 0) {
+					count++;
+				}
+			}
+
+			rowPointers[row + 1] = rowPointers[row] + count;
+		}
+
+		int[] indices = new int[rowPointers[rows]];
+		double[] values = new double[rowPointers[rows]];
+		int position = 0;
+
+		for(int row = 0; row < rows; row++) {
+			for(int column = 0; column < columns; column++) {
+				double value = matrix.getElementAt(row, column);
+
+				if(value != 0) {
+					indices[position] = column;
+					values[position] = value;
+					position++;
+				}
+			}
+		}
+
+		return new CSRMatrix(rows, columns, rowPointers, indices, values, false);
+	}
+
+	@Override
+	final boolean isRowMajor() {
+		return true;
+	}
+
+	/**
+	 * Returns the transpose of this matrix in compressed sparse column format, which shares its storage with this
+	 * matrix.
+	 *
+	 * @return transposed matrix
+	 */
+	@Override
+	public CSCMatrix transpose() {
+		return new CSCMatrix(numberOfColumns(), numberOfRows(), getPointers(), getIndices(), getValues(), false);
+	}
+
+	/**
+	 * Converts this matrix into compressed sparse column format.
+	 *
+	 * @return new matrix with the same entries
+	 */
+	public CSCMatrix toCSC() {
+		int[] columnPointers = new int[numberOfColumns() + 1];
+		int[] rowIndices = new int[numberOfNonZeros()];
+		double[] values = new double[numberOfNonZeros()];
+
+		recompress(numberOfColumns(), columnPointers, rowIndices, values);
+
+		return new CSCMatrix(numberOfRows(), numberOfColumns(), columnPointers, rowIndices, values, false);
+	}
+
+}
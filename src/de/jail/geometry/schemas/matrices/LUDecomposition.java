@@ -0,0 +1,407 @@
+package de.jail.geometry.schemas.matrices;
+
+import java.util.concurrent.ForkJoinPool;
+
+import de.jail.exceptions.MatrixException;
+
+/**
+ * This class represents the LU decomposition of a square matrix with partial pivoting. The rows of the matrix A are
+ * permuted by P, so that {@code PA = LU}, where L is a lower triangular matrix with ones on the diagonal and U is an
+ * upper triangular matrix. Once computed, the decomposition gives the determinant in O(n) and solves linear
+ * equations in O(n^2) for every right side.
+ * <p>
+ * Small matrices are decomposed column by column, where every step subtracts a multiple of the pivot row from all
+ * rows below. From an order of {@value #BLOCKED_THRESHOLD} on, the decomposition works on blocks of
+ * {@value #BLOCK_SIZE} columns: a block is decomposed column by column, then the rows of U right of the block are
+ * computed and finally the product of both is subtracted from the remaining matrix with
+ * {@link BlockedMultiplication}, which does most of the work and runs in parallel.
+ * </p>
+ *
+ * @author Christian Vogel
+ */
+public class LUDecomposition {
+
+	/** order from which on the blocked algorithm is used */
+	private static final int BLOCKED_THRESHOLD = 256;
+
+	/** number of columns which are decomposed at once by the blocked algorithm */
+	private static final int BLOCK_SIZE = 64;
+
+	/** L without its diagonal and U, row by row */
+	private final double[] lu;
+
+	/** original row of every row of the decomposition */
+	private final int[] pivot;
+
+	private final int order;
+
+	private int pivotSign = 1;
+
+	private boolean singular = false;
+
+	/**
+	 * Decomposes a square matrix. Large matrices are decomposed in parallel on the common {@link ForkJoinPool}.
+	 *
+	 * @param matrix the matrix to decompose, it is not changed
+	 */
+	public LUDecomposition(final Matrix matrix) {
+		this(matrix, ForkJoinPool.commonPool());
+	}
+
+	/**
+	 * Decomposes a square matrix.
+	 *
+	 * @param matrix the matrix to decompose, it is not changed
+	 * @param pool pool which computes the updates of large matrices in parallel, or {@code null} to decompose the
+	 * matrix in the calling thread
+	 */
+	public LUDecomposition(final Matrix matrix, final ForkJoinPool pool) {
+		if(matrix == null || !matrix.hasData()) {
+			throw new IllegalArgumentException("matrix must not be null and must have data");
+		}
+
+		if(matrix.numberOfRows() != matrix.numberOfColumns()) {
+			throw new IllegalArgumentException("only square matrices can be decomposed");
+		}
+
+		order = matrix.numberOfRows();
+		lu = matrix.clone().getArray();
+		pivot = new int[order];
+
+		for(int i = 0; i < order; i++) {
+			pivot[i] = i;
+		}
+
+		if(order >= BLOCKED_THRESHOLD) {
+			decomposeBlocked(pool);
+		} else {
+			decomposeColumns(0, order);
+		}
+	}
+
+	/**
+	 * Decomposes the columns {@code [from, to)} of the rows below {@code from}. The pivot rows are swapped as a
+	 * whole, but only the columns of the range are updated.
+	 */
+	private void decomposeColumns(final int from, final int to) {
+		for(int j = from; j < to; j++) {
+			int pivotRow = j;
+			double max = Math.abs(lu[j * order + j]);
+
+			for(int i = j + 1; i < order; i++) {
+				double value = Math.abs(lu[i * order + j]);
+
+				if(value > max) {
+					max = value;
+					pivotRow = i;
+				}
+			}
+
+			if(pivotRow != j) {
+				swapRows(pivotRow, j);
+			}
+
+			int diagonalRow = j * order;
+			double diagonal = lu[diagonalRow + j];
+
+			if(diagonal == 0) {
+				singular = true;
+				continue;
+			}
+
+			for(int i = j + 1; i < order; i++) {
+				int row = i * order;
+				double factor = lu[row + j] / diagonal;
+				lu[row + j] = factor;
+
+				if(factor != 0) {
+					for(int column = j + 1; column < to; column++) {
+						lu[row + column] -= factor * lu[diagonalRow + column];
+					}
+				}
+			}
+		}
+	}
+
+	private void decomposeBlocked(final ForkJoinPool pool) {
+		double[] negatedLower = new double[order * BLOCK_SIZE];
+
+		for(int from = 0; from < order; from += BLOCK_SIZE) {
+			int to = Math.min(from + BLOCK_SIZE, order);
+
+			decomposeColumns(from, to);
+
+			if(to == order) {
+				break;
+			}
+
+			// rows of U right of the block: solve with the unit lower triangle of the block
+			for(int i = from + 1; i < to; i++) {
+				int row = i * order;
+
+				for(int r = from; r < i; r++) {
+					double factor = lu[row + r];
+
+					if(factor != 0) {
+						int upperRow = r * order;
+
+						for(int column = to; column < order; column++) {
+							lu[row + column] -= factor * lu[upperRow + column];
+						}
+					}
+				}
+			}
+
+			// remaining matrix minus the product of L below the block and U right of the block
+			int rows = order - to;
+			int width = to - from;
+
+			for(int i = 0; i < rows; i++) {
+				int row = (to + i) * order + from;
+
+				for(int r = 0; r < width; r++) {
+					negatedLower[i * width + r] = -lu[row + r];
+				}
+			}
+
+			BlockedMultiplication.multiplyAdd(negatedLower, 0, width, lu, from * order + to, order, lu,
+					to * order + to, order, rows, width, rows, pool);
+		}
+	}
+
+	private void swapRows(final int first, final int second) {
+		int firstRow = first * order;
+		int secondRow = second * order;
+
+		for(int column = 0; column < order; column++) {
+			double value = lu[firstRow + column];
+			lu[firstRow + column] = lu[secondRow + column];
+			lu[secondRow + column] = value;
+		}
+
+		int row = pivot[first];
+		pivot[first] = pivot[second];
+		pivot[second] = row;
+
+		pivotSign = -pivotSign;
+	}
+
+	/**
+	 * Returns the order of the decomposed matrix.
+	 *
+	 * @return number of rows and columns
+	 */
+	public int getOrder() {
+		return order;
+	}
+
+	/**
+	 * Returns whether the decomposed matrix is singular, which means that U has a zero on its diagonal.
+	 *
+	 * @return {@code true} if the matrix is singular, otherwise {@code false}
+	 */
+	public boolean isSingular() {
+		return singular;
+	}
+
+	/**
+	 * Returns the permutation of the rows, row {@code i} of PA is row {@code getPivot()[i]} of A.
+	 *
+	 * @return copy of the permutation
+	 */
+	public int[] getPivot() {
+		return pivot.clone();
+	}
+
+	/**
+	 * Returns the lower triangular matrix L, which has ones on its diagonal.
+	 *
+	 * @return new matrix containing L
+	 */
+	public SquareMatrix getLower() {
+		double[] values = new double[order * order];
+
+		for(int i = 0; i < order; i++) {
+			System.arraycopy(lu, i * order, values, i * order, i);
+			values[i * order + i] = 1;
+		}
+
+		return new SquareMatrix(values, order);
+	}
+
+	/**
+	 * Returns the upper triangular matrix U.
+	 *
+	 * @return new matrix containing U
+	 */
+	public SquareMatrix getUpper() {
+		double[] values = new double[order * order];
+
+		for(int i = 0; i < order; i++) {
+			System.arraycopy(lu, i * order + i, values, i * order + i, order - i);
+		}
+
+		return new SquareMatrix(values, order);
+	}
+
+	/**
+	 * Calculates the determinant of the decomposed matrix, which is the product of the diagonal of U with the sign
+	 * of the permutation.
+	 *
+	 * @return determinant of the matrix
+	 */
+	public double determinant() {
+		double determinant = pivotSign;
+
+		for(int i = 0; i < order; i++) {
+			determinant *= lu[i * order + i];
+		}
+
+		return determinant;
+	}
+
+	/**
+	 * Solves the linear equation {@code Ax = b}.
+	 *
+	 * @param b right side of the equation
+	 * @return new array containing the solution x
+	 * @throws MatrixException thrown if the matrix is singular or the length of b is not the order of the matrix
+	 */
+	public double[] solve(final double[] b) throws MatrixException {
+		if(b == null) {
+			throw new MatrixException("argument cannot be null");
+		}
+
+		if(b.length != order) {
+			throw new MatrixException("length of the right side should be the order of the matrix");
+		}
+
+		if(singular) {
+			throw new MatrixException("matrix is singular");
+		}
+
+		double[] x = new double[order];
+
+		for(int i = 0; i < order; i++) {
+			double value = b[pivot[i]];
+			int row = i * order;
+
+			for(int r = 0; r < i; r++) {
+				value -= lu[row + r] * x[r];
+			}
+
+			x[i] = value;
+		}
+
+		for(int i = order - 1; i >= 0; i--) {
+			double value = x[i];
+			int row = i * order;
+
+			for(int column = i + 1; column < order; column++) {
+				value -= lu[row + column] * x[column];
+			}
+
+			x[i] = value / lu[row + i];
+		}
+
+		return x;
+	}
+
+	/**
+	 * Solves the linear equation {@code AX = B} for a matrix B with several columns.
+	 *
+	 * @param b right side of the equation, whose number of rows is the order of the matrix
+	 * @return new matrix containing the solution X
+	 * @throws MatrixException thrown if the matrix is singular or B has the wrong number of rows
+	 */
+	public Matrix solve(final Matrix b) throws MatrixException {
+		if(b == null || !b.hasData()) {
+			throw new MatrixException("argument cannot be null");
+		}
+
+		if(b.numberOfRows() != order) {
+			throw new MatrixException("number of rows of the right side should be the order of the matrix");
+		}
+
+		int columns = b.numberOfColumns();
+		double[] x = new double[order * columns];
+
+		for(int i = 0; i < order; i++) {
+			for(int column = 0; column < columns; column++) {
+				x[i * columns + column] = b.getElementAt(pivot[i], column);
+			}
+		}
+
+		solveInPlace(x, columns);
+
+		return new Matrix(x, order, columns);
+	}
+
+	/**
+	 * Calculates the inverse of the decomposed matrix by solving {@code AX = I}.
+	 *
+	 * @return new matrix containing the inverse
+	 * @throws MatrixException thrown if the matrix is singular
+	 */
+	public SquareMatrix inverse() throws MatrixException {
+		double[] x = new double[order * order];
+
+		for(int i = 0; i < order; i++) {
+			x[i * order + pivot[i]] = 1;
+		}
+
+		solveInPlace(x, order);
+
+		return new SquareMatrix(x, order);
+	}
+
+	/**
+	 * Solves {@code LUX = Y} for the rows of Y, which are already permuted, and overwrites Y with X.
+	 */
+	private void solveInPlace(final double[] x, final int columns) throws MatrixException {
+		if(singular) {
+			throw new MatrixException("matrix is singular");
+		}
+
+		for(int i = 0; i < order; i++) {
+			int row = i * order;
+			int target = i * columns;
+
+			for(int r = 0; r < i; r++) {
+				double factor = lu[row + r];
+
+				if(factor != 0) {
+					int source = r * columns;
+
+					for(int column = 0; column < columns; column++) {
+						x[target + column] -= factor * x[source + column];
+					}
+				}
+			}
+		}
+
+		for(int i = order - 1; i >= 0; i--) {
+			int row = i * order;
+			int target = i * columns;
+
+			for(int r = i + 1; r < order; r++) {
+				double factor = lu[row + r];
+
+				if(factor != 0) {
+					int source = r * columns;
+
+					for(int column = 0; column < columns; column++) {
+						x[target + column] -= factor * x[source + column];
+					}
+				}
+			}
+
+			double diagonal = lu[row + i];
+
+			for(int column = 0; column < columns; column++) {
+				x[target + column] /= diagonal;
+			}
+		}
+	}
+
+}
@@ -3,6 +3,9 @@
  */
 package de.jail.geometry.schemas.matrices;
 
+import java.util.Arrays;
+import java.util.concurrent.ForkJoinPool;
+
 import de.jail.exceptions.MatrixException;
 import de.jail.utils.HashCodeUtil;
 
@@ -17,12 +20,27 @@ import de.jail.utils.HashCodeUtil;
  * <p>
  * Data inside the matrix will be double.
  * </p>
+ * <p>
+ * The elements are stored in a single flat array. The element in row
+ * {@code i} and column {@code j} is located at position
+ * {@code offset + i * rowStride + j * columnStride}, so a new matrix stores
+ * its rows one after the other, while a transposed matrix only swaps both
+ * strides. Rows, columns, sub matrices and transposes are returned as views,
+ * which share the array with this matrix and copy nothing.
+ * </p>
  * 
  * @author Christian Vogel
  */
 public class Matrix implements Cloneable {
 	
-	private double[][] data;
+	/** number of multiplications from which on a product is computed by {@link BlockedMultiplication} */
+	private static final long BLOCKED_MULTIPLY_THRESHOLD = 64L * 64 * 64;
+	
+	private double[] values;
+
+	private int offset = 0;
+	private int rowStride = 0;
+	private int columnStride = 0;
 	
 	private int row_order = 0;
 	private int column_order = 0;
@@ -39,18 +57,47 @@ public class Matrix implements Cloneable {
 	 * @param column_order defines how much columns are possible in the matrix
 	 */
 	public Matrix(final int row_order, final int column_order) {
-		try {
-			this.row_order = row_order;
-			this.column_order = column_order;
+		if(row_order < 0 || column_order < 0) {
+			throw new IllegalArgumentException("orders must not be negative");
+		}
 			
-			setData(new double[row_order][column_order]);
-		} catch (MatrixException e) {
-			e.printStackTrace();
+		setStorage(new double[row_order * column_order], 0, row_order, column_order, column_order, 1);
+	}
+
+	/**
+	 * Initialize a mxn matrix which uses the given array as storage, the rows
+	 * are expected one after the other. The array is not copied, so changes of
+	 * the array are visible in the matrix and vice versa.
+	 *
+	 * @param values the elements of the matrix row by row
+	 * @param row_order number of rows of the matrix
+	 * @param column_order number of columns of the matrix
+	 */
+	public Matrix(final double[] values, final int row_order, final int column_order) {
+		if(values == null) {
+			throw new IllegalArgumentException("values must not be null");
 		}
+
+		if(row_order < 0 || column_order < 0 || (long)row_order * column_order != values.length) {
+			throw new IllegalArgumentException("length of values has to be the product of both orders");
+		}
+
+		setStorage(values, 0, row_order, column_order, column_order, 1);
 	}
 
 	/**
-	 * Sets a new matrix with default initializing fields.
+	 * Initialize a view on the storage of another matrix.
+	 */
+	private Matrix(final double[] values, final int offset, final int row_order, final int column_order,
+			final int rowStride, final int columnStride) {
+		setStorage(values, offset, row_order, column_order, rowStride, columnStride);
+	}
+
+	/**
+	 * Sets a new matrix with default initializing fields. The data is copied
+	 * into the storage of this matrix, so later changes of the array are not
+	 * visible in the matrix. If this matrix was a view, it gets its own storage
+	 * afterwards.
 	 * 
 	 * @param data the field data in a matrix
 	 * @throws MatrixException thrown if the setting process fails
@@ -60,17 +107,48 @@ public class Matrix implements Cloneable {
 			throw new NullPointerException("data cannot be null");
 		}
 		
+		int rows = row_order;
+		int columns = column_order;
+
 		if(row_order != 0 && column_order != 0) {		
 			if(data.length != row_order || data[0].length != column_order) {
 				throw new MatrixException("The dimension of data should be the same as the order for the matrix!");
 			}
 		} else {
-			row_order = data.length;
-			column_order = data[0].length;
+			rows = data.length;
+			columns = data[0].length;
 		}
 		
-		this.data = data;
+		double[] newValues = new double[rows * columns];
+
+		for(int row = 0; row < rows; row++) {
+			if(data[row].length != columns) {
+				throw new MatrixException("All rows of data should have the same number of columns!");
+			}
+
+			System.arraycopy(data[row], 0, newValues, row * columns, columns);
+		}
+
+		setStorage(newValues, 0, rows, columns, columns, 1);
+		modified();
 	}
+
+	private void setStorage(final double[] values, final int offset, final int row_order, final int column_order,
+			final int rowStride, final int columnStride) {
+		this.values = values;
+		this.offset = offset;
+		this.row_order = row_order;
+		this.column_order = column_order;
+		this.rowStride = rowStride;
+		this.columnStride = columnStride;
+	}
+
+	/**
+	 * Called after the elements or the shape of this matrix were changed by one of its methods, so subclasses can
+	 * drop values which they derived from the elements. Changes through views or the array of the storage are not
+	 * noticed.
+	 */
+	protected void modified() {}
 	
 	/**
 	 * Returns the number of rows.
@@ -91,13 +169,82 @@ public class Matrix implements Cloneable {
 	}
 	
 	/**
-	 * Gets all entries stored in the matrix.
+	 * Gets all entries stored in the matrix. The entries are copied into a
+	 * new two dimensional array, so changes of the array are not visible in
+	 * the matrix.
 	 * 
-	 * @return the data in a matrix
+	 * @return the data in a matrix, or {@code null} if the matrix has no data
 	 */
 	public final double[][] getElements() {
+		if(values == null) {
+			return null;
+		}
+
+		double[][] data = new double[row_order][column_order];
+
+		for(int row = 0; row < row_order; row++) {
+			int index = offset + row * rowStride;
+
+			for(int column = 0; column < column_order; column++, index += columnStride) {
+				data[row][column] = values[index];
+			}
+		}
+
 		return data;
 	}
+
+	/**
+	 * Returns whether the matrix has data, which is not the case for a matrix
+	 * created by the default constructor before {@link #setData(double[][])}
+	 * was called.
+	 *
+	 * @return {@code true} if the matrix has data, otherwise {@code false}
+	 */
+	public final boolean hasData() {
+		return values != null;
+	}
+
+	/**
+	 * Returns the flat array in which the elements are stored. The array may
+	 * be shared with other matrices and may contain elements which do not
+	 * belong to this matrix, see {@link #getOffset()}, {@link #getRowStride()}
+	 * and {@link #getColumnStride()}.
+	 *
+	 * @return the storage of the matrix
+	 */
+	public final double[] getArray() {
+		return values;
+	}
+
+	/**
+	 * Returns the position of the element in the first row and column in
+	 * {@link #getArray()}.
+	 *
+	 * @return position of the first element
+	 */
+	public final int getOffset() {
+		return offset;
+	}
+
+	/**
+	 * Returns the distance between two elements of neighboring rows in
+	 * {@link #getArray()}.
+	 *
+	 * @return distance between two rows
+	 */
+	public final int getRowStride() {
+		return rowStride;
+	}
+
+	/**
+	 * Returns the distance between two elements of neighboring columns in
+	 * {@link #getArray()}.
+	 *
+	 * @return distance between two columns
+	 */
+	public final int getColumnStride() {
+		return columnStride;
+	}
 	
 	/**
 	 * Gets a specific entry out of the matrix.
@@ -109,15 +256,91 @@ public class Matrix implements Cloneable {
 	 * @author Christian Vogel
 	 */
 	public final double getElementAt(int row, int column) {
-		if(row > numberOfRows()) {
-			throw new IndexOutOfBoundsException("row should be not greater than the number of rows in the matrix");
+		return values[indexOf(row, column)];
+	}
+
+	/**
+	 * Sets a specific entry of the matrix.
+	 *
+	 * @param row specify the row of the entry
+	 * @param column specify the column of the entry
+	 * @param value new value of the entry
+	 */
+	public void setElementAt(int row, int column, double value) {
+		values[indexOf(row, column)] = value;
+		modified();
+	}
+
+	private int indexOf(final int row, final int column) {
+		if(row < 0 || row >= numberOfRows()) {
+			throw new IndexOutOfBoundsException("row should be smaller than the number of rows in the matrix");
 		}
 		
-		if(column > numberOfColumns()) {
-			throw new IndexOutOfBoundsException("column should be not greater than the number of columns in the matrix");
+		if(column < 0 || column >= numberOfColumns()) {
+			throw new IndexOutOfBoundsException("column should be smaller than the number of columns in the matrix");
 		}
 		
-		return data[row][column];
+		return offset + row * rowStride + column * columnStride;
+	}
+
+	/**
+	 * Returns a single row of the matrix as 1-by-n matrix. The row is a view
+	 * which shares its elements with this matrix.
+	 *
+	 * @param row position of the row
+	 * @return view on the row
+	 */
+	public final Matrix row(int row) {
+		return subMatrix(row, 0, 1, column_order);
+	}
+
+	/**
+	 * Returns a single column of the matrix as m-by-1 matrix. The column is a
+	 * view which shares its elements with this matrix.
+	 *
+	 * @param column position of the column
+	 * @return view on the column
+	 */
+	public final Matrix column(int column) {
+		return subMatrix(0, column, row_order, 1);
+	}
+
+	/**
+	 * Returns a rectangular part of the matrix. The part is a view which shares
+	 * its elements with this matrix.
+	 *
+	 * @param row first row of the part
+	 * @param column first column of the part
+	 * @param rows number of rows of the part
+	 * @param columns number of columns of the part
+	 * @return view on the part
+	 */
+	public final Matrix subMatrix(int row, int column, int rows, int columns) {
+		if(values == null) {
+			throw new IllegalStateException("matrix has no data");
+		}
+
+		if(row < 0 || rows < 0 || row + rows > row_order || column < 0 || columns < 0
+				|| column + columns > column_order) {
+			throw new IndexOutOfBoundsException("part is not inside of the matrix");
+		}
+
+		return new Matrix(values, offset + row * rowStride + column * columnStride, rows, columns, rowStride,
+				columnStride);
+	}
+
+	/**
+	 * Returns the transpose of this matrix as view which shares its elements
+	 * with this matrix. Only the strides of the view are swapped.
+	 *
+	 * @return transposed view on this matrix
+	 */
+	public final Matrix transposed() {
+		if(values == null) {
+			throw new IllegalStateException("matrix has no data");
+		}
+
+		return new Matrix(values, offset, column_order, row_order, columnStride, rowStride);
 	}
 	
 	/**
@@ -126,25 +349,19 @@ public class Matrix implements Cloneable {
 	 * The transpose of a m-by-n matrix A is the n-by-m matrix 
 	 * formed by turning rows into columns and vice versa.
 	 * </p>
+	 * <p>
+	 * Only the orders and strides are swapped, the elements are not moved.
+	 * </p>
 	 * 
 	 * @author Christian Vogel
 	 */
 	public final void transpose() throws MatrixException {
-		double[][] normalData = getElements();
-		
-		if(normalData == null) {
+		if(values == null) {
 			throw new MatrixException("data cannot be null");
 		}
 		
-		double[][] transposeData = new double[data.length][data[0].length];
-			
-		for(int i = 0; i < normalData.length; i++) {			
-			for(int j = 0; j < normalData[i].length; j++) {
-				transposeData[i][j] = normalData[j][i];
-			}
-		}
-			
-		setData(transposeData);
+		setStorage(values, offset, column_order, row_order, columnStride, rowStride);
+		modified();
 	}
 	
 	/**
@@ -159,24 +376,22 @@ public class Matrix implements Cloneable {
 	 * @author Christian Vogel
 	 */
 	public final Matrix multiply(double scalar) throws MatrixException {
-		Matrix newMatrix = new Matrix(row_order, column_order);
-		
-		double[][] normalData = getElements();
-		
-		if(normalData == null) {
+		if(values == null) {
 			throw new MatrixException("data cannot be null");
 		}
 		
-		double[][] newData = new double[row_order][column_order];
+		Matrix newMatrix = new Matrix(row_order, column_order);
+		double[] newValues = newMatrix.values;
 		
-		for(int row = 0; row < normalData.length; row++) {			
-			for(int column = 0; column < normalData[row].length; column++) {
-				newData[row][column] = normalData[row][column] * scalar;
+		for(int row = 0; row < row_order; row++) {
+			int index = offset + row * rowStride;
+			int target = row * column_order;
+
+			for(int column = 0; column < column_order; column++, index += columnStride) {
+				newValues[target + column] = values[index] * scalar;
 			}
 		}
 		
-		newMatrix.setData(newData);
-		
 		return newMatrix;
 	}
 	
@@ -186,6 +401,10 @@ public class Matrix implements Cloneable {
 	 * If A is an m-by-n matrix and B is an n-by-p matrix, then their matrix 
 	 * product AB is the m-by-p matrix whose entries are given by dot-product 
 	 * of the corresponding row of A and the corresponding column of B.
+	 * <p>
+	 * Large products are computed in parallel on the common {@link ForkJoinPool}, 
+	 * see {@link #multiply(Matrix, ForkJoinPool)}.
+	 * </p>
 	 * 
 	 * @param arg represents matrix B
 	 * @return a new instance of the multiplied matrix
@@ -194,11 +413,26 @@ public class Matrix implements Cloneable {
 	 * @author Christian Vogel
 	 */
 	public final Matrix multiply(Matrix arg) throws MatrixException {
-		Matrix newMatrix = new Matrix();
-		
-		double[][] normalData = getElements();
-		
-		if(normalData == null) {
+		return multiply(arg, ForkJoinPool.commonPool());
+	}
+	
+	/**
+	 * Multiplies this matrix with matrix B like {@link #multiply(Matrix)}. 
+	 * From {@value #BLOCKED_MULTIPLY_THRESHOLD} multiplications on, the product
+	 * is computed in cache sized blocks, where blocks of rows are computed in
+	 * parallel on the given pool. Operands whose columns are not neighbors in
+	 * the storage, like transposed views, are copied into rows first. The
+	 * entries of the result are summed in the same order as in the simple
+	 * algorithm, so both give exactly the same result.
+	 * 
+	 * @param arg represents matrix B
+	 * @param pool pool which computes the blocks of rows, or {@code null} to 
+	 * compute the product in the calling thread
+	 * @return a new instance of the multiplied matrix
+	 * @throws MatrixException thrown if multiplying fails
+	 */
+	public final Matrix multiply(Matrix arg, ForkJoinPool pool) throws MatrixException {
+		if(values == null) {
 			throw new MatrixException("data cannot be null");
 		}
 		
@@ -206,29 +440,101 @@ public class Matrix implements Cloneable {
 			throw new MatrixException("argument cannot be null");
 		}
 		
-		double[][] argMatrix = arg.getElements();
+		Matrix newMatrix = new Matrix(row_order, arg.column_order);
+		multiplyInto(this, arg, newMatrix, pool);
+		
+		return newMatrix;
+	}
+	
+	/**
+	 * Computes the product of matrix A and B like {@link #multiply(Matrix)}, 
+	 * but writes it into an existing matrix instead of creating a new one. 
+	 * Large products are computed in parallel on the common 
+	 * {@link ForkJoinPool}.
+	 * 
+	 * @param a represents matrix A
+	 * @param b represents matrix B
+	 * @param out matrix into which the product is written, it must not share 
+	 * its storage with A or B
+	 * @throws MatrixException thrown if multiplying fails
+	 */
+	public static void multiplyInto(Matrix a, Matrix b, Matrix out) throws MatrixException {
+		multiplyInto(a, b, out, ForkJoinPool.commonPool());
+	}
+	
+	/**
+	 * Computes the product of matrix A and B like 
+	 * {@link #multiply(Matrix, ForkJoinPool)}, but writes it into an existing 
+	 * matrix instead of creating a new one. No memory is allocated, except for
+	 * copies of operands whose columns are not neighbors in the storage and 
+	 * for the first product of a thread, see {@link BlockedMultiplication}.
+	 * 
+	 * @param a represents matrix A
+	 * @param b represents matrix B
+	 * @param out matrix into which the product is written, it must not share 
+	 * its storage with A or B
+	 * @param pool pool which computes the blocks of rows, or {@code null} to
+	 * compute the product in the calling thread
+	 * @throws MatrixException thrown if multiplying fails
+	 */
+	public static void multiplyInto(Matrix a, Matrix b, Matrix out, ForkJoinPool pool) throws MatrixException {
+		if(a == null || b == null || out == null) {
+			throw new MatrixException("arguments cannot be null");
+		}
+		
+		if(a.values == null || b.values == null || out.values == null) {
+			throw new MatrixException("data cannot be null");
+		}
 		
-		if(normalData[0].length != argMatrix.length) {
+		if(a.column_order != b.row_order) {
 			throw new MatrixException("number of columns in matrix A should be the same as the number of rows in matrix B");
 		}
 		
-		double[][] newData = new double[normalData.length][argMatrix[0].length];
+		if(out.row_order != a.row_order || out.column_order != b.column_order) {
+			throw new MatrixException("result should have the number of rows of matrix A and the number of columns of matrix B");
+		}
+		
+		if(out.values == a.values || out.values == b.values) {
+			throw new MatrixException("result must not share its storage with an operand");
+		}
+		
+		int rows = a.row_order;
+		int inner = a.column_order;
+		int columns = b.column_order;
+		
+		out.fill(0);
+		
+		double[] outValues = out.values;
+		
+		if((long)rows * inner * columns >= BLOCKED_MULTIPLY_THRESHOLD && out.columnStride == 1) {
+			Matrix left = a.columnStride == 1 ? a : a.clone();
+			Matrix right = b.columnStride == 1 ? b : b.clone();
+			
+			BlockedMultiplication.multiplyAdd(left.values, left.offset, left.rowStride, right.values, right.offset, 
+					right.rowStride, outValues, out.offset, out.rowStride, rows, inner, columns, pool);
+			
+			return;
+		}
 		
-		for(int i = 0; i < normalData.length; i++) {
-			for(int j = 0; j < argMatrix[0].length; j++) {
-				double value = 0;
+		double[] aValues = a.values;
+		double[] bValues = b.values;
+		
+		for(int i = 0; i < rows; i++) {
+			int target = out.offset + i * out.rowStride;
 				
-				for(int r = 0; r < normalData[0].length; r++) {
-					value += normalData[i][r] * argMatrix[r][j];				
+			for(int r = 0; r < inner; r++) {
+				double value = aValues[a.offset + i * a.rowStride + r * a.columnStride];
+				int index = b.offset + r * b.rowStride;
+				int outIndex = target;
+
+				for(int j = 0; j < columns; j++) {
+					outValues[outIndex] += value * bValues[index];
+					
+					index += b.columnStride;
+					outIndex += out.columnStride;
 				}
-				
-				newData[i][j] = value;
 			}
 		}
-		
-		newMatrix.setData(newData);
-		
-		return newMatrix;
 	}
 	
 	/**
@@ -243,11 +549,7 @@ public class Matrix implements Cloneable {
 	 * @throws MatrixException thrown if aggregating fails
 	 */
 	public final Matrix aggregate(Matrix arg) throws MatrixException {
-		Matrix newMatrix = new Matrix();
-		
-		double[][] normalData = getElements();
-		
-		if(normalData == null) {
+		if(values == null) {
 			throw new MatrixException("data cannot be null");
 		}
 		
@@ -255,24 +557,130 @@ public class Matrix implements Cloneable {
 			throw new MatrixException("argument cannot be null");
 		}
 
-		double[][] argMatrix = arg.getElements();
+		if(row_order != arg.row_order || column_order != arg.column_order) {
+			throw new MatrixException("both matrices should have the same number of rows and columns");
+		}
 		
-		if(normalData.length != argMatrix.length
-				&& normalData[0].length != argMatrix[0].length) {
-			throw new MatrixException("number of columns in matrix A should be the same as the number of rows in matrix B");
+		Matrix newMatrix = new Matrix(row_order, column_order);
+		double[] newValues = newMatrix.values;
+		double[] argValues = arg.values;
+		
+		for(int row = 0; row < row_order; row++) {
+			int index = offset + row * rowStride;
+			int argIndex = arg.offset + row * arg.rowStride;
+			int target = row * column_order;
+
+			for(int column = 0; column < column_order; column++) {
+				newValues[target + column] = values[index] + argValues[argIndex];
+
+				index += columnStride;
+				argIndex += arg.columnStride;
+			}
+		}
+		
+		return newMatrix;
+	}
+	
+	/**
+	 * Adds matrix B to this matrix, so this matrix contains the sum A+B
+	 * afterwards. Like {@link #aggregate(Matrix)}, but without creating a new
+	 * matrix.
+	 * 
+	 * @param arg represents matrix B
+	 * @throws MatrixException thrown if adding fails
+	 */
+	public final void addInPlace(Matrix arg) throws MatrixException {
+		axpy(1, arg);
+	}
+	
+	/**
+	 * Multiplies every entry of this matrix by a scalar. Like 
+	 * {@link #multiply(double)}, but without creating a new matrix.
+	 * 
+	 * @param scalar represents the multiplier
+	 * @throws MatrixException thrown if multiplying fails
+	 */
+	public final void scaleInPlace(double scalar) throws MatrixException {
+		if(values == null) {
+			throw new MatrixException("data cannot be null");
 		}
 		
-		double[][] newData = new double[normalData.length][normalData[0].length];
+		modified();
 		
-		for(int i = 0; i < normalData.length; i++) {
-			for(int j = 0; j < normalData[0].length; j++) {
-				newData[i][j] = normalData[i][j] + argMatrix[i][j];
+		for(int row = 0; row < row_order; row++) {
+			int index = offset + row * rowStride;
+			
+			for(int column = 0; column < column_order; column++, index += columnStride) {
+				values[index] *= scalar;
 			}
 		}
+	}
+	
+	/**
+	 * Adds a multiple of matrix X to this matrix, {@code A = A + alpha * X}, 
+	 * in a single pass over both matrices and without creating a new matrix.
+	 * 
+	 * @param alpha multiplier of matrix X
+	 * @param arg represents matrix X
+	 * @throws MatrixException thrown if adding fails
+	 */
+	public final void axpy(double alpha, Matrix arg) throws MatrixException {
+		if(values == null) {
+			throw new MatrixException("data cannot be null");
+		}
 		
-		newMatrix.setData(newData);
+		if(arg == null) {
+			throw new MatrixException("argument cannot be null");
+		}
 		
-		return newMatrix;
+		if(row_order != arg.row_order || column_order != arg.column_order) {
+			throw new MatrixException("both matrices should have the same number of rows and columns");
+		}
+		
+		// an overlapping view with another layout would read elements which are already changed
+		if(arg.values == values && (arg.offset != offset || arg.rowStride != rowStride 
+				|| arg.columnStride != columnStride)) {
+			arg = arg.clone();
+		}
+		
+		modified();
+		
+		double[] argValues = arg.values;
+		
+		for(int row = 0; row < row_order; row++) {
+			int index = offset + row * rowStride;
+			int argIndex = arg.offset + row * arg.rowStride;
+			
+			if(columnStride == 1 && arg.columnStride == 1) {
+				for(int column = 0; column < column_order; column++) {
+					values[index + column] += alpha * argValues[argIndex + column];
+				}
+			} else {
+				for(int column = 0; column < column_order; column++) {
+					values[index] += alpha * argValues[argIndex];
+					
+					index += columnStride;
+					argIndex += arg.columnStride;
+				}
+			}
+		}
+	}
+	
+	/**
+	 * Sets every entry of this matrix to the same value.
+	 * 
+	 * @param value new value of all entries
+	 */
+	public final void fill(double value) {
+		modified();
+		
+		for(int row = 0; row < row_order; row++) {
+			int index = offset + row * rowStride;
+			
+			for(int column = 0; column < column_order; column++, index += columnStride) {
+				values[index] = value;
+			}
+		}
 	}
 	
 	/**
@@ -283,14 +691,12 @@ public class Matrix implements Cloneable {
 	public String toString() {
 		StringBuilder matrixBuilder = new StringBuilder();
 		
-		for(int row = 0; row < data.length; row++) {
-			String sRow = "";
-			
-			for(int column = 0; column < data[row].length; column++) {
-				sRow += data[row][column] + " ";
+		for(int row = 0; row < row_order; row++) {
+			for(int column = 0; column < column_order; column++) {
+				matrixBuilder.append(getElementAt(row, column)).append(' ');
 			}
 			
-			matrixBuilder.append(sRow + "\n");
+			matrixBuilder.append('\n');
 		}
 		
 		return matrixBuilder.toString();
@@ -298,8 +704,8 @@ public class Matrix implements Cloneable {
 	
 	/** 
 	 * Determines whether or not two matrices are equal. Two instances of 
-	 * {@code Matrix} are equal if the containing values of their {@code data} 
-	 * member fields are the same. 
+	 * {@code Matrix} are equal if they have the same number of rows and
+	 * columns and contain the same values.
 	 * 
 	 * @param that an object to be compared with this {@code Matrix} 
 	 * 
@@ -319,17 +725,17 @@ public class Matrix implements Cloneable {
 		
 		Matrix other = (Matrix)obj;
 		
-		double[][] otherData = other.getElements();
-		double[][] actualData = getElements();
+		if(values == null || other.values == null) {
+			return values == other.values;
+		}
 		
-		if(actualData.length != otherData.length
-				&& actualData[0].length != otherData[0].length) {
+		if(row_order != other.row_order || column_order != other.column_order) {
 			return false;
 		}
 				
-		for(int row = 0; row < actualData.length; row++) {
-			for(int column = 0; column < actualData[row].length; column++) {
-				if(actualData[row][column] != otherData[row][column]) {
+		for(int row = 0; row < row_order; row++) {
+			for(int column = 0; column < column_order; column++) {
+				if(getElementAt(row, column) != other.getElementAt(row, column)) {
 					return false;
 				}
 			}
@@ -350,40 +756,54 @@ public class Matrix implements Cloneable {
 	public int hashCode() 
 	{ 
 	    int result = HashCodeUtil.SEED;
-	    result = HashCodeUtil.hash(result, data);
+	    result = HashCodeUtil.hash(result, row_order);
+	    result = HashCodeUtil.hash(result, column_order);
+
+	    for(int row = 0; row < row_order; row++) {
+	    	for(int column = 0; column < column_order; column++) {
+	    		result = HashCodeUtil.hash(result, getElementAt(row, column));
+	    	}
+	    }
 	 
 	    return result; 
 	}
 	
 	/**
 	 * Produces a copy of this {@code Matrix}. Copy means that the new {@code Matrix contains} the same
-	 * values.
+	 * values. The copy has the same class as this matrix and its own storage, where the rows are stored one after
+	 * the other, even if this matrix is a view.
 	 * 
 	 * @return a new {@code Matrix} object with the same values
 	 */
 	@Override
 	public Matrix clone() {
-		double[][] normalData = getElements();
-		
-		if(normalData == null) {
+		if(values == null) {
 			return null;
 		}
 		
-		Matrix newMatrix = new Matrix();
+		double[] newValues;
 		
-		double[][] newData = new double[row_order][column_order];
+		if(columnStride == 1 && (rowStride == column_order || row_order <= 1)) {
+			newValues = Arrays.copyOfRange(values, offset, offset + row_order * column_order);
+		} else {
+			newValues = new double[row_order * column_order];
 		
-		for(int row = 0; row < normalData.length; row++) {
-			for(int column = 0; column < normalData[row].length; column++) {
-				newData[row][column] = normalData[row][column];
+			for(int row = 0; row < row_order; row++) {
+				int index = offset + row * rowStride;
+				int target = row * column_order;
+
+				for(int column = 0; column < column_order; column++, index += columnStride) {
+					newValues[target + column] = values[index];
+				}
 			}
 		}
 		
 		try {
-			newMatrix.setData(newData);
+			Matrix newMatrix = (Matrix)super.clone();
+			newMatrix.setStorage(newValues, 0, row_order, column_order, column_order, 1);
 			
 			return newMatrix;
-		} catch (MatrixException e) {
+		} catch (CloneNotSupportedException e) {
 			return null;
 		}
 	}
@@ -1,21 +1,131 @@
 /**
- * 
+ *
  */
 package de.jail.geometry.schemas.matrices;
 
+import de.jail.exceptions.MatrixException;
+
 /**
  * This class represents a 2x2 matrix which is a special square matrix
- * where the order is two. 
- * 
+ * where the order is two.
+ * <p>
+ * Like {@link Matrix3d} the entries are stored in fields and every operation
+ * is written out for them, so a {@code Matrix2d} which does not leave the
+ * method where it was created can be replaced by its fields through the
+ * escape analysis of the JIT compiler. Methods with an {@code out} parameter
+ * do not create any object.
+ * </p>
+ *
  * @author Christian Vogel
  */
-public class Matrix2d extends SquareMatrix {
-	
+public final class Matrix2d implements Cloneable {
+
+	private double m00, m01;
+	private double m10, m11;
+
+	/**
+	 * Initialize a 2x2 matrix where all entries are zero.
+	 */
+	public Matrix2d() {}
+
 	/**
-	 * Initialize an empty 2x2 matrix. Only arrays with a size of 2 are allowed!
+	 * Initialize a 2x2 matrix with the given entries row by row.
 	 */
-	public Matrix2d() {
-		super(2);
+	public Matrix2d(final double m00, final double m01, final double m10, final double m11) {
+		set(m00, m01, m10, m11);
+	}
+
+	/**
+	 * Returns the 2x2 identity matrix.
+	 *
+	 * @return new identity matrix
+	 */
+	public static Matrix2d identity() {
+		return new Matrix2d(1, 0, 0, 1);
+	}
+
+	/**
+	 * Copies the entries of a general 2x2 matrix.
+	 *
+	 * @param matrix the matrix to copy
+	 * @return new matrix with the same entries
+	 * @throws MatrixException thrown if the matrix is not a 2x2 matrix
+	 */
+	public static Matrix2d fromMatrix(final Matrix matrix) throws MatrixException {
+		if(matrix == null || !matrix.hasData()) {
+			throw new MatrixException("matrix cannot be null");
+		}
+
+		if(matrix.numberOfRows() != 2 || matrix.numberOfColumns() != 2) {
+			throw new MatrixException("matrix should have two rows and two columns");
+		}
+
+		return new Matrix2d(matrix.getElementAt(0, 0), matrix.getElementAt(0, 1), matrix.getElementAt(1, 0),
+				matrix.getElementAt(1, 1));
+	}
+
+	/**
+	 * Copies the entries into a general square matrix.
+	 *
+	 * @return new square matrix of order two
+	 */
+	public SquareMatrix toMatrix() {
+		return new SquareMatrix(new double[] {m00, m01, m10, m11}, 2);
+	}
+
+	/**
+	 * Sets all entries row by row.
+	 */
+	public void set(final double m00, final double m01, final double m10, final double m11) {
+		this.m00 = m00;
+		this.m01 = m01;
+		this.m10 = m10;
+		this.m11 = m11;
+	}
+
+	/**
+	 * Returns the order of the matrix.
+	 *
+	 * @return always two
+	 */
+	public int getOrder() {
+		return 2;
+	}
+
+	/**
+	 * Gets a specific entry out of the matrix.
+	 *
+	 * @param row specify the row where the value will be found
+	 * @param column specify the column where the value will be found
+	 * @return value of row and column in the matrix
+	 */
+	public double getElementAt(final int row, final int column) {
+		switch(row * 2 + column) {
+			case 0: if(column == 0) return m00; break;
+			case 1: if(column == 1) return m01; break;
+			case 2: if(column == 0) return m10; break;
+			case 3: if(column == 1) return m11; break;
+		}
+
+		throw new IndexOutOfBoundsException("row and column should be smaller than two");
+	}
+
+	/**
+	 * Sets a specific entry of the matrix.
+	 *
+	 * @param row specify the row of the entry
+	 * @param column specify the column of the entry
+	 * @param value new value of the entry
+	 */
+	public void setElementAt(final int row, final int column, final double value) {
+		switch(row * 2 + column) {
+			case 0: if(column == 0) { m00 = value; return; } break;
+			case 1: if(column == 1) { m01 = value; return; } break;
+			case 2: if(column == 0) { m10 = value; return; } break;
+			case 3: if(column == 1) { m11 = value; return; } break;
+		}
+
+		throw new IndexOutOfBoundsException("row and column should be smaller than two");
 	}
 
 	/**
@@ -24,18 +134,189 @@ public class Matrix2d extends SquareMatrix {
 	 * <p>
 	 * {@link http://en.wikipedia.org/wiki/Rule_of_Sarrus}
 	 * </p>
-	 * 
+	 *
 	 * @return determinant of the matrix
-	 * 
+	 *
 	 * @author Christian Vogel
 	 */
-	@Override
 	public double determinant() {
-		if(getElements() == null) {
-			throw new NullPointerException("matrix cannot be null when trying to calculate determinant");
+		return m00 * m11 - m01 * m10;
+	}
+
+	/**
+	 * Computes the product of this matrix A and matrix B.
+	 *
+	 * @param arg represents matrix B
+	 * @return new matrix containing the product
+	 */
+	public Matrix2d multiply(final Matrix2d arg) {
+		return multiply(arg, new Matrix2d());
+	}
+
+	/**
+	 * Computes the product of this matrix A and matrix B and writes it into
+	 * an existing matrix, which may be A or B.
+	 *
+	 * @param arg represents matrix B
+	 * @param out matrix into which the product is written
+	 * @return the matrix {@code out}
+	 */
+	public Matrix2d multiply(final Matrix2d arg, final Matrix2d out) {
+		double b00 = arg.m00, b01 = arg.m01;
+		double b10 = arg.m10, b11 = arg.m11;
+
+		out.set(m00 * b00 + m01 * b10, m00 * b01 + m01 * b11, m10 * b00 + m11 * b10, m10 * b01 + m11 * b11);
+
+		return out;
+	}
+
+	/**
+	 * The scalar multiplication cA of a matrix A and a number c.
+	 *
+	 * @param scalar represents the multiplier
+	 * @return new matrix with multiplied entries
+	 */
+	public Matrix2d multiply(final double scalar) {
+		return new Matrix2d(m00 * scalar, m01 * scalar, m10 * scalar, m11 * scalar);
+	}
+
+	/**
+	 * Computes the sum A+B of this matrix A and matrix B.
+	 *
+	 * @param arg represents matrix B
+	 * @return new matrix containing the sum
+	 */
+	public Matrix2d aggregate(final Matrix2d arg) {
+		return new Matrix2d(m00 + arg.m00, m01 + arg.m01, m10 + arg.m10, m11 + arg.m11);
+	}
+
+	/**
+	 * Transposes this matrix in place.
+	 */
+	public void transpose() {
+		double value = m01;
+		m01 = m10;
+		m10 = value;
+	}
+
+	/**
+	 * Returns the transpose of this matrix.
+	 *
+	 * @return new transposed matrix
+	 */
+	public Matrix2d transposed() {
+		return new Matrix2d(m00, m10, m01, m11);
+	}
+
+	/**
+	 * Calculates the inverse of this matrix, which is the adjugate divided by
+	 * the determinant.
+	 *
+	 * @return new matrix containing the inverse
+	 * @throws MatrixException thrown if the matrix is singular
+	 */
+	public Matrix2d inverse() throws MatrixException {
+		return inverse(new Matrix2d());
+	}
+
+	/**
+	 * Calculates the inverse of this matrix and writes it into an existing
+	 * matrix, which may be this matrix.
+	 *
+	 * @param out matrix into which the inverse is written
+	 * @return the matrix {@code out}
+	 * @throws MatrixException thrown if the matrix is singular
+	 */
+	public Matrix2d inverse(final Matrix2d out) throws MatrixException {
+		double determinant = determinant();
+
+		if(determinant == 0) {
+			throw new MatrixException("matrix is singular");
+		}
+
+		double factor = 1 / determinant;
+
+		out.set(m11 * factor, -m01 * factor, -m10 * factor, m00 * factor);
+
+		return out;
+	}
+
+	/**
+	 * Multiplies this matrix with a vector of two coordinates.
+	 *
+	 * @param vector array containing the vector
+	 * @param offset position of the first coordinate
+	 * @param result array for the product, may be the array of the vector
+	 * @param resultOffset position of the first coordinate of the product
+	 */
+	public void transform(final double[] vector, final int offset, final double[] result, final int resultOffset) {
+		double x = vector[offset];
+		double y = vector[offset + 1];
+
+		result[resultOffset] = m00 * x + m01 * y;
+		result[resultOffset + 1] = m10 * x + m11 * y;
+	}
+
+	/**
+	 * Multiplies this matrix with vectors of two coordinates which are stored
+	 * one after the other, like the points of a
+	 * {@link de.jail.geometry.schemas.PointSet} of dimension two.
+	 *
+	 * @param vectors array containing the vectors
+	 * @param offset position of the first coordinate of the first vector
+	 * @param count number of vectors
+	 * @param result array for the products, may be the array of the vectors
+	 * if both offsets are the same
+	 * @param resultOffset position of the first coordinate of the first product
+	 */
+	public void transform(final double[] vectors, final int offset, final int count, final double[] result,
+			final int resultOffset) {
+		for(int i = 0; i < count; i++) {
+			transform(vectors, offset + 2 * i, result, resultOffset + 2 * i);
+		}
+	}
+
+	/**
+	 * Produces a copy of this matrix.
+	 *
+	 * @return new matrix with the same entries
+	 */
+	@Override
+	public Matrix2d clone() {
+		return new Matrix2d(m00, m01, m10, m11);
+	}
+
+	@Override
+	public boolean equals(Object obj) {
+		if(this == obj) {
+			return true;
+		}
+
+		if(!(obj instanceof Matrix2d)) {
+			return false;
 		}
-		
-		return this.getElementAt(0, 0) * this.getElementAt(1, 1) 
-			- this.getElementAt(0, 1) * this.getElementAt(1, 0);
+
+		Matrix2d other = (Matrix2d)obj;
+
+		return Double.compare(m00, other.m00) == 0 && Double.compare(m01, other.m01) == 0
+				&& Double.compare(m10, other.m10) == 0 && Double.compare(m11, other.m11) == 0;
+	}
+
+	@Override
+	public int hashCode() {
+		long bits = Double.doubleToLongBits(m00);
+		bits = 31 * bits + Double.doubleToLongBits(m01);
+		bits = 31 * bits + Double.doubleToLongBits(m10);
+		bits = 31 * bits + Double.doubleToLongBits(m11);
+
+		return (int)(bits ^ (bits >>> 32));
+	}
+
+	/**
+	 * Returns the entries row by row like {@link Matrix#toString()}.
+	 */
+	@Override
+	public String toString() {
+		return m00 + " " + m01 + " \n" + m10 + " " + m11 + " \n";
 	}
 }
@@ -1,56 +1,377 @@
 package de.jail.geometry.schemas.matrices;
 
+import de.jail.exceptions.MatrixException;
+
 /**
  * This class represents a 3x3 matrix which is a special square matrix
- * where the order is two. 
- * 
+ * where the order is three.
+ * <p>
+ * The nine entries are stored in fields instead of an array and every
+ * operation is written out for them, so no loops, bounds checks or
+ * intermediate objects are involved. A {@code Matrix3d} which does not leave
+ * the method where it was created, like the result of a product which is
+ * only used to transform points, can be replaced by its fields through the
+ * escape analysis of the JIT compiler. Methods with an {@code out} parameter
+ * do not create any object. {@link #fromMatrix(Matrix)} and
+ * {@link #toMatrix()} convert from and to the general {@link SquareMatrix}.
+ * </p>
+ *
  * @author Christian Vogel
  */
-public class Matrix3d extends SquareMatrix {
+public final class Matrix3d implements Cloneable {
+
+	private double m00, m01, m02;
+	private double m10, m11, m12;
+	private double m20, m21, m22;
+
+	/**
+	 * Initialize a 3x3 matrix where all entries are zero.
+	 */
+	public Matrix3d() {}
+
+	/**
+	 * Initialize a 3x3 matrix with the given entries row by row.
+	 */
+	public Matrix3d(final double m00, final double m01, final double m02,
+			final double m10, final double m11, final double m12,
+			final double m20, final double m21, final double m22) {
+		set(m00, m01, m02, m10, m11, m12, m20, m21, m22);
+	}
+
+	/**
+	 * Returns the 3x3 identity matrix.
+	 *
+	 * @return new identity matrix
+	 */
+	public static Matrix3d identity() {
+		return new Matrix3d(1, 0, 0, 0, 1, 0, 0, 0, 1);
+	}
+
+	/**
+	 * Copies the entries of a general 3x3 matrix.
+	 *
+	 * @param matrix the matrix to copy
+	 * @return new matrix with the same entries
+	 * @throws MatrixException thrown if the matrix is not a 3x3 matrix
+	 */
+	public static Matrix3d fromMatrix(final Matrix matrix) throws MatrixException {
+		if(matrix == null || !matrix.hasData()) {
+			throw new MatrixException("matrix cannot be null");
+		}
+
+		if(matrix.numberOfRows() != 3 || matrix.numberOfColumns() != 3) {
+			throw new MatrixException("matrix should have three rows and three columns");
+		}
+
+		return new Matrix3d(matrix.getElementAt(0, 0), matrix.getElementAt(0, 1), matrix.getElementAt(0, 2),
+				matrix.getElementAt(1, 0), matrix.getElementAt(1, 1), matrix.getElementAt(1, 2),
+				matrix.getElementAt(2, 0), matrix.getElementAt(2, 1), matrix.getElementAt(2, 2));
+	}
 
 	/**
-	 * Initialize an empty 3x3 matrix. Only arrays with a size of 3 are allowed!
+	 * Copies the entries into a general square matrix.
+	 *
+	 * @return new square matrix of order three
 	 */
-	public Matrix3d() {
-		super(3);
+	public SquareMatrix toMatrix() {
+		return new SquareMatrix(new double[] {m00, m01, m02, m10, m11, m12, m20, m21, m22}, 3);
 	}
-	
+
+	/**
+	 * Sets all entries row by row.
+	 */
+	public void set(final double m00, final double m01, final double m02,
+			final double m10, final double m11, final double m12,
+			final double m20, final double m21, final double m22) {
+		this.m00 = m00;
+		this.m01 = m01;
+		this.m02 = m02;
+		this.m10 = m10;
+		this.m11 = m11;
+		this.m12 = m12;
+		this.m20 = m20;
+		this.m21 = m21;
+		this.m22 = m22;
+	}
+
+	/**
+	 * Returns the order of the matrix.
+	 *
+	 * @return always three
+	 */
+	public int getOrder() {
+		return 3;
+	}
+
+	/**
+	 * Gets a specific entry out of the matrix.
+	 *
+	 * @param row specify the row where the value will be found
+	 * @param column specify the column where the value will be found
+	 * @return value of row and column in the matrix
+	 */
+	public double getElementAt(final int row, final int column) {
+		switch(row * 3 + column) {
+			case 0: if(column == 0) return m00; break;
+			case 1: if(column == 1) return m01; break;
+			case 2: if(column == 2) return m02; break;
+			case 3: if(column == 0) return m10; break;
+			case 4: if(column == 1) return m11; break;
+			case 5: if(column == 2) return m12; break;
+			case 6: if(column == 0) return m20; break;
+			case 7: if(column == 1) return m21; break;
+			case 8: if(column == 2) return m22; break;
+		}
+
+		throw new IndexOutOfBoundsException("row and column should be smaller than three");
+	}
+
+	/**
+	 * Sets a specific entry of the matrix.
+	 *
+	 * @param row specify the row of the entry
+	 * @param column specify the column of the entry
+	 * @param value new value of the entry
+	 */
+	public void setElementAt(final int row, final int column, final double value) {
+		switch(row * 3 + column) {
+			case 0: if(column == 0) { m00 = value; return; } break;
+			case 1: if(column == 1) { m01 = value; return; } break;
+			case 2: if(column == 2) { m02 = value; return; } break;
+			case 3: if(column == 0) { m10 = value; return; } break;
+			case 4: if(column == 1) { m11 = value; return; } break;
+			case 5: if(column == 2) { m12 = value; return; } break;
+			case 6: if(column == 0) { m20 = value; return; } break;
+			case 7: if(column == 1) { m21 = value; return; } break;
+			case 8: if(column == 2) { m22 = value; return; } break;
+		}
+
+		throw new IndexOutOfBoundsException("row and column should be smaller than three");
+	}
+
 	/**
 	 * This method will calculate the determinant of a 3x3 matrix. The algorithm
 	 * is leant on the <i>Rule of Sarrus</i>.
 	 * <p>
 	 * {@link http://en.wikipedia.org/wiki/Rule_of_Sarrus}
 	 * </p>
-	 * 
+	 *
 	 * @return determinant of the matrix
-	 * 
+	 *
 	 * @author Christian Vogel
 	 */
-	@Override
 	public double determinant() {
-		if(getElements() == null) {
-			throw new NullPointerException("matrix cannot be null when trying to calculate determinant");
-		}
-		
-		double firstCalc = this.getElementAt(0, 0) * this.getElementAt(1, 1) 
-			* this.getElementAt(2, 2);
-		
-		double secondCalc = this.getElementAt(0, 1) * this.getElementAt(1, 2) 
-			* this.getElementAt(2, 0);
-		
-		double thirdCalc = this.getElementAt(0, 2) * this.getElementAt(1, 0) 
-			* this.getElementAt(2, 1);
-
-		double fourthCalc = this.getElementAt(2, 0) * this.getElementAt(1, 1) 
-			* this.getElementAt(0, 2);
-		
-		double fifthCalc = this.getElementAt(2, 1) * this.getElementAt(1, 2) 
-			* this.getElementAt(0, 0);
-		
-		double sixthCalc = this.getElementAt(2, 2) * this.getElementAt(1, 0) 
-			* this.getElementAt(0, 2);
-		
-		return firstCalc + secondCalc + thirdCalc 
-			- fourthCalc - fifthCalc - sixthCalc;
+		return m00 * m11 * m22 + m01 * m12 * m20 + m02 * m10 * m21
+			- m20 * m11 * m02 - m21 * m12 * m00 - m22 * m10 * m01;
+	}
+
+	/**
+	 * Computes the product of this matrix A and matrix B.
+	 *
+	 * @param arg represents matrix B
+	 * @return new matrix containing the product
+	 */
+	public Matrix3d multiply(final Matrix3d arg) {
+		return multiply(arg, new Matrix3d());
+	}
+
+	/**
+	 * Computes the product of this matrix A and matrix B and writes it into
+	 * an existing matrix, which may be A or B.
+	 *
+	 * @param arg represents matrix B
+	 * @param out matrix into which the product is written
+	 * @return the matrix {@code out}
+	 */
+	public Matrix3d multiply(final Matrix3d arg, final Matrix3d out) {
+		double b00 = arg.m00, b01 = arg.m01, b02 = arg.m02;
+		double b10 = arg.m10, b11 = arg.m11, b12 = arg.m12;
+		double b20 = arg.m20, b21 = arg.m21, b22 = arg.m22;
+
+		out.set(m00 * b00 + m01 * b10 + m02 * b20, m00 * b01 + m01 * b11 + m02 * b21,
+				m00 * b02 + m01 * b12 + m02 * b22,
+				m10 * b00 + m11 * b10 + m12 * b20, m10 * b01 + m11 * b11 + m12 * b21,
+				m10 * b02 + m11 * b12 + m12 * b22,
+				m20 * b00 + m21 * b10 + m22 * b20, m20 * b01 + m21 * b11 + m22 * b21,
+				m20 * b02 + m21 * b12 + m22 * b22);
+
+		return out;
+	}
+
+	/**
+	 * The scalar multiplication cA of a matrix A and a number c.
+	 *
+	 * @param scalar represents the multiplier
+	 * @return new matrix with multiplied entries
+	 */
+	public Matrix3d multiply(final double scalar) {
+		return new Matrix3d(m00 * scalar, m01 * scalar, m02 * scalar, m10 * scalar, m11 * scalar, m12 * scalar,
+				m20 * scalar, m21 * scalar, m22 * scalar);
+	}
+
+	/**
+	 * Computes the sum A+B of this matrix A and matrix B.
+	 *
+	 * @param arg represents matrix B
+	 * @return new matrix containing the sum
+	 */
+	public Matrix3d aggregate(final Matrix3d arg) {
+		return new Matrix3d(m00 + arg.m00, m01 + arg.m01, m02 + arg.m02, m10 + arg.m10, m11 + arg.m11,
+				m12 + arg.m12, m20 + arg.m20, m21 + arg.m21, m22 + arg.m22);
+	}
+
+	/**
+	 * Transposes this matrix in place.
+	 */
+	public void transpose() {
+		double value = m01;
+		m01 = m10;
+		m10 = value;
+
+		value = m02;
+		m02 = m20;
+		m20 = value;
+
+		value = m12;
+		m12 = m21;
+		m21 = value;
+	}
+
+	/**
+	 * Returns the transpose of this matrix.
+	 *
+	 * @return new transposed matrix
+	 */
+	public Matrix3d transposed() {
+		return new Matrix3d(m00, m10, m20, m01, m11, m21, m02, m12, m22);
+	}
+
+	/**
+	 * Calculates the inverse of this matrix, which is the adjugate divided by
+	 * the determinant.
+	 *
+	 * @return new matrix containing the inverse
+	 * @throws MatrixException thrown if the matrix is singular
+	 */
+	public Matrix3d inverse() throws MatrixException {
+		return inverse(new Matrix3d());
+	}
+
+	/**
+	 * Calculates the inverse of this matrix and writes it into an existing
+	 * matrix, which may be this matrix.
+	 *
+	 * @param out matrix into which the inverse is written
+	 * @return the matrix {@code out}
+	 * @throws MatrixException thrown if the matrix is singular
+	 */
+	public Matrix3d inverse(final Matrix3d out) throws MatrixException {
+		double c00 = m11 * m22 - m12 * m21;
+		double c01 = m12 * m20 - m10 * m22;
+		double c02 = m10 * m21 - m11 * m20;
+
+		double determinant = m00 * c00 + m01 * c01 + m02 * c02;
+
+		if(determinant == 0) {
+			throw new MatrixException("matrix is singular");
+		}
+
+		double factor = 1 / determinant;
+
+		out.set(c00 * factor, (m02 * m21 - m01 * m22) * factor, (m01 * m12 - m02 * m11) * factor,
+				c01 * factor, (m00 * m22 - m02 * m20) * factor, (m02 * m10 - m00 * m12) * factor,
+				c02 * factor, (m01 * m20 - m00 * m21) * factor, (m00 * m11 - m01 * m10) * factor);
+
+		return out;
+	}
+
+	/**
+	 * Multiplies this matrix with a vector of three coordinates.
+	 *
+	 * @param vector array containing the vector
+	 * @param offset position of the first coordinate
+	 * @param result array for the product, may be the array of the vector
+	 * @param resultOffset position of the first coordinate of the product
+	 */
+	public void transform(final double[] vector, final int offset, final double[] result, final int resultOffset) {
+		double x = vector[offset];
+		double y = vector[offset + 1];
+		double z = vector[offset + 2];
+
+		result[resultOffset] = m00 * x + m01 * y + m02 * z;
+		result[resultOffset + 1] = m10 * x + m11 * y + m12 * z;
+		result[resultOffset + 2] = m20 * x + m21 * y + m22 * z;
+	}
+
+	/**
+	 * Multiplies this matrix with vectors of three coordinates which are
+	 * stored one after the other, like the points of a
+	 * {@link de.jail.geometry.schemas.PointSet} of dimension three.
+	 *
+	 * @param vectors array containing the vectors
+	 * @param offset position of the first coordinate of the first vector
+	 * @param count number of vectors
+	 * @param result array for the products, may be the array of the vectors
+	 * if both offsets are the same
+	 * @param resultOffset position of the first coordinate of the first product
+	 */
+	public void transform(final double[] vectors, final int offset, final int count, final double[] result,
+			final int resultOffset) {
+		for(int i = 0; i < count; i++) {
+			transform(vectors, offset + 3 * i, result, resultOffset + 3 * i);
+		}
+	}
+
+	/**
+	 * Produces a copy of this matrix.
+	 *
+	 * @return new matrix with the same entries
+	 */
+	@Override
+	public Matrix3d clone() {
+		return new Matrix3d(m00, m01, m02, m10, m11, m12, m20, m21, m22);
+	}
+
+	@Override
+	public boolean equals(Object obj) {
+		if(this == obj) {
+			return true;
+		}
+
+		if(!(obj instanceof Matrix3d)) {
+			return false;
+		}
+
+		Matrix3d other = (Matrix3d)obj;
+
+		return Double.compare(m00, other.m00) == 0 && Double.compare(m01, other.m01) == 0
+				&& Double.compare(m02, other.m02) == 0 && Double.compare(m10, other.m10) == 0
+				&& Double.compare(m11, other.m11) == 0 && Double.compare(m12, other.m12) == 0
+				&& Double.compare(m20, other.m20) == 0 && Double.compare(m21, other.m21) == 0
+				&& Double.compare(m22, other.m22) == 0;
+	}
+
+	@Override
+	public int hashCode() {
+		long bits = Double.doubleToLongBits(m00);
+		bits = 31 * bits + Double.doubleToLongBits(m01);
+		bits = 31 * bits + Double.doubleToLongBits(m02);
+		bits = 31 * bits + Double.doubleToLongBits(m10);
+		bits = 31 * bits + Double.doubleToLongBits(m11);
+		bits = 31 * bits + Double.doubleToLongBits(m12);
+		bits = 31 * bits + Double.doubleToLongBits(m20);
+		bits = 31 * bits + Double.doubleToLongBits(m21);
+		bits = 31 * bits + Double.doubleToLongBits(m22);
+
+		return (int)(bits ^ (bits >>> 32));
+	}
+
+	/**
+	 * Returns the entries row by row like {@link Matrix#toString()}.
+	 */
+	@Override
+	public String toString() {
+		return m00 + " " + m01 + " " + m02 + " \n" + m10 + " " + m11 + " " + m12 + " \n" + m20 + " " + m21 + " "
+				+ m22 + " \n";
 	}
 }
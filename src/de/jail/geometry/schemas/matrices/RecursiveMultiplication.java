@@ -0,0 +1,327 @@
+package de.jail.geometry.schemas.matrices;
+
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+/**
+ * Multiplies matrices which are stored row by row in flat arrays by recursive splitting, with the same operands as
+ * {@link BlockedMultiplication}. The largest of the three dimensions is halved until all of them are at most
+ * {@value #LEAF_SIZE}, so every level of the memory hierarchy is used without knowing its size, and the leaves are
+ * computed by {@link BlockedMultiplication}. Halves of the rows or the columns write to different parts of the result
+ * and are computed in parallel on a {@link ForkJoinPool}, halves of the inner dimension one after the other.
+ * <p>
+ * Square blocks whose order reaches a cutoff are multiplied with a step of Strassen's algorithm, which needs seven
+ * products of half the order instead of eight. The seven products are computed in parallel into temporary matrices,
+ * which need about five times the memory of a block, and are added to the result afterwards. Blocks of odd order
+ * split off their last row and column, which are multiplied with the classical algorithm. Strassen's algorithm
+ * rounds differently from the classical one, its error grows with the number of levels.
+ * </p>
+ *
+ * @author Christian Vogel
+ */
+final class RecursiveMultiplication {
+
+	/** largest dimension of a product which is computed by {@link BlockedMultiplication} */
+	static final int LEAF_SIZE = 256;
+
+	private RecursiveMultiplication() {}
+
+	/**
+	 * Adds the product of two matrices to a third matrix, {@code c += a * b}. The result must not overlap with the
+	 * operands.
+	 *
+	 * @param a array containing the left matrix
+	 * @param aOffset position of the first element of the left matrix
+	 * @param aStride stride of the left matrix
+	 * @param b array containing the right matrix
+	 * @param bOffset position of the first element of the right matrix
+	 * @param bStride stride of the right matrix
+	 * @param c array containing the result
+	 * @param cOffset position of the first element of the result
+	 * @param cStride stride of the result
+	 * @param rows number of rows of the left matrix and the result
+	 * @param inner number of columns of the left and rows of the right matrix
+	 * @param columns number of columns of the right matrix and the result
+	 * @param strassenCutoff order from which on square blocks are multiplied with a step of Strassen's algorithm
+	 * @param pool pool which computes the parts in parallel, or {@code null} to compute them in the calling thread
+	 */
+	static void multiplyAdd(final double[] a, final int aOffset, final int aStride, final double[] b,
+			final int bOffset, final int bStride, final double[] c, final int cOffset, final int cStride,
+			final int rows, final int inner, final int columns, final int strassenCutoff, final ForkJoinPool pool) {
+		ProductTask task = new ProductTask(a, aOffset, aStride, b, bOffset, bStride, c, cOffset, cStride, rows, inner,
+				columns, Math.max(strassenCutoff, 2), pool != null);
+
+		if(pool == null) {
+			task.compute();
+		} else {
+			pool.invoke(task);
+		}
+	}
+
+	/**
+	 * Writes the sum or difference of two blocks of order {@code order} into a new block.
+	 */
+	private static double[] combine(final double[] x, final int first, final int second, final int stride,
+			final double sign, final int order) {
+		double[] result = new double[order * order];
+
+		for(int row = 0; row < order; row++) {
+			int target = row * order;
+			int source = first + row * stride;
+			int other = second + row * stride;
+
+			for(int column = 0; column < order; column++) {
+				result[target + column] = x[source + column] + sign * x[other + column];
+			}
+		}
+
+		return result;
+	}
+
+	/**
+	 * Adds the product {@code c += a * b} of a part of the matrices, see {@link RecursiveMultiplication}.
+	 */
+	private static final class ProductTask extends RecursiveAction {
+
+		private static final long serialVersionUID = 1L;
+
+		private final double[] a;
+
+		private final int aOffset;
+
+		private final int aStride;
+
+		private final double[] b;
+
+		private final int bOffset;
+
+		private final int bStride;
+
+		private final double[] c;
+
+		private final int cOffset;
+
+		private final int cStride;
+
+		private final int rows;
+
+		private final int inner;
+
+		private final int columns;
+
+		private final int strassenCutoff;
+
+		private final boolean parallel;
+
+		private ProductTask(final double[] a, final int aOffset, final int aStride, final double[] b,
+				final int bOffset, final int bStride, final double[] c, final int cOffset, final int cStride,
+				final int rows, final int inner, final int columns, final int strassenCutoff,
+				final boolean parallel) {
+			this.a = a;
+			this.aOffset = aOffset;
+			this.aStride = aStride;
+			this.b = b;
+			this.bOffset = bOffset;
+			this.bStride = bStride;
+			this.c = c;
+			this.cOffset = cOffset;
+			this.cStride = cStride;
+			this.rows = rows;
+			this.inner = inner;
+			this.columns = columns;
+			this.strassenCutoff = strassenCutoff;
+			this.parallel = parallel;
+		}
+
+		private ProductTask part(final int aOffset, final int bOffset, final int cOffset, final int rows,
+				final int inner, final int columns) {
+			return new ProductTask(a, aOffset, aStride, b, bOffset, bStride, c, cOffset, cStride, rows, inner,
+					columns, strassenCutoff, parallel);
+		}
+
+		@Override
+		protected void compute() {
+			if(rows == inner && inner == columns && rows >= strassenCutoff) {
+				if(rows % 2 == 0) {
+					strassen();
+				} else {
+					peel();
+				}
+
+				return;
+			}
+
+			if(rows <= LEAF_SIZE && inner <= LEAF_SIZE && columns <= LEAF_SIZE) {
+				BlockedMultiplication.multiplyAdd(a, aOffset, aStride, b, bOffset, bStride, c, cOffset, cStride,
+						rows, inner, columns, null);
+				return;
+			}
+
+			if(inner >= rows && inner >= columns) {
+				int half = inner / 2;
+
+				part(aOffset, bOffset, cOffset, rows, half, columns).compute();
+				part(aOffset + half, bOffset + half * bStride, cOffset, rows, inner - half, columns).compute();
+			} else if(rows >= columns) {
+				int half = rows / 2;
+
+				fork(part(aOffset, bOffset, cOffset, half, inner, columns),
+						part(aOffset + half * aStride, bOffset, cOffset + half * cStride, rows - half, inner, columns));
+			} else {
+				int half = columns / 2;
+
+				fork(part(aOffset, bOffset, cOffset, rows, inner, half),
+						part(aOffset, bOffset + half, cOffset + half, rows, inner, columns - half));
+			}
+		}
+
+		private void fork(final RecursiveAction first, final RecursiveAction second) {
+			if(parallel) {
+				invokeAll(first, second);
+			} else {
+				first.invoke();
+				second.invoke();
+			}
+		}
+
+		/**
+		 * Multiplies the leading block of even order with Strassen's algorithm and adds the products with the last
+		 * row and column classically.
+		 */
+		private void peel() {
+			int order = rows - 1;
+
+			part(aOffset, bOffset, cOffset, order, order, order).compute();
+
+			// last column of A times last row of B for the leading block
+			part(aOffset + order, bOffset + order * bStride, cOffset, order, 1, order).compute();
+			// all rows except the last one times the last column of B
+			part(aOffset, bOffset + order, cOffset + order, order, rows, 1).compute();
+			// last row of A times B
+			part(aOffset + order * aStride, bOffset, cOffset + order * cStride, 1, rows, columns).compute();
+		}
+
+		private void strassen() {
+			int half = rows / 2;
+
+			int a11 = aOffset;
+			int a12 = aOffset + half;
+			int a21 = aOffset + half * aStride;
+			int a22 = a21 + half;
+
+			int b11 = bOffset;
+			int b12 = bOffset + half;
+			int b21 = bOffset + half * bStride;
+			int b22 = b21 + half;
+
+			StrassenProduct[] products = {
+					new StrassenProduct(this, half, a11, a22, 1, b11, b22, 1),
+					new StrassenProduct(this, half, a21, a22, 1, b11, -1, 0),
+					new StrassenProduct(this, half, a11, -1, 0, b12, b22, -1),
+					new StrassenProduct(this, half, a22, -1, 0, b21, b11, -1),
+					new StrassenProduct(this, half, a11, a12, 1, b22, -1, 0),
+					new StrassenProduct(this, half, a21, a11, -1, b11, b12, 1),
+					new StrassenProduct(this, half, a12, a22, -1, b21, b22, 1)
+			};
+
+			if(parallel) {
+				invokeAll(products);
+			} else {
+				for(StrassenProduct product : products) {
+					product.invoke();
+				}
+			}
+
+			double[] m1 = products[0].product;
+			double[] m2 = products[1].product;
+			double[] m3 = products[2].product;
+			double[] m4 = products[3].product;
+			double[] m5 = products[4].product;
+			double[] m6 = products[5].product;
+			double[] m7 = products[6].product;
+
+			for(int row = 0; row < half; row++) {
+				int c11 = cOffset + row * cStride;
+				int c12 = c11 + half;
+				int c21 = c11 + half * cStride;
+				int c22 = c21 + half;
+				int m = row * half;
+
+				for(int column = 0; column < half; column++, m++) {
+					c[c11 + column] += m1[m] + m4[m] - m5[m] + m7[m];
+					c[c12 + column] += m3[m] + m5[m];
+					c[c21 + column] += m2[m] + m4[m];
+					c[c22 + column] += m1[m] - m2[m] + m3[m] + m6[m];
+				}
+			}
+		}
+	}
+
+	/**
+	 * Computes one of the seven products of a step of Strassen's algorithm, {@code (A1 + s A2) (B1 + t B2)}, where
+	 * the second block of an operand may be missing.
+	 */
+	private static final class StrassenProduct extends RecursiveAction {
+
+		private static final long serialVersionUID = 1L;
+
+		private final ProductTask parent;
+
+		private final int order;
+
+		private final int a1;
+
+		private final int a2;
+
+		private final double aSign;
+
+		private final int b1;
+
+		private final int b2;
+
+		private final double bSign;
+
+		private double[] product;
+
+		private StrassenProduct(final ProductTask parent, final int order, final int a1, final int a2,
+				final double aSign, final int b1, final int b2, final double bSign) {
+			this.parent = parent;
+			this.order = order;
+			this.a1 = a1;
+			this.a2 = a2;
+			this.aSign = aSign;
+			this.b1 = b1;
+			this.b2 = b2;
+			this.bSign = bSign;
+		}
+
+		@Override
+		protected void compute() {
+			double[] left = parent.a;
+			int leftOffset = a1;
+			int leftStride = parent.aStride;
+
+			if(a2 >= 0) {
+				left = combine(parent.a, a1, a2, parent.aStride, aSign, order);
+				leftOffset = 0;
+				leftStride = order;
+			}
+
+			double[] right = parent.b;
+			int rightOffset = b1;
+			int rightStride = parent.bStride;
+
+			if(b2 >= 0) {
+				right = combine(parent.b, b1, b2, parent.bStride, bSign, order);
+				rightOffset = 0;
+				rightStride = order;
+			}
+
+			product = new double[order * order];
+
+			new ProductTask(left, leftOffset, leftStride, right, rightOffset, rightStride, product, 0, order, order,
+					order, order, parent.strassenCutoff, parent.parallel).compute();
+		}
+	}
+
+}
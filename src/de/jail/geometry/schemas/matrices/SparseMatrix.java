@@ -0,0 +1,357 @@
+package de.jail.geometry.schemas.matrices;
+
+import java.util.Arrays;
+
+import de.jail.exceptions.MatrixException;
+
+/**
+ * This class represents a sparse matrix, which only stores its non-zero entries. The entries are compressed along
+ * one dimension, the major dimension, which is the rows for {@link CSRMatrix} and the columns for
+ * {@link CSCMatrix}: the entries of major line {@code i} are stored at positions {@code pointers[i]} to
+ * {@code pointers[i + 1] - 1} of the arrays of indices and values, sorted by their index in the other dimension.
+ * <p>
+ * Memory and the time of products grow with the number of non-zero entries instead of the number of rows times the
+ * number of columns. The transpose of a matrix in one format is the same storage read in the other format, so
+ * {@link #transpose()} does not copy anything, while {@link CSRMatrix#toCSC()} and {@link CSCMatrix#toCSR()}
+ * reorganize the entries in linear time.
+ * </p>
+ *
+ * @author Christian Vogel
+ */
+public abstract class SparseMatrix {
+
+	private final int row_order;
+
+	private final int column_order;
+
+	private final int[] pointers;
+
+	private final int[] indices;
+
+	private final double[] values;
+
+	/**
+	 * Initializes a sparse matrix which uses the given arrays as storage, they are not copied.
+	 *
+	 * @param row_order number of rows of the matrix
+	 * @param column_order number of columns of the matrix
+	 * @param majorOrder number of lines of the major dimension, which is either the number of rows or columns
+	 * @param pointers first position of every major line, followed by the number of entries
+	 * @param indices index of every entry in the minor dimension, strictly increasing within a major line
+	 * @param values value of every entry
+	 * @param check whether the arrays have to be checked, which is only skipped for storage of another matrix
+	 */
+	SparseMatrix(final int row_order, final int column_order, final int majorOrder, final int[] pointers,
+			final int[] indices, final double[] values, final boolean check) {
+		this.row_order = row_order;
+		this.column_order = column_order;
+		this.pointers = pointers;
+		this.indices = indices;
+		this.values = values;
+
+		if(check) {
+			check(majorOrder);
+		}
+	}
+
+	private void check(final int majorOrder) {
+		if(row_order < 0 || column_order < 0) {
+			throw new IllegalArgumentException("orders must not be negative");
+		}
+
+		if(pointers == null || indices == null || values == null) {
+			throw new IllegalArgumentException("pointers, indices and values must not be null");
+		}
+
+		if(pointers.length != majorOrder + 1 || pointers[0] != 0 || pointers[majorOrder] > indices.length
+				|| indices.length != values.length) {
+			throw new IllegalArgumentException("pointers do not match the indices and values");
+		}
+
+		int minorOrder = majorOrder == row_order ? column_order : row_order;
+
+		for(int line = 0; line < majorOrder; line++) {
+			if(pointers[line] > pointers[line + 1]) {
+				throw new IllegalArgumentException("pointers must not decrease");
+			}
+
+			int previous = -1;
+
+			for(int position = pointers[line]; position < pointers[line + 1]; position++) {
+				if(indices[position] <= previous || indices[position] >= minorOrder) {
+					throw new IllegalArgumentException("indices of a line must be increasing and inside of the matrix");
+				}
+
+				previous = indices[position];
+			}
+		}
+	}
+
+	/**
+	 * Returns the number of rows.
+	 *
+	 * @return number of rows in the matrix
+	 */
+	public final int numberOfRows() {
+		return row_order;
+	}
+
+	/**
+	 * Returns the number of columns.
+	 *
+	 * @return number of columns in the matrix
+	 */
+	public final int numberOfColumns() {
+		return column_order;
+	}
+
+	/**
+	 * Returns the number of stored entries.
+	 *
+	 * @return number of non-zero entries
+	 */
+	public final int numberOfNonZeros() {
+		return pointers[pointers.length - 1];
+	}
+
+	/**
+	 * Returns the first position of every major line, followed by the number of entries. The array is not copied.
+	 *
+	 * @return pointers of the storage
+	 */
+	public final int[] getPointers() {
+		return pointers;
+	}
+
+	/**
+	 * Returns the index of every entry in the minor dimension. The array is not copied.
+	 *
+	 * @return indices of the storage
+	 */
+	public final int[] getIndices() {
+		return indices;
+	}
+
+	/**
+	 * Returns the value of every entry. The array is not copied, so changes are visible in the matrix.
+	 *
+	 * @return values of the storage
+	 */
+	public final double[] getValues() {
+		return values;
+	}
+
+	/**
+	 * Gets a specific entry out of the matrix. The entry is searched among the entries of its major line.
+	 *
+	 * @param row specify the row where the value will be found
+	 * @param column specify the column where the value will be found
+	 * @return value of row and column in the matrix, 0 if it is not stored
+	 */
+	public final double getElementAt(final int row, final int column) {
+		if(row < 0 || row >= row_order || column < 0 || column >= column_order) {
+			throw new IndexOutOfBoundsException("entry is not inside of the matrix");
+		}
+
+		int line = isRowMajor() ? row : column;
+		int index = isRowMajor() ? column : row;
+
+		int low = pointers[line];
+		int high = pointers[line + 1] - 1;
+
+		while(low <= high) {
+			int mid = (low + high) >>> 1;
+
+			if(indices[mid] < index) {
+				low = mid + 1;
+			} else if(indices[mid] > index) {
+				high = mid - 1;
+			} else {
+				return values[mid];
+			}
+		}
+
+		return 0;
+	}
+
+	/**
+	 * Returns whether the entries are compressed along the rows.
+	 *
+	 * @return {@code true} for {@link CSRMatrix}, {@code false} for {@link CSCMatrix}
+	 */
+	abstract boolean isRowMajor();
+
+	/**
+	 * Returns the transpose of this matrix, which shares its storage with this matrix and uses the other format.
+	 *
+	 * @return transposed matrix
+	 */
+	public abstract SparseMatrix transpose();
+
+	/**
+	 * Multiplies this matrix with a vector.
+	 *
+	 * @param x vector whose length is the number of columns
+	 * @return new vector containing the product
+	 * @throws MatrixException thrown if the length of the vector does not fit
+	 */
+	public final double[] multiply(final double[] x) throws MatrixException {
+		double[] y = new double[row_order];
+		multiply(x, y);
+
+		return y;
+	}
+
+	/**
+	 * Multiplies this matrix with a vector and writes the product into an existing vector, so iterative
+	 * algorithms do not allocate memory.
+	 *
+	 * @param x vector whose length is the number of columns
+	 * @param y vector whose length is the number of rows, it is overwritten with the product
+	 * @throws MatrixException thrown if the lengths of the vectors do not fit
+	 */
+	public final void multiply(final double[] x, final double[] y) throws MatrixException {
+		if(x == null || y == null) {
+			throw new MatrixException("arguments cannot be null");
+		}
+
+		if(x.length != column_order || y.length != row_order) {
+			throw new MatrixException("length of the vectors should be the number of columns and rows");
+		}
+
+		if(x == y) {
+			throw new MatrixException("result must not be the multiplied vector");
+		}
+
+		if(isRowMajor()) {
+			for(int row = 0; row < row_order; row++) {
+				double value = 0;
+
+				for(int position = pointers[row]; position < pointers[row + 1]; position++) {
+					value += values[position] * x[indices[position]];
+				}
+
+				y[row] = value;
+			}
+		} else {
+			Arrays.fill(y, 0);
+
+			for(int column = 0; column < column_order; column++) {
+				double factor = x[column];
+
+				if(factor != 0) {
+					for(int position = pointers[column]; position < pointers[column + 1]; position++) {
+						y[indices[position]] += values[position] * factor;
+					}
+				}
+			}
+		}
+	}
+
+	/**
+	 * Multiplies this matrix with a dense matrix B. Every entry of this matrix adds a multiple of a row of B to a
+	 * row of the product, so the time grows with the number of non-zero entries times the number of columns of B.
+	 *
+	 * @param arg represents matrix B
+	 * @return new dense matrix containing the product
+	 * @throws MatrixException thrown if the number of rows of B is not the number of columns of this matrix
+	 */
+	public final Matrix multiply(Matrix arg) throws MatrixException {
+		if(arg == null || !arg.hasData()) {
+			throw new MatrixException("argument cannot be null");
+		}
+
+		if(arg.numberOfRows() != column_order) {
+			throw new MatrixException("number of columns in matrix A should be the same as the number of rows in matrix B");
+		}
+
+		if(arg.getColumnStride() != 1) {
+			arg = arg.clone();
+		}
+
+		int columns = arg.numberOfColumns();
+		double[] argValues = arg.getArray();
+		int argOffset = arg.getOffset();
+		int argStride = arg.getRowStride();
+
+		Matrix product = new Matrix(row_order, columns);
+		double[] productValues = product.getArray();
+		boolean rowMajor = isRowMajor();
+
+		for(int line = 0; line < pointers.length - 1; line++) {
+			for(int position = pointers[line]; position < pointers[line + 1]; position++) {
+				int row = rowMajor ? line : indices[position];
+				int inner = rowMajor ? indices[position] : line;
+				double value = values[position];
+
+				int source = argOffset + inner * argStride;
+				int target = row * columns;
+
+				for(int column = 0; column < columns; column++) {
+					productValues[target + column] += value * argValues[source + column];
+				}
+			}
+		}
+
+		return product;
+	}
+
+	/**
+	 * Returns a dense copy of this matrix.
+	 *
+	 * @return new dense matrix with the same entries
+	 */
+	public final Matrix toDense() {
+		Matrix dense = new Matrix(row_order, column_order);
+		double[] denseValues = dense.getArray();
+		boolean rowMajor = isRowMajor();
+
+		for(int line = 0; line < pointers.length - 1; line++) {
+			for(int position = pointers[line]; position < pointers[line + 1]; position++) {
+				if(rowMajor) {
+					denseValues[line * column_order + indices[position]] = values[position];
+				} else {
+					denseValues[indices[position] * column_order + line] = values[position];
+				}
+			}
+		}
+
+		return dense;
+	}
+
+	/**
+	 * Compresses the entries along the other dimension. The entries are visited line by line, so the entries of
+	 * every new line are sorted by their index.
+	 *
+	 * @param minorOrder number of lines of the new major dimension
+	 * @param newPointers array of length {@code minorOrder + 1} for the new pointers
+	 * @param newIndices array for the new indices
+	 * @param newValues array for the new values
+	 */
+	final void recompress(final int minorOrder, final int[] newPointers, final int[] newIndices,
+			final double[] newValues) {
+		int majorOrder = pointers.length - 1;
+		int count = numberOfNonZeros();
+
+		for(int position = 0; position < count; position++) {
+			newPointers[indices[position] + 1]++;
+		}
+
+		for(int line = 0; line < minorOrder; line++) {
+			newPointers[line + 1] += newPointers[line];
+		}
+
+		int[] next = new int[minorOrder];
+		System.arraycopy(newPointers, 0, next, 0, minorOrder);
+
+		for(int line = 0; line < majorOrder; line++) {
+			for(int position = pointers[line]; position < pointers[line + 1]; position++) {
+				int target = next[indices[position]]++;
+
+				newIndices[target] = line;
+				newValues[target] = values[position];
+			}
+		}
+	}
+
+}
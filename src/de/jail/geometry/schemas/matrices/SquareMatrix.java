@@ -3,6 +3,8 @@
  */
 package de.jail.geometry.schemas.matrices;
 
+import java.util.concurrent.ForkJoinPool;
+
 import de.jail.exceptions.MatrixException;
 
 /**
@@ -13,11 +15,26 @@ import de.jail.exceptions.MatrixException;
  * <p>
  * Data inside the matrix will be double.
  * </p>
+ * <p>
+ * The {@link LUDecomposition} of the matrix is computed on first use and kept
+ * until the matrix is changed by one of its methods, so the determinant, the
+ * inverse and any number of linear equations are calculated from a single
+ * decomposition. Changes through views or through the array of the storage
+ * are not noticed, after those {@link #modified()} has to be called.
+ * </p>
  * 
  * @author Christian Vogel
  */
 public class SquareMatrix extends Matrix {
 
+	/** 
+	 * default order from which on {@link #multiplyRecursive(SquareMatrix)} 
+	 * uses steps of Strassen's algorithm 
+	 */
+	public static final int DEFAULT_STRASSEN_CUTOFF = 1024;
+
+	private LUDecomposition decomposition;
+
 	/**
 	 * Initialize an empty nxn matrix with order n.
 	 * 
@@ -27,6 +44,17 @@ public class SquareMatrix extends Matrix {
 		super(order, order);
 	}
 
+	/**
+	 * Initialize a nxn matrix which uses the given array as storage, the rows
+	 * are expected one after the other. The array is not copied.
+	 * 
+	 * @param values the elements of the matrix row by row
+	 * @param order the size of the matrix
+	 */
+	public SquareMatrix(final double[] values, final int order) {
+		super(values, order, order);
+	}
+
 	/**
 	 * Sets a new matrix with default initializing fields. The data should
 	 * contain only data where the size of each dimension are the same and 
@@ -55,18 +83,136 @@ public class SquareMatrix extends Matrix {
 	 * @return size of the matrix
 	 */
 	public int getOrder() {
-		return super.getElements().length;
+		return numberOfRows();
+	}
+
+	/**
+	 * Computes the product of this matrix and another square matrix of the
+	 * same order by recursive splitting, with steps of Strassen's algorithm 
+	 * from an order of {@value #DEFAULT_STRASSEN_CUTOFF} on. The parts are 
+	 * computed in parallel on the common {@link ForkJoinPool}.
+	 * 
+	 * @param arg represents matrix B
+	 * @return new matrix containing the product
+	 * @throws MatrixException thrown if multiplying fails
+	 * @see #multiplyRecursive(SquareMatrix, int, ForkJoinPool)
+	 */
+	public SquareMatrix multiplyRecursive(SquareMatrix arg) throws MatrixException {
+		return multiplyRecursive(arg, DEFAULT_STRASSEN_CUTOFF, ForkJoinPool.commonPool());
+	}
+	
+	/**
+	 * Computes the product of this matrix and another square matrix of the
+	 * same order by recursive splitting. The largest dimension is halved 
+	 * until the parts are small enough for the blocked algorithm of 
+	 * {@link Matrix#multiply(Matrix, ForkJoinPool)}, and square parts whose 
+	 * order reaches the cutoff are multiplied with a step of Strassen's 
+	 * algorithm, which needs seven instead of eight products of half the 
+	 * order. Strassen's algorithm needs temporary memory and its rounding 
+	 * errors are larger than those of the classical algorithm, a cutoff of
+	 * {@link Integer#MAX_VALUE} disables it.
+	 * 
+	 * @param arg represents matrix B
+	 * @param strassenCutoff order from which on steps of Strassen's algorithm
+	 * are used
+	 * @param pool pool which computes the parts in parallel, or {@code null}
+	 * to compute the product in the calling thread
+	 * @return new matrix containing the product
+	 * @throws MatrixException thrown if multiplying fails
+	 */
+	public SquareMatrix multiplyRecursive(SquareMatrix arg, int strassenCutoff, ForkJoinPool pool) 
+			throws MatrixException {
+		if(arg == null) {
+			throw new MatrixException("argument cannot be null");
+		}
+		
+		if(arg.getOrder() != getOrder()) {
+			throw new MatrixException("both matrices should have the same order");
+		}
+		
+		Matrix left = getColumnStride() == 1 ? this : clone();
+		Matrix right = arg.getColumnStride() == 1 ? arg : arg.clone();
+		
+		SquareMatrix product = new SquareMatrix(getOrder());
+		
+		RecursiveMultiplication.multiplyAdd(left.getArray(), left.getOffset(), left.getRowStride(), 
+				right.getArray(), right.getOffset(), right.getRowStride(), product.getArray(), 0, getOrder(), 
+				getOrder(), getOrder(), getOrder(), strassenCutoff, pool);
+		
+		return product;
+	}
+
+	/**
+	 * Returns the LU decomposition of this matrix. It is computed on the 
+	 * common {@link ForkJoinPool} when it is requested for the first time 
+	 * after the matrix was changed.
+	 * 
+	 * @return decomposition of this matrix
+	 */
+	public LUDecomposition getLUDecomposition() {
+		if(decomposition == null) {
+			decomposition = new LUDecomposition(this, ForkJoinPool.commonPool());
+		}
+		
+		return decomposition;
+	}
+	
+	/**
+	 * Drops the LU decomposition, which is computed again when it is needed.
+	 * Has to be called after the elements were changed through a view or
+	 * through the array of the storage.
+	 */
+	@Override
+	public void modified() {
+		decomposition = null;
 	}
 
 	/**
 	 * Calculates the determinant of the matrix with individual algorithms for
-	 * different types of matrices.
+	 * different types of matrices. For a general order the determinant is the
+	 * product of the diagonal of the LU decomposition.
 	 * 
 	 * @return determinant of a matrix
 	 * 
 	 * @author Christian Vogel
 	 */
 	public double determinant() {
-		throw new UnsupportedOperationException();
+		return getLUDecomposition().determinant();
+	}
+	
+	/**
+	 * Solves the linear equation {@code Ax = b} with the LU decomposition of 
+	 * this matrix A.
+	 * 
+	 * @param b right side of the equation
+	 * @return new array containing the solution x
+	 * @throws MatrixException thrown if the matrix is singular or the length 
+	 * of b is not the order of the matrix
+	 */
+	public double[] solve(double[] b) throws MatrixException {
+		return getLUDecomposition().solve(b);
+	}
+	
+	/**
+	 * Solves the linear equation {@code AX = B} with the LU decomposition of 
+	 * this matrix A.
+	 * 
+	 * @param b right side of the equation
+	 * @return new matrix containing the solution X
+	 * @throws MatrixException thrown if the matrix is singular or B does not
+	 * have as many rows as the order of the matrix
+	 */
+	public Matrix solve(Matrix b) throws MatrixException {
+		return getLUDecomposition().solve(b);
+	}
+	
+	/**
+	 * Calculates the inverse of this matrix with its LU decomposition.
+	 * 
+	 * @return new matrix containing the inverse
+	 * @throws MatrixException thrown if the matrix is singular
+	 */
+	public SquareMatrix inverse() throws MatrixException {
+		return getLUDecomposition().inverse();
 	}
 }
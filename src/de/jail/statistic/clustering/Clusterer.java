@@ -1,9 +1,11 @@
 package de.jail.statistic.clustering;
 
+import java.util.Arrays;
 import java.util.Collection;
 import java.util.List;
 
 import de.jail.geometry.schemas.Point;
+import de.jail.geometry.schemas.PointSet;
 
 /**
  * Interface introducing a cluster method for all implementation of clustering algorithms.
@@ -20,5 +22,22 @@ public interface Clusterer {
 	 * @return list of cluster containing their belonging points
 	 */
 	List<Cluster> cluster(Collection<Point> points);
+	
+	/**
+	 * Running clustering algorithm for a set of points with flat storage. The resulting clusters contain views of 
+	 * the points, which share their coordinates with the set. By default the points of the set are passed to 
+	 * {@link #cluster(Collection)}, implementations which work on the flat storage directly override this method.
+	 * 
+	 * @param points set of points which will be set into specific cluster
+	 * 
+	 * @return list of cluster containing their belonging points
+	 */
+	default List<Cluster> cluster(PointSet points) {
+		if(points == null) {
+			throw new IllegalArgumentException("argument must not be null!");
+		}
+		
+		return cluster(Arrays.asList(points.toPoints()));
+	}
 
 }
@@ -0,0 +1,80 @@
+package de.jail.statistic.clustering.density;
+
+import java.util.concurrent.atomic.AtomicIntegerArray;
+
+/**
+ * A disjoint set forest over the ids {@code 0..n-1} which can be modified by several threads at the same time
+ * without locks. Roots are only changed by compare and set operations and a root is always linked below the
+ * smaller root, so after all unions the root of every set is its smallest id.
+ *
+ * @author Christian Vogel
+ */
+final class ConcurrentUnionFind {
+
+	private final AtomicIntegerArray parent;
+
+	/**
+	 * Initializes a forest where every id is a set of its own.
+	 *
+	 * @param size number of ids
+	 */
+	ConcurrentUnionFind(final int size) {
+		parent = new AtomicIntegerArray(size);
+
+		for(int id = 0; id < size; id++) {
+			parent.set(id, id);
+		}
+	}
+
+	/**
+	 * Returns the root of the set containing an id. The path to the root is halved on the way up.
+	 *
+	 * @param id element of the set
+	 * @return root of the set
+	 */
+	int find(int id) {
+		while(true) {
+			int p = parent.get(id);
+
+			if(p == id) {
+				return id;
+			}
+
+			int gp = parent.get(p);
+
+			if(p != gp) {
+				parent.compareAndSet(id, p, gp);
+			}
+
+			id = gp;
+		}
+	}
+
+	/**
+	 * Merges the sets containing two ids.
+	 *
+	 * @param a element of the first set
+	 * @param b element of the second set
+	 */
+	void union(int a, int b) {
+		while(true) {
+			a = find(a);
+			b = find(b);
+
+			if(a == b) {
+				return;
+			}
+
+			if(a < b) {
+				int tmp = a;
+				a = b;
+				b = tmp;
+			}
+
+			if(parent.compareAndSet(a, a, b)) {
+				return;
+			}
+		}
+	}
+
+}
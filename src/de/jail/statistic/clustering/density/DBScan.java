@@ -1,29 +1,50 @@
 package de.jail.statistic.clustering.density;
 
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
 import java.util.Collection;
 import java.util.List;
 
 import de.jail.geometry.distancefunctions.PointBasedDistanceFunction;
 import de.jail.geometry.distancefunctions.impl.EuclideanDistance;
+import de.jail.geometry.distancefunctions.impl.ManhattanDistance;
+import de.jail.geometry.neighborsearch.NeighborIndex;
+import de.jail.geometry.neighborsearch.impl.KDTree;
+import de.jail.geometry.neighborsearch.impl.LinearScan;
 import de.jail.geometry.schemas.Point;
+import de.jail.geometry.schemas.PointSet;
 import de.jail.statistic.clustering.Cluster;
 import de.jail.statistic.clustering.Clusterer;
+import de.jail.utils.IntList;
 
 /**
+ * Density based clustering of points. A point is a core point, if at least {@code minPtr} other points are nearer 
+ * than {@code eps}. Clusters are the connected components of core points together with all points in the 
+ * neighborhood of their core points. All other points are noise.
+ * <p>
+ * The whole state of a run is kept index based: visited points are tracked in a bitset, the cluster of every point 
+ * in a label array and the points which still have to be expanded in a primitive queue. Expanding a cluster is 
+ * therefore linear in the number of neighbor relations and does not box any point id.
+ * </p>
+ * 
  * @author Christian Vogel
  */
 public class DBScan implements Clusterer {
-
-	private List<Point> pointsMappedToCluster;
 	
-	private List<Point> visitedPoints;
+	/** label of a point which is not part of any cluster */
+	private static final int NOISE = -1;
+	
+	/** label of a point which has not been looked at yet */
+	private static final int UNCLASSIFIED = -2;
 
-	private List<Point> noisePoints;
+	private int[] labels;
 	
-	private Point ptrArray[];
+	private BitSet visitedPoints;
 	
-	private double distanceMatrix[][];
+	private IntList neighborBuffer;
+	
+	private IntList frontier;
 	
 	private final double eps;
 	
@@ -31,6 +52,8 @@ public class DBScan implements Clusterer {
 	
 	private final PointBasedDistanceFunction distFunction;
 	
+	private final NeighborIndex neighborIndex;
+	
 	/**
 	 * Constructor with initial values for the area and minimum points for neighbor points. The distance function
 	 * used is the default Euclidean distance.
@@ -44,16 +67,36 @@ public class DBScan implements Clusterer {
 	
 	/**
 	 * Constructor with initial values for the area, minimum points for neighbor points and a specific 
-	 * distance function used to compute the distance matrix.
+	 * distance function used to compute the distance between points. Neighbors are searched with a {@link KDTree}
+	 * for the Euclidean and the Manhattan distance, for all other distance functions with a {@link LinearScan}.
 	 *  
 	 * @param eps minimum area in which a neighbor point should be, related to an other point
 	 * @param minPtr number of neighbor points, otherwise points are noise
 	 * @param distFunction distance function which is used to compute the distance between to points
 	 */
 	public DBScan(final double eps, final int minPtr, final PointBasedDistanceFunction distFunction) {
+		this(eps, minPtr, distFunction, defaultIndex(distFunction));
+	}
+	
+	/**
+	 * Constructor with initial values for the area, minimum points for neighbor points, a specific 
+	 * distance function and the index which is used to find the neighbors of a point.
+	 *  
+	 * @param eps minimum area in which a neighbor point should be, related to an other point
+	 * @param minPtr number of neighbor points, otherwise points are noise
+	 * @param distFunction distance function which is used to compute the distance between to points
+	 * @param index index answering the neighbor queries, it has to support {@code distFunction}
+	 */
+	public DBScan(final double eps, final int minPtr, final PointBasedDistanceFunction distFunction, 
+			final NeighborIndex index) {
+		if(distFunction == null || index == null) {
+			throw new IllegalArgumentException("arguments must not be null!");
+		}
+		
 		this.eps = eps;
 		this.minPtr = minPtr;
 		this.distFunction = distFunction;
+		this.neighborIndex = index;
 	}
 
 	/* (non-Javadoc)
@@ -65,142 +108,190 @@ public class DBScan implements Clusterer {
 			throw new IllegalArgumentException("argument must not be null!");
 		}
 		
-		ptrArray = new Point[points.size()];
+		if(points.isEmpty()) {
+			return new ArrayList<Cluster>();
+		}
+		
+		Point[] ptrArray = new Point[points.size()];
 		ptrArray = points.toArray(ptrArray);
 		
-		distanceMatrix = computeDistanceMatrix();
+		neighborIndex.build(PointSet.fromPoints(points), distFunction);
 		
-		return computeDbscan();
+		int numberOfClusters = computeDbscan(ptrArray.length);
+		
+		return collectClusters(ptrArray, labels, numberOfClusters);
+	}
+	
+	/* (non-Javadoc)
+	 * @see de.jail.statistic.clustering.Clusterer#cluster(de.jail.geometry.schemas.PointSet)
+	 */
+	@Override
+	public List<Cluster> cluster(PointSet points) {
+		if(points == null) {
+			throw new IllegalArgumentException("argument must not be null!");
+		}
+		
+		neighborIndex.build(points, distFunction);
+		
+		int numberOfClusters = computeDbscan(points.size());
+		
+		return collectClusters(points, labels, numberOfClusters);
 	}
 
 	/**
-	 * Computes the DBScan algorithm.
+	 * Computes the DBScan algorithm on the indexed points and stores the cluster of every point in {@code labels}.
 	 * 
-	 * @return list of computed cluster
+	 * @param numberOfPoints number of indexed points
+	 * @return number of found clusters
 	 */
-	private List<Cluster> computeDbscan() {
-		int numberOfPoints = ptrArray.length;
+	private int computeDbscan(final int numberOfPoints) {
 		
-		pointsMappedToCluster = new ArrayList<Point>(numberOfPoints);
-		visitedPoints = new ArrayList<Point>(numberOfPoints);
-		noisePoints = new ArrayList<Point>();
+		labels = new int[numberOfPoints];
+		Arrays.fill(labels, UNCLASSIFIED);
 		
-		List<Cluster> resultCluster = new ArrayList<Cluster>();
+		visitedPoints = new BitSet(numberOfPoints);
+		neighborBuffer = new IntList();
+		frontier = new IntList();
+		
+		int numberOfClusters = 0;
 		
 		for(int index = 0; index < numberOfPoints; index++) {
-			Point current = ptrArray[index];
-			
-			if(!visitedPoints.contains(current)) {
-				visitedPoints.add(current);
+			if(!visitedPoints.get(index)) {
+				visitedPoints.set(index);
 				
-				List<Integer> neighbors = findNeighbors(index);
+				findNeighbors(index);
 				
-				if(neighbors.size() < minPtr) {
-					noisePoints.add(current);
+				if(neighborBuffer.size() < minPtr) {
+					labels[index] = NOISE;
 				} else {
-					Cluster c = expandCluster(current, neighbors);
-					
-					resultCluster.add(c);
+					expandCluster(index, numberOfClusters++);
 				}
 			}
 		}
 		
-		return resultCluster;
+		return numberOfClusters;
 	}
 	
 	/**
-	 * Finds all neighbors from a given point which are in a specific area.
-	 * 
-	 * @param point_id point position in the computed distance matrix
-	 * @param eps defines the area in which a neighbor point should be
+	 * Finds all neighbors from a given point which are in a specific area. The ids of the neighbors are stored in 
+	 * {@code neighborBuffer}.
 	 * 
-	 * @return list of neighbor point ids, which are related to a given point
+	 * @param point_id point position in the indexed points
 	 */
-	private List<Integer> findNeighbors(final int point_id) {
-		List<Integer> result = new ArrayList<Integer>();
-		
-		for(int ptrIndex = 0; ptrIndex < distanceMatrix.length; ptrIndex++) {
-			if((point_id != ptrIndex) && (distanceMatrix[ptrIndex][point_id] < eps)) {
-				result.add(ptrIndex);
-			}
-		}
-		
-		return result;
+	private void findNeighbors(final int point_id) {
+		neighborBuffer.clear();
+		neighborIndex.rangeQuery(point_id, eps, neighborBuffer);
 	}
 	
 	/**
-	 * Creates the cluster with all points which is the current visited point and all his neighbors and neighbors of the
-	 * neighbors. Is one of the point already in any cluster, this point will be ignored.
+	 * Labels all points of a cluster which are the current visited core point and all his neighbors and neighbors 
+	 * of the neighbors. Every point is put into the frontier at most once, namely when it gets its label. Points which
+	 * were already labeled as noise become border points of this cluster.
 	 * 
-	 * @param p current visited point
-	 * @param n neighbors of {@code p}
-	 *
-	 * @return a cluster containing all points which are "near" to each other
+	 * @param point_id current visited core point, its neighbors have to be in {@code neighborBuffer}
+	 * @param cluster_id label of the new cluster
 	 */
-	private Cluster expandCluster(final Point p, final List<Integer> n) {
-		Cluster c = new Cluster();
+	private void expandCluster(final int point_id, final int cluster_id) {
+		labels[point_id] = cluster_id;
 		
-		c.addPoint(p);
-		pointsMappedToCluster.add(p);
+		frontier.clear();
+		enqueueNeighbors(cluster_id);
 		
-		for(int index = 0; index < n.size(); index++) {
-			int np_id = n.get(index);
-			Point np = ptrArray[np_id];
+		for(int head = 0; head < frontier.size(); head++) {
+			int np_id = frontier.get(head);
 			
-			if(!visitedPoints.contains(np)) {
-				visitedPoints.add(np);
+			if(!visitedPoints.get(np_id)) {
+				visitedPoints.set(np_id);
 				
-				List<Integer> neighbors = findNeighbors(np_id);
+				findNeighbors(np_id);
 				
-				if(neighbors.size() >= minPtr) {
-					merge(n, neighbors);
+				if(neighborBuffer.size() >= minPtr) {
+					enqueueNeighbors(cluster_id);
 				}
 			}
+		}
+	}
+	
+	/**
+	 * Labels all points in {@code neighborBuffer} which do not belong to a cluster yet and puts them into the 
+	 * frontier.
+	 * 
+	 * @param cluster_id label of the expanded cluster
+	 */
+	private void enqueueNeighbors(final int cluster_id) {
+		for(int i = 0; i < neighborBuffer.size(); i++) {
+			int np_id = neighborBuffer.get(i);
 			
-			if(!pointsMappedToCluster.contains(np)) {
-				c.addPoint(np);
+			if(labels[np_id] < 0) {
+				labels[np_id] = cluster_id;
+				frontier.add(np_id);
 			}
 		}
-		
-		return c;
 	}
 	
 	/**
-	 * Merges to list by taking all points of {@code newNeighbors} and adds only the points to {@code currentNeighbors}
-	 * which are not already in this list.
+	 * Creates the resulting clusters from computed labels. Points with a negative label are noise and not part of 
+	 * any cluster.
 	 * 
-	 * @param currentNeighbors resulting list which contains all points
-	 * @param newNeighbors list of points which has to be added to {@code currentNeighbors}
+	 * @param points all clustered points
+	 * @param labels cluster id of every point, or a negative value for noise
+	 * @param numberOfClusters number of found clusters
+	 * @return list of clusters ordered by their id
 	 */
-	private void merge(List<Integer> currentNeighbors, final List<Integer> newNeighbors) {
-		for(Integer p : newNeighbors) {			
-			if(!currentNeighbors.contains(p)) {
-				currentNeighbors.add(p);
+	static List<Cluster> collectClusters(final Point[] points, final int[] labels, final int numberOfClusters) {
+		List<Cluster> resultCluster = new ArrayList<Cluster>(numberOfClusters);
+		
+		for(int i = 0; i < numberOfClusters; i++) {
+			resultCluster.add(new Cluster());
+		}
+		
+		for(int index = 0; index < points.length; index++) {
+			if(labels[index] >= 0) {
+				resultCluster.get(labels[index]).addPoint(points[index]);
 			}
 		}
+		
+		return resultCluster;
 	}
 	
 	/**
-	 * Computes the distance matrix for a collection of points. Because it is a symmetric matrix, we only need to compute
-	 * the upper half of the matrix and copies the value to the symmetric position.
-
-	 * @return computed distance matrix which contains all distances between points
+	 * Creates the resulting clusters from computed labels like {@link #collectClusters(Point[], int[], int)}. Only 
+	 * the points of a cluster are taken from the set, so no point object is created for noise.
+	 * 
+	 * @param points all clustered points
+	 * @param labels cluster id of every point, or a negative value for noise
+	 * @param numberOfClusters number of found clusters
+	 * @return list of clusters ordered by their id
 	 */
-	private double[][] computeDistanceMatrix() {
-		int numberOfPoints = ptrArray.length;
-		double[][] distMatrix = new double[numberOfPoints][numberOfPoints];
-		
-		for(int row = 0; row < numberOfPoints; row++) {
-			for(int col = row; col < numberOfPoints; col++) {
-				if(row == col) {
-					distMatrix[row][col] = 0;
-				} else {
-					distMatrix[row][col] = distMatrix[col][row] = distFunction.calculate(ptrArray[row], ptrArray[col]);
-				}
+	static List<Cluster> collectClusters(final PointSet points, final int[] labels, final int numberOfClusters) {
+		List<Cluster> resultCluster = new ArrayList<Cluster>(numberOfClusters);
+		
+		for(int i = 0; i < numberOfClusters; i++) {
+			resultCluster.add(new Cluster());
+		}
+		
+		for(int index = 0; index < points.size(); index++) {
+			if(labels[index] >= 0) {
+				resultCluster.get(labels[index]).addPoint(points.getPoint(index));
 			}
 		}
 		
-		return distMatrix;
+		return resultCluster;
+	}
+	
+	/**
+	 * Selects the index for a distance function. The pruning of the {@link KDTree} is only correct for distance 
+	 * functions which are never smaller than the difference in a single dimension.
+	 * 
+	 * @param distFunction distance function which is used to compute the distance between to points
+	 * @return a new index supporting the distance function
+	 */
+	static NeighborIndex defaultIndex(final PointBasedDistanceFunction distFunction) {
+		if(distFunction instanceof EuclideanDistance || distFunction instanceof ManhattanDistance) {
+			return new KDTree();
+		}
+		
+		return new LinearScan();
 	}
 
 }
@@ -0,0 +1,564 @@
+package de.jail.statistic.clustering.density;
+
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+import de.jail.geometry.distancefunctions.PointBasedDistanceFunction;
+import de.jail.geometry.distancefunctions.impl.EuclideanDistance;
+import de.jail.geometry.neighborsearch.NeighborIndex;
+import de.jail.geometry.schemas.Point;
+import de.jail.geometry.schemas.PointSet;
+import de.jail.statistic.clustering.Cluster;
+import de.jail.utils.IntList;
+
+/**
+ * Runs {@link DBScan} for a grid of settings, every combination of a list of distances {@code eps} and a list of
+ * minimum points {@code minPtr}, while the neighbors are searched only once.
+ * <p>
+ * The neighbors of every point up to the largest {@code eps} are collected with parallel range queries and stored
+ * sorted by their distance in a compressed sparse row structure: the neighbors of point {@code i} are located at the
+ * positions {@code pointers[i]} to {@code pointers[i + 1]} of a single id and a single surrogate array. The rows keep
+ * the surrogates of the distance function, like the squared Euclidean distance, which are compared with the surrogate
+ * of every {@code eps} exactly like in {@link DBScan}, so rounding cannot move a neighbor at the border of {@code eps}.
+ * The neighbors of a point for a smaller {@code eps} are then a prefix of its row, whose length is found by a binary
+ * search. The memory is linear in the number of neighbor pairs for the largest {@code eps}.
+ * </p>
+ * <p>
+ * Every distance is a task of a {@link ForkJoinPool}, which counts the neighbors of all points once and computes the
+ * clusterings for all {@code minPtr} with a union-find of the core points. The core points, the noise and the
+ * clusters of the core points are the same as those of {@link DBScan}. A border point is assigned to the cluster of
+ * its nearest core point.
+ * </p>
+ *
+ * @author Christian Vogel
+ */
+public class DBScanSweep {
+
+	/** label of a point which is not part of any cluster */
+	private static final int NOISE = -1;
+
+	/** minimum number of points which are queried by a single task */
+	private static final int MIN_GRAIN = 256;
+
+	private final PointBasedDistanceFunction distFunction;
+
+	private final NeighborIndex neighborIndex;
+
+	private final ForkJoinPool pool;
+
+	/** sorted neighbors of the points of a run */
+	private int[] pointers;
+
+	private int[] neighborIds;
+
+	private double[] neighborSurrogates;
+
+	/**
+	 * Default constructor using the Euclidean distance and the common pool.
+	 */
+	public DBScanSweep() {
+		this(new EuclideanDistance());
+	}
+
+	/**
+	 * Constructor with a specific distance function. The index is chosen like in {@link DBScan} and the work is
+	 * done in the common pool.
+	 *
+	 * @param distFunction distance function which is used to compute the distance between to points
+	 */
+	public DBScanSweep(final PointBasedDistanceFunction distFunction) {
+		this(distFunction, DBScan.defaultIndex(distFunction), ForkJoinPool.commonPool());
+	}
+
+	/**
+	 * Constructor with a specific distance function, the index which is used to find the neighbors of a point and
+	 * the pool running the tasks. A pool with a parallelism of one runs the sweep sequentially.
+	 *
+	 * @param distFunction distance function which is used to compute the distance between to points
+	 * @param index index answering the neighbor queries, it has to support {@code distFunction}
+	 * @param pool pool whose threads execute the neighbor queries and the clusterings
+	 */
+	public DBScanSweep(final PointBasedDistanceFunction distFunction, final NeighborIndex index,
+			final ForkJoinPool pool) {
+		if(distFunction == null || index == null || pool == null) {
+			throw new IllegalArgumentException("arguments must not be null!");
+		}
+
+		this.distFunction = distFunction;
+		this.neighborIndex = index;
+		this.pool = pool;
+	}
+
+	/**
+	 * Clusters the points for every combination of the given distances and minimum points.
+	 *
+	 * @param points collection of points which will be clustered
+	 * @param eps distances of the grid
+	 * @param minPtr minimum points of the grid
+	 * @return result of every setting, the setting {@code (eps[i], minPtr[j])} at position
+	 * {@code i * minPtr.length + j}
+	 */
+	public List<Result> sweep(final Collection<Point> points, final double[] eps, final int[] minPtr) {
+		if(points == null) {
+			throw new IllegalArgumentException("argument must not be null!");
+		}
+
+		Point[] ptrArray = new Point[points.size()];
+		ptrArray = points.toArray(ptrArray);
+
+		return sweep(points.isEmpty() ? new PointSet(0, 1) : PointSet.fromPoints(points), ptrArray, eps, minPtr);
+	}
+
+	/**
+	 * Clusters the points of a set for every combination of the given distances and minimum points. The clusters
+	 * contain views of the points, which share their coordinates with the set.
+	 *
+	 * @param points set of points which will be clustered
+	 * @param eps distances of the grid
+	 * @param minPtr minimum points of the grid
+	 * @return result of every setting, the setting {@code (eps[i], minPtr[j])} at position
+	 * {@code i * minPtr.length + j}
+	 */
+	public List<Result> sweep(final PointSet points, final double[] eps, final int[] minPtr) {
+		if(points == null) {
+			throw new IllegalArgumentException("argument must not be null!");
+		}
+
+		return sweep(points, null, eps, minPtr);
+	}
+
+	private List<Result> sweep(final PointSet points, final Point[] ptrArray, final double[] eps, final int[] minPtr) {
+		if(eps == null || minPtr == null) {
+			throw new IllegalArgumentException("arguments must not be null!");
+		}
+
+		double maxEps = 0;
+
+		for(double value : eps) {
+			maxEps = Math.max(maxEps, value);
+		}
+
+		int numberOfPoints = points.size();
+		Result[] results = new Result[eps.length * minPtr.length];
+
+		neighborIndex.build(points, distFunction);
+
+		pointers = new int[numberOfPoints + 1];
+		int[][] rowIds = new int[numberOfPoints][];
+		double[][] rowSurrogates = new double[numberOfPoints][];
+
+		pool.invoke(new NeighborTask(points, maxEps, rowIds, rowSurrogates, 0, numberOfPoints,
+				Math.max(MIN_GRAIN, numberOfPoints / (pool.getParallelism() * 8))));
+
+		for(int index = 0; index < numberOfPoints; index++) {
+			pointers[index + 1] = pointers[index] + rowIds[index].length;
+		}
+
+		neighborIds = new int[pointers[numberOfPoints]];
+		neighborSurrogates = new double[pointers[numberOfPoints]];
+
+		for(int index = 0; index < numberOfPoints; index++) {
+			System.arraycopy(rowIds[index], 0, neighborIds, pointers[index], rowIds[index].length);
+			System.arraycopy(rowSurrogates[index], 0, neighborSurrogates, pointers[index], rowSurrogates[index].length);
+
+			rowIds[index] = null;
+			rowSurrogates[index] = null;
+		}
+
+		SettingTask[] tasks = new SettingTask[eps.length];
+
+		for(int i = 0; i < eps.length; i++) {
+			tasks[i] = new SettingTask(points, ptrArray, eps[i], minPtr, results, i * minPtr.length);
+		}
+
+		for(SettingTask task : tasks) {
+			pool.execute(task);
+		}
+
+		for(SettingTask task : tasks) {
+			task.join();
+		}
+
+		pointers = null;
+		neighborIds = null;
+		neighborSurrogates = null;
+
+		return Arrays.asList(results);
+	}
+
+	/**
+	 * Computes the cluster of every point for a distance and a minimum number of points.
+	 *
+	 * @param counts number of neighbors of every point nearer than the distance
+	 * @param minPtr number of neighbor points, otherwise points are noise
+	 * @param parent array for the union-find of the core points
+	 * @param labels array receiving the cluster of every point
+	 * @return number of clusters
+	 */
+	private int computeLabels(final int[] counts, final int minPtr, final int[] parent, final int[] labels) {
+		int numberOfPoints = counts.length;
+
+		for(int index = 0; index < numberOfPoints; index++) {
+			parent[index] = index;
+		}
+
+		for(int index = 0; index < numberOfPoints; index++) {
+			if(counts[index] < minPtr) {
+				continue;
+			}
+
+			for(int position = pointers[index]; position < pointers[index] + counts[index]; position++) {
+				int neighbor = neighborIds[position];
+
+				if(neighbor < index && counts[neighbor] >= minPtr) {
+					int first = find(parent, index);
+					int second = find(parent, neighbor);
+
+					if(first != second) {
+						parent[Math.max(first, second)] = Math.min(first, second);
+					}
+				}
+			}
+		}
+
+		// the root of every set is its smallest point, so the clusters are numbered in the order of their first point
+		int numberOfClusters = 0;
+
+		for(int index = 0; index < numberOfPoints; index++) {
+			labels[index] = NOISE;
+
+			if(counts[index] >= minPtr) {
+				int root = find(parent, index);
+
+				labels[index] = root == index ? numberOfClusters++ : labels[root];
+			}
+		}
+
+		for(int index = 0; index < numberOfPoints; index++) {
+			if(counts[index] >= minPtr) {
+				continue;
+			}
+
+			for(int position = pointers[index]; position < pointers[index] + counts[index]; position++) {
+				int neighbor = neighborIds[position];
+
+				if(counts[neighbor] >= minPtr) {
+					labels[index] = labels[neighbor];
+					break;
+				}
+			}
+		}
+
+		return numberOfClusters;
+	}
+
+	private static int find(final int[] parent, int element) {
+		while(parent[element] != element) {
+			parent[element] = parent[parent[element]];
+			element = parent[element];
+		}
+
+		return element;
+	}
+
+	/**
+	 * Sorts the neighbors in the range {@code [from, to)} by their distance.
+	 *
+	 * @param ids ids of the neighbors, rearranged together with the distances
+	 * @param distances distances or surrogates of the distances of the neighbors
+	 * @param from first position of the range
+	 * @param to position after the last position of the range
+	 */
+	private static void sortByDistance(final int[] ids, final double[] distances, int from, int to) {
+		while(to - from > 16) {
+			double pivot = distances[(from + to - 1) >>> 1];
+
+			int i = from;
+			int j = to - 1;
+
+			while(i <= j) {
+				while(distances[i] < pivot) {
+					i++;
+				}
+
+				while(distances[j] > pivot) {
+					j--;
+				}
+
+				if(i <= j) {
+					swap(ids, distances, i++, j--);
+				}
+			}
+
+			// the smaller part is sorted recursively, the larger one in this loop
+			if(j - from < to - i) {
+				sortByDistance(ids, distances, from, j + 1);
+				from = i;
+			} else {
+				sortByDistance(ids, distances, i, to);
+				to = j + 1;
+			}
+		}
+
+		for(int i = from + 1; i < to; i++) {
+			for(int j = i; j > from && distances[j - 1] > distances[j]; j--) {
+				swap(ids, distances, j - 1, j);
+			}
+		}
+	}
+
+	private static void swap(final int[] ids, final double[] distances, final int first, final int second) {
+		int id = ids[first];
+		ids[first] = ids[second];
+		ids[second] = id;
+
+		double distance = distances[first];
+		distances[first] = distances[second];
+		distances[second] = distance;
+	}
+
+	/**
+	 * Result of a single setting of the sweep.
+	 */
+	public static final class Result {
+
+		private final double eps;
+
+		private final int minPtr;
+
+		private final int[] labels;
+
+		private final int numberOfClusters;
+
+		private final int numberOfNoise;
+
+		private final PointSet points;
+
+		private final Point[] ptrArray;
+
+		private Result(final double eps, final int minPtr, final int[] labels, final int numberOfClusters,
+				final PointSet points, final Point[] ptrArray) {
+			int noise = 0;
+
+			for(int label : labels) {
+				if(label == NOISE) {
+					noise++;
+				}
+			}
+
+			this.eps = eps;
+			this.minPtr = minPtr;
+			this.labels = labels;
+			this.numberOfClusters = numberOfClusters;
+			this.numberOfNoise = noise;
+			this.points = points;
+			this.ptrArray = ptrArray;
+		}
+
+		/**
+		 * Returns the distance of the setting.
+		 *
+		 * @return eps of the setting
+		 */
+		public double getEps() {
+			return eps;
+		}
+
+		/**
+		 * Returns the minimum points of the setting.
+		 *
+		 * @return minPtr of the setting
+		 */
+		public int getMinPtr() {
+			return minPtr;
+		}
+
+		/**
+		 * Returns the number of clusters.
+		 *
+		 * @return number of clusters
+		 */
+		public int getNumberOfClusters() {
+			return numberOfClusters;
+		}
+
+		/**
+		 * Returns the number of points which are not part of any cluster.
+		 *
+		 * @return number of noise points
+		 */
+		public int getNumberOfNoise() {
+			return numberOfNoise;
+		}
+
+		/**
+		 * Returns the cluster of every point.
+		 *
+		 * @return cluster id of every point, or -1 for noise
+		 */
+		public int[] getLabels() {
+			return labels.clone();
+		}
+
+		/**
+		 * Collects the clusters of the setting, which are created on every call.
+		 *
+		 * @return list of clusters ordered by their first point
+		 */
+		public List<Cluster> getClusters() {
+			if(ptrArray != null) {
+				return DBScan.collectClusters(ptrArray, labels, numberOfClusters);
+			}
+
+			return DBScan.collectClusters(points, labels, numberOfClusters);
+		}
+	}
+
+	/**
+	 * Collects the neighbors up to the largest distance of every point in a range together with the surrogates of
+	 * their distances and sorts them by distance.
+	 */
+	private final class NeighborTask extends RecursiveAction {
+
+		private static final long serialVersionUID = 1L;
+
+		private final PointSet points;
+
+		private final double maxEps;
+
+		private final int[][] rowIds;
+
+		private final double[][] rowSurrogates;
+
+		private final int from;
+
+		private final int to;
+
+		private final int grain;
+
+		private NeighborTask(final PointSet points, final double maxEps, final int[][] rowIds,
+				final double[][] rowSurrogates, final int from, final int to, final int grain) {
+			this.points = points;
+			this.maxEps = maxEps;
+			this.rowIds = rowIds;
+			this.rowSurrogates = rowSurrogates;
+			this.from = from;
+			this.to = to;
+			this.grain = grain;
+		}
+
+		@Override
+		protected void compute() {
+			if(to - from > grain) {
+				int mid = (from + to) >>> 1;
+
+				invokeAll(new NeighborTask(points, maxEps, rowIds, rowSurrogates, from, mid, grain),
+						new NeighborTask(points, maxEps, rowIds, rowSurrogates, mid, to, grain));
+				return;
+			}
+
+			int dimension = points.getDimension();
+			double[] data = points.hasArray() ? points.getData() : null;
+			double[] query = data != null ? null : new double[dimension];
+			double[] neighbor = data != null ? null : new double[dimension];
+
+			IntList neighbors = new IntList();
+
+			for(int index = from; index < to; index++) {
+				neighbors.clear();
+				neighborIndex.rangeQuery(index, maxEps, neighbors);
+
+				int[] ids = neighbors.toArray();
+				double[] surrogates = new double[ids.length];
+
+				if(data == null) {
+					points.readPoint(index, query, 0);
+				}
+
+				// the whole surrogate is computed, the same value DBScan compares with the surrogate of its eps
+				for(int n = 0; n < ids.length; n++) {
+					if(data != null) {
+						surrogates[n] = distFunction.calculateSurrogate(data, points.offsetOf(index), data,
+								points.offsetOf(ids[n]), dimension, Double.POSITIVE_INFINITY);
+					} else {
+						points.readPoint(ids[n], neighbor, 0);
+						surrogates[n] = distFunction.calculateSurrogate(query, 0, neighbor, 0, dimension,
+								Double.POSITIVE_INFINITY);
+					}
+				}
+
+				sortByDistance(ids, surrogates, 0, ids.length);
+
+				rowIds[index] = ids;
+				rowSurrogates[index] = surrogates;
+			}
+		}
+	}
+
+	/**
+	 * Clusters the points for a single distance and all minimum points.
+	 */
+	private final class SettingTask extends RecursiveAction {
+
+		private static final long serialVersionUID = 1L;
+
+		private final PointSet points;
+
+		private final Point[] ptrArray;
+
+		private final double eps;
+
+		private final int[] minPtr;
+
+		private final Result[] results;
+
+		private final int offset;
+
+		private SettingTask(final PointSet points, final Point[] ptrArray, final double eps, final int[] minPtr,
+				final Result[] results, final int offset) {
+			this.points = points;
+			this.ptrArray = ptrArray;
+			this.eps = eps;
+			this.minPtr = minPtr;
+			this.results = results;
+			this.offset = offset;
+		}
+
+		@Override
+		protected void compute() {
+			int numberOfPoints = pointers.length - 1;
+			int[] counts = new int[numberOfPoints];
+			int[] parent = new int[numberOfPoints];
+			double bound = distFunction.toSurrogate(eps);
+
+			// the neighbors nearer than eps are the prefix of every row before the first surrogate of at least eps
+			for(int index = 0; index < numberOfPoints; index++) {
+				int low = pointers[index];
+				int high = pointers[index + 1];
+
+				while(low < high) {
+					int mid = (low + high) >>> 1;
+
+					if(neighborSurrogates[mid] < bound) {
+						low = mid + 1;
+					} else {
+						high = mid;
+					}
+				}
+
+				counts[index] = low - pointers[index];
+			}
+
+			for(int j = 0; j < minPtr.length; j++) {
+				int[] labels = new int[numberOfPoints];
+				int numberOfClusters = computeLabels(counts, minPtr[j], parent, labels);
+
+				results[offset + j] = new Result(eps, minPtr[j], labels, numberOfClusters, points, ptrArray);
+			}
+		}
+	}
+
+}
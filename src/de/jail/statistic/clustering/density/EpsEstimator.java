@@ -0,0 +1,302 @@
+package de.jail.statistic.clustering.density;
+
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+import de.jail.geometry.distancefunctions.PointBasedDistanceFunction;
+import de.jail.geometry.distancefunctions.impl.EuclideanDistance;
+import de.jail.geometry.neighborsearch.NeighborIndex;
+import de.jail.geometry.schemas.Point;
+import de.jail.geometry.schemas.PointSet;
+import de.jail.utils.DoubleList;
+import de.jail.utils.IntList;
+
+/**
+ * Suggests the distance {@code eps} of {@link DBScan} for a given {@code minPtr} from the k-distance curve. The
+ * k-distance of a point is the distance to its {@code minPtr}-th nearest neighbor, like the core distance of
+ * {@link Optics}. Sorted in ascending order, the k-distances of the points inside clusters form a flat part and
+ * those of the noise a steep part of the curve, and the suggested {@code eps} is the k-distance at the knee between
+ * both.
+ * <p>
+ * The knee is found with the Kneedle method: both axes are normalized to {@code [0, 1]} and the knee is the point
+ * where the curve is farthest below the line from its first to its last point.
+ * </p>
+ * <p>
+ * The k-distances are computed with nearest neighbor queries of a {@link NeighborIndex}, which is built for all
+ * points, split across the threads of a {@link ForkJoinPool}. With a sample size only the k-distances of a uniform
+ * sample of the points are computed, but still to their nearest neighbors among all points, so the curve keeps its
+ * shape and only its resolution drops. For millions of points a sample of some thousand points needs only the time
+ * to build the index.
+ * </p>
+ *
+ * @author Christian Vogel
+ */
+public class EpsEstimator {
+
+	/** minimum number of points which are queried by a single task */
+	private static final int MIN_GRAIN = 256;
+
+	private final int minPtr;
+
+	private final int sampleSize;
+
+	private final long seed;
+
+	private final PointBasedDistanceFunction distFunction;
+
+	private final NeighborIndex neighborIndex;
+
+	private final ForkJoinPool pool;
+
+	private double[] kDistances;
+
+	private int knee;
+
+	/**
+	 * Constructor with the minimum points of the following {@link DBScan}. The k-distances of all points are computed
+	 * with the default Euclidean distance.
+	 *
+	 * @param minPtr number of neighbor points, otherwise points are noise
+	 */
+	public EpsEstimator(final int minPtr) {
+		this(minPtr, 0);
+	}
+
+	/**
+	 * Constructor with the minimum points of the following {@link DBScan} and the size of the sample. The
+	 * k-distances are computed with the default Euclidean distance.
+	 *
+	 * @param minPtr number of neighbor points, otherwise points are noise
+	 * @param sampleSize number of points whose k-distance is computed, zero for all points
+	 */
+	public EpsEstimator(final int minPtr, final int sampleSize) {
+		this(minPtr, sampleSize, new EuclideanDistance());
+	}
+
+	/**
+	 * Constructor with the minimum points of the following {@link DBScan}, the size of the sample and a specific
+	 * distance function. The index is chosen like in {@link DBScan} and the work is done in the common pool.
+	 *
+	 * @param minPtr number of neighbor points, otherwise points are noise
+	 * @param sampleSize number of points whose k-distance is computed, zero for all points
+	 * @param distFunction distance function which is used to compute the distance between to points
+	 */
+	public EpsEstimator(final int minPtr, final int sampleSize, final PointBasedDistanceFunction distFunction) {
+		this(minPtr, sampleSize, 0, distFunction, DBScan.defaultIndex(distFunction), ForkJoinPool.commonPool());
+	}
+
+	/**
+	 * Constructor with the minimum points of the following {@link DBScan}, the size of the sample and the seed
+	 * which selects it, a specific distance function, the index which is used to find the nearest neighbors and the
+	 * pool running the queries.
+	 *
+	 * @param minPtr number of neighbor points, otherwise points are noise
+	 * @param sampleSize number of points whose k-distance is computed, zero for all points
+	 * @param seed seed of the random sample
+	 * @param distFunction distance function which is used to compute the distance between to points
+	 * @param index index answering the nearest neighbor queries, it has to support {@code distFunction}
+	 * @param pool pool whose threads execute the queries
+	 */
+	public EpsEstimator(final int minPtr, final int sampleSize, final long seed,
+			final PointBasedDistanceFunction distFunction, final NeighborIndex index, final ForkJoinPool pool) {
+		if(distFunction == null || index == null || pool == null) {
+			throw new IllegalArgumentException("arguments must not be null!");
+		}
+
+		if(minPtr < 1) {
+			throw new IllegalArgumentException("minPtr must be at least one");
+		}
+
+		if(sampleSize < 0) {
+			throw new IllegalArgumentException("sample size must not be negative");
+		}
+
+		this.minPtr = minPtr;
+		this.sampleSize = sampleSize;
+		this.seed = seed;
+		this.distFunction = distFunction;
+		this.neighborIndex = index;
+		this.pool = pool;
+	}
+
+	/**
+	 * Suggests the distance {@code eps} for a collection of points.
+	 *
+	 * @param points collection of points which will be clustered
+	 * @return suggested distance
+	 */
+	public double estimate(final Collection<Point> points) {
+		if(points == null) {
+			throw new IllegalArgumentException("argument must not be null!");
+		}
+
+		return estimate(PointSet.fromPoints(points));
+	}
+
+	/**
+	 * Suggests the distance {@code eps} for a set of points. Since {@link DBScan} only counts neighbors which are
+	 * nearer than {@code eps}, the suggestion is the next larger value after the k-distance at the knee, so all
+	 * points up to the knee are core points.
+	 *
+	 * @param points set of points which will be clustered
+	 * @return suggested distance
+	 */
+	public double estimate(final PointSet points) {
+		if(points == null) {
+			throw new IllegalArgumentException("argument must not be null!");
+		}
+
+		if(points.size() <= minPtr) {
+			throw new IllegalArgumentException("at least " + (minPtr + 1) + " points are needed");
+		}
+
+		int[] sample = sample(points.size());
+
+		neighborIndex.build(points, distFunction);
+
+		kDistances = new double[sample.length];
+		pool.invoke(new KDistanceTask(sample, 0, sample.length,
+				Math.max(MIN_GRAIN, sample.length / (pool.getParallelism() * 8))));
+
+		Arrays.sort(kDistances);
+		knee = findKnee(kDistances);
+
+		return Math.nextUp(kDistances[knee]);
+	}
+
+	/**
+	 * Returns the sorted k-distances of the last estimation.
+	 *
+	 * @return k-distance of every point of the sample in ascending order
+	 */
+	public double[] getKDistances() {
+		checkEstimated();
+
+		return kDistances.clone();
+	}
+
+	/**
+	 * Returns the position of the knee in the sorted k-distances of the last estimation.
+	 *
+	 * @return position of the knee in {@link #getKDistances()}
+	 */
+	public int getKnee() {
+		checkEstimated();
+
+		return knee;
+	}
+
+	private void checkEstimated() {
+		if(kDistances == null) {
+			throw new IllegalStateException("no eps has been estimated");
+		}
+	}
+
+	/**
+	 * Selects the points of the sample with the selection sampling of Knuth, which takes every point with the
+	 * probability of the number of points still needed divided by the number of points left.
+	 *
+	 * @param numberOfPoints number of points
+	 * @return ids of the selected points in ascending order
+	 */
+	private int[] sample(final int numberOfPoints) {
+		if(sampleSize == 0 || sampleSize >= numberOfPoints) {
+			int[] all = new int[numberOfPoints];
+
+			for(int index = 0; index < numberOfPoints; index++) {
+				all[index] = index;
+			}
+
+			return all;
+		}
+
+		Random random = new Random(seed);
+		int[] selected = new int[sampleSize];
+		int count = 0;
+
+		for(int index = 0; index < numberOfPoints && count < sampleSize; index++) {
+			if(random.nextInt(numberOfPoints - index) < sampleSize - count) {
+				selected[count++] = index;
+			}
+		}
+
+		return selected;
+	}
+
+	/**
+	 * Finds the knee of an increasing curve which bends upwards with the Kneedle method.
+	 *
+	 * @param values sorted values of the curve
+	 * @return position of the knee
+	 */
+	private static int findKnee(final double[] values) {
+		int last = values.length - 1;
+		double range = values[last] - values[0];
+
+		if(last == 0 || !(range > 0)) {
+			return last;
+		}
+
+		int knee = last;
+		double largest = Double.NEGATIVE_INFINITY;
+
+		for(int position = 0; position <= last; position++) {
+			double difference = (double)position / last - (values[position] - values[0]) / range;
+
+			if(difference > largest) {
+				largest = difference;
+				knee = position;
+			}
+		}
+
+		return knee;
+	}
+
+	/**
+	 * Computes the k-distance of every point in a range of the sample.
+	 */
+	private final class KDistanceTask extends RecursiveAction {
+
+		private static final long serialVersionUID = 1L;
+
+		private final int[] sample;
+
+		private final int from;
+
+		private final int to;
+
+		private final int grain;
+
+		private KDistanceTask(final int[] sample, final int from, final int to, final int grain) {
+			this.sample = sample;
+			this.from = from;
+			this.to = to;
+			this.grain = grain;
+		}
+
+		@Override
+		protected void compute() {
+			if(to - from > grain) {
+				int mid = (from + to) >>> 1;
+
+				invokeAll(new KDistanceTask(sample, from, mid, grain), new KDistanceTask(sample, mid, to, grain));
+				return;
+			}
+
+			IntList neighbors = new IntList(minPtr);
+			DoubleList distances = new DoubleList(minPtr);
+
+			for(int position = from; position < to; position++) {
+				neighbors.clear();
+				distances.clear();
+				neighborIndex.knnQuery(sample[position], minPtr, neighbors, distances);
+
+				kDistances[position] = distances.get(minPtr - 1);
+			}
+		}
+	}
+
+}
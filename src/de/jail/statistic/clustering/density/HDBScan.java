@@ -0,0 +1,669 @@
+package de.jail.statistic.clustering.density;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.concurrent.RecursiveTask;
+
+import de.jail.geometry.distancefunctions.PointBasedDistanceFunction;
+import de.jail.geometry.distancefunctions.impl.EuclideanDistance;
+import de.jail.geometry.neighborsearch.NeighborIndex;
+import de.jail.geometry.schemas.Point;
+import de.jail.geometry.schemas.PointSet;
+import de.jail.statistic.clustering.Cluster;
+import de.jail.statistic.clustering.Clusterer;
+import de.jail.utils.DoubleList;
+import de.jail.utils.IntList;
+
+/**
+ * Hierarchical density based clustering (HDBSCAN). Instead of a single distance {@code eps} like {@link DBScan},
+ * all distances are considered at once and the clusters which are stable over the widest range of densities are
+ * selected, so clusters of different densities are found in a single run.
+ * <p>
+ * The core distance of a point is the distance to its {@code minPtr}-th nearest neighbor, like in {@link Optics},
+ * and is found with a nearest neighbor query of a {@link NeighborIndex}. The mutual reachability distance of two
+ * points is the largest one of their distance and both core distances. The clustering consists of four steps:
+ * </p>
+ * <ol>
+ * <li>the core distances are computed by parallel nearest neighbor queries</li>
+ * <li>the minimum spanning tree of the mutual reachability distances is built with Prim's algorithm on the complete
+ * graph, whose edges are computed when needed instead of being stored</li>
+ * <li>the edges of the tree are merged by their length into the single linkage hierarchy, which is condensed by
+ * dropping every split off part which is smaller than {@code minClusterSize}</li>
+ * <li>the clusters of the condensed hierarchy are selected by their excess of mass, so a cluster is preferred to its
+ * descendants if it is at least as stable as all of them together</li>
+ * </ol>
+ * <p>
+ * Every step of Prim's algorithm updates the distances of all remaining points to the tree. These updates are
+ * split across the threads of a {@link ForkJoinPool}. A point whose distance to the tree is not larger than the
+ * core distances of both points is skipped without computing their distance, and the computation of all other
+ * distances stops as soon as they cannot improve the distance to the tree. Since the tree only depends on the order
+ * of the distances, the surrogates of the distance function are compared instead of the distances. The time is
+ * quadratic in the number of points, the memory is linear.
+ * </p>
+ * <p>
+ * Points which are not part of any selected cluster are noise. The whole data set is never selected as a single
+ * cluster, so a data set without any split into two clusters of {@code minClusterSize} points is noise completely.
+ * </p>
+ *
+ * @author Christian Vogel
+ */
+public class HDBScan implements Clusterer {
+
+	/** label of a point which is not part of any cluster */
+	private static final int NOISE = -1;
+
+	/** minimum number of points whose core distance is computed by a single task */
+	private static final int MIN_GRAIN = 256;
+
+	/** minimum number of points which are updated by a single task in a step of Prim's algorithm */
+	private static final int MIN_UPDATE_GRAIN = 4096;
+
+	private final int minPtr;
+
+	private final int minClusterSize;
+
+	private final PointBasedDistanceFunction distFunction;
+
+	private final NeighborIndex neighborIndex;
+
+	private final ForkJoinPool pool;
+
+	private double[] coreDistances;
+
+	private int[] labels;
+
+	private double[] stabilities;
+
+	/** state of Prim's algorithm during a run */
+	private double[] data;
+
+	private int dimension;
+
+	private double[] coreSurrogates;
+
+	private int[] remaining;
+
+	private double[] best;
+
+	private int[] bestFrom;
+
+	/**
+	 * Constructor with the number of neighbors defining the core distance and the minimum size of a cluster. The
+	 * distance function used is the default Euclidean distance and the work is done in the common pool.
+	 *
+	 * @param minPtr number of neighbor points defining the core distance
+	 * @param minClusterSize smallest number of points of a cluster, at least two
+	 */
+	public HDBScan(final int minPtr, final int minClusterSize) {
+		this(minPtr, minClusterSize, new EuclideanDistance());
+	}
+
+	/**
+	 * Constructor with the number of neighbors defining the core distance, the minimum size of a cluster and a
+	 * specific distance function. The index is chosen like in {@link DBScan} and the work is done in the common pool.
+	 *
+	 * @param minPtr number of neighbor points defining the core distance
+	 * @param minClusterSize smallest number of points of a cluster, at least two
+	 * @param distFunction distance function which is used to compute the distance between to points
+	 */
+	public HDBScan(final int minPtr, final int minClusterSize, final PointBasedDistanceFunction distFunction) {
+		this(minPtr, minClusterSize, distFunction, DBScan.defaultIndex(distFunction), ForkJoinPool.commonPool());
+	}
+
+	/**
+	 * Constructor with the number of neighbors defining the core distance, the minimum size of a cluster, a specific
+	 * distance function, the index which is used to find the nearest neighbors and the pool running the tasks.
+	 *
+	 * @param minPtr number of neighbor points defining the core distance
+	 * @param minClusterSize smallest number of points of a cluster, at least two
+	 * @param distFunction distance function which is used to compute the distance between to points
+	 * @param index index answering the nearest neighbor queries, it has to support {@code distFunction}
+	 * @param pool pool whose threads execute the queries and the updates of the spanning tree
+	 */
+	public HDBScan(final int minPtr, final int minClusterSize, final PointBasedDistanceFunction distFunction,
+			final NeighborIndex index, final ForkJoinPool pool) {
+		if(distFunction == null || index == null || pool == null) {
+			throw new IllegalArgumentException("arguments must not be null!");
+		}
+
+		if(minPtr < 0) {
+			throw new IllegalArgumentException("minPtr must not be negative");
+		}
+
+		if(minClusterSize < 2) {
+			throw new IllegalArgumentException("minimum cluster size must be at least two");
+		}
+
+		this.minPtr = minPtr;
+		this.minClusterSize = minClusterSize;
+		this.distFunction = distFunction;
+		this.neighborIndex = index;
+		this.pool = pool;
+	}
+
+	/* (non-Javadoc)
+	 * @see de.jail.statistic.clustering.Clusterer#cluster(java.util.Collection)
+	 */
+	@Override
+	public List<Cluster> cluster(Collection<Point> points) {
+		if(points == null) {
+			throw new IllegalArgumentException("argument must not be null!");
+		}
+
+		if(points.isEmpty()) {
+			return new ArrayList<Cluster>();
+		}
+
+		Point[] ptrArray = new Point[points.size()];
+		ptrArray = points.toArray(ptrArray);
+
+		compute(PointSet.fromPoints(points));
+
+		return DBScan.collectClusters(ptrArray, labels, stabilities.length);
+	}
+
+	/* (non-Javadoc)
+	 * @see de.jail.statistic.clustering.Clusterer#cluster(de.jail.geometry.schemas.PointSet)
+	 */
+	@Override
+	public List<Cluster> cluster(PointSet points) {
+		if(points == null) {
+			throw new IllegalArgumentException("argument must not be null!");
+		}
+
+		compute(points);
+
+		return DBScan.collectClusters(points, labels, stabilities.length);
+	}
+
+	/**
+	 * Returns the cluster of every point of the last run, the clusters are numbered in the order of their first
+	 * point.
+	 *
+	 * @return cluster id of every point, or -1 for noise
+	 */
+	public int[] getLabels() {
+		checkClustered();
+
+		return labels.clone();
+	}
+
+	/**
+	 * Returns the stability of every cluster of the last run, which is the sum of the inverse distances over which
+	 * its points stay in the cluster, reduced by the inverse distance at which the cluster is split off.
+	 *
+	 * @return stability of every cluster by its id
+	 */
+	public double[] getStabilities() {
+		checkClustered();
+
+		return stabilities.clone();
+	}
+
+	/**
+	 * Returns the core distance of every point of the last run.
+	 *
+	 * @return core distance of every point by its id
+	 */
+	public double[] getCoreDistances() {
+		checkClustered();
+
+		return coreDistances.clone();
+	}
+
+	private void checkClustered() {
+		if(labels == null) {
+			throw new IllegalStateException("no points have been clustered");
+		}
+	}
+
+	/**
+	 * Computes the labels and the stabilities of the clusters of the given points.
+	 *
+	 * @param points set containing the coordinates of all points
+	 */
+	private void compute(final PointSet points) {
+		int numberOfPoints = points.size();
+
+		neighborIndex.build(points, distFunction);
+
+		coreDistances = new double[numberOfPoints];
+		pool.invoke(new CoreDistanceTask(0, numberOfPoints,
+				Math.max(MIN_GRAIN, numberOfPoints / (pool.getParallelism() * 8))));
+
+		if(numberOfPoints < 2) {
+			labels = new int[numberOfPoints];
+			stabilities = new double[0];
+
+			Arrays.fill(labels, NOISE);
+			return;
+		}
+
+		int[] edgeFrom = new int[numberOfPoints - 1];
+		int[] edgeTo = new int[numberOfPoints - 1];
+		double[] edgeWeight = new double[numberOfPoints - 1];
+
+		spanningTree(points, edgeFrom, edgeTo, edgeWeight);
+		condense(numberOfPoints, edgeFrom, edgeTo, edgeWeight);
+	}
+
+	/**
+	 * Builds the minimum spanning tree of the mutual reachability distances with Prim's algorithm.
+	 *
+	 * @param points set containing the coordinates of all points
+	 * @param edgeFrom receives the point of every edge which was part of the tree before
+	 * @param edgeTo receives the point of every edge which was added to the tree by it
+	 * @param edgeWeight receives the mutual reachability distance of every edge
+	 */
+	private void spanningTree(final PointSet points, final int[] edgeFrom, final int[] edgeTo,
+			final double[] edgeWeight) {
+		int numberOfPoints = points.size();
+
+		dimension = points.getDimension();
+
+		if(points.hasArray()) {
+			data = points.getData();
+		} else {
+			// Prim's algorithm visits every point in every step, so a set which is not backed by an array is copied
+			if((long)numberOfPoints * dimension > Integer.MAX_VALUE) {
+				throw new IllegalArgumentException("the " + numberOfPoints + " points with " + dimension
+						+ " coordinates do not fit into an array");
+			}
+
+			data = new double[numberOfPoints * dimension];
+
+			for(int index = 0; index < numberOfPoints; index++) {
+				points.readPoint(index, data, index * dimension);
+			}
+		}
+
+		coreSurrogates = new double[numberOfPoints];
+		remaining = new int[numberOfPoints - 1];
+		best = new double[numberOfPoints];
+		bestFrom = new int[numberOfPoints];
+
+		for(int index = 0; index < numberOfPoints; index++) {
+			coreSurrogates[index] = distFunction.toSurrogate(coreDistances[index]);
+		}
+
+		for(int position = 0; position < remaining.length; position++) {
+			remaining[position] = position + 1;
+		}
+
+		Arrays.fill(best, Double.POSITIVE_INFINITY);
+
+		int grain = Math.max(MIN_UPDATE_GRAIN, numberOfPoints / (pool.getParallelism() * 4));
+		int count = remaining.length;
+		int current = 0;
+
+		for(int edge = 0; edge < edgeTo.length; edge++) {
+			int position = count > grain ? pool.invoke(new UpdateTask(current, 0, count, grain))
+					: update(current, 0, count);
+			int next = remaining[position];
+
+			edgeFrom[edge] = bestFrom[next];
+			edgeTo[edge] = next;
+			edgeWeight[edge] = distFunction.fromSurrogate(best[next]);
+
+			remaining[position] = remaining[--count];
+			current = next;
+		}
+
+		data = null;
+		coreSurrogates = null;
+		remaining = null;
+		best = null;
+		bestFrom = null;
+	}
+
+	/**
+	 * Updates the distance to the tree of the remaining points in the range {@code [from, to)} with the point which
+	 * was added last and finds the nearest of them.
+	 *
+	 * @param current point which was added to the tree last
+	 * @param from first position in the remaining points
+	 * @param to position after the last position in the remaining points
+	 * @return position of the remaining point which is nearest to the tree
+	 */
+	private int update(final int current, final int from, final int to) {
+		double currentCore = coreSurrogates[current];
+		int currentOffset = current * dimension;
+		int nearest = -1;
+
+		for(int position = from; position < to; position++) {
+			int id = remaining[position];
+			double bound = best[id];
+			double lower = Math.max(currentCore, coreSurrogates[id]);
+
+			if(lower < bound) {
+				double reach = Math.max(lower, distFunction.calculateSurrogate(data, currentOffset, data,
+						id * dimension, dimension, bound));
+
+				if(reach < bound) {
+					best[id] = reach;
+					bestFrom[id] = current;
+				}
+			}
+
+			if(nearest < 0 || nearer(id, remaining[nearest])) {
+				nearest = position;
+			}
+		}
+
+		return nearest;
+	}
+
+	/**
+	 * Compares the distance to the tree of two points, equal distances are ordered by the ids, so the tree does not
+	 * depend on the way the updates are split.
+	 */
+	private boolean nearer(final int first, final int second) {
+		return best[first] < best[second] || (best[first] == best[second] && first < second);
+	}
+
+	/**
+	 * Merges the edges of the spanning tree into the single linkage hierarchy, condenses it and selects the clusters
+	 * by their excess of mass. The labels and the stabilities of the selected clusters are stored.
+	 *
+	 * @param numberOfPoints number of points
+	 * @param edgeFrom first point of every edge
+	 * @param edgeTo second point of every edge
+	 * @param edgeWeight mutual reachability distance of every edge
+	 */
+	private void condense(final int numberOfPoints, final int[] edgeFrom, final int[] edgeTo,
+			final double[] edgeWeight) {
+		Integer[] edgeOrder = new Integer[edgeWeight.length];
+
+		for(int edge = 0; edge < edgeOrder.length; edge++) {
+			edgeOrder[edge] = edge;
+		}
+
+		Arrays.sort(edgeOrder, new Comparator<Integer>() {
+			@Override
+			public int compare(Integer first, Integer second) {
+				return Double.compare(edgeWeight[first], edgeWeight[second]);
+			}
+		});
+
+		// the merge m creates node numberOfPoints + m, smaller nodes are the points
+		int numberOfMerges = numberOfPoints - 1;
+		int[] left = new int[numberOfMerges];
+		int[] right = new int[numberOfMerges];
+		double[] lambda = new double[numberOfMerges];
+		int[] size = new int[numberOfMerges];
+
+		int[] parent = new int[numberOfPoints];
+		int[] setSize = new int[numberOfPoints];
+		int[] setNode = new int[numberOfPoints];
+
+		for(int index = 0; index < numberOfPoints; index++) {
+			parent[index] = index;
+			setSize[index] = 1;
+			setNode[index] = index;
+		}
+
+		for(int merge = 0; merge < numberOfMerges; merge++) {
+			int edge = edgeOrder[merge];
+			int first = find(parent, edgeFrom[edge]);
+			int second = find(parent, edgeTo[edge]);
+
+			left[merge] = setNode[first];
+			right[merge] = setNode[second];
+			lambda[merge] = edgeWeight[edge] > 0 ? 1 / edgeWeight[edge] : Double.MAX_VALUE;
+			size[merge] = setSize[first] + setSize[second];
+
+			if(setSize[first] < setSize[second]) {
+				int tmp = first;
+				first = second;
+				second = tmp;
+			}
+
+			parent[second] = first;
+			setSize[first] += setSize[second];
+			setNode[first] = numberOfPoints + merge;
+		}
+
+		// condensed clusters, the root is cluster 0 and every cluster has a larger id than its parent
+		IntList clusterParent = new IntList();
+		DoubleList birth = new DoubleList();
+		double[] stability = new double[numberOfPoints];
+		int[] pointCluster = new int[numberOfPoints];
+
+		clusterParent.add(-1);
+		birth.add(0);
+
+		IntList nodes = new IntList();
+		IntList nodeClusters = new IntList();
+		IntList fallen = new IntList();
+
+		nodes.add(numberOfPoints + numberOfMerges - 1);
+		nodeClusters.add(0);
+
+		for(int next = 0; next < nodes.size(); next++) {
+			int node = nodes.get(next);
+			int cluster = nodeClusters.get(next);
+
+			while(node >= numberOfPoints) {
+				int merge = node - numberOfPoints;
+				int leftSize = nodeSize(left[merge], numberOfPoints, size);
+				int rightSize = nodeSize(right[merge], numberOfPoints, size);
+				double gain = lambda[merge] - birth.get(cluster);
+
+				if(leftSize >= minClusterSize && rightSize >= minClusterSize) {
+					// the cluster ends and both parts continue as new clusters
+					stability[cluster] += (leftSize + rightSize) * gain;
+
+					nodes.add(right[merge]);
+					nodeClusters.add(clusterParent.size());
+					clusterParent.add(cluster);
+					birth.add(lambda[merge]);
+
+					node = left[merge];
+					clusterParent.add(cluster);
+					birth.add(lambda[merge]);
+					cluster = clusterParent.size() - 1;
+				} else {
+					int kept = -1;
+
+					if(leftSize >= minClusterSize) {
+						kept = left[merge];
+					} else {
+						fallen.add(left[merge]);
+					}
+
+					if(rightSize >= minClusterSize) {
+						kept = right[merge];
+					} else {
+						fallen.add(right[merge]);
+					}
+
+					// all points of the dropped parts leave the cluster at this distance
+					for(int i = 0; i < fallen.size(); i++) {
+						int dropped = fallen.get(i);
+
+						if(dropped < numberOfPoints) {
+							pointCluster[dropped] = cluster;
+							stability[cluster] += gain;
+						} else {
+							fallen.add(left[dropped - numberOfPoints]);
+							fallen.add(right[dropped - numberOfPoints]);
+						}
+					}
+
+					fallen.clear();
+
+					if(kept < 0) {
+						break;
+					}
+
+					node = kept;
+				}
+			}
+
+			if(node < numberOfPoints) {
+				pointCluster[node] = cluster;
+			}
+		}
+
+		select(numberOfPoints, clusterParent, stability, pointCluster);
+	}
+
+	/**
+	 * Selects the clusters of the condensed hierarchy by their excess of mass and labels the points.
+	 *
+	 * @param numberOfPoints number of points
+	 * @param clusterParent parent of every condensed cluster
+	 * @param stability stability of every condensed cluster
+	 * @param pointCluster condensed cluster which every point leaves last
+	 */
+	private void select(final int numberOfPoints, final IntList clusterParent, final double[] stability,
+			final int[] pointCluster) {
+		int numberOfClusters = clusterParent.size();
+		double[] descendants = new double[numberOfClusters];
+		boolean[] selected = new boolean[numberOfClusters];
+
+		// children have larger ids, so every cluster is decided after all of its descendants
+		for(int cluster = numberOfClusters - 1; cluster > 0; cluster--) {
+			selected[cluster] = stability[cluster] >= descendants[cluster];
+			descendants[clusterParent.get(cluster)] += Math.max(stability[cluster], descendants[cluster]);
+		}
+
+		// a selected cluster covers all of its descendants
+		int[] selectedAncestor = new int[numberOfClusters];
+		selectedAncestor[0] = -1;
+
+		for(int cluster = 1; cluster < numberOfClusters; cluster++) {
+			int ancestor = selectedAncestor[clusterParent.get(cluster)];
+
+			selectedAncestor[cluster] = ancestor < 0 && selected[cluster] ? cluster : ancestor;
+		}
+
+		int[] clusterLabel = new int[numberOfClusters];
+		DoubleList selectedStabilities = new DoubleList();
+
+		Arrays.fill(clusterLabel, -1);
+		labels = new int[numberOfPoints];
+
+		for(int index = 0; index < numberOfPoints; index++) {
+			int cluster = selectedAncestor[pointCluster[index]];
+
+			if(cluster < 0) {
+				labels[index] = NOISE;
+				continue;
+			}
+
+			if(clusterLabel[cluster] < 0) {
+				clusterLabel[cluster] = selectedStabilities.size();
+				selectedStabilities.add(stability[cluster]);
+			}
+
+			labels[index] = clusterLabel[cluster];
+		}
+
+		stabilities = selectedStabilities.toArray();
+	}
+
+	private static int nodeSize(final int node, final int numberOfPoints, final int[] size) {
+		return node < numberOfPoints ? 1 : size[node - numberOfPoints];
+	}
+
+	private static int find(final int[] parent, int element) {
+		while(parent[element] != element) {
+			parent[element] = parent[parent[element]];
+			element = parent[element];
+		}
+
+		return element;
+	}
+
+	/**
+	 * Computes the core distance of every point in a range.
+	 */
+	private final class CoreDistanceTask extends RecursiveAction {
+
+		private static final long serialVersionUID = 1L;
+
+		private final int from;
+
+		private final int to;
+
+		private final int grain;
+
+		private CoreDistanceTask(final int from, final int to, final int grain) {
+			this.from = from;
+			this.to = to;
+			this.grain = grain;
+		}
+
+		@Override
+		protected void compute() {
+			if(to - from > grain) {
+				int mid = (from + to) >>> 1;
+
+				invokeAll(new CoreDistanceTask(from, mid, grain), new CoreDistanceTask(mid, to, grain));
+				return;
+			}
+
+			IntList neighbors = new IntList(minPtr);
+			DoubleList distances = new DoubleList(minPtr);
+
+			for(int index = from; index < to; index++) {
+				neighbors.clear();
+				distances.clear();
+
+				if(minPtr > 0) {
+					neighborIndex.knnQuery(index, minPtr, neighbors, distances);
+				}
+
+				// with less than minPtr other points the farthest one defines the core distance
+				coreDistances[index] = distances.isEmpty() ? 0 : distances.get(distances.size() - 1);
+			}
+		}
+	}
+
+	/**
+	 * Updates the distances to the tree of a range of the remaining points and finds the nearest of them.
+	 */
+	private final class UpdateTask extends RecursiveTask<Integer> {
+
+		private static final long serialVersionUID = 1L;
+
+		private final int current;
+
+		private final int from;
+
+		private final int to;
+
+		private final int grain;
+
+		private UpdateTask(final int current, final int from, final int to, final int grain) {
+			this.current = current;
+			this.from = from;
+			this.to = to;
+			this.grain = grain;
+		}
+
+		@Override
+		protected Integer compute() {
+			if(to - from <= grain) {
+				return update(current, from, to);
+			}
+
+			int mid = (from + to) >>> 1;
+
+			UpdateTask second = new UpdateTask(current, mid, to, grain);
+			second.fork();
+
+			int first = new UpdateTask(current, from, mid, grain).compute();
+			int other = second.join();
+
+			return nearer(remaining[other], remaining[first]) ? other : first;
+		}
+	}
+
+}
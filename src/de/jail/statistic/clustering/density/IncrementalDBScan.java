@@ -0,0 +1,880 @@
+package de.jail.statistic.clustering.density;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import de.jail.geometry.distancefunctions.PointBasedDistanceFunction;
+import de.jail.geometry.distancefunctions.impl.EuclideanDistance;
+import de.jail.geometry.distancefunctions.impl.ManhattanDistance;
+import de.jail.geometry.schemas.Point;
+import de.jail.geometry.schemas.PointSet;
+import de.jail.statistic.clustering.Cluster;
+import de.jail.statistic.clustering.Clusterer;
+import de.jail.utils.IntList;
+
+/**
+ * Density based clustering of a changing set of points. Points are added with {@link #insert(Point)} and removed
+ * with {@link #remove(Point)}, and only the neighborhood of the changed point is updated, following the incremental
+ * DBSCAN of Ester et al. The core points and the noise are always the same as those of {@link DBScan} for the
+ * current points, the clusters of the core points as well.
+ * <p>
+ * The points are kept in a grid of cells with the width {@code eps}, which grows and shrinks with the points, so a
+ * neighbor query only looks into the adjacent cells inside of the range of occupied cells. There are {@code 3^d}
+ * adjacent cells in {@code d} dimensions, so as soon as there are more of them than non empty cells, the non empty
+ * cells are checked instead. For distance functions other than the Euclidean and the Manhattan distance all points
+ * are scanned.
+ * </p>
+ * <p>
+ * Every core point stores the id of its cluster. The ids are kept in a union-find, so an insertion which connects
+ * several clusters merges them without visiting their points. A removal can only split the cluster of the core
+ * points which lose their core status. Their remaining core neighbors are searched from all at the same time, one
+ * point per search and round, and searches which meet are merged. As soon as a single search is left, the cluster
+ * is still connected, and every search which ends before is a part which is split off and gets a new id. The work
+ * is therefore proportional to the size of the neighborhood and of the parts which are split off, not to the size
+ * of the cluster or of the data. Ids of clusters without core points are dropped by renumbering all ids from time
+ * to time, so the union-find does not grow with the number of changes.
+ * </p>
+ * <p>
+ * Border points do not store a cluster, their cluster is looked up from a core neighbor by {@link #getClusters()}.
+ * Like in {@link DBScan}, a border point which is near to the core points of several clusters is assigned to one of
+ * them.
+ * </p>
+ *
+ * @author Christian Vogel
+ */
+public class IncrementalDBScan implements Clusterer {
+
+	/** cluster of a point which is not a core point */
+	private static final int NONE = -1;
+
+	private final double eps;
+
+	private final int minPtr;
+
+	private final PointBasedDistanceFunction distFunction;
+
+	/** eps converted into the surrogate of the distance function */
+	private final double bound;
+
+	/** whether the grid can be used to find the neighbors */
+	private final boolean useGrid;
+
+	private int dimension;
+
+	/** number of slots which have been used, free slots below are listed in {@code freeSlots} */
+	private int numberOfSlots;
+
+	private int size;
+
+	private double[] coordinates;
+
+	private Point[] points;
+
+	private int[] neighborCounts;
+
+	private int[] clusterIds;
+
+	/** marks of the slots by the epoch of the search which visited them last */
+	private int[] marks;
+
+	/** search which visited a slot in the current epoch */
+	private int[] visitedBy;
+
+	private int epoch;
+
+	private final IntList freeSlots = new IntList();
+
+	/** parent of every cluster id in the union-find of the cluster ids */
+	private final IntList clusterParents = new IntList();
+
+	/** slots of the points by their coordinates, equal points share the same entry */
+	private final Map<Coordinates, IntList> slotsOf = new HashMap<Coordinates, IntList>();
+
+	private final Map<Cell, IntList> cells = new HashMap<Cell, IntList>();
+
+	/** smallest and largest coordinates of all cells which have been occupied since the last clear */
+	private long[] minCell;
+
+	private long[] maxCell;
+
+	/**
+	 * Constructor with the area and minimum points for neighbor points. The distance function used is the default
+	 * Euclidean distance.
+	 *
+	 * @param eps minimum area in which a neighbor point should be, related to an other point
+	 * @param minPtr number of neighbor points, otherwise points are noise
+	 */
+	public IncrementalDBScan(final double eps, final int minPtr) {
+		this(eps, minPtr, new EuclideanDistance());
+	}
+
+	/**
+	 * Constructor with the area, minimum points for neighbor points and a specific distance function used to
+	 * compute the distance between points.
+	 *
+	 * @param eps minimum area in which a neighbor point should be, related to an other point
+	 * @param minPtr number of neighbor points, otherwise points are noise
+	 * @param distFunction distance function which is used to compute the distance between to points
+	 */
+	public IncrementalDBScan(final double eps, final int minPtr, final PointBasedDistanceFunction distFunction) {
+		if(distFunction == null) {
+			throw new IllegalArgumentException("argument must not be null!");
+		}
+
+		if(!(eps > 0)) {
+			throw new IllegalArgumentException("eps must be greater than zero");
+		}
+
+		this.eps = eps;
+		this.minPtr = minPtr;
+		this.distFunction = distFunction;
+		this.bound = distFunction.toSurrogate(eps);
+		this.useGrid = distFunction instanceof EuclideanDistance || distFunction instanceof ManhattanDistance;
+
+		clear();
+	}
+
+	/**
+	 * Removes all points and inserts the given ones.
+	 */
+	@Override
+	public List<Cluster> cluster(Collection<Point> points) {
+		if(points == null) {
+			throw new IllegalArgumentException("argument must not be null!");
+		}
+
+		clear();
+
+		for(Point point : points) {
+			insert(point);
+		}
+
+		return getClusters();
+	}
+
+	/**
+	 * Removes all points and inserts the points of the set.
+	 */
+	@Override
+	public List<Cluster> cluster(PointSet points) {
+		if(points == null) {
+			throw new IllegalArgumentException("argument must not be null!");
+		}
+
+		clear();
+
+		for(int index = 0; index < points.size(); index++) {
+			insert(points.getPoint(index));
+		}
+
+		return getClusters();
+	}
+
+	/**
+	 * Removes all points.
+	 */
+	public void clear() {
+		dimension = -1;
+		numberOfSlots = 0;
+		size = 0;
+		epoch = 0;
+
+		coordinates = new double[0];
+		points = new Point[0];
+		neighborCounts = new int[0];
+		clusterIds = new int[0];
+		marks = new int[0];
+		visitedBy = new int[0];
+
+		freeSlots.clear();
+		clusterParents.clear();
+		slotsOf.clear();
+		cells.clear();
+		minCell = null;
+		maxCell = null;
+	}
+
+	/**
+	 * Returns the number of points.
+	 *
+	 * @return number of inserted points which have not been removed
+	 */
+	public int size() {
+		return size;
+	}
+
+	/**
+	 * Adds a point and updates the core points and clusters in its neighborhood. Points which become core points
+	 * join the clusters of their core neighbors, which are merged if there are several of them.
+	 *
+	 * @param point the point to add, its coordinates are copied
+	 */
+	public void insert(final Point point) {
+		if(point == null) {
+			throw new IllegalArgumentException("argument must not be null!");
+		}
+
+		if(dimension < 0) {
+			dimension = point.getDimension();
+		} else if(point.getDimension() != dimension) {
+			throw new IllegalArgumentException("point must have the dimension " + dimension);
+		}
+
+		int slot = allocate();
+
+		for(int dim = 0; dim < dimension; dim++) {
+			coordinates[slot * dimension + dim] = point.getCoordinate(dim);
+		}
+
+		points[slot] = point;
+		clusterIds[slot] = NONE;
+		size++;
+
+		Coordinates key = new Coordinates(Arrays.copyOfRange(coordinates, slot * dimension, (slot + 1) * dimension));
+		IntList slots = slotsOf.get(key);
+
+		if(slots == null) {
+			slots = new IntList(1);
+			slotsOf.put(key, slots);
+		}
+
+		slots.add(slot);
+		cellMembers(slot, true).add(slot);
+
+		IntList neighbors = new IntList();
+		IntList newCores = new IntList();
+
+		rangeQuery(slot, neighbors);
+		neighborCounts[slot] = neighbors.size();
+
+		if(isCore(slot)) {
+			newCores.add(slot);
+		}
+
+		for(int i = 0; i < neighbors.size(); i++) {
+			int neighbor = neighbors.get(i);
+
+			if(++neighborCounts[neighbor] == minPtr) {
+				newCores.add(neighbor);
+			}
+		}
+
+		for(int i = 0; i < newCores.size(); i++) {
+			int core = newCores.get(i);
+			int cluster = NONE;
+
+			neighbors.clear();
+			rangeQuery(core, neighbors);
+
+			// new core points which are processed later join this cluster through their own query
+			for(int n = 0; n < neighbors.size(); n++) {
+				int neighbor = neighbors.get(n);
+
+				if(clusterIds[neighbor] != NONE) {
+					cluster = cluster == NONE ? findCluster(clusterIds[neighbor])
+							: unionClusters(cluster, clusterIds[neighbor]);
+				}
+			}
+
+			if(cluster == NONE) {
+				cluster = clusterParents.size();
+				clusterParents.add(cluster);
+			}
+
+			clusterIds[core] = cluster;
+		}
+
+		compactClusters();
+	}
+
+	/**
+	 * Removes a point which is equal to the given one and updates the core points and clusters in its neighborhood.
+	 * If core points lose their core status, their cluster is split if it is not connected anymore.
+	 *
+	 * @param point the point to remove
+	 * @return {@code true}, if an equal point was found and removed, otherwise {@code false}
+	 */
+	public boolean remove(final Point point) {
+		if(point == null) {
+			throw new IllegalArgumentException("argument must not be null!");
+		}
+
+		if(point.getDimension() != dimension) {
+			return false;
+		}
+
+		double[] vector = new double[dimension];
+
+		for(int dim = 0; dim < dimension; dim++) {
+			vector[dim] = point.getCoordinate(dim);
+		}
+
+		Coordinates key = new Coordinates(vector);
+		IntList slots = slotsOf.get(key);
+
+		if(slots == null) {
+			return false;
+		}
+
+		int slot = slots.removeLast();
+
+		if(slots.isEmpty()) {
+			slotsOf.remove(key);
+		}
+
+		IntList members = cellMembers(slot, false);
+
+		for(int i = 0; i < members.size(); i++) {
+			if(members.get(i) == slot) {
+				members.set(i, members.get(members.size() - 1));
+				members.removeLast();
+				break;
+			}
+		}
+
+		if(members.isEmpty()) {
+			cells.remove(cellOf(slot));
+		}
+
+		IntList neighbors = new IntList();
+		rangeQuery(slot, neighbors);
+
+		// core points which lose their core status together with the root of their cluster
+		IntList formerCores = new IntList();
+		IntList formerClusters = new IntList();
+
+		if(clusterIds[slot] != NONE) {
+			formerCores.add(slot);
+			formerClusters.add(findCluster(clusterIds[slot]));
+		}
+
+		// the removed point must neither become a seed nor connect the searches, only its coordinates are still used
+		points[slot] = null;
+		clusterIds[slot] = NONE;
+
+		for(int i = 0; i < neighbors.size(); i++) {
+			int neighbor = neighbors.get(i);
+
+			if(neighborCounts[neighbor]-- == minPtr) {
+				formerCores.add(neighbor);
+				formerClusters.add(findCluster(clusterIds[neighbor]));
+				clusterIds[neighbor] = NONE;
+			}
+		}
+
+		// the remaining core neighbors of the former core points, grouped by their cluster
+		Map<Integer, IntList> seeds = new HashMap<Integer, IntList>();
+		int seedEpoch = ++epoch;
+
+		for(int i = 0; i < formerCores.size(); i++) {
+			int formerCore = formerCores.get(i);
+
+			if(formerCore != slot) {
+				neighbors.clear();
+				rangeQuery(formerCore, neighbors);
+			}
+
+			for(int n = 0; n < neighbors.size(); n++) {
+				int neighbor = neighbors.get(n);
+
+				if(clusterIds[neighbor] != NONE && marks[neighbor] != seedEpoch) {
+					marks[neighbor] = seedEpoch;
+
+					IntList clusterSeeds = seeds.get(formerClusters.get(i));
+
+					if(clusterSeeds == null) {
+						clusterSeeds = new IntList();
+						seeds.put(formerClusters.get(i), clusterSeeds);
+					}
+
+					clusterSeeds.add(neighbor);
+				}
+			}
+		}
+
+		for(IntList clusterSeeds : seeds.values()) {
+			if(clusterSeeds.size() > 1) {
+				splitCluster(clusterSeeds);
+			}
+		}
+
+		freeSlots.add(slot);
+		size--;
+		compactClusters();
+
+		return true;
+	}
+
+	/**
+	 * Returns the clusters of the current points. Clusters are ordered by the slot of their first core point and
+	 * contain the inserted point instances.
+	 *
+	 * @return list of clusters
+	 */
+	public List<Cluster> getClusters() {
+		List<Cluster> result = new ArrayList<Cluster>();
+		Map<Integer, Integer> clusterIndex = new HashMap<Integer, Integer>();
+		int[] labels = new int[numberOfSlots];
+
+		for(int slot = 0; slot < numberOfSlots; slot++) {
+			labels[slot] = NONE;
+
+			if(points[slot] != null && clusterIds[slot] != NONE) {
+				int root = findCluster(clusterIds[slot]);
+				Integer index = clusterIndex.get(root);
+
+				if(index == null) {
+					index = result.size();
+					clusterIndex.put(root, index);
+					result.add(new Cluster());
+				}
+
+				labels[slot] = index;
+			}
+		}
+
+		IntList neighbors = new IntList();
+
+		for(int slot = 0; slot < numberOfSlots; slot++) {
+			if(points[slot] == null) {
+				continue;
+			}
+
+			if(labels[slot] == NONE) {
+				neighbors.clear();
+				rangeQuery(slot, neighbors);
+
+				for(int i = 0; i < neighbors.size(); i++) {
+					if(clusterIds[neighbors.get(i)] != NONE) {
+						labels[slot] = labels[neighbors.get(i)];
+						break;
+					}
+				}
+
+				if(labels[slot] == NONE) {
+					continue;
+				}
+			}
+
+			result.get(labels[slot]).addPoint(points[slot]);
+		}
+
+		return result;
+	}
+
+	/**
+	 * Searches from all seeds of a cluster at the same time through their core neighbors. Searches which meet are
+	 * merged, every search which ends while others are left gets a new cluster id for all of its points.
+	 *
+	 * @param seeds core points of a single cluster which may not be connected anymore
+	 */
+	private void splitCluster(final IntList seeds) {
+		int numberOfSearches = seeds.size();
+		int searchEpoch = ++epoch;
+
+		IntList[] visited = new IntList[numberOfSearches];
+		int[] heads = new int[numberOfSearches];
+		int[] groups = new int[numberOfSearches];
+		boolean[] ended = new boolean[numberOfSearches];
+
+		for(int search = 0; search < numberOfSearches; search++) {
+			int seed = seeds.get(search);
+
+			visited[search] = new IntList();
+			visited[search].add(seed);
+			groups[search] = search;
+
+			marks[seed] = searchEpoch;
+			visitedBy[seed] = search;
+		}
+
+		IntList neighbors = new IntList();
+		int activeGroups = numberOfSearches;
+
+		while(activeGroups > 1) {
+			for(int search = 0; search < numberOfSearches && activeGroups > 1; search++) {
+				if(heads[search] == visited[search].size()) {
+					continue;
+				}
+
+				neighbors.clear();
+				rangeQuery(visited[search].get(heads[search]++), neighbors);
+
+				for(int i = 0; i < neighbors.size(); i++) {
+					int neighbor = neighbors.get(i);
+
+					if(clusterIds[neighbor] == NONE) {
+						continue;
+					}
+
+					if(marks[neighbor] != searchEpoch) {
+						marks[neighbor] = searchEpoch;
+						visitedBy[neighbor] = search;
+						visited[search].add(neighbor);
+					} else {
+						int group = findGroup(groups, search);
+						int other = findGroup(groups, visitedBy[neighbor]);
+
+						if(group != other) {
+							groups[other] = group;
+							activeGroups--;
+						}
+					}
+				}
+			}
+
+			// a group whose searches have all ended is a part of the cluster which is not connected to the others
+			for(int search = 0; search < numberOfSearches && activeGroups > 1; search++) {
+				int group = findGroup(groups, search);
+
+				if(group != search || ended[group] || !hasEnded(groups, heads, visited, group)) {
+					continue;
+				}
+
+				ended[group] = true;
+				activeGroups--;
+
+				int cluster = clusterParents.size();
+				clusterParents.add(cluster);
+
+				for(int member = 0; member < numberOfSearches; member++) {
+					if(findGroup(groups, member) == group) {
+						for(int i = 0; i < visited[member].size(); i++) {
+							clusterIds[visited[member].get(i)] = cluster;
+						}
+					}
+				}
+			}
+		}
+	}
+
+	/**
+	 * Renumbers the cluster ids, once there are more than twice as many ids as slots. Every new cluster and every
+	 * part which is split off gets a new id, and ids whose cluster has lost all of its core points are not used
+	 * anymore. Afterwards only the roots which still have a core point are left, as the ids from zero on. Since the
+	 * renumbering visits all slots, its cost is spread over at least as many new ids as there are slots.
+	 */
+	private void compactClusters() {
+		if(clusterParents.size() <= 2 * numberOfSlots + 16) {
+			return;
+		}
+
+		int[] newIds = new int[clusterParents.size()];
+		int numberOfClusters = 0;
+
+		Arrays.fill(newIds, NONE);
+
+		for(int slot = 0; slot < numberOfSlots; slot++) {
+			if(points[slot] != null && clusterIds[slot] != NONE) {
+				int root = findCluster(clusterIds[slot]);
+
+				if(newIds[root] == NONE) {
+					newIds[root] = numberOfClusters++;
+				}
+
+				clusterIds[slot] = newIds[root];
+			}
+		}
+
+		clusterParents.clear();
+
+		for(int cluster = 0; cluster < numberOfClusters; cluster++) {
+			clusterParents.add(cluster);
+		}
+	}
+
+	private static boolean hasEnded(final int[] groups, final int[] heads, final IntList[] visited, final int group) {
+		for(int search = 0; search < groups.length; search++) {
+			if(heads[search] < visited[search].size() && findGroup(groups, search) == group) {
+				return false;
+			}
+		}
+
+		return true;
+	}
+
+	private static int findGroup(final int[] groups, int search) {
+		while(groups[search] != search) {
+			groups[search] = groups[groups[search]];
+			search = groups[search];
+		}
+
+		return search;
+	}
+
+	private boolean isCore(final int slot) {
+		return neighborCounts[slot] >= minPtr;
+	}
+
+	private int findCluster(int cluster) {
+		while(clusterParents.get(cluster) != cluster) {
+			clusterParents.set(cluster, clusterParents.get(clusterParents.get(cluster)));
+			cluster = clusterParents.get(cluster);
+		}
+
+		return cluster;
+	}
+
+	private int unionClusters(final int first, final int second) {
+		int firstRoot = findCluster(first);
+		int secondRoot = findCluster(second);
+
+		if(firstRoot != secondRoot) {
+			clusterParents.set(secondRoot, firstRoot);
+		}
+
+		return firstRoot;
+	}
+
+	/**
+	 * Returns a free slot, the arrays grow if all slots are used.
+	 *
+	 * @return index of the slot
+	 */
+	private int allocate() {
+		if(!freeSlots.isEmpty()) {
+			return freeSlots.removeLast();
+		}
+
+		if(numberOfSlots == points.length) {
+			int capacity = Math.max(16, numberOfSlots << 1);
+
+			coordinates = Arrays.copyOf(coordinates, capacity * dimension);
+			points = Arrays.copyOf(points, capacity);
+			neighborCounts = Arrays.copyOf(neighborCounts, capacity);
+			clusterIds = Arrays.copyOf(clusterIds, capacity);
+			marks = Arrays.copyOf(marks, capacity);
+			visitedBy = Arrays.copyOf(visitedBy, capacity);
+		}
+
+		return numberOfSlots++;
+	}
+
+	/**
+	 * Finds all points whose distance to the point in a slot is smaller than {@code eps}, except the point itself.
+	 * The point does not have to be in the grid.
+	 *
+	 * @param slot slot of the query point
+	 * @param result list to which the slots of all found neighbors will be appended
+	 */
+	private void rangeQuery(final int slot, final IntList result) {
+		int queryOffset = slot * dimension;
+
+		if(!useGrid) {
+			for(int candidate = 0; candidate < numberOfSlots; candidate++) {
+				addIfNeighbor(slot, queryOffset, candidate, result);
+			}
+
+			return;
+		}
+
+		Cell center = cellOf(slot);
+		long[] low = new long[dimension];
+		long[] high = new long[dimension];
+		long probes = 1;
+
+		// offsets are limited to the cells between the smallest and the largest cell which has been occupied
+		for(int dim = 0; dim < dimension; dim++) {
+			low[dim] = Math.max(-1, minCell[dim] - center.coordinates[dim]);
+			high[dim] = Math.min(1, maxCell[dim] - center.coordinates[dim]);
+
+			if(low[dim] > high[dim]) {
+				return;
+			}
+
+			if(probes <= cells.size()) {
+				probes *= high[dim] - low[dim] + 1;
+			}
+		}
+
+		// in high dimensions there are fewer non empty cells than adjacent cells, so the non empty cells are checked
+		if(probes > cells.size()) {
+			for(Map.Entry<Cell, IntList> entry : cells.entrySet()) {
+				if(isAdjacent(center, entry.getKey())) {
+					IntList members = entry.getValue();
+
+					for(int i = 0; i < members.size(); i++) {
+						addIfNeighbor(slot, queryOffset, members.get(i), result);
+					}
+				}
+			}
+
+			return;
+		}
+
+		Cell probe = new Cell(new long[dimension]);
+		long[] offset = low.clone();
+
+		while(true) {
+			for(int dim = 0; dim < dimension; dim++) {
+				probe.coordinates[dim] = center.coordinates[dim] + offset[dim];
+			}
+
+			probe.rehash();
+
+			IntList members = cells.get(probe);
+
+			if(members != null) {
+				for(int i = 0; i < members.size(); i++) {
+					addIfNeighbor(slot, queryOffset, members.get(i), result);
+				}
+			}
+
+			int dim = 0;
+
+			while(dim < dimension && offset[dim] == high[dim]) {
+				offset[dim] = low[dim];
+				dim++;
+			}
+
+			if(dim == dimension) {
+				return;
+			}
+
+			offset[dim]++;
+		}
+	}
+
+	private boolean isAdjacent(final Cell center, final Cell cell) {
+		for(int dim = 0; dim < dimension; dim++) {
+			if(Math.abs(cell.coordinates[dim] - center.coordinates[dim]) > 1) {
+				return false;
+			}
+		}
+
+		return true;
+	}
+
+	private void addIfNeighbor(final int slot, final int queryOffset, final int candidate, final IntList result) {
+		if(candidate == slot || points[candidate] == null) {
+			return;
+		}
+
+		if(distFunction.calculateSurrogate(coordinates, queryOffset, coordinates, candidate * dimension, dimension,
+				bound) < bound) {
+			result.add(candidate);
+		}
+	}
+
+	/**
+	 * Returns the members of the grid cell containing the point in a slot.
+	 *
+	 * @param slot slot of the point
+	 * @param create whether a missing cell is created
+	 * @return members of the cell, or {@code null} if the cell is missing and not created
+	 */
+	private IntList cellMembers(final int slot, final boolean create) {
+		Cell cell = cellOf(slot);
+		IntList members = cells.get(cell);
+
+		if(members == null && create) {
+			members = new IntList(4);
+			cells.put(cell, members);
+
+			if(minCell == null) {
+				minCell = cell.coordinates.clone();
+				maxCell = cell.coordinates.clone();
+			}
+
+			for(int dim = 0; dim < dimension; dim++) {
+				minCell[dim] = Math.min(minCell[dim], cell.coordinates[dim]);
+				maxCell[dim] = Math.max(maxCell[dim], cell.coordinates[dim]);
+			}
+		}
+
+		return members;
+	}
+
+	/**
+	 * Determines the grid cell in which the point of a slot is located.
+	 *
+	 * @param slot slot of the point
+	 * @return the cell containing the point
+	 */
+	private Cell cellOf(final int slot) {
+		long[] cellCoordinates = new long[dimension];
+
+		for(int dim = 0; dim < dimension; dim++) {
+			cellCoordinates[dim] = (long)Math.floor(coordinates[slot * dimension + dim] / eps);
+		}
+
+		Cell cell = new Cell(cellCoordinates);
+		cell.rehash();
+
+		return cell;
+	}
+
+	/**
+	 * Coordinates of a point which are used as key of the slot map.
+	 */
+	private static final class Coordinates {
+
+		private final double[] values;
+
+		private final int hash;
+
+		private Coordinates(final double[] values) {
+			this.values = values;
+			this.hash = Arrays.hashCode(values);
+		}
+
+		@Override
+		public int hashCode() {
+			return hash;
+		}
+
+		@Override
+		public boolean equals(Object obj) {
+			if(this == obj) {
+				return true;
+			}
+
+			if(!(obj instanceof Coordinates)) {
+				return false;
+			}
+
+			return Arrays.equals(values, ((Coordinates)obj).values);
+		}
+	}
+
+	/**
+	 * Integer coordinates of a single grid cell which are used as key of the cell map.
+	 */
+	private static final class Cell {
+
+		private final long[] coordinates;
+
+		private int hash;
+
+		private Cell(final long[] coordinates) {
+			this.coordinates = coordinates;
+		}
+
+		private void rehash() {
+			hash = Arrays.hashCode(coordinates);
+		}
+
+		@Override
+		public int hashCode() {
+			return hash;
+		}
+
+		@Override
+		public boolean equals(Object obj) {
+			if(this == obj) {
+				return true;
+			}
+
+			if(!(obj instanceof Cell)) {
+				return false;
+			}
+
+			return Arrays.equals(coordinates, ((Cell)obj).coordinates);
+		}
+	}
+
+}
@@ -0,0 +1,402 @@
+package de.jail.statistic.clustering.density;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Collection;
+import java.util.List;
+
+import de.jail.geometry.distancefunctions.PointBasedDistanceFunction;
+import de.jail.geometry.distancefunctions.impl.EuclideanDistance;
+import de.jail.geometry.neighborsearch.NeighborIndex;
+import de.jail.geometry.neighborsearch.impl.KDTree;
+import de.jail.geometry.neighborsearch.impl.LinearScan;
+import de.jail.geometry.schemas.Point;
+import de.jail.geometry.schemas.PointSet;
+import de.jail.statistic.clustering.Cluster;
+import de.jail.statistic.clustering.Clusterer;
+import de.jail.utils.DoubleList;
+import de.jail.utils.IndexedMinHeap;
+import de.jail.utils.IntList;
+
+/**
+ * Density based clustering of points by ordering them (OPTICS). Like {@link DBScan}, a point is a core point for a
+ * distance {@code eps}, if at least {@code minPtr} other points are nearer than {@code eps}. Its core distance is
+ * the smallest {@code eps} for which this is true, so the distance to its {@code minPtr}-th nearest neighbor. The
+ * reachability of a point from a core point is the larger one of the core distance and the distance between both
+ * points.
+ * <p>
+ * A single run with a maximum distance {@code maxEps} orders the points, so that every point follows the point from
+ * which it is reachable with the smallest reachability, and stores this reachability. The points which are waiting
+ * to be ordered are kept in an {@link IndexedMinHeap} by their reachability, and the neighbors are found with a
+ * {@link NeighborIndex}, which reports their distances as well. Every point is queried exactly once.
+ * </p>
+ * <p>
+ * Afterwards {@link #extractDBScan(double)} returns the clusters of {@link DBScan} for any {@code eps} up to
+ * {@code maxEps} in linear time, without computing a single distance. The core points, the noise and the clusters
+ * of the core points are the same as those of {@link DBScan}. A border point which is near to the core points of
+ * several clusters may be assigned to another of these clusters, like it depends on the order of the points for
+ * {@link DBScan} as well.
+ * </p>
+ *
+ * @author Christian Vogel
+ */
+public class Optics implements Clusterer {
+
+	/** label of a point which is not part of any cluster */
+	private static final int NOISE = -1;
+
+	private final double maxEps;
+
+	private final int minPtr;
+
+	private final PointBasedDistanceFunction distFunction;
+
+	private final NeighborIndex neighborIndex;
+
+	/** points of the last run, either as array or as set */
+	private Point[] pointArray;
+
+	private PointSet pointSet;
+
+	private int[] ordering;
+
+	private double[] reachability;
+
+	private double[] coreDistances;
+
+	/** smallest reachability of every point from any core point, even from those which follow it in the order */
+	private double[] borderReachability;
+
+	/** core point from which the border reachability is reached */
+	private int[] borderPredecessor;
+
+	/**
+	 * Constructor with the maximum distance and minimum points for neighbor points. The distance function used is
+	 * the default Euclidean distance.
+	 *
+	 * @param maxEps largest distance for which clusters can be extracted
+	 * @param minPtr number of neighbor points, otherwise points are noise
+	 */
+	public Optics(final double maxEps, final int minPtr) {
+		this(maxEps, minPtr, new EuclideanDistance());
+	}
+
+	/**
+	 * Constructor with the maximum distance, minimum points for neighbor points and a specific distance function
+	 * used to compute the distance between points. Neighbors are searched with a {@link KDTree} for the Euclidean
+	 * and the Manhattan distance, for all other distance functions with a {@link LinearScan}.
+	 *
+	 * @param maxEps largest distance for which clusters can be extracted
+	 * @param minPtr number of neighbor points, otherwise points are noise
+	 * @param distFunction distance function which is used to compute the distance between to points
+	 */
+	public Optics(final double maxEps, final int minPtr, final PointBasedDistanceFunction distFunction) {
+		this(maxEps, minPtr, distFunction, DBScan.defaultIndex(distFunction));
+	}
+
+	/**
+	 * Constructor with the maximum distance, minimum points for neighbor points, a specific distance function and
+	 * the index which is used to find the neighbors of a point.
+	 *
+	 * @param maxEps largest distance for which clusters can be extracted
+	 * @param minPtr number of neighbor points, otherwise points are noise
+	 * @param distFunction distance function which is used to compute the distance between to points
+	 * @param index index answering the neighbor queries, it has to support {@code distFunction}
+	 */
+	public Optics(final double maxEps, final int minPtr, final PointBasedDistanceFunction distFunction,
+			final NeighborIndex index) {
+		if(distFunction == null || index == null) {
+			throw new IllegalArgumentException("arguments must not be null!");
+		}
+
+		this.maxEps = maxEps;
+		this.minPtr = minPtr;
+		this.distFunction = distFunction;
+		this.neighborIndex = index;
+	}
+
+	/**
+	 * Orders the points and returns the clusters for {@code maxEps}. Clusters for smaller distances can be
+	 * extracted afterwards with {@link #extractDBScan(double)}.
+	 */
+	@Override
+	public List<Cluster> cluster(Collection<Point> points) {
+		if(points == null) {
+			throw new IllegalArgumentException("argument must not be null!");
+		}
+
+		if(points.isEmpty()) {
+			return new ArrayList<Cluster>();
+		}
+
+		Point[] ptrArray = new Point[points.size()];
+		ptrArray = points.toArray(ptrArray);
+
+		computeOrdering(PointSet.fromPoints(points));
+
+		pointArray = ptrArray;
+		pointSet = null;
+
+		return extractDBScan(maxEps);
+	}
+
+	/**
+	 * Orders the points and returns the clusters for {@code maxEps}. Clusters for smaller distances can be
+	 * extracted afterwards with {@link #extractDBScan(double)}.
+	 */
+	@Override
+	public List<Cluster> cluster(PointSet points) {
+		if(points == null) {
+			throw new IllegalArgumentException("argument must not be null!");
+		}
+
+		computeOrdering(points);
+
+		pointArray = null;
+		pointSet = points;
+
+		return extractDBScan(maxEps);
+	}
+
+	/**
+	 * Returns the clusters which {@link DBScan} finds for a distance {@code eps} and the same {@code minPtr}, using
+	 * the order of the last run.
+	 *
+	 * @param eps area in which a neighbor point should be, at most the maximum distance
+	 * @return list of clusters ordered by the position of their first point in the order
+	 */
+	public List<Cluster> extractDBScan(final double eps) {
+		int[] labels = extractLabels(eps);
+		int numberOfClusters = 0;
+
+		for(int index = 0; index < labels.length; index++) {
+			numberOfClusters = Math.max(numberOfClusters, labels[index] + 1);
+		}
+
+		if(pointArray != null) {
+			return DBScan.collectClusters(pointArray, labels, numberOfClusters);
+		}
+
+		return DBScan.collectClusters(pointSet, labels, numberOfClusters);
+	}
+
+	/**
+	 * Returns the cluster of every point which {@link DBScan} finds for a distance {@code eps}, like
+	 * {@link #extractDBScan(double)}.
+	 *
+	 * @param eps area in which a neighbor point should be, at most the maximum distance
+	 * @return cluster id of every point, or -1 for noise
+	 */
+	public int[] extractLabels(final double eps) {
+		if(ordering == null) {
+			throw new IllegalStateException("no points have been clustered");
+		}
+
+		if(eps > maxEps) {
+			throw new IllegalArgumentException("eps must not be greater than the maximum distance " + maxEps);
+		}
+
+		int[] labels = new int[ordering.length];
+		int cluster = NOISE;
+
+		for(int position = 0; position < ordering.length; position++) {
+			int id = ordering[position];
+
+			if(reachability[id] < eps) {
+				labels[id] = cluster;
+			} else if(coreDistances[id] < eps) {
+				labels[id] = ++cluster;
+			} else {
+				labels[id] = NOISE;
+			}
+		}
+
+		// border points which were ordered before all of their core points
+		for(int id = 0; id < labels.length; id++) {
+			if(labels[id] == NOISE && borderReachability[id] < eps) {
+				labels[id] = labels[borderPredecessor[id]];
+			}
+		}
+
+		return labels;
+	}
+
+	/**
+	 * Returns the order of the last run.
+	 *
+	 * @return ids of the points in their order
+	 */
+	public int[] getOrdering() {
+		checkOrdered();
+
+		return ordering.clone();
+	}
+
+	/**
+	 * Returns the reachability of every point from its predecessor in the order, which is
+	 * {@link Double#POSITIVE_INFINITY} for the first point of every cluster and for noise at the maximum distance.
+	 *
+	 * @return reachability of every point by its id
+	 */
+	public double[] getReachability() {
+		checkOrdered();
+
+		return reachability.clone();
+	}
+
+	/**
+	 * Returns the core distance of every point, which is {@link Double#POSITIVE_INFINITY} for points which are no
+	 * core points at the maximum distance.
+	 *
+	 * @return core distance of every point by its id
+	 */
+	public double[] getCoreDistances() {
+		checkOrdered();
+
+		return coreDistances.clone();
+	}
+
+	private void checkOrdered() {
+		if(ordering == null) {
+			throw new IllegalStateException("no points have been clustered");
+		}
+	}
+
+	/**
+	 * Orders the points and computes their reachability and core distances.
+	 *
+	 * @param points the points to order
+	 */
+	private void computeOrdering(final PointSet points) {
+		int numberOfPoints = points.size();
+
+		neighborIndex.build(points, distFunction);
+
+		ordering = new int[numberOfPoints];
+		reachability = new double[numberOfPoints];
+		coreDistances = new double[numberOfPoints];
+		borderReachability = new double[numberOfPoints];
+		borderPredecessor = new int[numberOfPoints];
+
+		Arrays.fill(reachability, Double.POSITIVE_INFINITY);
+		Arrays.fill(borderReachability, Double.POSITIVE_INFINITY);
+		Arrays.fill(borderPredecessor, -1);
+
+		BitSet processed = new BitSet(numberOfPoints);
+		IndexedMinHeap seeds = new IndexedMinHeap(numberOfPoints);
+		IntList neighbors = new IntList();
+		DoubleList distances = new DoubleList();
+		double[] selectBuffer = new double[16];
+
+		int position = 0;
+
+		for(int start = 0; start < numberOfPoints; start++) {
+			if(processed.get(start)) {
+				continue;
+			}
+
+			int id = start;
+
+			while(true) {
+				processed.set(id);
+				ordering[position++] = id;
+
+				neighbors.clear();
+				distances.clear();
+				neighborIndex.rangeQuery(id, maxEps, neighbors, distances);
+
+				double coreDistance = Double.POSITIVE_INFINITY;
+
+				if(minPtr <= 0) {
+					coreDistance = 0;
+				} else if(neighbors.size() >= minPtr) {
+					if(selectBuffer.length < distances.size()) {
+						selectBuffer = new double[Math.max(distances.size(), selectBuffer.length << 1)];
+					}
+
+					for(int i = 0; i < distances.size(); i++) {
+						selectBuffer[i] = distances.get(i);
+					}
+
+					coreDistance = select(selectBuffer, distances.size(), minPtr - 1);
+				}
+
+				coreDistances[id] = coreDistance;
+
+				if(coreDistance != Double.POSITIVE_INFINITY) {
+					for(int i = 0; i < neighbors.size(); i++) {
+						int neighbor = neighbors.get(i);
+						double reach = Math.max(coreDistance, distances.get(i));
+
+						if(reach < borderReachability[neighbor]) {
+							borderReachability[neighbor] = reach;
+							borderPredecessor[neighbor] = id;
+						}
+
+						if(!processed.get(neighbor) && reach < reachability[neighbor]) {
+							reachability[neighbor] = reach;
+							seeds.insertOrDecrease(neighbor, reach);
+						}
+					}
+				}
+
+				if(seeds.isEmpty()) {
+					break;
+				}
+
+				id = seeds.poll();
+			}
+		}
+	}
+
+	/**
+	 * Returns the {@code k}-th smallest of the first {@code size} values, which are rearranged.
+	 *
+	 * @param values the values
+	 * @param size number of values
+	 * @param k position of the value in the sorted values
+	 * @return the value at position {@code k}
+	 */
+	private static double select(final double[] values, final int size, final int k) {
+		int left = 0;
+		int right = size - 1;
+
+		while(left < right) {
+			double pivot = values[(left + right) >>> 1];
+
+			int i = left;
+			int j = right;
+
+			while(i <= j) {
+				while(values[i] < pivot) {
+					i++;
+				}
+
+				while(values[j] > pivot) {
+					j--;
+				}
+
+				if(i <= j) {
+					double tmp = values[i];
+					values[i] = values[j];
+					values[j] = tmp;
+
+					i++;
+					j--;
+				}
+			}
+
+			if(k <= j) {
+				right = j;
+			} else if(k >= i) {
+				left = i;
+			} else {
+				break;
+			}
+		}
+
+		return values[k];
+	}
+
+}
@@ -0,0 +1,301 @@
+package de.jail.statistic.clustering.density;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+import de.jail.geometry.distancefunctions.PointBasedDistanceFunction;
+import de.jail.geometry.distancefunctions.impl.EuclideanDistance;
+import de.jail.geometry.neighborsearch.NeighborIndex;
+import de.jail.geometry.schemas.Point;
+import de.jail.geometry.schemas.PointSet;
+import de.jail.statistic.clustering.Cluster;
+import de.jail.statistic.clustering.Clusterer;
+import de.jail.utils.IntList;
+
+/**
+ * Multi-core variant of {@link DBScan}. The neighbor queries are split across the threads of a
+ * {@link ForkJoinPool} in two passes:
+ * <ol>
+ * <li>every point counts its neighbors to decide whether it is a core point</li>
+ * <li>every core point is united with its core neighbors in a lock-free union-find, every other point remembers
+ * its smallest core neighbor</li>
+ * </ol>
+ * Afterwards every set of united core points is a cluster and the remaining points are either border points of
+ * the cluster of their remembered core neighbor or noise. The neighbor lists are never stored, so the memory stays
+ * linear in the number of points.
+ * <p>
+ * The clusters and their order are the same as computed by {@link DBScan}. Only a border point which is in the
+ * neighborhood of several clusters can be assigned to a different one of them.
+ * </p>
+ *
+ * @author Christian Vogel
+ */
+public class ParallelDBScan implements Clusterer {
+
+	/** minimum number of points which are processed by a single task */
+	private static final int MIN_GRAIN = 256;
+
+	private boolean[] corePoints;
+
+	private int[] borderOf;
+
+	private ConcurrentUnionFind coreSets;
+
+	private int numberOfClusters;
+
+	private final double eps;
+
+	private final int minPtr;
+
+	private final PointBasedDistanceFunction distFunction;
+
+	private final NeighborIndex neighborIndex;
+
+	private final ForkJoinPool pool;
+
+	/**
+	 * Constructor with initial values for the area and minimum points for neighbor points. The distance function
+	 * used is the default Euclidean distance and the work is done in the common pool.
+	 *
+	 * @param eps minimum area in which a neighbor point should be, related to an other point
+	 * @param minPtr number of neighbor points, otherwise points are noise
+	 */
+	public ParallelDBScan(final double eps, final int minPtr) {
+		this(eps, minPtr, new EuclideanDistance());
+	}
+
+	/**
+	 * Constructor with initial values for the area, minimum points for neighbor points and a specific
+	 * distance function. The index is chosen like in {@link DBScan} and the work is done in the common pool.
+	 *
+	 * @param eps minimum area in which a neighbor point should be, related to an other point
+	 * @param minPtr number of neighbor points, otherwise points are noise
+	 * @param distFunction distance function which is used to compute the distance between to points
+	 */
+	public ParallelDBScan(final double eps, final int minPtr, final PointBasedDistanceFunction distFunction) {
+		this(eps, minPtr, distFunction, DBScan.defaultIndex(distFunction), ForkJoinPool.commonPool());
+	}
+
+	/**
+	 * Constructor with initial values for the area, minimum points for neighbor points, a specific
+	 * distance function, the index which is used to find the neighbors of a point and the pool running the tasks.
+	 *
+	 * @param eps minimum area in which a neighbor point should be, related to an other point
+	 * @param minPtr number of neighbor points, otherwise points are noise
+	 * @param distFunction distance function which is used to compute the distance between to points
+	 * @param index index answering the neighbor queries, it has to support {@code distFunction}
+	 * @param pool pool whose threads execute the neighbor queries
+	 */
+	public ParallelDBScan(final double eps, final int minPtr, final PointBasedDistanceFunction distFunction,
+			final NeighborIndex index, final ForkJoinPool pool) {
+		if(distFunction == null || index == null || pool == null) {
+			throw new IllegalArgumentException("arguments must not be null!");
+		}
+
+		this.eps = eps;
+		this.minPtr = minPtr;
+		this.distFunction = distFunction;
+		this.neighborIndex = index;
+		this.pool = pool;
+	}
+
+	/* (non-Javadoc)
+	 * @see de.jail.statistic.clustering.Clusterer#cluster(java.util.Collection)
+	 */
+	@Override
+	public List<Cluster> cluster(Collection<Point> points) {
+		if(points == null) {
+			throw new IllegalArgumentException("argument must not be null!");
+		}
+
+		if(points.isEmpty()) {
+			return new ArrayList<Cluster>();
+		}
+
+		Point[] ptrArray = new Point[points.size()];
+		ptrArray = points.toArray(ptrArray);
+
+		int[] labels = computeDbscan(PointSet.fromPoints(points));
+
+		return DBScan.collectClusters(ptrArray, labels, numberOfClusters);
+	}
+
+	/* (non-Javadoc)
+	 * @see de.jail.statistic.clustering.Clusterer#cluster(de.jail.geometry.schemas.PointSet)
+	 */
+	@Override
+	public List<Cluster> cluster(PointSet points) {
+		if(points == null) {
+			throw new IllegalArgumentException("argument must not be null!");
+		}
+
+		int[] labels = computeDbscan(points);
+
+		return DBScan.collectClusters(points, labels, numberOfClusters);
+	}
+
+	/**
+	 * Computes both parallel passes of the DBScan algorithm.
+	 *
+	 * @param points set containing the coordinates of all points
+	 * @return cluster id of every point, or a negative value for noise
+	 */
+	private int[] computeDbscan(final PointSet points) {
+		int numberOfPoints = points.size();
+		int grain = Math.max(MIN_GRAIN, numberOfPoints / (pool.getParallelism() * 8));
+
+		neighborIndex.build(points, distFunction);
+
+		corePoints = new boolean[numberOfPoints];
+		borderOf = new int[numberOfPoints];
+		coreSets = new ConcurrentUnionFind(numberOfPoints);
+
+		pool.invoke(new CorePointTask(0, numberOfPoints, grain));
+		pool.invoke(new LinkTask(0, numberOfPoints, grain));
+
+		return computeLabels(numberOfPoints);
+	}
+
+	/**
+	 * Numbers the sets of core points in the order of their smallest point and labels all points with the number
+	 * of their cluster. The number of clusters is stored in {@code numberOfClusters}.
+	 *
+	 * @param numberOfPoints number of indexed points
+	 * @return cluster id of every point, or a negative value for noise
+	 */
+	private int[] computeLabels(final int numberOfPoints) {
+		int[] labels = new int[numberOfPoints];
+		Arrays.fill(labels, -1);
+
+		numberOfClusters = 0;
+
+		for(int index = 0; index < numberOfPoints; index++) {
+			if(corePoints[index]) {
+				int root = coreSets.find(index);
+
+				if(root == index) {
+					labels[index] = numberOfClusters++;
+				} else {
+					labels[index] = labels[root];
+				}
+			}
+		}
+
+		for(int index = 0; index < numberOfPoints; index++) {
+			if(!corePoints[index] && borderOf[index] >= 0) {
+				labels[index] = labels[borderOf[index]];
+			}
+		}
+
+		return labels;
+	}
+
+	/**
+	 * First pass deciding for every point in a range whether it is a core point.
+	 */
+	private final class CorePointTask extends RecursiveAction {
+
+		private static final long serialVersionUID = 1L;
+
+		private final int from;
+
+		private final int to;
+
+		private final int grain;
+
+		private CorePointTask(final int from, final int to, final int grain) {
+			this.from = from;
+			this.to = to;
+			this.grain = grain;
+		}
+
+		@Override
+		protected void compute() {
+			if(to - from > grain) {
+				int mid = (from + to) >>> 1;
+
+				invokeAll(new CorePointTask(from, mid, grain), new CorePointTask(mid, to, grain));
+				return;
+			}
+
+			IntList neighbors = new IntList();
+
+			for(int index = from; index < to; index++) {
+				neighbors.clear();
+				neighborIndex.rangeQuery(index, eps, neighbors);
+
+				corePoints[index] = neighbors.size() >= minPtr;
+			}
+		}
+	}
+
+	/**
+	 * Second pass uniting every core point of a range with its core neighbors and looking up the smallest core
+	 * neighbor of all other points.
+	 */
+	private final class LinkTask extends RecursiveAction {
+
+		private static final long serialVersionUID = 1L;
+
+		private final int from;
+
+		private final int to;
+
+		private final int grain;
+
+		private LinkTask(final int from, final int to, final int grain) {
+			this.from = from;
+			this.to = to;
+			this.grain = grain;
+		}
+
+		@Override
+		protected void compute() {
+			if(to - from > grain) {
+				int mid = (from + to) >>> 1;
+
+				invokeAll(new LinkTask(from, mid, grain), new LinkTask(mid, to, grain));
+				return;
+			}
+
+			IntList neighbors = new IntList();
+
+			for(int index = from; index < to; index++) {
+				neighbors.clear();
+				neighborIndex.rangeQuery(index, eps, neighbors);
+
+				if(corePoints[index]) {
+					int root = coreSets.find(index);
+
+					for(int i = 0; i < neighbors.size(); i++) {
+						int np_id = neighbors.get(i);
+
+						if(np_id < index && corePoints[np_id] && coreSets.find(np_id) != root) {
+							coreSets.union(root, np_id);
+							root = coreSets.find(root);
+						}
+					}
+
+					borderOf[index] = -1;
+				} else {
+					int border = -1;
+
+					for(int i = 0; i < neighbors.size(); i++) {
+						int np_id = neighbors.get(i);
+
+						if(corePoints[np_id] && (border < 0 || np_id < border)) {
+							border = np_id;
+						}
+					}
+
+					borderOf[index] = border;
+				}
+			}
+		}
+	}
+
+}
@@ -1,28 +1,783 @@
 /**
- * 
+ *
  */
 package de.jail.statistic.clustering.partitional.kmeans;
 
+import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collection;
 import java.util.List;
+import java.util.Random;
 
 import de.jail.geometry.schemas.Point;
+import de.jail.geometry.schemas.PointSet;
 import de.jail.statistic.clustering.Cluster;
 import de.jail.statistic.clustering.Clusterer;
+import de.jail.utils.MathUtil;
 
 /**
- * @author Christian Vogel
+ * Partitions points into {@code k} clusters with Lloyd's algorithm. Every iteration assigns each point to its
+ * nearest center and moves each center to the mean of its assigned points, until no center moves more than the
+ * tolerance or the maximum number of iterations is reached. The distance is the Euclidean distance, because the
+ * mean minimizes the sum of squared Euclidean distances. The initial centers are chosen by a 
+ * {@link KMeansInitializer}, by default with the k-means++ seeding.
+ * <p>
+ * All coordinates are read from one flat array, a {@link PointSet} is clustered without copying, and the centers
+ * are updated in place, so an iteration allocates no objects. A set which is not backed by an array, like a
+ * {@link de.jail.geometry.schemas.MappedPointSet}, is never copied to the heap as a whole: every pass reads the
+ * points block by block into a buffer of about {@value #BLOCK_COORDINATES} coordinates, and only the assignments
+ * and the bounds of the points are kept on the heap. The initial centers of such a set are chosen from a uniform
+ * sample of at most {@value #SEED_SAMPLE_POINTS} points.
+ * </p>
+ * <p>
+ * Besides the plain algorithm the assignment step can be accelerated with the triangle inequality, see 
+ * {@link Algorithm}. The accelerated variants skip a distance computation only if the bounds prove that the center 
+ * cannot be the nearest one, so they produce exactly the same assignments, centers and number of iterations.
+ * </p>
  *
+ * @author Christian Vogel
  */
 public class KMeansClusterer implements Clusterer {
+	
+	/**
+	 * Variants of the assignment step.
+	 */
+	public enum Algorithm {
+		
+		/** computes the distance between every point and every center in each iteration */
+		LLOYD,
+		
+		/** 
+		 * keeps an upper bound to the assigned and one lower bound to all other centers per point, needs linear 
+		 * memory and is best suited for low dimensional data 
+		 */
+		HAMERLY,
+		
+		/** 
+		 * keeps an upper bound to the assigned and a lower bound to every center per point, needs memory for 
+		 * {@code n * k} bounds and skips the most distance computations for high dimensional data 
+		 */
+		ELKAN
+	}
+
+	/** factor by which an upper bound has to be below a lower bound, covers the rounding errors of the bounds */
+	private static final double BOUND_SLACK = 1 + 1e-10;
+
+	/** number of coordinates which are read at once from a set which is not backed by an array */
+	private static final int BLOCK_COORDINATES = 1 << 16;
+
+	/** maximum number of points from which the initial centers of a set which is not backed by an array are chosen */
+	private static final int SEED_SAMPLE_POINTS = 1 << 16;
+
+	/** default value for the maximum number of iterations */
+	public static final int DEFAULT_MAX_ITERATIONS = 300;
+
+	/** default value for the tolerance of the center movement */
+	public static final double DEFAULT_TOLERANCE = 1e-4;
+
+	private final int k;
+
+	private final int maxIterations;
+
+	private final double tolerance;
+
+	private final Algorithm algorithm;
+
+	private final KMeansInitializer initializer;
+
+	private final Random random;
+
+	private Point ptrArray[];
+
+	private PointSet points;
+
+	/** array containing the current block of points, the array of the set if it is backed by one */
+	private double[] block;
+
+	private int blockPoints;
+
+	private double[] centers;
+
+	private double[] sums;
+
+	private int[] counts;
+
+	private int[] assignment;
+
+	private double[] shifts;
+
+	private double[] upperBounds;
+
+	private double[] lowerBounds;
+
+	private double[] halfCenterDistances;
+
+	private double[] halfMinCenterDistances;
+
+	private int dimension;
+
+	private int iterations;
+
+	/**
+	 * Constructor with the number of clusters. The maximum number of iterations and the tolerance are the default
+	 * values.
+	 *
+	 * @param k number of clusters
+	 */
+	public KMeansClusterer(final int k) {
+		this(k, DEFAULT_MAX_ITERATIONS, DEFAULT_TOLERANCE);
+	}
+
+	/**
+	 * Constructor with the number of clusters, the maximum number of iterations and the tolerance.
+	 *
+	 * @param k number of clusters
+	 * @param maxIterations maximum number of iterations
+	 * @param tolerance the algorithm stops when no center moves further than this distance in an iteration
+	 */
+	public KMeansClusterer(final int k, final int maxIterations, final double tolerance) {
+		this(k, maxIterations, tolerance, new Random());
+	}
+
+	/**
+	 * Constructor with the number of clusters, the maximum number of iterations, the tolerance and the random
+	 * number generator which is used for choosing the initial centers.
+	 *
+	 * @param k number of clusters
+	 * @param maxIterations maximum number of iterations
+	 * @param tolerance the algorithm stops when no center moves further than this distance in an iteration
+	 * @param random generator for choosing the initial centers, a seeded generator makes the result reproducible
+	 */
+	public KMeansClusterer(final int k, final int maxIterations, final double tolerance, final Random random) {
+		this(k, maxIterations, tolerance, new KMeansPlusPlusInitializer(), random);
+	}
+
+	/**
+	 * Constructor with the number of clusters, the maximum number of iterations, the tolerance, the seeding
+	 * strategy and the random number generator which is used for choosing the initial centers.
+	 *
+	 * @param k number of clusters
+	 * @param maxIterations maximum number of iterations
+	 * @param tolerance the algorithm stops when no center moves further than this distance in an iteration
+	 * @param initializer strategy choosing the initial centers
+	 * @param random generator for choosing the initial centers, a seeded generator makes the result reproducible
+	 */
+	public KMeansClusterer(final int k, final int maxIterations, final double tolerance,
+			final KMeansInitializer initializer, final Random random) {
+		this(k, maxIterations, tolerance, Algorithm.LLOYD, initializer, random);
+	}
+
+	/**
+	 * Constructor with the number of clusters, the maximum number of iterations, the tolerance, the variant of the
+	 * assignment step, the seeding strategy and the random number generator which is used for choosing the initial
+	 * centers.
+	 *
+	 * @param k number of clusters
+	 * @param maxIterations maximum number of iterations
+	 * @param tolerance the algorithm stops when no center moves further than this distance in an iteration
+	 * @param algorithm variant of the assignment step
+	 * @param initializer strategy choosing the initial centers
+	 * @param random generator for choosing the initial centers, a seeded generator makes the result reproducible
+	 */
+	public KMeansClusterer(final int k, final int maxIterations, final double tolerance, final Algorithm algorithm,
+			final KMeansInitializer initializer, final Random random) {
+		if(k < 1) {
+			throw new IllegalArgumentException("k must be at least one");
+		}
+
+		if(maxIterations < 1) {
+			throw new IllegalArgumentException("maximum number of iterations must be at least one");
+		}
+
+		if(tolerance < 0) {
+			throw new IllegalArgumentException("tolerance must not be negative");
+		}
+
+		if(algorithm == null || initializer == null || random == null) {
+			throw new IllegalArgumentException("arguments must not be null");
+		}
+
+		this.k = k;
+		this.maxIterations = maxIterations;
+		this.tolerance = tolerance;
+		this.algorithm = algorithm;
+		this.initializer = initializer;
+		this.random = random;
+	}
+
+	/**
+	 * Returns the number of iterations which were needed by the last run.
+	 *
+	 * @return number of iterations
+	 */
+	public int getIterations() {
+		return iterations;
+	}
 
 	/* (non-Javadoc)
 	 * @see de.mathlib.statistic.clustering.Clusterer#cluster(java.util.Collection, de.mathlib.statistic.clustering.ClusteringUtils.Properties)
 	 */
 	@Override
 	public List<Cluster> cluster(Collection<Point> points) {
-		// TODO Auto-generated method stub
-		return null;
+		if(points == null) {
+			throw new IllegalArgumentException("argument must not be null!");
+		}
+
+		if(points.size() < k) {
+			throw new IllegalArgumentException("at least k points are needed");
+		}
+
+		ptrArray = new Point[points.size()];
+		ptrArray = points.toArray(ptrArray);
+
+		return computeKMeans(PointSet.fromPoints(points));
+	}
+
+	/* (non-Javadoc)
+	 * @see de.jail.statistic.clustering.Clusterer#cluster(de.jail.geometry.schemas.PointSet)
+	 */
+	@Override
+	public List<Cluster> cluster(PointSet points) {
+		if(points == null) {
+			throw new IllegalArgumentException("argument must not be null!");
+		}
+
+		if(points.size() < k) {
+			throw new IllegalArgumentException("at least k points are needed");
+		}
+
+		// the clusters get views of the points, which are only created at the end
+		ptrArray = null;
+
+		return computeKMeans(points);
+	}
+
+	/**
+	 * Chooses the initial centers and computes the iterations.
+	 *
+	 * @param points set containing the coordinates of all points
+	 * @return list of k clusters
+	 */
+	private List<Cluster> computeKMeans(final PointSet points) {
+		prepare(points);
+
+		if(points.hasArray()) {
+			initializer.initialize(points.getData(), dimension, k, random, centers);
+		} else {
+			initializer.initialize(sample(points), dimension, k, random, centers);
+		}
+
+		computeLloyd();
+
+		List<Cluster> result = createClusters(points);
+
+		this.points = null;
+		block = null;
+
+		return result;
+	}
+
+	/**
+	 * Allocates the arrays for the centers and the state of the points.
+	 *
+	 * @param points set containing the coordinates of all points
+	 */
+	private void prepare(final PointSet points) {
+		int numberOfPoints = points.size();
+
+		dimension = points.getDimension();
+
+		this.points = points;
+
+		if(points.hasArray()) {
+			block = points.getData();
+			blockPoints = numberOfPoints;
+		} else {
+			blockPoints = Math.max(1, Math.min(numberOfPoints, BLOCK_COORDINATES / dimension));
+			block = new double[blockPoints * dimension];
+		}
+
+		centers = new double[k * dimension];
+		sums = new double[k * dimension];
+		counts = new int[k];
+		assignment = new int[numberOfPoints];
+		shifts = new double[k];
+
+		upperBounds = null;
+		lowerBounds = null;
+		halfCenterDistances = null;
+		halfMinCenterDistances = null;
+
+		if(algorithm == Algorithm.ELKAN && (long)numberOfPoints * k > Integer.MAX_VALUE) {
+			throw new IllegalArgumentException("the " + numberOfPoints + " * " + k + " bounds of Elkan's algorithm "
+					+ "do not fit into an array, use Hamerly's algorithm");
+		}
+
+		if(algorithm != Algorithm.LLOYD) {
+			upperBounds = new double[numberOfPoints];
+			lowerBounds = new double[algorithm == Algorithm.ELKAN ? numberOfPoints * k : numberOfPoints];
+			halfCenterDistances = new double[k * k];
+			halfMinCenterDistances = new double[k];
+		}
+	}
+
+	/**
+	 * Selects a uniform sample of the points with the selection sampling of Knuth and copies it into an array, from
+	 * which the initial centers are chosen.
+	 *
+	 * @param points set which is not backed by an array
+	 * @return coordinates of the sample
+	 */
+	private double[] sample(final PointSet points) {
+		int numberOfPoints = points.size();
+		int sampleSize = Math.min(numberOfPoints, Math.max(k, SEED_SAMPLE_POINTS));
+
+		if((long)sampleSize * dimension > Integer.MAX_VALUE) {
+			throw new IllegalArgumentException("a sample of " + sampleSize + " points with " + dimension
+					+ " coordinates does not fit into an array");
+		}
+
+		double[] sample = new double[sampleSize * dimension];
+		int count = 0;
+
+		// a set which fits into the sample is seeded exactly like the same points in an array
+		if(sampleSize == numberOfPoints) {
+			points.readPoints(0, numberOfPoints, sample, 0);
+
+			return sample;
+		}
+
+		for(int index = 0; index < numberOfPoints && count < sampleSize; index++) {
+			if(random.nextInt(numberOfPoints - index) < sampleSize - count) {
+				points.readPoint(index, sample, count++ * dimension);
+			}
+		}
+
+		return sample;
+	}
+
+	/**
+	 * Reads a block of consecutive points into the block array, unless the set is backed by an array.
+	 *
+	 * @param from position of the first point of the block
+	 * @param count number of points in the block
+	 * @return position of the first coordinate of the block in {@code block}
+	 */
+	private int readBlock(final int from, final int count) {
+		if(points.hasArray()) {
+			return points.offsetOf(from);
+		}
+
+		points.readPoints(from, count, block, 0);
+
+		return 0;
+	}
+
+	/**
+	 * Computes the iterations of Lloyd's algorithm.
+	 */
+	private void computeLloyd() {
+		Arrays.fill(assignment, -1);
+
+		double maxShift = tolerance * tolerance;
+
+		for(iterations = 1; iterations <= maxIterations; iterations++) {
+			boolean changed;
+
+			if(algorithm == Algorithm.LLOYD) {
+				changed = assignPoints();
+			} else if(iterations == 1) {
+				changed = assignPointsInitially();
+			} else {
+				computeCenterDistances();
+
+				changed = algorithm == Algorithm.ELKAN ? assignPointsElkan() : assignPointsHamerly();
+			}
+
+			if(!changed) {
+				break;
+			}
+
+			double shift = updateCenters();
+
+			if(algorithm != Algorithm.LLOYD) {
+				updateBounds();
+			}
+
+			if(shift <= maxShift) {
+				break;
+			}
+		}
+
+		if(iterations > maxIterations) {
+			iterations = maxIterations;
+		}
+	}
+
+	/**
+	 * Assigns every point to its nearest center.
+	 *
+	 * @return {@code true}, if at least one point changed its cluster, otherwise {@code false}
+	 */
+	private boolean assignPoints() {
+		boolean changed = false;
+
+		for(int from = 0; from < assignment.length; from += blockPoints) {
+			int to = Math.min(assignment.length, from + blockPoints);
+			int base = readBlock(from, to - from);
+
+			for(int index = from; index < to; index++) {
+				int offset = base + (index - from) * dimension;
+
+				int nearest = 0;
+				double nearestDistance = MathUtil.squaredDistance(block, offset, centers, 0, dimension);
+
+				for(int c = 1; c < k; c++) {
+					double distance = MathUtil.squaredDistance(block, offset, centers, c * dimension, dimension,
+							nearestDistance);
+
+					if(distance < nearestDistance) {
+						nearestDistance = distance;
+						nearest = c;
+					}
+				}
+
+				if(assignment[index] != nearest) {
+					assignment[index] = nearest;
+					changed = true;
+				}
+			}
+		}
+
+		return changed;
+	}
+
+	/**
+	 * Assigns every point to its nearest center in the first iteration of an accelerated variant. All distances are
+	 * computed and used as initial bounds.
+	 *
+	 * @return {@code true}, if at least one point changed its cluster, otherwise {@code false}
+	 */
+	private boolean assignPointsInitially() {
+		boolean elkan = algorithm == Algorithm.ELKAN;
+
+		for(int from = 0; from < assignment.length; from += blockPoints) {
+			int to = Math.min(assignment.length, from + blockPoints);
+			int base = readBlock(from, to - from);
+
+			for(int index = from; index < to; index++) {
+				int offset = base + (index - from) * dimension;
+
+				int nearest = 0;
+				double nearestDistance = Double.POSITIVE_INFINITY;
+				double secondDistance = Double.POSITIVE_INFINITY;
+
+				for(int c = 0; c < k; c++) {
+					// Elkan's algorithm needs every distance as lower bound, Hamerly's only the two smallest
+					double distance = MathUtil.squaredDistance(block, offset, centers, c * dimension, dimension,
+							elkan ? Double.POSITIVE_INFINITY : secondDistance);
+
+					if(elkan) {
+						lowerBounds[index * k + c] = Math.sqrt(distance);
+					}
+
+					if(distance < nearestDistance) {
+						secondDistance = nearestDistance;
+						nearestDistance = distance;
+						nearest = c;
+					} else if(distance < secondDistance) {
+						secondDistance = distance;
+					}
+				}
+
+				assignment[index] = nearest;
+				upperBounds[index] = Math.sqrt(nearestDistance);
+
+				if(!elkan) {
+					lowerBounds[index] = Math.sqrt(secondDistance);
+				}
+			}
+		}
+
+		return true;
+	}
+
+	/**
+	 * Computes the distances between all centers and half of the distance from every center to its nearest other
+	 * center.
+	 */
+	private void computeCenterDistances() {
+		Arrays.fill(halfMinCenterDistances, Double.POSITIVE_INFINITY);
+
+		for(int c = 0; c < k; c++) {
+			halfCenterDistances[c * k + c] = 0;
+
+			for(int other = c + 1; other < k; other++) {
+				double half = 0.5 * Math.sqrt(MathUtil.squaredDistance(centers, c * dimension, centers,
+						other * dimension, dimension));
+
+				halfCenterDistances[c * k + other] = half;
+				halfCenterDistances[other * k + c] = half;
+
+				if(half < halfMinCenterDistances[c]) {
+					halfMinCenterDistances[c] = half;
+				}
+
+				if(half < halfMinCenterDistances[other]) {
+					halfMinCenterDistances[other] = half;
+				}
+			}
+		}
+	}
+
+	/**
+	 * Assigns every point to its nearest center with Hamerly's algorithm. A point keeps its center without computing
+	 * any distance, if its upper bound is below its lower bound or below half the distance from its center to the
+	 * nearest other center.
+	 *
+	 * @return {@code true}, if at least one point changed its cluster, otherwise {@code false}
+	 */
+	private boolean assignPointsHamerly() {
+		boolean changed = false;
+
+		for(int from = 0; from < assignment.length; from += blockPoints) {
+			int to = Math.min(assignment.length, from + blockPoints);
+			int base = readBlock(from, to - from);
+
+			for(int index = from; index < to; index++) {
+				int current = assignment[index];
+				double bound = Math.max(halfMinCenterDistances[current], lowerBounds[index]);
+
+				if(upperBounds[index] * BOUND_SLACK < bound) {
+					continue;
+				}
+
+				int offset = base + (index - from) * dimension;
+				upperBounds[index] = Math.sqrt(MathUtil.squaredDistance(block, offset, centers, current * dimension,
+						dimension));
+
+				if(upperBounds[index] * BOUND_SLACK < bound) {
+					continue;
+				}
+
+				int nearest = 0;
+				double nearestDistance = Double.POSITIVE_INFINITY;
+				double secondDistance = Double.POSITIVE_INFINITY;
+
+				for(int c = 0; c < k; c++) {
+					double distance = MathUtil.squaredDistance(block, offset, centers, c * dimension, dimension,
+							secondDistance);
+
+					if(distance < nearestDistance) {
+						secondDistance = nearestDistance;
+						nearestDistance = distance;
+						nearest = c;
+					} else if(distance < secondDistance) {
+						secondDistance = distance;
+					}
+				}
+
+				if(nearest != current) {
+					assignment[index] = nearest;
+					changed = true;
+				}
+
+				upperBounds[index] = Math.sqrt(nearestDistance);
+				lowerBounds[index] = Math.sqrt(secondDistance);
+			}
+		}
+
+		return changed;
+	}
+
+	/**
+	 * Assigns every point to its nearest center with Elkan's algorithm. The distance to a center is only computed,
+	 * if neither the lower bound of this center nor half the distance between this and the assigned center exceed
+	 * the upper bound of the point.
+	 *
+	 * @return {@code true}, if at least one point changed its cluster, otherwise {@code false}
+	 */
+	private boolean assignPointsElkan() {
+		boolean changed = false;
+
+		for(int from = 0; from < assignment.length; from += blockPoints) {
+			int to = Math.min(assignment.length, from + blockPoints);
+			int base = readBlock(from, to - from);
+
+			for(int index = from; index < to; index++) {
+				int nearest = assignment[index];
+				double upper = upperBounds[index];
+
+				if(upper * BOUND_SLACK < halfMinCenterDistances[nearest]) {
+					continue;
+				}
+
+				int offset = base + (index - from) * dimension;
+				int lowerOffset = index * k;
+
+				boolean tight = false;
+				double nearestDistance = 0;
+
+				for(int c = 0; c < k; c++) {
+					if(c == nearest || upper * BOUND_SLACK < lowerBounds[lowerOffset + c]
+							|| upper * BOUND_SLACK < halfCenterDistances[nearest * k + c]) {
+						continue;
+					}
+
+					if(!tight) {
+						nearestDistance = MathUtil.squaredDistance(block, offset, centers, nearest * dimension,
+								dimension);
+						upper = Math.sqrt(nearestDistance);
+						lowerBounds[lowerOffset + nearest] = upper;
+						tight = true;
+
+						if(upper * BOUND_SLACK < lowerBounds[lowerOffset + c]
+								|| upper * BOUND_SLACK < halfCenterDistances[nearest * k + c]) {
+							continue;
+						}
+					}
+
+					double distance = MathUtil.squaredDistance(block, offset, centers, c * dimension, dimension);
+					lowerBounds[lowerOffset + c] = Math.sqrt(distance);
+
+					if(distance < nearestDistance || (distance == nearestDistance && c < nearest)) {
+						nearestDistance = distance;
+						nearest = c;
+						upper = lowerBounds[lowerOffset + c];
+					}
+				}
+
+				upperBounds[index] = upper;
+
+				if(nearest != assignment[index]) {
+					assignment[index] = nearest;
+					changed = true;
+				}
+			}
+		}
+
+		return changed;
+	}
+
+	/**
+	 * Moves the bounds of every point by the distances its centers were moved in the last update.
+	 */
+	private void updateBounds() {
+		int farthest = 0;
+		double maxDrift = 0;
+		double secondDrift = 0;
+
+		for(int c = 0; c < k; c++) {
+			shifts[c] = Math.sqrt(shifts[c]);
+
+			if(shifts[c] > maxDrift) {
+				secondDrift = maxDrift;
+				maxDrift = shifts[c];
+				farthest = c;
+			} else if(shifts[c] > secondDrift) {
+				secondDrift = shifts[c];
+			}
+		}
+
+		for(int index = 0; index < assignment.length; index++) {
+			int current = assignment[index];
+
+			upperBounds[index] += shifts[current];
+
+			if(algorithm == Algorithm.ELKAN) {
+				int lowerOffset = index * k;
+
+				for(int c = 0; c < k; c++) {
+					lowerBounds[lowerOffset + c] = Math.max(0, lowerBounds[lowerOffset + c] - shifts[c]);
+				}
+			} else {
+				double drift = current == farthest ? secondDrift : maxDrift;
+
+				lowerBounds[index] = Math.max(0, lowerBounds[index] - drift);
+			}
+		}
+	}
+
+	/**
+	 * Moves every center to the mean of its assigned points. A center without any point keeps its position. The
+	 * squared distance every center was moved is stored in {@code shifts}.
+	 *
+	 * @return the largest squared distance a center was moved
+	 */
+	private double updateCenters() {
+		Arrays.fill(sums, 0);
+		Arrays.fill(counts, 0);
+
+		for(int from = 0; from < assignment.length; from += blockPoints) {
+			int to = Math.min(assignment.length, from + blockPoints);
+			int base = readBlock(from, to - from);
+
+			for(int index = from; index < to; index++) {
+				int c = assignment[index];
+				int offset = base + (index - from) * dimension;
+				int centerOffset = c * dimension;
+
+				for(int dim = 0; dim < dimension; dim++) {
+					sums[centerOffset + dim] += block[offset + dim];
+				}
+
+				counts[c]++;
+			}
+		}
+
+		double maxShift = 0;
+
+		for(int c = 0; c < k; c++) {
+			shifts[c] = 0;
+
+			if(counts[c] == 0) {
+				continue;
+			}
+
+			int centerOffset = c * dimension;
+			double factor = 1.0 / counts[c];
+			double shift = 0;
+
+			for(int dim = 0; dim < dimension; dim++) {
+				double mean = sums[centerOffset + dim] * factor;
+				double diff = mean - centers[centerOffset + dim];
+
+				shift += diff * diff;
+				centers[centerOffset + dim] = mean;
+			}
+
+			shifts[c] = shift;
+
+			if(shift > maxShift) {
+				maxShift = shift;
+			}
+		}
+
+		return maxShift;
+	}
+
+	/**
+	 * Creates the resulting clusters with their centers and assigned points. The points are the given instances, or
+	 * views of the points of the set if no instances were given.
+	 *
+	 * @param points set containing the coordinates of all points
+	 * @return list of k clusters
+	 */
+	private List<Cluster> createClusters(final PointSet points) {
+		List<Cluster> resultCluster = new ArrayList<Cluster>(k);
+
+		for(int c = 0; c < k; c++) {
+			KMeansCluster cluster = new KMeansCluster();
+			cluster.setCenter(new Point(Arrays.copyOfRange(centers, c * dimension, (c + 1) * dimension)));
+
+			resultCluster.add(cluster);
+		}
+
+		for(int index = 0; index < assignment.length; index++) {
+			resultCluster.get(assignment[index]).addPoint(ptrArray != null ? ptrArray[index] : points.getPoint(index));
+		}
+
+		return resultCluster;
 	}
 
 }
@@ -0,0 +1,25 @@
+package de.jail.statistic.clustering.partitional.kmeans;
+
+import java.util.Random;
+
+/**
+ * Interface introducing the choice of the initial centers for all seeding strategies of the kmeans clustering.
+ * Points and centers are stored in flat row-major arrays, the coordinates of point {@code i} start at position
+ * {@code i * dimension}.
+ * 
+ * @author Christian Vogel
+ */
+public interface KMeansInitializer {
+	
+	/**
+	 * Chooses the initial centers for a set of points.
+	 * 
+	 * @param data coordinates of all points
+	 * @param dimension number of coordinates of a single point
+	 * @param k number of centers which have to be chosen
+	 * @param random generator for all random decisions
+	 * @param centers array of length {@code k * dimension} which receives the chosen centers
+	 */
+	void initialize(double[] data, int dimension, int k, Random random, double[] centers);
+
+}
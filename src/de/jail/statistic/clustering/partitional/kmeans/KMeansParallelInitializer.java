@@ -0,0 +1,209 @@
+package de.jail.statistic.clustering.partitional.kmeans;
+
+import java.util.Arrays;
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+
+import de.jail.utils.IntList;
+import de.jail.utils.MathUtil;
+
+/**
+ * Chooses the initial centers with the scalable k-means|| seeding of Bahmani et al. Instead of choosing one center 
+ * per pass like {@link KMeansPlusPlusInitializer}, every round samples about {@code l} candidates at once, each 
+ * point independently with a probability proportional to its squared distance to the nearest candidate. After a 
+ * few rounds every candidate is weighted by the number of points nearest to it and the weighted candidates are 
+ * reduced to {@code k} centers with the k-means++ seeding.
+ * <p>
+ * The number of passes over all points is the number of rounds instead of {@code k}, and the distance 
+ * computations of every pass are split across the threads of a {@link ForkJoinPool}.
+ * </p>
+ * 
+ * @author Christian Vogel
+ */
+public class KMeansParallelInitializer implements KMeansInitializer {
+	
+	/** default value for the number of sampling rounds */
+	public static final int DEFAULT_ROUNDS = 5;
+	
+	/** default value for the oversampling factor */
+	public static final double DEFAULT_OVERSAMPLING = 2.0;
+	
+	/** minimum number of points which are processed by a single task */
+	private static final int MIN_GRAIN = 1024;
+	
+	private final int rounds;
+	
+	private final double oversampling;
+	
+	private final ForkJoinPool pool;
+	
+	/**
+	 * Constructor with the default number of rounds and the default oversampling factor. The work is done in the 
+	 * common pool.
+	 */
+	public KMeansParallelInitializer() {
+		this(DEFAULT_ROUNDS, DEFAULT_OVERSAMPLING, ForkJoinPool.commonPool());
+	}
+	
+	/**
+	 * Constructor with the number of rounds, the oversampling factor and the pool which computes the distances.
+	 * 
+	 * @param rounds number of sampling rounds, each one is a pass over all points
+	 * @param oversampling expected number of candidates per round as multiple of {@code k}
+	 * @param pool pool whose threads compute the distances
+	 */
+	public KMeansParallelInitializer(final int rounds, final double oversampling, final ForkJoinPool pool) {
+		if(rounds < 1) {
+			throw new IllegalArgumentException("number of rounds must be at least one");
+		}
+		
+		if(!(oversampling > 0)) {
+			throw new IllegalArgumentException("oversampling factor must be greater than zero");
+		}
+		
+		if(pool == null) {
+			throw new IllegalArgumentException("pool must not be null");
+		}
+		
+		this.rounds = rounds;
+		this.oversampling = oversampling;
+		this.pool = pool;
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public void initialize(double[] data, int dimension, int k, Random random, double[] centers) {
+		int numberOfPoints = data.length / dimension;
+		int grain = Math.max(MIN_GRAIN, numberOfPoints / (pool.getParallelism() * 8));
+		
+		double[] minDistances = new double[numberOfPoints];
+		int[] nearest = new int[numberOfPoints];
+		
+		Arrays.fill(minDistances, Double.POSITIVE_INFINITY);
+		
+		IntList candidates = new IntList();
+		candidates.add(random.nextInt(numberOfPoints));
+		
+		double l = oversampling * k;
+		double cost = pool.invoke(new DistanceTask(data, dimension, candidates.toArray(), 0, minDistances, nearest, 
+				0, numberOfPoints, grain));
+		
+		for(int round = 0; round < rounds && cost > 0; round++) {
+			int firstNew = candidates.size();
+			
+			for(int index = 0; index < numberOfPoints; index++) {
+				if(minDistances[index] > 0 && random.nextDouble() * cost < l * minDistances[index]) {
+					candidates.add(index);
+				}
+			}
+			
+			if(candidates.size() == firstNew) {
+				continue;
+			}
+			
+			cost = pool.invoke(new DistanceTask(data, dimension, candidates.toArray(), firstNew, minDistances, 
+					nearest, 0, numberOfPoints, grain));
+		}
+		
+		int numberOfCandidates = candidates.size();
+		
+		if(numberOfCandidates < k) {
+			KMeansPlusPlusInitializer.seed(data, null, dimension, k, random, centers);
+			return;
+		}
+		
+		double[] candidateData = new double[numberOfCandidates * dimension];
+		double[] weights = new double[numberOfCandidates];
+		
+		for(int c = 0; c < numberOfCandidates; c++) {
+			System.arraycopy(data, candidates.get(c) * dimension, candidateData, c * dimension, dimension);
+		}
+		
+		for(int index = 0; index < numberOfPoints; index++) {
+			weights[nearest[index]]++;
+		}
+		
+		KMeansPlusPlusInitializer.seed(candidateData, weights, dimension, k, random, centers);
+	}
+	
+	/**
+	 * Updates the distance of every point in a range to its nearest candidate with the candidates added in the last 
+	 * round and sums up the distances.
+	 */
+	private static final class DistanceTask extends RecursiveTask<Double> {
+		
+		private static final long serialVersionUID = 1L;
+		
+		private final double[] data;
+		
+		private final int dimension;
+		
+		private final int[] candidates;
+		
+		private final int firstNew;
+		
+		private final double[] minDistances;
+		
+		private final int[] nearest;
+		
+		private final int from;
+		
+		private final int to;
+		
+		private final int grain;
+		
+		private DistanceTask(final double[] data, final int dimension, final int[] candidates, final int firstNew, 
+				final double[] minDistances, final int[] nearest, final int from, final int to, final int grain) {
+			this.data = data;
+			this.dimension = dimension;
+			this.candidates = candidates;
+			this.firstNew = firstNew;
+			this.minDistances = minDistances;
+			this.nearest = nearest;
+			this.from = from;
+			this.to = to;
+			this.grain = grain;
+		}
+
+		@Override
+		protected Double compute() {
+			if(to - from > grain) {
+				int mid = (from + to) >>> 1;
+				
+				DistanceTask left = new DistanceTask(data, dimension, candidates, firstNew, minDistances, nearest, 
+						from, mid, grain);
+				DistanceTask right = new DistanceTask(data, dimension, candidates, firstNew, minDistances, nearest, 
+						mid, to, grain);
+				
+				left.fork();
+				double rightCost = right.compute();
+				
+				return left.join() + rightCost;
+			}
+			
+			double cost = 0;
+			
+			for(int index = from; index < to; index++) {
+				int offset = index * dimension;
+				
+				for(int c = firstNew; c < candidates.length; c++) {
+					double distance = MathUtil.squaredDistance(data, offset, data, candidates[c] * dimension, 
+							dimension, minDistances[index]);
+					
+					if(distance < minDistances[index]) {
+						minDistances[index] = distance;
+						nearest[index] = c;
+					}
+				}
+				
+				cost += minDistances[index];
+			}
+			
+			return cost;
+		}
+	}
+
+}
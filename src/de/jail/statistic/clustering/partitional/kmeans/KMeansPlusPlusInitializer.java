@@ -0,0 +1,126 @@
+package de.jail.statistic.clustering.partitional.kmeans;
+
+import java.util.Random;
+
+import de.jail.utils.MathUtil;
+
+/**
+ * Chooses the initial centers with the k-means++ seeding of Arthur and Vassilvitskii. The first center is a random
+ * point, every further center is a point chosen with a probability proportional to its squared distance to the
+ * nearest center chosen so far. The expected cost of the resulting clustering is within O(log k) of the optimum.
+ * <p>
+ * The seeding needs {@code k} passes over all points. For a large {@code k} the {@link KMeansParallelInitializer}
+ * needs considerably less passes.
+ * </p>
+ * 
+ * @author Christian Vogel
+ */
+public class KMeansPlusPlusInitializer implements KMeansInitializer {
+	
+	/**
+	 * Default constructor doing nothing special.
+	 */
+	public KMeansPlusPlusInitializer() {}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public void initialize(double[] data, int dimension, int k, Random random, double[] centers) {
+		seed(data, null, dimension, k, random, centers);
+	}
+	
+	/**
+	 * Chooses the initial centers for a set of weighted points. A point with weight {@code w} is treated like 
+	 * {@code w} points at the same position.
+	 * 
+	 * @param data coordinates of all points
+	 * @param weights weight of every point, {@code null} means a weight of one for all points
+	 * @param dimension number of coordinates of a single point
+	 * @param k number of centers which have to be chosen
+	 * @param random generator for all random decisions
+	 * @param centers array of length {@code k * dimension} which receives the chosen centers
+	 */
+	static void seed(final double[] data, final double[] weights, final int dimension, final int k, 
+			final Random random, final double[] centers) {
+		int numberOfPoints = data.length / dimension;
+		double[] minDistances = new double[numberOfPoints];
+		
+		int first = sample(weights, null, numberOfPoints, random);
+		System.arraycopy(data, first * dimension, centers, 0, dimension);
+		
+		double total = 0;
+		
+		for(int index = 0; index < numberOfPoints; index++) {
+			minDistances[index] = MathUtil.squaredDistance(data, index * dimension, centers, 0, dimension);
+			total += weight(weights, index) * minDistances[index];
+		}
+		
+		for(int c = 1; c < k; c++) {
+			int pick = total > 0 ? sample(weights, minDistances, numberOfPoints, random) 
+					: sample(weights, null, numberOfPoints, random);
+			
+			int centerOffset = c * dimension;
+			System.arraycopy(data, pick * dimension, centers, centerOffset, dimension);
+			
+			total = 0;
+			
+			for(int index = 0; index < numberOfPoints; index++) {
+				double distance = MathUtil.squaredDistance(data, index * dimension, centers, centerOffset, dimension, 
+						minDistances[index]);
+				
+				if(distance < minDistances[index]) {
+					minDistances[index] = distance;
+				}
+				
+				total += weight(weights, index) * minDistances[index];
+			}
+		}
+	}
+	
+	/**
+	 * Chooses a point with a probability proportional to the product of its weight and its distance.
+	 * 
+	 * @param weights weight of every point, {@code null} means a weight of one for all points
+	 * @param distances distance of every point, {@code null} means a distance of one for all points
+	 * @param numberOfPoints number of points
+	 * @param random generator for the random decision
+	 * @return id of the chosen point
+	 */
+	private static int sample(final double[] weights, final double[] distances, final int numberOfPoints, 
+			final Random random) {
+		if(weights == null && distances == null) {
+			return random.nextInt(numberOfPoints);
+		}
+		
+		double total = 0;
+		
+		for(int index = 0; index < numberOfPoints; index++) {
+			total += weight(weights, index) * weight(distances, index);
+		}
+		
+		double threshold = random.nextDouble() * total;
+		double sum = 0;
+		int last = 0;
+		
+		for(int index = 0; index < numberOfPoints; index++) {
+			double value = weight(weights, index) * weight(distances, index);
+			
+			if(value > 0) {
+				sum += value;
+				last = index;
+				
+				if(sum > threshold) {
+					return index;
+				}
+			}
+		}
+		
+		return last;
+	}
+	
+	private static double weight(final double[] weights, final int index) {
+		return weights == null ? 1 : weights[index];
+	}
+
+}
@@ -0,0 +1,518 @@
+package de.jail.statistic.clustering.partitional.kmeans;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Random;
+
+import de.jail.geometry.schemas.Point;
+import de.jail.geometry.schemas.PointSet;
+import de.jail.statistic.clustering.Cluster;
+import de.jail.statistic.clustering.Clusterer;
+import de.jail.utils.MathUtil;
+
+/**
+ * Kmeans clustering with the mini-batch algorithm of Sculley. Instead of assigning all points in every iteration,
+ * the centers are updated from small batches of points: every point of a batch moves its nearest center towards
+ * itself with a learning rate of one divided by the number of points this center has seen so far.
+ * <p>
+ * The points are never stored as a whole. {@link #fit(Iterator)} pulls batches from an iterator and
+ * {@link #partialFit(Collection)} updates the model with a batch of new points, so the model can be trained on
+ * data which does not fit into memory or which arrives over time. Only a window of a few batches is copied into a
+ * reused flat array.
+ * </p>
+ * <p>
+ * The batches are random samples of the points. The points of an iterator are read in windows of
+ * {@value #WINDOW_BATCHES} batches, every window is shuffled and cut into batches. The points of a set are visited
+ * in a random order, which starts at a random point and steps with a random stride which is coprime to the size of
+ * the set, so every point is visited once. The random number generator of the model is used for both.
+ * </p>
+ *
+ * @author Christian Vogel
+ */
+public class MiniBatchKMeans implements Clusterer {
+
+	/** default value for the number of points in a batch */
+	public static final int DEFAULT_BATCH_SIZE = 1024;
+
+	/** number of batches in a window of an iterator which is shuffled */
+	private static final int WINDOW_BATCHES = 8;
+
+	private final int k;
+
+	private final int batchSize;
+
+	private final KMeansInitializer initializer;
+
+	private final Random random;
+
+	private double[] centers;
+
+	private long[] counts;
+
+	private double[] batch;
+
+	private double[] window;
+
+	private int[] nearest;
+
+	private double[] pending;
+
+	private int pendingSize;
+
+	private int dimension;
+
+	/**
+	 * Constructor with the number of clusters. The batch size is the default value and the initial centers are chosen
+	 * with the k-means++ seeding.
+	 *
+	 * @param k number of clusters
+	 */
+	public MiniBatchKMeans(final int k) {
+		this(k, DEFAULT_BATCH_SIZE, new KMeansPlusPlusInitializer(), new Random());
+	}
+
+	/**
+	 * Constructor with the number of clusters, the batch size, the seeding strategy and the random number generator
+	 * which is used for choosing the initial centers.
+	 *
+	 * @param k number of clusters
+	 * @param batchSize number of points in a batch
+	 * @param initializer strategy choosing the initial centers from the first points
+	 * @param random generator for choosing the initial centers and the batches, a seeded generator makes the result
+	 * reproducible
+	 */
+	public MiniBatchKMeans(final int k, final int batchSize, final KMeansInitializer initializer,
+			final Random random) {
+		if(k < 1) {
+			throw new IllegalArgumentException("k must be at least one");
+		}
+
+		if(batchSize < 1) {
+			throw new IllegalArgumentException("batch size must be at least one");
+		}
+
+		if(initializer == null || random == null) {
+			throw new IllegalArgumentException("arguments must not be null");
+		}
+
+		this.k = k;
+		this.batchSize = batchSize;
+		this.initializer = initializer;
+		this.random = random;
+	}
+
+	/**
+	 * Returns if the centers have been chosen. The centers are chosen as soon as at least {@code k} and at least
+	 * batch size points have been seen.
+	 *
+	 * @return {@code true}, if the model has centers, otherwise {@code false}
+	 */
+	public boolean isInitialized() {
+		return centers != null;
+	}
+
+	/**
+	 * Trains the model with all points of an iterator. The points are pulled in windows of a few batches, so only a
+	 * single window is in memory at a time. Every window is shuffled before it is cut into batches.
+	 *
+	 * @param points iterator over the training points
+	 */
+	public void fit(final Iterator<Point> points) {
+		if(points == null) {
+			throw new IllegalArgumentException("argument must not be null!");
+		}
+
+		while(points.hasNext()) {
+			int size = 0;
+
+			while(size < WINDOW_BATCHES * batchSize && points.hasNext()) {
+				copyToWindow(points.next(), size++);
+			}
+
+			shuffleWindow(size);
+
+			for(int from = 0; from < size; from += batchSize) {
+				int length = Math.min(batchSize, size - from);
+
+				System.arraycopy(window, from * dimension, batch, 0, length * dimension);
+				update(length);
+			}
+		}
+	}
+
+	/**
+	 * Updates the model with a batch of new points.
+	 *
+	 * @param points batch of points
+	 */
+	public void partialFit(final Collection<Point> points) {
+		if(points == null) {
+			throw new IllegalArgumentException("argument must not be null!");
+		}
+
+		fit(points.iterator());
+	}
+
+	/**
+	 * Updates the model with a set of new points. The points are visited in a random order and copied point by
+	 * point into the batch array, so the set may be much larger than the heap, for example a
+	 * {@link de.jail.geometry.schemas.MappedPointSet}.
+	 *
+	 * @param points set of new points
+	 */
+	public void partialFit(final PointSet points) {
+		if(points == null) {
+			throw new IllegalArgumentException("argument must not be null!");
+		}
+
+		allocate(points.getDimension());
+
+		int numberOfPoints = points.size();
+
+		if(numberOfPoints == 0) {
+			return;
+		}
+
+		long start = random.nextInt(numberOfPoints);
+		long stride = stride(numberOfPoints);
+		int size = 0;
+
+		for(long step = 0; step < numberOfPoints; step++) {
+			points.readPoint((int)((start + step * stride) % numberOfPoints), batch, size * dimension);
+
+			if(++size == batchSize) {
+				update(size);
+				size = 0;
+			}
+		}
+
+		if(size > 0) {
+			update(size);
+		}
+	}
+
+	/**
+	 * Returns the id of the center which is nearest to a point.
+	 *
+	 * @param point the point to classify
+	 * @return id of the nearest center
+	 */
+	public int predict(final Point point) {
+		if(point == null) {
+			throw new IllegalArgumentException("argument must not be null!");
+		}
+
+		if(centers == null) {
+			throw new IllegalStateException("model has not seen enough points yet");
+		}
+
+		if(point.getDimension() != dimension) {
+			throw new IllegalArgumentException("All points should be in the same dimensional space.");
+		}
+
+		return nearestCenter(point.getData(), point.getOffset());
+	}
+
+	/**
+	 * Returns the current clusters of the model. The clusters only contain their centers, because the points
+	 * are not stored.
+	 *
+	 * @return list of k clusters
+	 */
+	public List<KMeansCluster> getClusters() {
+		if(centers == null) {
+			throw new IllegalStateException("model has not seen enough points yet");
+		}
+
+		List<KMeansCluster> resultCluster = new ArrayList<KMeansCluster>(k);
+
+		for(int c = 0; c < k; c++) {
+			KMeansCluster cluster = new KMeansCluster();
+			cluster.setCenter(new Point(Arrays.copyOfRange(centers, c * dimension, (c + 1) * dimension)));
+
+			resultCluster.add(cluster);
+		}
+
+		return resultCluster;
+	}
+
+	/**
+	 * Trains a new model with all given points and assigns every point to its nearest center afterwards. The
+	 * model of earlier calls is discarded.
+	 */
+	@Override
+	public List<Cluster> cluster(Collection<Point> points) {
+		if(points == null) {
+			throw new IllegalArgumentException("argument must not be null!");
+		}
+
+		if(points.size() < k) {
+			throw new IllegalArgumentException("at least k points are needed");
+		}
+
+		reset();
+		fit(points.iterator());
+
+		if(centers == null) {
+			initialize(pending, pendingSize);
+		}
+
+		List<Cluster> resultCluster = new ArrayList<Cluster>(getClusters());
+
+		for(Point p : points) {
+			resultCluster.get(predict(p)).addPoint(p);
+		}
+
+		return resultCluster;
+	}
+
+	/**
+	 * Trains a new model with all points of the set and assigns every point to its nearest center afterwards. The
+	 * model of earlier calls is discarded and the clusters contain views of the points.
+	 */
+	@Override
+	public List<Cluster> cluster(PointSet points) {
+		if(points == null) {
+			throw new IllegalArgumentException("argument must not be null!");
+		}
+
+		if(points.size() < k) {
+			throw new IllegalArgumentException("at least k points are needed");
+		}
+
+		reset();
+		partialFit(points);
+
+		if(centers == null) {
+			initialize(pending, pendingSize);
+		}
+
+		List<Cluster> resultCluster = new ArrayList<Cluster>(getClusters());
+
+		for(int from = 0; from < points.size(); from += batchSize) {
+			int size = Math.min(batchSize, points.size() - from);
+
+			points.readPoints(from, size, batch, 0);
+
+			for(int index = 0; index < size; index++) {
+				int c = nearestCenter(batch, index * dimension);
+
+				resultCluster.get(c).addPoint(points.getPoint(from + index));
+			}
+		}
+
+		return resultCluster;
+	}
+
+	/**
+	 * Discards the centers and all collected points, so the next points train a new model.
+	 */
+	private void reset() {
+		centers = null;
+		counts = null;
+		batch = null;
+		window = null;
+		nearest = null;
+		pending = null;
+		pendingSize = 0;
+	}
+
+	/**
+	 * Allocates the batch array and the window for the dimension of the first point, later points have to be in the
+	 * same dimension.
+	 *
+	 * @param pointDimension dimension of the next points
+	 */
+	private void allocate(final int pointDimension) {
+		if(batch == null) {
+			dimension = pointDimension;
+			batch = new double[batchSize * dimension];
+			window = new double[WINDOW_BATCHES * batchSize * dimension];
+			nearest = new int[batchSize];
+		}
+
+		if(pointDimension != dimension) {
+			throw new IllegalArgumentException("All points should be in the same dimensional space.");
+		}
+	}
+
+	/**
+	 * Copies the coordinates of a point into the window.
+	 *
+	 * @param point the point to copy
+	 * @param position position of the point in the window
+	 */
+	private void copyToWindow(final Point point, final int position) {
+		if(point == null) {
+			throw new IllegalArgumentException("points must not be null!");
+		}
+
+		allocate(point.getDimension());
+
+		System.arraycopy(point.getData(), point.getOffset(), window, position * dimension, dimension);
+	}
+
+	/**
+	 * Shuffles the first points of the window with the Fisher-Yates shuffle.
+	 *
+	 * @param size number of points in the window
+	 */
+	private void shuffleWindow(final int size) {
+		for(int position = size - 1; position > 0; position--) {
+			int other = random.nextInt(position + 1);
+
+			for(int dim = 0; dim < dimension; dim++) {
+				double swap = window[position * dimension + dim];
+
+				window[position * dimension + dim] = window[other * dimension + dim];
+				window[other * dimension + dim] = swap;
+			}
+		}
+	}
+
+	/**
+	 * Chooses a random stride which is coprime to the number of points, so the steps visit every point once.
+	 *
+	 * @param numberOfPoints number of points
+	 * @return stride between one and the number of points
+	 */
+	private long stride(final int numberOfPoints) {
+		if(numberOfPoints == 1) {
+			return 1;
+		}
+
+		while(true) {
+			int stride = 1 + random.nextInt(numberOfPoints - 1);
+
+			if(gcd(stride, numberOfPoints) == 1) {
+				return stride;
+			}
+		}
+	}
+
+	private static int gcd(int a, int b) {
+		while(b != 0) {
+			int remainder = a % b;
+
+			a = b;
+			b = remainder;
+		}
+
+		return a;
+	}
+
+	/**
+	 * Updates the centers with the first points of the batch array. As long as the model has no centers, the points
+	 * are collected until there are enough points to choose the centers.
+	 *
+	 * @param size number of points in the batch array
+	 */
+	private void update(final int size) {
+		if(centers == null) {
+			collectPending(size);
+
+			if(pendingSize >= k && pendingSize >= batchSize) {
+				initialize(pending, pendingSize);
+			}
+
+			return;
+		}
+
+		update(batch, size);
+	}
+
+	/**
+	 * Appends the points of the batch array to the points which are collected for choosing the centers.
+	 *
+	 * @param size number of points in the batch array
+	 */
+	private void collectPending(final int size) {
+		int required = (pendingSize + size) * dimension;
+
+		if(pending == null) {
+			pending = new double[Math.max(required, Math.max(k, batchSize) * dimension)];
+		} else if(pending.length < required) {
+			pending = Arrays.copyOf(pending, Math.max(required, pending.length << 1));
+		}
+
+		System.arraycopy(batch, 0, pending, pendingSize * dimension, size * dimension);
+		pendingSize += size;
+	}
+
+	/**
+	 * Chooses the centers from the collected points and trains the model with these points.
+	 *
+	 * @param points coordinates of the collected points
+	 * @param size number of collected points
+	 */
+	private void initialize(final double[] points, final int size) {
+		double[] data = Arrays.copyOf(points, size * dimension);
+
+		centers = new double[k * dimension];
+		counts = new long[k];
+
+		initializer.initialize(data, dimension, k, random, centers);
+
+		if(nearest.length < size) {
+			nearest = new int[size];
+		}
+
+		update(data, size);
+
+		pending = null;
+		pendingSize = 0;
+	}
+
+	/**
+	 * Computes a single mini-batch step. First all points of the batch are assigned to their nearest center, then
+	 * every point moves its center towards itself.
+	 *
+	 * @param points coordinates of the batch
+	 * @param size number of points in the batch
+	 */
+	private void update(final double[] points, final int size) {
+		for(int index = 0; index < size; index++) {
+			nearest[index] = nearestCenter(points, index * dimension);
+		}
+
+		for(int index = 0; index < size; index++) {
+			int c = nearest[index];
+			int offset = index * dimension;
+			int centerOffset = c * dimension;
+
+			double rate = 1.0 / ++counts[c];
+
+			for(int dim = 0; dim < dimension; dim++) {
+				centers[centerOffset + dim] += rate * (points[offset + dim] - centers[centerOffset + dim]);
+			}
+		}
+	}
+
+	/**
+	 * Finds the center which is nearest to a vector.
+	 *
+	 * @param vector array containing the vector
+	 * @param offset position of the vector in the array
+	 * @return id of the nearest center
+	 */
+	private int nearestCenter(final double[] vector, final int offset) {
+		int nearestCenter = 0;
+		double nearestDistance = MathUtil.squaredDistance(vector, offset, centers, 0, dimension);
+
+		for(int c = 1; c < k; c++) {
+			double distance = MathUtil.squaredDistance(vector, offset, centers, c * dimension, dimension,
+					nearestDistance);
+
+			if(distance < nearestDistance) {
+				nearestDistance = distance;
+				nearestCenter = c;
+			}
+		}
+
+		return nearestCenter;
+	}
+
+}
@@ -0,0 +1,41 @@
+package de.jail.statistic.clustering.partitional.kmeans;
+
+import java.util.Random;
+
+/**
+ * Chooses {@code k} different points uniformly at random as initial centers. This is the cheapest seeding, but the
+ * centers are often close to each other, which costs additional iterations.
+ * 
+ * @author Christian Vogel
+ */
+public class RandomInitializer implements KMeansInitializer {
+	
+	/**
+	 * Default constructor doing nothing special.
+	 */
+	public RandomInitializer() {}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public void initialize(double[] data, int dimension, int k, Random random, double[] centers) {
+		int numberOfPoints = data.length / dimension;
+		int[] candidates = new int[numberOfPoints];
+		
+		for(int index = 0; index < numberOfPoints; index++) {
+			candidates[index] = index;
+		}
+		
+		for(int c = 0; c < k; c++) {
+			int pick = c + random.nextInt(numberOfPoints - c);
+			int index = candidates[pick];
+			
+			candidates[pick] = candidates[c];
+			candidates[c] = index;
+			
+			System.arraycopy(data, index * dimension, centers, c * dimension, dimension);
+		}
+	}
+
+}
@@ -0,0 +1,551 @@
+package de.jail.utils;
+
+import java.io.Closeable;
+import java.io.File;
+import java.io.FileNotFoundException;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+
+import de.jail.geometry.schemas.Point;
+import de.jail.geometry.schemas.PointSet;
+
+/**
+ * Reads points from CSV files. Every non empty line is a point and every column a coordinate.
+ * <p>
+ * The file is read in blocks of bytes and the numbers are parsed directly from these bytes, no {@link String} is
+ * created for a line or a column. The numbers are converted by a {@link DoubleParser}, which gives exactly the same
+ * results as {@link Double#parseDouble(String)}.
+ * </p>
+ * <p>
+ * A file can be read in three ways: sequentially into a {@link PointSet}, in parallel into a {@link PointSet} where
+ * every thread parses its own range of lines, or as an {@link Iterator} which reads one point after the other and
+ * never holds the whole file in memory.
+ * </p>
+ *
+ * @author Christian Vogel
+ */
+public class CsvPointReader {
+
+	/** number of bytes which are read from the file at once */
+	private static final int BLOCK_SIZE = 1 << 16;
+
+	/** minimum number of bytes which are parsed by a single task */
+	private static final long MIN_CHUNK_SIZE = 1L << 20;
+
+	private final byte separator;
+
+	private final boolean containsHeader;
+
+	/**
+	 * Constructor with the separator of the columns and whether the first line is a header.
+	 *
+	 * @param separator character which separates the coordinates of a line, it has to be an ASCII character
+	 * @param containsHeader {@code true}, if the first line should be ignored, otherwise {@code false}
+	 */
+	public CsvPointReader(final char separator, final boolean containsHeader) {
+		if(separator > 127 || separator == '\n' || separator == '\r') {
+			throw new IllegalArgumentException("separator has to be an ASCII character and must not end a line");
+		}
+
+		this.separator = (byte)separator;
+		this.containsHeader = containsHeader;
+	}
+
+	/**
+	 * Reads all points of a file sequentially.
+	 *
+	 * @param file the CSV file
+	 * @return set containing the points in the order of the file
+	 * @throws IOException thrown if reading the file is unsuccessfully or the lines have a different number of columns
+	 * @throws NumberFormatException thrown if a column is not a number
+	 */
+	public PointSet read(final File file) throws IOException {
+		RandomAccessFile raf = openFile(file);
+
+		try {
+			FileChannel channel = raf.getChannel();
+
+			return toPointSet(parseChunk(channel, 0, channel.size(), containsHeader));
+		} finally {
+			raf.close();
+		}
+	}
+
+	/**
+	 * Reads all points of a file in parallel. The file is split into ranges of whole lines and every range is parsed
+	 * by a task of the pool. Afterwards the coordinates are concatenated in the order of the file.
+	 *
+	 * @param file the CSV file
+	 * @param pool pool whose threads parse the ranges
+	 * @return set containing the points in the order of the file
+	 * @throws IOException thrown if reading the file is unsuccessfully or the lines have a different number of columns
+	 * @throws NumberFormatException thrown if a column is not a number
+	 */
+	public PointSet read(final File file, final ForkJoinPool pool) throws IOException {
+		if(pool == null) {
+			throw new IllegalArgumentException("arguments must not be null");
+		}
+
+		RandomAccessFile raf = openFile(file);
+
+		try {
+			FileChannel channel = raf.getChannel();
+			long size = channel.size();
+
+			int numberOfChunks = (int)Math.max(1, Math.min(pool.getParallelism() * 4L, size / MIN_CHUNK_SIZE));
+			long[] bounds = new long[numberOfChunks + 1];
+
+			bounds[numberOfChunks] = size;
+
+			for(int i = 1; i < numberOfChunks; i++) {
+				bounds[i] = nextLineStart(channel, Math.max(bounds[i - 1], size / numberOfChunks * i));
+			}
+
+			List<ChunkTask> tasks = new ArrayList<ChunkTask>(numberOfChunks);
+
+			for(int i = 0; i < numberOfChunks; i++) {
+				tasks.add(new ChunkTask(channel, bounds[i], bounds[i + 1], i == 0 && containsHeader));
+			}
+
+			for(ChunkTask task : tasks) {
+				pool.execute(task);
+			}
+
+			Chunk[] chunks = new Chunk[numberOfChunks];
+			int dimension = -1;
+			int length = 0;
+
+			for(int i = 0; i < numberOfChunks; i++) {
+				try {
+					chunks[i] = tasks.get(i).join();
+				} catch(UncheckedIOException e) {
+					throw e.getCause();
+				}
+
+				if(chunks[i].dimension < 0) {
+					continue;
+				}
+
+				if(dimension < 0) {
+					dimension = chunks[i].dimension;
+				} else if(chunks[i].dimension != dimension) {
+					throw new IOException("All points should be in the same dimensional space.");
+				}
+
+				length += chunks[i].length;
+			}
+
+			if(dimension < 0) {
+				throw new IOException("file contains no data");
+			}
+
+			double[] data = new double[length];
+			int position = 0;
+
+			for(Chunk chunk : chunks) {
+				System.arraycopy(chunk.values, 0, data, position, chunk.length);
+				position += chunk.length;
+			}
+
+			return new PointSet(data, dimension);
+		} finally {
+			raf.close();
+		}
+	}
+
+	/**
+	 * Opens a file for reading the points one after the other. The file is closed as soon as the last point has been
+	 * read or the iterator is closed.
+	 *
+	 * @param file the CSV file
+	 * @return iterator over the points in the order of the file
+	 * @throws IOException thrown if opening the file is unsuccessfully
+	 */
+	public PointIterator iterator(final File file) throws IOException {
+		RandomAccessFile raf = openFile(file);
+
+		try {
+			return new PointIterator(raf);
+		} catch(IOException e) {
+			raf.close();
+			throw e;
+		}
+	}
+
+	/**
+	 * Iterator over the points of a file. Errors while reading are thrown as {@link UncheckedIOException}.
+	 */
+	public final class PointIterator implements Iterator<Point>, Closeable {
+
+		private final RandomAccessFile raf;
+
+		private final LineReader reader;
+
+		private final Chunk line;
+
+		private Point next;
+
+		private boolean closed;
+
+		private PointIterator(final RandomAccessFile raf) throws IOException {
+			this.raf = raf;
+			this.reader = new LineReader(raf.getChannel(), 0, raf.getChannel().size());
+			this.line = new Chunk();
+
+			if(containsHeader) {
+				reader.nextLine();
+			}
+		}
+
+		@Override
+		public boolean hasNext() {
+			if(next == null && !closed) {
+				try {
+					line.length = 0;
+
+					while(line.length == 0 && reader.nextLine()) {
+						line.parseLine(reader.buffer, reader.lineStart, reader.lineEnd);
+					}
+
+					if(line.length == 0) {
+						close();
+					} else {
+						next = new Point(Arrays.copyOf(line.values, line.length));
+					}
+				} catch(IOException e) {
+					throw new UncheckedIOException(e);
+				}
+			}
+
+			return next != null;
+		}
+
+		@Override
+		public Point next() {
+			if(!hasNext()) {
+				throw new NoSuchElementException();
+			}
+
+			Point point = next;
+			next = null;
+
+			return point;
+		}
+
+		@Override
+		public void remove() {
+			throw new UnsupportedOperationException();
+		}
+
+		@Override
+		public void close() throws IOException {
+			closed = true;
+			raf.close();
+		}
+	}
+
+	/**
+	 * Opens a file for reading.
+	 */
+	private static RandomAccessFile openFile(final File file) throws IOException {
+		if(file == null) {
+			throw new IllegalArgumentException("argument must not be null");
+		}
+
+		if(!file.isFile()) {
+			throw new FileNotFoundException("data file not found");
+		}
+
+		return new RandomAccessFile(file, "r");
+	}
+
+	/**
+	 * Finds the start of the first line which begins at or after a position.
+	 *
+	 * @param channel channel of the file
+	 * @param position position in the file
+	 * @return position after the next line break before or at {@code position}, or the size of the file
+	 */
+	private static long nextLineStart(final FileChannel channel, long position) throws IOException {
+		if(position == 0) {
+			return 0;
+		}
+
+		ByteBuffer buffer = ByteBuffer.allocate(4096);
+		position--;
+
+		while(true) {
+			buffer.clear();
+
+			int read = channel.read(buffer, position);
+
+			if(read <= 0) {
+				return channel.size();
+			}
+
+			for(int i = 0; i < read; i++) {
+				if(buffer.get(i) == '\n') {
+					return position + i + 1;
+				}
+			}
+
+			position += read;
+		}
+	}
+
+	/**
+	 * Parses all lines in a range of a file.
+	 *
+	 * @param channel channel of the file
+	 * @param from position of the first line
+	 * @param to position after the last line
+	 * @param skipFirstLine {@code true}, if the first line is a header
+	 * @return the coordinates of all points in the range
+	 */
+	private Chunk parseChunk(final FileChannel channel, final long from, final long to, final boolean skipFirstLine)
+			throws IOException {
+		LineReader reader = new LineReader(channel, from, to);
+		Chunk chunk = new Chunk();
+
+		if(skipFirstLine) {
+			reader.nextLine();
+		}
+
+		while(reader.nextLine()) {
+			chunk.parseLine(reader.buffer, reader.lineStart, reader.lineEnd);
+		}
+
+		return chunk;
+	}
+
+	/**
+	 * Creates the resulting set of points from parsed coordinates.
+	 */
+	private static PointSet toPointSet(final Chunk chunk) throws IOException {
+		if(chunk.dimension < 0) {
+			throw new IOException("file contains no data");
+		}
+
+		double[] data = chunk.length == chunk.values.length ? chunk.values : Arrays.copyOf(chunk.values, chunk.length);
+
+		return new PointSet(data, chunk.dimension);
+	}
+
+	/**
+	 * Reads the lines of a range of a file. A line is available in {@code buffer} between {@code lineStart} and
+	 * {@code lineEnd}, without the line break.
+	 */
+	private static final class LineReader {
+
+		private final FileChannel channel;
+
+		private final long end;
+
+		private long position;
+
+		private byte[] buffer = new byte[BLOCK_SIZE];
+
+		private int start;
+
+		private int limit;
+
+		private int lineStart;
+
+		private int lineEnd;
+
+		private LineReader(final FileChannel channel, final long from, final long to) {
+			this.channel = channel;
+			this.position = from;
+			this.end = to;
+		}
+
+		/**
+		 * Moves to the next line.
+		 *
+		 * @return {@code true}, if there is another line, otherwise {@code false}
+		 */
+		private boolean nextLine() throws IOException {
+			int scan = start;
+
+			while(true) {
+				for(int i = scan; i < limit; i++) {
+					if(buffer[i] == '\n') {
+						setLine(start, i);
+						start = i + 1;
+
+						return true;
+					}
+				}
+
+				scan = limit - start;
+
+				if(!fill()) {
+					if(start < limit) {
+						setLine(start, limit);
+						start = limit;
+
+						return true;
+					}
+
+					return false;
+				}
+			}
+		}
+
+		private void setLine(final int from, final int to) {
+			lineStart = from;
+			lineEnd = to > from && buffer[to - 1] == '\r' ? to - 1 : to;
+		}
+
+		/**
+		 * Moves the unread bytes to the beginning of the buffer and reads the next block behind them.
+		 *
+		 * @return {@code true}, if bytes were read, otherwise {@code false}
+		 */
+		private boolean fill() throws IOException {
+			if(position >= end) {
+				return false;
+			}
+
+			int remaining = limit - start;
+
+			if(remaining == buffer.length) {
+				buffer = Arrays.copyOf(buffer, buffer.length << 1);
+			} else {
+				System.arraycopy(buffer, start, buffer, 0, remaining);
+			}
+
+			start = 0;
+			limit = remaining;
+
+			int length = (int)Math.min(buffer.length - limit, end - position);
+			ByteBuffer target = ByteBuffer.wrap(buffer, limit, length);
+
+			while(target.hasRemaining()) {
+				int read = channel.read(target, position);
+
+				if(read < 0) {
+					break;
+				}
+
+				position += read;
+			}
+
+			limit = target.position();
+
+			return limit > remaining;
+		}
+	}
+
+	/**
+	 * Coordinates of consecutive points which have been parsed.
+	 */
+	private final class Chunk {
+
+		private double[] values = new double[1024];
+
+		private int length;
+
+		private int dimension = -1;
+
+		/**
+		 * Parses the columns of a line and appends them. Empty lines are ignored, and so are empty fields at the end of
+		 * a line like in {@link String#split(String)}.
+		 */
+		private void parseLine(final byte[] bytes, final int from, int to) throws IOException {
+			int lineLength = length;
+			int fieldStart = from;
+
+			while(to > from && bytes[to - 1] == separator) {
+				to--;
+			}
+
+			if(isBlank(bytes, from, to)) {
+				return;
+			}
+
+			for(int i = from; i <= to; i++) {
+				if(i == to || bytes[i] == separator) {
+					int s = fieldStart;
+					int e = i;
+
+					while(s < e && (bytes[s] == ' ' || bytes[s] == '\t')) {
+						s++;
+					}
+
+					while(e > s && (bytes[e - 1] == ' ' || bytes[e - 1] == '\t')) {
+						e--;
+					}
+
+					if(length == values.length) {
+						values = Arrays.copyOf(values, values.length << 1);
+					}
+
+					values[length++] = DoubleParser.parse(bytes, s, e);
+					fieldStart = i + 1;
+				}
+			}
+
+			int columns = length - lineLength;
+
+			if(dimension < 0) {
+				dimension = columns;
+			} else if(columns != dimension) {
+				throw new IOException("All points should be in the same dimensional space.");
+			}
+		}
+
+		private boolean isBlank(final byte[] bytes, final int from, final int to) {
+			for(int i = from; i < to; i++) {
+				if(bytes[i] != ' ' && bytes[i] != '\t') {
+					return false;
+				}
+			}
+
+			return true;
+		}
+	}
+
+	/**
+	 * Task parsing a range of lines.
+	 */
+	private final class ChunkTask extends RecursiveTask<Chunk> {
+
+		private static final long serialVersionUID = 1L;
+
+		private final FileChannel channel;
+
+		private final long from;
+
+		private final long to;
+
+		private final boolean skipFirstLine;
+
+		private ChunkTask(final FileChannel channel, final long from, final long to, final boolean skipFirstLine) {
+			this.channel = channel;
+			this.from = from;
+			this.to = to;
+			this.skipFirstLine = skipFirstLine;
+		}
+
+		@Override
+		protected Chunk compute() {
+			try {
+				return parseChunk(channel, from, to, skipFirstLine);
+			} catch(IOException e) {
+				throw new UncheckedIOException(e);
+			}
+		}
+	}
+
+}
@@ -0,0 +1,98 @@
+package de.jail.utils;
+
+import java.util.Arrays;
+
+/**
+ * A growable list of primitive {@code double} values. In contrast to a {@code List<Double>} no value will be boxed,
+ * which makes this list suitable for collecting distances in hot loops.
+ *
+ * @author Christian Vogel
+ */
+public final class DoubleList {
+
+	private double[] values;
+
+	private int size;
+
+	/**
+	 * Initializes an empty list with a default capacity.
+	 */
+	public DoubleList() {
+		this(16);
+	}
+
+	/**
+	 * Initializes an empty list with a given initial capacity.
+	 *
+	 * @param capacity number of values which can be stored before the list has to grow
+	 */
+	public DoubleList(final int capacity) {
+		if(capacity < 0) {
+			throw new IllegalArgumentException("capacity must not be negative");
+		}
+
+		values = new double[capacity];
+	}
+
+	/**
+	 * Returns the number of values in the list.
+	 *
+	 * @return number of stored values
+	 */
+	public int size() {
+		return size;
+	}
+
+	/**
+	 * Returns if the list contains no value.
+	 *
+	 * @return {@code true}, if the list is empty, otherwise {@code false}
+	 */
+	public boolean isEmpty() {
+		return size == 0;
+	}
+
+	/**
+	 * Appends a value to the end of the list.
+	 *
+	 * @param value the value to append
+	 */
+	public void add(final double value) {
+		if(size == values.length) {
+			values = Arrays.copyOf(values, Math.max(16, size << 1));
+		}
+
+		values[size++] = value;
+	}
+
+	/**
+	 * Returns the value at a specific position.
+	 *
+	 * @param index position in the list
+	 * @return value at the position
+	 */
+	public double get(final int index) {
+		if(index >= size) {
+			throw new IndexOutOfBoundsException("index " + index + " is not smaller than the size " + size);
+		}
+
+		return values[index];
+	}
+
+	/**
+	 * Removes all values from the list. The capacity will be kept, so the list can be reused without allocating.
+	 */
+	public void clear() {
+		size = 0;
+	}
+
+	/**
+	 * Returns a copy of all values in the list.
+	 *
+	 * @return array with exactly {@link #size()} values
+	 */
+	public double[] toArray() {
+		return Arrays.copyOf(values, size);
+	}
+
+}
@@ -0,0 +1,250 @@
+package de.jail.utils;
+
+import java.math.BigInteger;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Converts decimal numbers, which are given as ASCII characters in a byte array, into doubles without creating a
+ * {@link String}. The result is always the correctly rounded double, exactly like {@link Double#parseDouble(String)}.
+ * <p>
+ * Up to 19 significant digits are collected in a long. Numbers whose mantissa has at most 53 bits and whose exponent
+ * is small are converted by a single exact multiplication or division (Clinger's fast path). All other numbers are
+ * converted with the algorithm of Eisel and Lemire: the mantissa is multiplied with a 128 bit approximation of the
+ * power of ten and the result is only used, if the error of the approximation cannot change the rounding. In the
+ * rare remaining cases, for example numbers near the middle of two doubles or with more than 19 digits, and for
+ * special values like {@code NaN} the characters are passed to {@link Double#parseDouble(String)}.
+ * </p>
+ *
+ * @author Christian Vogel
+ */
+final class DoubleParser {
+
+	/** largest mantissa which is exactly representable as double */
+	private static final long MAX_EXACT_MANTISSA = 1L << 53;
+
+	/** maximum number of significant digits which fit into a long */
+	private static final int MAX_DIGITS = 19;
+
+	/** smallest decimal exponent of the table, smaller numbers are zero or subnormal */
+	private static final int MIN_POWER = -342;
+
+	/** largest decimal exponent of the table, larger numbers are infinite */
+	private static final int MAX_POWER = 308;
+
+	/** powers of ten which are exactly representable as double */
+	private static final double[] POWERS_OF_TEN = {
+		1e0, 1e1, 1e2, 1e3, 1e4, 1e5, 1e6, 1e7, 1e8, 1e9, 1e10, 1e11,
+		1e12, 1e13, 1e14, 1e15, 1e16, 1e17, 1e18, 1e19, 1e20, 1e21, 1e22
+	};
+
+	/** upper 64 bits of the truncated 128 bit mantissa of every power of ten */
+	private static final long[] POWER_HIGH = new long[MAX_POWER - MIN_POWER + 1];
+
+	/** lower 64 bits of the truncated 128 bit mantissa of every power of ten */
+	private static final long[] POWER_LOW = new long[MAX_POWER - MIN_POWER + 1];
+
+	/** biased binary exponent of every power of ten */
+	private static final int[] POWER_EXPONENT = new int[MAX_POWER - MIN_POWER + 1];
+
+	static {
+		BigInteger mask = BigInteger.ONE.shiftLeft(64).subtract(BigInteger.ONE);
+
+		for(int q = MIN_POWER; q <= MAX_POWER; q++) {
+			BigInteger power = BigInteger.TEN.pow(Math.abs(q));
+			int bitLength = power.bitLength();
+
+			BigInteger mantissa;
+			int exponent;
+
+			if(q >= 0) {
+				mantissa = bitLength <= 128 ? power.shiftLeft(128 - bitLength) : power.shiftRight(bitLength - 128);
+				exponent = bitLength - 1;
+			} else {
+				mantissa = BigInteger.ONE.shiftLeft(127 + bitLength).divide(power);
+				exponent = -bitLength;
+			}
+
+			POWER_HIGH[q - MIN_POWER] = mantissa.shiftRight(64).longValue();
+			POWER_LOW[q - MIN_POWER] = mantissa.and(mask).longValue();
+			// the product with the mantissa is shifted by another 64 bits
+			POWER_EXPONENT[q - MIN_POWER] = exponent + 1023 + 64;
+		}
+	}
+
+	private DoubleParser() {}
+
+	/**
+	 * Parses a single number. Leading and trailing whitespaces are not allowed.
+	 *
+	 * @param bytes array containing the number as ASCII characters
+	 * @param from position of the first character
+	 * @param to position after the last character
+	 * @return the parsed number
+	 * @throws NumberFormatException thrown if the characters are not a number
+	 */
+	static double parse(final byte[] bytes, final int from, final int to) {
+		int i = from;
+		boolean negative = false;
+
+		if(i < to && (bytes[i] == '-' || bytes[i] == '+')) {
+			negative = bytes[i] == '-';
+			i++;
+		}
+
+		long mantissa = 0;
+		int exponent = 0;
+		int digits = 0;
+		int significant = 0;
+		boolean truncated = false;
+
+		for(; i < to && bytes[i] >= '0' && bytes[i] <= '9'; i++, digits++) {
+			if(significant < MAX_DIGITS) {
+				mantissa = mantissa * 10 + (bytes[i] - '0');
+				significant += mantissa != 0 ? 1 : 0;
+			} else {
+				exponent++;
+				truncated |= bytes[i] != '0';
+			}
+		}
+
+		if(i < to && bytes[i] == '.') {
+			for(i++; i < to && bytes[i] >= '0' && bytes[i] <= '9'; i++, digits++) {
+				if(significant < MAX_DIGITS) {
+					mantissa = mantissa * 10 + (bytes[i] - '0');
+					significant += mantissa != 0 ? 1 : 0;
+					exponent--;
+				} else {
+					truncated |= bytes[i] != '0';
+				}
+			}
+		}
+
+		if(digits > 0 && i < to && (bytes[i] == 'e' || bytes[i] == 'E')) {
+			int j = i + 1;
+			boolean negativeExponent = false;
+
+			if(j < to && (bytes[j] == '-' || bytes[j] == '+')) {
+				negativeExponent = bytes[j] == '-';
+				j++;
+			}
+
+			int value = 0;
+
+			for(i = j; i < to && bytes[i] >= '0' && bytes[i] <= '9' && value < 100000; i++) {
+				value = value * 10 + (bytes[i] - '0');
+			}
+
+			if(i == j) {
+				digits = 0;
+			}
+
+			exponent += negativeExponent ? -value : value;
+		}
+
+		if(digits == 0 || i != to) {
+			return fallback(bytes, from, to);
+		}
+
+		if(mantissa == 0) {
+			return negative ? -0.0 : 0.0;
+		}
+
+		if(!truncated && mantissa > 0 && mantissa <= MAX_EXACT_MANTISSA && exponent >= -22 && exponent <= 22) {
+			double value = exponent < 0 ? mantissa / POWERS_OF_TEN[-exponent] : mantissa * POWERS_OF_TEN[exponent];
+
+			return negative ? -value : value;
+		}
+
+		if(!truncated && exponent >= MIN_POWER && exponent <= MAX_POWER) {
+			long bits = eiselLemire(mantissa, exponent);
+
+			if(bits >= 0) {
+				return Double.longBitsToDouble(negative ? bits | Long.MIN_VALUE : bits);
+			}
+		}
+
+		return fallback(bytes, from, to);
+	}
+
+	/**
+	 * Computes the bits of the positive double which is nearest to {@code mantissa * 10^exponent}.
+	 *
+	 * @param mantissa unsigned mantissa, which must not be zero
+	 * @param exponent decimal exponent inside of the table
+	 * @return bits of the double, or {@code -1} if the result cannot be determined safely
+	 */
+	private static long eiselLemire(long mantissa, final int exponent) {
+		int index = exponent - MIN_POWER;
+
+		int shift = Long.numberOfLeadingZeros(mantissa);
+		mantissa <<= shift;
+
+		long upper = multiplyHigh(mantissa, POWER_HIGH[index]);
+		long lower = mantissa * POWER_HIGH[index];
+
+		// the lower half of the power may carry into the bits which are used
+		if((upper & 0x1FF) == 0x1FF && Long.compareUnsigned(lower + mantissa, lower) < 0) {
+			long productLow = mantissa * POWER_LOW[index];
+			long productMiddle = lower + multiplyHigh(mantissa, POWER_LOW[index]);
+
+			if(Long.compareUnsigned(productMiddle, lower) < 0) {
+				upper++;
+			}
+
+			if(productMiddle + 1 == 0 && (upper & 0x1FF) == 0x1FF
+					&& Long.compareUnsigned(productLow + mantissa, productLow) < 0) {
+				return -1;
+			}
+
+			lower = productMiddle;
+		}
+
+		long upperBit = upper >>> 63;
+		long bits = upper >>> (upperBit + 9);
+		shift += (int)(1 ^ upperBit);
+
+		// a carry or an exact tie can still change the rounding
+		if((upper & 0x1FF) == 0x1FF || ((upper & 0x1FF) == 0 && lower == 0 && (bits & 3) == 1)) {
+			return -1;
+		}
+
+		bits += bits & 1;
+		bits >>>= 1;
+
+		if(bits >= 1L << 53) {
+			bits = 1L << 52;
+			shift--;
+		}
+
+		long biasedExponent = POWER_EXPONENT[index] - shift;
+
+		if(biasedExponent < 1 || biasedExponent > 2046) {
+			return -1;
+		}
+
+		return (bits & ~(1L << 52)) | (biasedExponent << 52);
+	}
+
+	/**
+	 * Computes the upper 64 bits of the unsigned 128 bit product of two longs.
+	 */
+	private static long multiplyHigh(final long a, final long b) {
+		long aLow = a & 0xFFFFFFFFL;
+		long aHigh = a >>> 32;
+		long bLow = b & 0xFFFFFFFFL;
+		long bHigh = b >>> 32;
+
+		long lowLow = aLow * bLow;
+		long highLow = aHigh * bLow;
+		long lowHigh = aLow * bHigh;
+
+		long middle = (lowLow >>> 32) + (highLow & 0xFFFFFFFFL) + (lowHigh & 0xFFFFFFFFL);
+
+		return aHigh * bHigh + (highLow >>> 32) + (lowHigh >>> 32) + (middle >>> 32);
+	}
+
+	private static double fallback(final byte[] bytes, final int from, final int to) {
+		return Double.parseDouble(new String(bytes, from, to - from, StandardCharsets.US_ASCII));
+	}
+
+}
@@ -1,16 +1,17 @@
 package de.jail.utils;
 
 import java.io.BufferedReader;
-import java.io.DataInputStream;
 import java.io.File;
 import java.io.FileInputStream;
 import java.io.FileNotFoundException;
 import java.io.IOException;
 import java.io.InputStreamReader;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collection;
 
 import de.jail.geometry.schemas.Point;
+import de.jail.geometry.schemas.PointSet;
 
 /**
  * Util class for different file based operation like import of data as
@@ -29,7 +30,9 @@ public class FileUtil {
 	 * @return a collection of imported points
 	 * @throws IOException thrown if reading file or data is unsuccessfully
 	 * @throws NumberFormatException thrown if in the process of parsing string based data to double is unsuccessfully
+	 * @deprecated creates a string for every line and every column, use {@link CsvPointReader} instead
 	 */
+	@Deprecated
 	public static Collection<Point> importPointsFromCsv(final String filename, final String seperator, final boolean containsHeader) 
 		throws IOException, NumberFormatException {
 		if(filename == null) {
@@ -51,32 +54,114 @@ public class FileUtil {
 			return null;
 		}
 
-		FileInputStream fstream = new FileInputStream(f);
-
-		DataInputStream in = new DataInputStream(fstream);
-		BufferedReader br = new BufferedReader(new InputStreamReader(in));
-		
-		String strLine;
-		
-		boolean ignoreFirstLine = containsHeader;
+		BufferedReader br = new BufferedReader(new InputStreamReader(new FileInputStream(f)));
 		
-		Collection<Point> points = new ArrayList<Point>();
-
-		while ((strLine = br.readLine()) != null)   {
-			String[] columns = strLine.split(seperator);
-			double[] vector = new double[columns.length];
+		try {
+			String strLine;
+			
+			boolean ignoreFirstLine = containsHeader;
 			
-			if(ignoreFirstLine) {
-				ignoreFirstLine = false;
-			} else {
+			Collection<Point> points = new ArrayList<Point>();
+
+			while ((strLine = br.readLine()) != null)   {
+				if(ignoreFirstLine) {
+					ignoreFirstLine = false;
+					continue;
+				}
+				
+				String[] columns = strLine.split(seperator);
+				double[] vector = new double[columns.length];
+				
 				for(int i = 0; i < columns.length; i++) {
 					vector[i] = Double.parseDouble(columns[i]);
 				}
+				
+				points.add(new Point(vector));
 			}
 			
-			points.add(new Point(vector));
+			return points;
+		} finally {
+			br.close();
+		}
+	}
+	
+	/**
+	 * Imports CSV based data as a set of points. In contrast to {@link #importPointsFromCsv(String, String, boolean)}
+	 * no object is created per point, the coordinates are read directly into one growing array. A separator of a 
+	 * single character is parsed by a {@link CsvPointReader}, longer separators are used as regular expression.
+	 * 
+	 * @param filename complete file path + filename
+	 * @param seperator identifies the character which separates each dimension 
+	 * @param containsHeader identifies whether the file contains header information or not ({@code true} means first line should be ignored)
+	 * @return a set containing the imported points in the order of the file
+	 * @throws IOException thrown if reading file or data is unsuccessfully
+	 * @throws NumberFormatException thrown if in the process of parsing string based data to double is unsuccessfully
+	 */
+	public static PointSet importPointSetFromCsv(final String filename, final String seperator, final boolean containsHeader) 
+		throws IOException, NumberFormatException {
+		if(filename == null || seperator == null) {
+			throw new IllegalArgumentException("argument must not be null");
+		}
+		
+		if(filename.equals("")) {
+			throw new IllegalArgumentException("empty string");
+		}
+		
+		File f = new File(filename);
+		
+		if(!f.isFile()) {
+			throw new FileNotFoundException("data file not found");
+		}
+		
+		if(seperator.length() == 1 && seperator.charAt(0) < 128) {
+			return new CsvPointReader(seperator.charAt(0), containsHeader).read(f);
 		}
 		
-		return points;
+		BufferedReader br = new BufferedReader(new InputStreamReader(new FileInputStream(f)));
+		
+		try {
+			String strLine;
+			
+			boolean ignoreFirstLine = containsHeader;
+			
+			double[] data = new double[1024];
+			int length = 0;
+			int dimension = -1;
+			
+			while ((strLine = br.readLine()) != null) {
+				if(ignoreFirstLine) {
+					ignoreFirstLine = false;
+					continue;
+				}
+				
+				if(strLine.isEmpty()) {
+					continue;
+				}
+				
+				String[] columns = strLine.split(seperator);
+				
+				if(dimension < 0) {
+					dimension = columns.length;
+				} else if(columns.length != dimension) {
+					throw new IOException("All points should be in the same dimensional space.");
+				}
+				
+				if(length + dimension > data.length) {
+					data = Arrays.copyOf(data, Math.max(data.length << 1, length + dimension));
+				}
+				
+				for(int i = 0; i < dimension; i++) {
+					data[length++] = Double.parseDouble(columns[i]);
+				}
+			}
+			
+			if(dimension < 0) {
+				throw new IOException("file contains no data");
+			}
+			
+			return new PointSet(Arrays.copyOf(data, length), dimension);
+		} finally {
+			br.close();
+		}
 	}
-}
+}
\ No newline at end of file
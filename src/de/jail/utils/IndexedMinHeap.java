@@ -0,0 +1,202 @@
+package de.jail.utils;
+
+import java.util.Arrays;
+
+/**
+ * A binary min-heap of the ids {@code 0..capacity-1} with a {@code double} key for every id. The position of every
+ * id in the heap is tracked, so the key of an id which is already in the heap can be decreased in O(log n) instead
+ * of inserting the id a second time. Ids with the same key are ordered by their value, so the order in which ids
+ * are removed does not depend on the order of the insertions.
+ *
+ * @author Christian Vogel
+ */
+public final class IndexedMinHeap {
+
+	private final int[] heap;
+
+	/** position of every id in the heap, or -1 if the id is not in the heap */
+	private final int[] positions;
+
+	private final double[] keys;
+
+	private int size;
+
+	/**
+	 * Initializes an empty heap for the ids {@code 0..capacity-1}.
+	 *
+	 * @param capacity number of ids
+	 */
+	public IndexedMinHeap(final int capacity) {
+		if(capacity < 0) {
+			throw new IllegalArgumentException("capacity must not be negative");
+		}
+
+		heap = new int[capacity];
+		positions = new int[capacity];
+		keys = new double[capacity];
+
+		Arrays.fill(positions, -1);
+	}
+
+	/**
+	 * Returns the number of ids in the heap.
+	 *
+	 * @return number of ids
+	 */
+	public int size() {
+		return size;
+	}
+
+	/**
+	 * Returns if the heap contains no id.
+	 *
+	 * @return {@code true}, if the heap is empty, otherwise {@code false}
+	 */
+	public boolean isEmpty() {
+		return size == 0;
+	}
+
+	/**
+	 * Returns if an id is in the heap.
+	 *
+	 * @param id the id
+	 * @return {@code true}, if the id is in the heap, otherwise {@code false}
+	 */
+	public boolean contains(final int id) {
+		return positions[id] >= 0;
+	}
+
+	/**
+	 * Returns the key of an id which is in the heap.
+	 *
+	 * @param id the id
+	 * @return key of the id
+	 */
+	public double getKey(final int id) {
+		if(positions[id] < 0) {
+			throw new IllegalArgumentException("id " + id + " is not in the heap");
+		}
+
+		return keys[id];
+	}
+
+	/**
+	 * Inserts an id with a key, or decreases the key of an id which is already in the heap. A key which is not
+	 * smaller than the current key of the id is ignored.
+	 *
+	 * @param id the id
+	 * @param key new key of the id
+	 * @return {@code true}, if the id was inserted or its key was decreased, otherwise {@code false}
+	 */
+	public boolean insertOrDecrease(final int id, final double key) {
+		int position = positions[id];
+
+		if(position < 0) {
+			position = size++;
+			heap[position] = id;
+			positions[id] = position;
+		} else if(!(key < keys[id])) {
+			return false;
+		}
+
+		keys[id] = key;
+		siftUp(position);
+
+		return true;
+	}
+
+	/**
+	 * Returns the id with the smallest key without removing it.
+	 *
+	 * @return id with the smallest key
+	 */
+	public int peek() {
+		if(size == 0) {
+			throw new IllegalStateException("heap is empty");
+		}
+
+		return heap[0];
+	}
+
+	/**
+	 * Removes the id with the smallest key.
+	 *
+	 * @return id with the smallest key
+	 */
+	public int poll() {
+		int id = peek();
+
+		positions[id] = -1;
+		size--;
+
+		if(size > 0) {
+			heap[0] = heap[size];
+			positions[heap[0]] = 0;
+			siftDown(0);
+		}
+
+		return id;
+	}
+
+	/**
+	 * Removes all ids from the heap.
+	 */
+	public void clear() {
+		for(int i = 0; i < size; i++) {
+			positions[heap[i]] = -1;
+		}
+
+		size = 0;
+	}
+
+	private void siftUp(int position) {
+		int id = heap[position];
+
+		while(position > 0) {
+			int parent = (position - 1) >>> 1;
+
+			if(!less(id, heap[parent])) {
+				break;
+			}
+
+			heap[position] = heap[parent];
+			positions[heap[position]] = position;
+			position = parent;
+		}
+
+		heap[position] = id;
+		positions[id] = position;
+	}
+
+	private void siftDown(int position) {
+		int id = heap[position];
+
+		while(true) {
+			int child = 2 * position + 1;
+
+			if(child >= size) {
+				break;
+			}
+
+			if(child + 1 < size && less(heap[child + 1], heap[child])) {
+				child++;
+			}
+
+			if(!less(heap[child], id)) {
+				break;
+			}
+
+			heap[position] = heap[child];
+			positions[heap[position]] = position;
+			position = child;
+		}
+
+		heap[position] = id;
+		positions[id] = position;
+	}
+
+	private boolean less(final int first, final int second) {
+		return keys[first] < keys[second] || (keys[first] == keys[second] && first < second);
+	}
+
+}
@@ -0,0 +1,125 @@
+package de.jail.utils;
+
+import java.util.Arrays;
+
+/**
+ * A growable list of primitive {@code int} values. In contrast to a {@code List<Integer>} no value will be boxed,
+ * which makes this list suitable for collecting point ids in hot loops.
+ *
+ * @author Christian Vogel
+ */
+public final class IntList {
+
+	private int[] values;
+
+	private int size;
+
+	/**
+	 * Initializes an empty list with a default capacity.
+	 */
+	public IntList() {
+		this(16);
+	}
+
+	/**
+	 * Initializes an empty list with a given initial capacity.
+	 *
+	 * @param capacity number of values which can be stored before the list has to grow
+	 */
+	public IntList(final int capacity) {
+		if(capacity < 0) {
+			throw new IllegalArgumentException("capacity must not be negative");
+		}
+
+		values = new int[capacity];
+	}
+
+	/**
+	 * Returns the number of values in the list.
+	 *
+	 * @return number of stored values
+	 */
+	public int size() {
+		return size;
+	}
+
+	/**
+	 * Returns if the list contains no value.
+	 *
+	 * @return {@code true}, if the list is empty, otherwise {@code false}
+	 */
+	public boolean isEmpty() {
+		return size == 0;
+	}
+
+	/**
+	 * Appends a value to the end of the list.
+	 *
+	 * @param value the value to append
+	 */
+	public void add(final int value) {
+		if(size == values.length) {
+			values = Arrays.copyOf(values, Math.max(16, size << 1));
+		}
+
+		values[size++] = value;
+	}
+
+	/**
+	 * Returns the value at a specific position.
+	 *
+	 * @param index position in the list
+	 * @return value at the position
+	 */
+	public int get(final int index) {
+		if(index >= size) {
+			throw new IndexOutOfBoundsException("index " + index + " is not smaller than the size " + size);
+		}
+
+		return values[index];
+	}
+
+	/**
+	 * Replaces the value at a specific position.
+	 *
+	 * @param index position in the list
+	 * @param value the new value
+	 */
+	public void set(final int index, final int value) {
+		if(index >= size) {
+			throw new IndexOutOfBoundsException("index " + index + " is not smaller than the size " + size);
+		}
+
+		values[index] = value;
+	}
+
+	/**
+	 * Removes the last value of the list.
+	 *
+	 * @return the removed value
+	 */
+	public int removeLast() {
+		if(size == 0) {
+			throw new IllegalStateException("list is empty");
+		}
+
+		return values[--size];
+	}
+
+	/**
+	 * Removes all values from the list. The capacity will be kept, so the list can be reused without allocating.
+	 */
+	public void clear() {
+		size = 0;
+	}
+
+	/**
+	 * Returns a copy of all values in the list.
+	 *
+	 * @return array with exactly {@link #size()} values
+	 */
+	public int[] toArray() {
+		return Arrays.copyOf(values, size);
+	}
+
+}
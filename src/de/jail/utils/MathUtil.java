@@ -58,6 +58,12 @@ public class MathUtil {
 	 */
 	public final static double D_E = 2.7182818284590452;
 	
+	/** minimum dimension from which the distance loops are unrolled */
+	private final static int UNROLL_THRESHOLD = 8;
+	
+	/** number of coordinates after which the bounded distance loops compare their sum with the bound */
+	private final static int BOUND_CHECK_INTERVAL = 16;
+	
 	/**
 	 * Returns a double value where the argument will be raised to the power of 2.
 	 * 
@@ -88,6 +94,203 @@ public class MathUtil {
 		return arg * arg;
 	}
 	
+	/**
+	 * Calculates the squared Euclidean distance between two vectors which are stored in flat arrays.
+	 * <p>
+	 * From {@value #UNROLL_THRESHOLD} dimensions on, the loop is unrolled by four and sums into four independent 
+	 * accumulators. A single accumulator makes every addition wait for the previous one, with four accumulators the 
+	 * processor can run the additions in parallel. For fewer dimensions combining the accumulators costs more than 
+	 * it saves.
+	 * </p>
+	 * 
+	 * @param a array containing the first vector
+	 * @param aOffset position of the first vector in {@code a}
+	 * @param b array containing the second vector
+	 * @param bOffset position of the second vector in {@code b}
+	 * @param dimension number of coordinates of both vectors
+	 * @return squared distance between both vectors
+	 */
+	public static double squaredDistance(final double[] a, final int aOffset, final double[] b, final int bOffset, 
+			final int dimension) {
+		double sum = 0;
+		int dim = 0;
+		
+		if(dimension >= UNROLL_THRESHOLD) {
+			double sum0 = 0;
+			double sum1 = 0;
+			double sum2 = 0;
+			double sum3 = 0;
+			
+			for(; dim + 3 < dimension; dim += 4) {
+				double diff0 = a[aOffset + dim] - b[bOffset + dim];
+				double diff1 = a[aOffset + dim + 1] - b[bOffset + dim + 1];
+				double diff2 = a[aOffset + dim + 2] - b[bOffset + dim + 2];
+				double diff3 = a[aOffset + dim + 3] - b[bOffset + dim + 3];
+				
+				sum0 += diff0 * diff0;
+				sum1 += diff1 * diff1;
+				sum2 += diff2 * diff2;
+				sum3 += diff3 * diff3;
+			}
+			
+			sum = (sum0 + sum1) + (sum2 + sum3);
+		}
+		
+		for(; dim < dimension; dim++) {
+			double diff = a[aOffset + dim] - b[bOffset + dim];
+			sum += diff * diff;
+		}
+		
+		return sum;
+	}
+	
+	/**
+	 * Calculates the squared Euclidean distance between two vectors, but stops as soon as the distance cannot be 
+	 * smaller than a bound. The running sum is compared with the bound after every {@value #BOUND_CHECK_INTERVAL} 
+	 * coordinates of the unrolled loop, vectors with less than {@value #UNROLL_THRESHOLD} dimensions are always 
+	 * calculated completely. The coordinates are summed in the same order as in 
+	 * {@link #squaredDistance(double[], int, double[], int, int)}, so if the distance is smaller than the bound, both
+	 * results are exactly the same.
+	 * 
+	 * @param a array containing the first vector
+	 * @param aOffset position of the first vector in {@code a}
+	 * @param b array containing the second vector
+	 * @param bOffset position of the second vector in {@code b}
+	 * @param dimension number of coordinates of both vectors
+	 * @param bound squared distance from which on the calculation may stop
+	 * @return squared distance between both vectors, if it is smaller than {@code bound}, otherwise a value which is
+	 * not smaller than {@code bound}
+	 */
+	public static double squaredDistance(final double[] a, final int aOffset, final double[] b, final int bOffset, 
+			final int dimension, final double bound) {
+		double sum = 0;
+		int dim = 0;
+		
+		if(dimension >= UNROLL_THRESHOLD) {
+			double sum0 = 0;
+			double sum1 = 0;
+			double sum2 = 0;
+			double sum3 = 0;
+			
+			while(dim + 3 < dimension) {
+				int end = Math.min(dim + BOUND_CHECK_INTERVAL, dimension - 3);
+				
+				for(; dim < end; dim += 4) {
+					double diff0 = a[aOffset + dim] - b[bOffset + dim];
+					double diff1 = a[aOffset + dim + 1] - b[bOffset + dim + 1];
+					double diff2 = a[aOffset + dim + 2] - b[bOffset + dim + 2];
+					double diff3 = a[aOffset + dim + 3] - b[bOffset + dim + 3];
+					
+					sum0 += diff0 * diff0;
+					sum1 += diff1 * diff1;
+					sum2 += diff2 * diff2;
+					sum3 += diff3 * diff3;
+				}
+				
+				sum = (sum0 + sum1) + (sum2 + sum3);
+				
+				if(sum >= bound) {
+					return sum;
+				}
+			}
+		}
+		
+		for(; dim < dimension; dim++) {
+			double diff = a[aOffset + dim] - b[bOffset + dim];
+			sum += diff * diff;
+		}
+		
+		return sum;
+	}
+	
+	/**
+	 * Calculates the sum of the absolute differences between two vectors which are stored in flat arrays, which is
+	 * the Manhattan distance. The loop is unrolled like in {@link #squaredDistance(double[], int, double[], int, int)}.
+	 * 
+	 * @param a array containing the first vector
+	 * @param aOffset position of the first vector in {@code a}
+	 * @param b array containing the second vector
+	 * @param bOffset position of the second vector in {@code b}
+	 * @param dimension number of coordinates of both vectors
+	 * @return sum of the absolute differences between both vectors
+	 */
+	public static double absoluteDistance(final double[] a, final int aOffset, final double[] b, final int bOffset, 
+			final int dimension) {
+		double sum = 0;
+		int dim = 0;
+		
+		if(dimension >= UNROLL_THRESHOLD) {
+			double sum0 = 0;
+			double sum1 = 0;
+			double sum2 = 0;
+			double sum3 = 0;
+			
+			for(; dim + 3 < dimension; dim += 4) {
+				sum0 += Math.abs(a[aOffset + dim] - b[bOffset + dim]);
+				sum1 += Math.abs(a[aOffset + dim + 1] - b[bOffset + dim + 1]);
+				sum2 += Math.abs(a[aOffset + dim + 2] - b[bOffset + dim + 2]);
+				sum3 += Math.abs(a[aOffset + dim + 3] - b[bOffset + dim + 3]);
+			}
+			
+			sum = (sum0 + sum1) + (sum2 + sum3);
+		}
+		
+		for(; dim < dimension; dim++) {
+			sum += Math.abs(a[aOffset + dim] - b[bOffset + dim]);
+		}
+		
+		return sum;
+	}
+	
+	/**
+	 * Calculates the Manhattan distance between two vectors, but stops as soon as the distance cannot be smaller 
+	 * than a bound, like {@link #squaredDistance(double[], int, double[], int, int, double)}.
+	 * 
+	 * @param a array containing the first vector
+	 * @param aOffset position of the first vector in {@code a}
+	 * @param b array containing the second vector
+	 * @param bOffset position of the second vector in {@code b}
+	 * @param dimension number of coordinates of both vectors
+	 * @param bound distance from which on the calculation may stop
+	 * @return sum of the absolute differences between both vectors, if it is smaller than {@code bound}, otherwise a
+	 * value which is not smaller than {@code bound}
+	 */
+	public static double absoluteDistance(final double[] a, final int aOffset, final double[] b, final int bOffset, 
+			final int dimension, final double bound) {
+		double sum = 0;
+		int dim = 0;
+		
+		if(dimension >= UNROLL_THRESHOLD) {
+			double sum0 = 0;
+			double sum1 = 0;
+			double sum2 = 0;
+			double sum3 = 0;
+			
+			while(dim + 3 < dimension) {
+				int end = Math.min(dim + BOUND_CHECK_INTERVAL, dimension - 3);
+				
+				for(; dim < end; dim += 4) {
+					sum0 += Math.abs(a[aOffset + dim] - b[bOffset + dim]);
+					sum1 += Math.abs(a[aOffset + dim + 1] - b[bOffset + dim + 1]);
+					sum2 += Math.abs(a[aOffset + dim + 2] - b[bOffset + dim + 2]);
+					sum3 += Math.abs(a[aOffset + dim + 3] - b[bOffset + dim + 3]);
+				}
+				
+				sum = (sum0 + sum1) + (sum2 + sum3);
+				
+				if(sum >= bound) {
+					return sum;
+				}
+			}
+		}
+		
+		for(; dim < dimension; dim++) {
+			sum += Math.abs(a[aOffset + dim] - b[bOffset + dim]);
+		}
+		
+		return sum;
+	}
+	
 	/**
 	 * Calculates the mean from a collection of points.
 	 * 
@@ -0,0 +1,106 @@
+package de.jail.tests.benchmarks;
+
+import java.io.BufferedWriter;
+import java.io.File;
+import java.io.FileWriter;
+import java.io.IOException;
+import java.util.Collection;
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+
+import de.jail.geometry.schemas.Point;
+import de.jail.geometry.schemas.PointSet;
+import de.jail.utils.CsvPointReader;
+import de.jail.utils.FileUtil;
+
+/**
+ * Compares the time for reading a CSV file with {@link FileUtil#importPointsFromCsv(String, String, boolean)} and
+ * the different modes of {@link CsvPointReader}. Without arguments a file with one million three dimensional points
+ * is generated, otherwise the given file is read with the given separator.
+ * <p>
+ * Usage: {@code CsvReaderBenchmark [file separator containsHeader]}
+ * </p>
+ *
+ * @author Christian Vogel
+ */
+public class CsvReaderBenchmark {
+
+	private static final int ROUNDS = 5;
+
+	public static void main(String[] args) throws IOException {
+		File file;
+		char separator = ',';
+		boolean containsHeader = false;
+
+		if(args.length >= 3) {
+			file = new File(args[0]);
+			separator = args[1].charAt(0);
+			containsHeader = Boolean.parseBoolean(args[2]);
+		} else {
+			file = File.createTempFile("benchmark", ".csv");
+			file.deleteOnExit();
+
+			writePoints(file, 1000000, 3);
+		}
+
+		System.out.println("file size: " + file.length() / (1024 * 1024) + " MB");
+
+		CsvPointReader reader = new CsvPointReader(separator, containsHeader);
+
+		for(int round = 0; round < ROUNDS; round++) {
+			long start = System.nanoTime();
+			@SuppressWarnings("deprecation")
+			Collection<Point> points = FileUtil.importPointsFromCsv(file.getPath(), String.valueOf(separator), 
+					containsHeader);
+			long legacy = System.nanoTime() - start;
+
+			start = System.nanoTime();
+			PointSet set = reader.read(file);
+			long sequential = System.nanoTime() - start;
+
+			start = System.nanoTime();
+			PointSet parallelSet = reader.read(file, ForkJoinPool.commonPool());
+			long parallel = System.nanoTime() - start;
+
+			start = System.nanoTime();
+			int count = 0;
+
+			for(CsvPointReader.PointIterator it = reader.iterator(file); it.hasNext(); it.next()) {
+				count++;
+			}
+
+			long streaming = System.nanoTime() - start;
+
+			if(points.size() != set.size() || set.size() != parallelSet.size() || set.size() != count) {
+				throw new IllegalStateException("readers returned a different number of points");
+			}
+
+			System.out.println(String.format("round %d: importPointsFromCsv %d ms, read %d ms, parallel read %d ms, "
+					+ "iterator %d ms", round, legacy / 1000000, sequential / 1000000, parallel / 1000000, 
+					streaming / 1000000));
+		}
+	}
+
+	private static void writePoints(final File file, final int numberOfPoints, final int dimension) 
+			throws IOException {
+		Random random = new Random(42);
+		BufferedWriter writer = new BufferedWriter(new FileWriter(file));
+
+		try {
+			for(int i = 0; i < numberOfPoints; i++) {
+				for(int dim = 0; dim < dimension; dim++) {
+					if(dim > 0) {
+						writer.write(',');
+					}
+
+					writer.write(Double.toString(random.nextGaussian() * 100));
+				}
+
+				writer.newLine();
+			}
+		} finally {
+			writer.close();
+		}
+	}
+
+}
@@ -0,0 +1,120 @@
+package de.jail.tests.benchmarks;
+
+import java.util.Random;
+
+import de.jail.geometry.distancefunctions.PointBasedDistanceFunction;
+import de.jail.geometry.distancefunctions.impl.EuclideanDistance;
+import de.jail.geometry.distancefunctions.impl.ManhattanDistance;
+
+/**
+ * Measures the throughput of the distance functions on flat arrays for different dimensions. The results are 
+ * compared with a plain loop with a single accumulator, as used by the distance functions before.
+ * <p>
+ * Usage: {@code DistanceBenchmark}
+ * </p>
+ *
+ * @author Christian Vogel
+ */
+public class DistanceBenchmark {
+
+	private static final int[] DIMENSIONS = {2, 16, 128, 1024};
+
+	/** number of coordinates of all points together */
+	private static final int COORDINATES = 1 << 16;
+
+	/** number of points whose distances to all points are computed */
+	private static final int QUERIES = 256;
+
+	private static final int ROUNDS = 10;
+
+	public static void main(String[] args) {
+		Random random = new Random(42);
+
+		for(int dimension : DIMENSIONS) {
+			double[] data = new double[COORDINATES];
+
+			for(int i = 0; i < data.length; i++) {
+				data[i] = random.nextGaussian();
+			}
+
+			int numberOfPoints = COORDINATES / dimension;
+			long pairs = (long)QUERIES * numberOfPoints;
+
+			PointBasedDistanceFunction euclidean = new EuclideanDistance();
+			PointBasedDistanceFunction manhattan = new ManhattanDistance();
+
+			double scalarEuclidean = Double.MAX_VALUE;
+			double unrolledEuclidean = Double.MAX_VALUE;
+			double scalarManhattan = Double.MAX_VALUE;
+			double unrolledManhattan = Double.MAX_VALUE;
+			double checksum = 0;
+
+			for(int round = 0; round < ROUNDS; round++) {
+				long start = System.nanoTime();
+
+				for(int i = 0; i < QUERIES; i++) {
+					for(int j = 0; j < numberOfPoints; j++) {
+						checksum += scalarEuclidean(data, (i % numberOfPoints) * dimension, data, j * dimension, dimension);
+					}
+				}
+
+				scalarEuclidean = Math.min(scalarEuclidean, (System.nanoTime() - start) / (double)pairs);
+				start = System.nanoTime();
+
+				for(int i = 0; i < QUERIES; i++) {
+					for(int j = 0; j < numberOfPoints; j++) {
+						checksum += euclidean.calculate(data, (i % numberOfPoints) * dimension, data, j * dimension, dimension);
+					}
+				}
+
+				unrolledEuclidean = Math.min(unrolledEuclidean, (System.nanoTime() - start) / (double)pairs);
+				start = System.nanoTime();
+
+				for(int i = 0; i < QUERIES; i++) {
+					for(int j = 0; j < numberOfPoints; j++) {
+						checksum += scalarManhattan(data, (i % numberOfPoints) * dimension, data, j * dimension, dimension);
+					}
+				}
+
+				scalarManhattan = Math.min(scalarManhattan, (System.nanoTime() - start) / (double)pairs);
+				start = System.nanoTime();
+
+				for(int i = 0; i < QUERIES; i++) {
+					for(int j = 0; j < numberOfPoints; j++) {
+						checksum += manhattan.calculate(data, (i % numberOfPoints) * dimension, data, j * dimension, dimension);
+					}
+				}
+
+				unrolledManhattan = Math.min(unrolledManhattan, (System.nanoTime() - start) / (double)pairs);
+			}
+
+			System.out.println(String.format("dimension %4d: euclidean %8.2f ns -> %8.2f ns (%.1fx), "
+					+ "manhattan %8.2f ns -> %8.2f ns (%.1fx)  [%s]", dimension, 
+					scalarEuclidean, unrolledEuclidean, scalarEuclidean / unrolledEuclidean, 
+					scalarManhattan, unrolledManhattan, scalarManhattan / unrolledManhattan, checksum > 0));
+		}
+	}
+
+	private static double scalarEuclidean(final double[] a, final int aOffset, final double[] b, final int bOffset,
+			final int dimension) {
+		double sum = 0;
+
+		for(int i = 0; i < dimension; i++) {
+			sum += Math.pow((a[aOffset + i] - b[bOffset + i]), 2);
+		}
+
+		return Math.sqrt(sum);
+	}
+
+	private static double scalarManhattan(final double[] a, final int aOffset, final double[] b, final int bOffset,
+			final int dimension) {
+		double sum = 0;
+
+		for(int i = 0; i < dimension; i++) {
+			sum += Math.abs(a[aOffset + i] - b[bOffset + i]);
+		}
+
+		return sum;
+	}
+
+}
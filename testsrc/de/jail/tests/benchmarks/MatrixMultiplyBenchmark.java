@@ -0,0 +1,110 @@
+package de.jail.tests.benchmarks;
+
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+
+import de.jail.exceptions.MatrixException;
+import de.jail.geometry.schemas.matrices.Matrix;
+
+/**
+ * Measures the GFLOP/s of {@link Matrix#multiply(Matrix, ForkJoinPool)} for square matrices from 64x64 up to a
+ * maximum order, in the calling thread and on the common pool. Up to an order of 1024 the simple triple loop, which
+ * was used for all products before, is measured as well. Every measurement is repeated until it took at least one
+ * second and the best run is reported.
+ * <p>
+ * Usage: {@code MatrixMultiplyBenchmark [maxOrder]}, the default maximum order is 4096
+ * </p>
+ *
+ * @author Christian Vogel
+ */
+public class MatrixMultiplyBenchmark {
+
+	private static final int MAX_SIMPLE_ORDER = 1024;
+
+	private static final long MIN_TIME = 1000000000L;
+
+	public static void main(String[] args) throws MatrixException {
+		int maxOrder = args.length > 0 ? Integer.parseInt(args[0]) : 4096;
+		Random random = new Random(42);
+
+		System.out.println("threads of the common pool: " + ForkJoinPool.commonPool().getParallelism());
+
+		for(int order = 64; order <= maxOrder; order *= 2) {
+			Matrix a = randomMatrix(order, random);
+			Matrix b = randomMatrix(order, random);
+			double flops = 2.0 * order * order * order;
+
+			String simple = "-";
+
+			if(order <= MAX_SIMPLE_ORDER) {
+				double[][] x = a.getElements();
+				double[][] y = b.getElements();
+				long best = Long.MAX_VALUE;
+
+				for(long total = 0; total < MIN_TIME; ) {
+					long start = System.nanoTime();
+					simpleMultiply(x, y);
+					long time = System.nanoTime() - start;
+
+					best = Math.min(best, time);
+					total += time;
+				}
+
+				simple = String.format("%6.2f", flops / best);
+			}
+
+			System.out.println(String.format("order %4d: simple %s GFLOP/s, blocked %6.2f GFLOP/s, "
+					+ "parallel %6.2f GFLOP/s", order, simple, flops / measure(a, b, null),
+					flops / measure(a, b, ForkJoinPool.commonPool())));
+		}
+	}
+
+	private static long measure(Matrix a, Matrix b, ForkJoinPool pool) throws MatrixException {
+		long best = Long.MAX_VALUE;
+
+		for(long total = 0; total < MIN_TIME; ) {
+			long start = System.nanoTime();
+			a.multiply(b, pool);
+			long time = System.nanoTime() - start;
+
+			best = Math.min(best, time);
+			total += time;
+		}
+
+		return best;
+	}
+
+	private static Matrix randomMatrix(int order, Random random) throws MatrixException {
+		double[][] data = new double[order][order];
+
+		for(int row = 0; row < order; row++) {
+			for(int column = 0; column < order; column++) {
+				data[row][column] = random.nextDouble() - 0.5;
+			}
+		}
+
+		Matrix matrix = new Matrix();
+		matrix.setData(data);
+
+		return matrix;
+	}
+
+	private static double[][] simpleMultiply(double[][] a, double[][] b) {
+		double[][] product = new double[a.length][b[0].length];
+
+		for(int i = 0; i < a.length; i++) {
+			for(int j = 0; j < b[0].length; j++) {
+				double value = 0;
+
+				for(int r = 0; r < b.length; r++) {
+					value += a[i][r] * b[r][j];
+				}
+
+				product[i][j] = value;
+			}
+		}
+
+		return product;
+	}
+
+}
@@ -0,0 +1,88 @@
+package de.jail.tests.benchmarks;
+
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+
+import de.jail.exceptions.MatrixException;
+import de.jail.geometry.schemas.matrices.Matrix;
+import de.jail.geometry.schemas.matrices.SquareMatrix;
+
+/**
+ * Compares {@link Matrix#multiply(Matrix, ForkJoinPool)} with
+ * {@link SquareMatrix#multiplyRecursive(SquareMatrix, int, ForkJoinPool)} for square matrices from 256x256 up to a
+ * maximum order, all on the common pool. The recursive product is measured without Strassen's algorithm and with
+ * several cutoffs, so the crossover of the hardware can be chosen for {@link SquareMatrix#DEFAULT_STRASSEN_CUTOFF}.
+ * The GFLOP/s are those of the classical algorithm, 2n^3 operations, for all variants. Every measurement is repeated
+ * until it took at least one second and the best run is reported.
+ * <p>
+ * Usage: {@code RecursiveMultiplyBenchmark [maxOrder]}, the default maximum order is 4096
+ * </p>
+ *
+ * @author Christian Vogel
+ */
+public class RecursiveMultiplyBenchmark {
+
+	private static final int[] CUTOFFS = {Integer.MAX_VALUE, 512, 1024, 2048};
+
+	private static final long MIN_TIME = 1000000000L;
+
+	public static void main(String[] args) throws MatrixException {
+		int maxOrder = args.length > 0 ? Integer.parseInt(args[0]) : 4096;
+		Random random = new Random(42);
+		ForkJoinPool pool = ForkJoinPool.commonPool();
+
+		System.out.println("threads of the common pool: " + pool.getParallelism());
+
+		for(int order = 256; order <= maxOrder; order *= 2) {
+			SquareMatrix a = randomMatrix(order, random);
+			SquareMatrix b = randomMatrix(order, random);
+			double flops = 2.0 * order * order * order;
+
+			StringBuilder line = new StringBuilder(String.format("order %4d: blocked %6.2f GFLOP/s", order,
+					flops / measure(a, b, 0, pool)));
+
+			for(int cutoff : CUTOFFS) {
+				String name = cutoff == Integer.MAX_VALUE ? "recursive" : "strassen " + cutoff;
+				line.append(String.format(", %s %6.2f GFLOP/s", name, flops / measure(a, b, cutoff, pool)));
+			}
+
+			System.out.println(line);
+		}
+	}
+
+	/**
+	 * Measures the blocked product for a cutoff of 0, otherwise the recursive product.
+	 */
+	private static long measure(SquareMatrix a, SquareMatrix b, int cutoff, ForkJoinPool pool)
+			throws MatrixException {
+		long best = Long.MAX_VALUE;
+
+		for(long total = 0; total < MIN_TIME; ) {
+			long start = System.nanoTime();
+
+			if(cutoff == 0) {
+				a.multiply(b, pool);
+			} else {
+				a.multiplyRecursive(b, cutoff, pool);
+			}
+
+			long time = System.nanoTime() - start;
+
+			best = Math.min(best, time);
+			total += time;
+		}
+
+		return best;
+	}
+
+	private static SquareMatrix randomMatrix(int order, Random random) {
+		double[] values = new double[order * order];
+
+		for(int i = 0; i < values.length; i++) {
+			values[i] = random.nextDouble() - 0.5;
+		}
+
+		return new SquareMatrix(values, order);
+	}
+
+}
@@ -0,0 +1,87 @@
+package de.jail.tests.clustering;
+
+import static org.junit.Assert.*;
+
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+
+import de.jail.geometry.distancefunctions.PointBasedDistanceFunction;
+import de.jail.geometry.schemas.Point;
+import de.jail.statistic.clustering.Cluster;
+
+/**
+ * Assertions comparing density based clusterings with the clusters of
+ * {@link de.jail.statistic.clustering.density.DBScan}.
+ *
+ * @author Christian Vogel
+ *
+ */
+final class ClusterAssert {
+
+	private ClusterAssert() {}
+
+	/**
+	 * Asserts that two clusterings of the same points have the same number of clusters, the same noise and the same
+	 * clusters of the core points. Border points are not compared, because a border point which is near to several
+	 * clusters may be assigned to any of them.
+	 *
+	 * @param points all clustered points, the clusters have to contain the same instances
+	 * @param expected clusters of {@link de.jail.statistic.clustering.density.DBScan}
+	 * @param actual clusters which are compared
+	 * @param eps distance of the clusterings
+	 * @param minPtr minimum points of the clusterings
+	 * @param distFunction distance function of the clusterings
+	 */
+	static void assertSameClusters(List<Point> points, List<Cluster> expected, List<Cluster> actual, double eps,
+			int minPtr, PointBasedDistanceFunction distFunction) {
+		assertEquals("number of clusters for eps " + eps, expected.size(), actual.size());
+
+		Map<Point, Integer> expectedLabels = labels(expected);
+		Map<Point, Integer> actualLabels = labels(actual);
+		Map<Integer, Integer> clusterMapping = new HashMap<Integer, Integer>();
+
+		for(Point point : points) {
+			assertEquals("noise for eps " + eps, expectedLabels.containsKey(point), actualLabels.containsKey(point));
+
+			int neighbors = 0;
+
+			for(Point other : points) {
+				if(other != point && distFunction.calculate(point, other) < eps) {
+					neighbors++;
+				}
+			}
+
+			if(neighbors >= minPtr) {
+				Integer mapped = clusterMapping.get(expectedLabels.get(point));
+
+				if(mapped == null) {
+					assertFalse("clusters are merged", clusterMapping.containsValue(actualLabels.get(point)));
+					clusterMapping.put(expectedLabels.get(point), actualLabels.get(point));
+				} else {
+					assertEquals("clusters are split", mapped, actualLabels.get(point));
+				}
+			}
+		}
+	}
+
+	/**
+	 * Maps every clustered point to the position of its cluster.
+	 *
+	 * @param clusters list of clusters
+	 * @return position of the cluster of every point by the point instance
+	 */
+	private static Map<Point, Integer> labels(List<Cluster> clusters) {
+		Map<Point, Integer> labels = new IdentityHashMap<Point, Integer>();
+
+		for(int i = 0; i < clusters.size(); i++) {
+			for(Point point : clusters.get(i).getAllPoints()) {
+				labels.put(point, i);
+			}
+		}
+
+		return labels;
+	}
+
+}
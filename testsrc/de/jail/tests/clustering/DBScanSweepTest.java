@@ -0,0 +1,124 @@
+package de.jail.tests.clustering;
+
+import static org.junit.Assert.*;
+import static de.jail.tests.clustering.ClusterAssert.assertSameClusters;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+import de.jail.geometry.distancefunctions.impl.EuclideanDistance;
+import de.jail.geometry.neighborsearch.impl.KDTree;
+import de.jail.geometry.schemas.Point;
+import de.jail.statistic.clustering.Cluster;
+import de.jail.statistic.clustering.density.DBScan;
+import de.jail.statistic.clustering.density.DBScanSweep;
+
+/**
+ * @author Christian Vogel
+ *
+ */
+public class DBScanSweepTest {
+
+	private static final double[] EPS = {0.3, 0.6, 1.0};
+
+	private static final int[] MIN_PTR = {2, 5, 10};
+
+	private static List<Point> points;
+
+	/**
+	 * @throws java.lang.Exception
+	 */
+	@BeforeClass
+	public static void setUpBeforeClass() throws Exception {
+		Random random = new Random(17);
+
+		points = new ArrayList<Point>();
+
+		for(int i = 0; i < 1500; i++) {
+			double spread = 0.5 + random.nextInt(3) * 0.5;
+
+			points.add(new Point(new double[] {random.nextInt(3) * 6 + random.nextGaussian() * spread,
+					random.nextInt(3) * 6 + random.nextGaussian() * spread}));
+		}
+	}
+
+	/**
+	 * Test method for {@link de.jail.statistic.clustering.density.DBScanSweep#sweep(java.util.Collection, double[],
+	 * int[])}, where every setting has to find the same core clusters and noise as {@link DBScan}.
+	 */
+	@Test
+	public void testLikeDBScan() {
+		List<DBScanSweep.Result> results = new DBScanSweep().sweep(points, EPS, MIN_PTR);
+
+		assertEquals(EPS.length * MIN_PTR.length, results.size());
+
+		for(int i = 0; i < EPS.length; i++) {
+			for(int j = 0; j < MIN_PTR.length; j++) {
+				DBScanSweep.Result result = results.get(i * MIN_PTR.length + j);
+
+				assertEquals(EPS[i], result.getEps(), 0);
+				assertEquals(MIN_PTR[j], result.getMinPtr());
+
+				List<Cluster> expected = new DBScan(EPS[i], MIN_PTR[j]).cluster(points);
+				List<Cluster> actual = result.getClusters();
+
+				assertEquals(expected.size(), result.getNumberOfClusters());
+				assertEquals(expected.size(), actual.size());
+
+				int clustered = 0;
+
+				for(Cluster cluster : expected) {
+					clustered += cluster.size();
+				}
+
+				assertEquals(points.size() - clustered, result.getNumberOfNoise());
+				assertSameClusters(points, expected, actual, EPS[i], MIN_PTR[j], new EuclideanDistance());
+			}
+		}
+	}
+
+	/**
+	 * Test method for {@link de.jail.statistic.clustering.density.DBScanSweep#sweep(java.util.Collection, double[],
+	 * int[])}, where the labels must not depend on the number of threads.
+	 */
+	@Test
+	public void testParallel() {
+		List<DBScanSweep.Result> sequential = new DBScanSweep(new EuclideanDistance(), new KDTree(),
+				new ForkJoinPool(1)).sweep(points, EPS, MIN_PTR);
+		List<DBScanSweep.Result> parallel = new DBScanSweep(new EuclideanDistance(), new KDTree(),
+				new ForkJoinPool(4)).sweep(points, EPS, MIN_PTR);
+
+		for(int i = 0; i < sequential.size(); i++) {
+			assertArrayEquals(sequential.get(i).getLabels(), parallel.get(i).getLabels());
+		}
+	}
+
+	/**
+	 * Test method for {@link de.jail.statistic.clustering.density.DBScanSweep#sweep(java.util.Collection, double[],
+	 * int[])} with two points whose distance is exactly {@code eps}, where rounding must not decide differently than
+	 * in {@link DBScan}.
+	 */
+	@Test
+	public void testBorder() {
+		Random random = new Random(23);
+		EuclideanDistance distFunction = new EuclideanDistance();
+
+		for(int run = 0; run < 200; run++) {
+			List<Point> pair = new ArrayList<Point>();
+			pair.add(new Point(new double[] {0, 0}));
+			pair.add(new Point(new double[] {random.nextDouble(), random.nextDouble()}));
+
+			double eps = distFunction.calculate(pair.get(0), pair.get(1));
+			DBScanSweep.Result result = new DBScanSweep().sweep(pair, new double[] {eps, 2 * eps}, new int[] {1})
+					.get(0);
+
+			assertEquals("pair " + pair, new DBScan(eps, 1).cluster(pair).size(), result.getNumberOfClusters());
+		}
+	}
+
+}
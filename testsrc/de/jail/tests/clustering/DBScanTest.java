@@ -10,6 +10,7 @@ import org.junit.BeforeClass;
 import org.junit.Test;
 
 import de.jail.geometry.schemas.Point;
+import de.jail.geometry.schemas.PointSet;
 import de.jail.statistic.clustering.Cluster;
 import de.jail.statistic.clustering.Clusterer;
 import de.jail.statistic.clustering.density.DBScan;
@@ -63,5 +64,58 @@ public class DBScanTest {
 		
 		assertNotNull("list should not be null", cluster);
 	}
+	
+	/**
+	 * Test method for {@link de.jail.statistic.clustering.density.DBScan#cluster(java.util.Collection)}, where every 
+	 * point is assigned to exactly one cluster.
+	 */
+	@Test
+	public void testClusterAssignsEveryPointOnce() {
+		List<Cluster> cluster = new DBScan(1.0, 2).cluster(points);
+		
+		assertEquals("both groups should be found", 2, cluster.size());
+		assertEquals(10, cluster.get(0).size());
+		assertEquals(10, cluster.get(1).size());
+		assertFalse("groups should not be mixed", cluster.get(0).containPoint(cluster.get(1).getPoint(0)));
+	}
+	
+	/**
+	 * Test method for {@link de.jail.statistic.clustering.density.DBScan#cluster(java.util.Collection)} with a 
+	 * negative distance, where no point has a neighbor.
+	 */
+	@Test
+	public void testNegativeEps() {
+		assertTrue(new DBScan(-1.0, 1).cluster(points).isEmpty());
+	}
+	
+	/**
+	 * Test method for the default {@link de.jail.statistic.clustering.Clusterer#cluster(PointSet)}, which passes the
+	 * points of the set to a clusterer only implementing {@link Clusterer#cluster(Collection)}.
+	 */
+	@Test
+	public void testDefaultClusterPointSet() {
+		Clusterer single = new Clusterer() {
+			@Override
+			public List<Cluster> cluster(Collection<Point> points) {
+				Cluster cluster = new Cluster();
+				
+				for(Point point : points) {
+					cluster.addPoint(point);
+				}
+				
+				List<Cluster> result = new ArrayList<Cluster>();
+				result.add(cluster);
+				
+				return result;
+			}
+		};
+		
+		PointSet set = PointSet.fromPoints(points);
+		List<Cluster> cluster = single.cluster(set);
+		
+		assertEquals(1, cluster.size());
+		assertEquals(set.size(), cluster.get(0).size());
+		assertEquals(set.getPoint(3), cluster.get(0).getPoint(3));
+	}
 
 }
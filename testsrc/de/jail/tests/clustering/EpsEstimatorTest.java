@@ -0,0 +1,87 @@
+package de.jail.tests.clustering;
+
+import static org.junit.Assert.*;
+
+import java.util.Random;
+
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+import de.jail.geometry.schemas.PointSet;
+import de.jail.statistic.clustering.density.DBScan;
+import de.jail.statistic.clustering.density.EpsEstimator;
+
+/**
+ * @author Christian Vogel
+ *
+ */
+public class EpsEstimatorTest {
+
+	private static final int BLOBS = 4;
+
+	private static PointSet points;
+
+	/**
+	 * @throws java.lang.Exception
+	 */
+	@BeforeClass
+	public static void setUpBeforeClass() throws Exception {
+		Random random = new Random(23);
+
+		points = new PointSet(20000, 2);
+
+		for(int i = 0; i < points.size(); i++) {
+			if(i % 20 == 0) {
+				points.set(i, 0, -10 + random.nextDouble() * 50);
+				points.set(i, 1, -10 + random.nextDouble() * 50);
+			} else {
+				int blob = i % BLOBS;
+
+				points.set(i, 0, (blob % 2) * 30 + random.nextDouble() * 5);
+				points.set(i, 1, (blob / 2) * 30 + random.nextDouble() * 5);
+			}
+		}
+	}
+
+	/**
+	 * Test method for {@link de.jail.statistic.clustering.density.EpsEstimator#estimate(PointSet)}, where
+	 * {@link DBScan} has to find the blobs with the suggested distance.
+	 */
+	@Test
+	public void testEstimate() {
+		EpsEstimator estimator = new EpsEstimator(5);
+		double eps = estimator.estimate(points);
+
+		double[] kDistances = estimator.getKDistances();
+
+		assertEquals(points.size(), kDistances.length);
+		assertTrue(eps > kDistances[estimator.getKnee()]);
+
+		assertEquals(BLOBS, new DBScan(eps, 5).cluster(points).size());
+	}
+
+	/**
+	 * Test method for {@link de.jail.statistic.clustering.density.EpsEstimator#estimate(PointSet)} with a sample,
+	 * whose suggestion has to be near to the one of all points.
+	 */
+	@Test
+	public void testSample() {
+		double full = new EpsEstimator(5).estimate(points);
+
+		EpsEstimator estimator = new EpsEstimator(5, 2000);
+		double sampled = estimator.estimate(points);
+
+		assertEquals(2000, estimator.getKDistances().length);
+		assertEquals(full, sampled, 0.2 * full);
+	}
+
+	/**
+	 * Test method for {@link de.jail.statistic.clustering.density.EpsEstimator#estimate(PointSet)} with less points
+	 * than the neighbors which are needed.
+	 */
+	@Test(expected = IllegalArgumentException.class)
+	public void testTooFewPoints() {
+		new EpsEstimator(5).estimate(new PointSet(5, 2));
+	}
+
+}
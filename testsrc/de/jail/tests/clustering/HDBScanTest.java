@@ -0,0 +1,134 @@
+package de.jail.tests.clustering;
+
+import static org.junit.Assert.*;
+
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+import de.jail.geometry.distancefunctions.impl.EuclideanDistance;
+import de.jail.geometry.neighborsearch.impl.KDTree;
+import de.jail.geometry.schemas.PointSet;
+import de.jail.statistic.clustering.density.HDBScan;
+
+/**
+ * @author Christian Vogel
+ *
+ */
+public class HDBScanTest {
+
+	/** blobs of very different densities followed by uniform noise */
+	private static final double[][] BLOBS = {{0, 0, 0.2, 300}, {10, 0, 1.5, 300}, {0, 10, 0.6, 200}};
+
+	private static final int NOISE = 50;
+
+	private static PointSet points;
+
+	private static int[] blobOf;
+
+	/**
+	 * @throws java.lang.Exception
+	 */
+	@BeforeClass
+	public static void setUpBeforeClass() throws Exception {
+		Random random = new Random(11);
+		int size = NOISE;
+
+		for(double[] blob : BLOBS) {
+			size += (int)blob[3];
+		}
+
+		points = new PointSet(size, 2);
+		blobOf = new int[size];
+
+		int index = 0;
+
+		for(int blob = 0; blob < BLOBS.length; blob++) {
+			for(int i = 0; i < BLOBS[blob][3]; i++, index++) {
+				points.set(index, 0, BLOBS[blob][0] + random.nextGaussian() * BLOBS[blob][2]);
+				points.set(index, 1, BLOBS[blob][1] + random.nextGaussian() * BLOBS[blob][2]);
+				blobOf[index] = blob;
+			}
+		}
+
+		for(; index < size; index++) {
+			points.set(index, 0, -5 + random.nextDouble() * 20);
+			points.set(index, 1, -5 + random.nextDouble() * 20);
+			blobOf[index] = -1;
+		}
+	}
+
+	/**
+	 * Test method for {@link de.jail.statistic.clustering.density.HDBScan#cluster(PointSet)}, where every blob has
+	 * to be found as a cluster of its own although their densities differ.
+	 */
+	@Test
+	public void testVariableDensity() {
+		HDBScan hdbscan = new HDBScan(5, 20);
+
+		assertEquals(BLOBS.length, hdbscan.cluster(points).size());
+		assertEquals(BLOBS.length, hdbscan.getStabilities().length);
+
+		int[] labels = hdbscan.getLabels();
+		int[][] counts = new int[BLOBS.length][BLOBS.length];
+
+		for(int index = 0; index < labels.length; index++) {
+			if(blobOf[index] >= 0 && labels[index] >= 0) {
+				counts[labels[index]][blobOf[index]]++;
+			}
+		}
+
+		boolean[] found = new boolean[BLOBS.length];
+
+		for(int cluster = 0; cluster < BLOBS.length; cluster++) {
+			int blob = 0;
+
+			for(int other = 1; other < BLOBS.length; other++) {
+				if(counts[cluster][other] > counts[cluster][blob]) {
+					blob = other;
+				}
+			}
+
+			assertFalse("blob is split", found[blob]);
+			found[blob] = true;
+
+			assertTrue("blob " + blob + " is not found", counts[cluster][blob] > 0.8 * BLOBS[blob][3]);
+		}
+	}
+
+	/**
+	 * Test method for {@link de.jail.statistic.clustering.density.HDBScan#getLabels()}, where the labels must not
+	 * depend on the number of threads updating the spanning tree.
+	 */
+	@Test
+	public void testParallel() {
+		Random random = new Random(3);
+		PointSet large = new PointSet(6000, 2);
+
+		for(int index = 0; index < large.size(); index++) {
+			large.set(index, 0, random.nextInt(5) * 6 + random.nextGaussian());
+			large.set(index, 1, random.nextGaussian() * (1 + index % 3));
+		}
+
+		HDBScan sequential = new HDBScan(4, 30, new EuclideanDistance(), new KDTree(), new ForkJoinPool(1));
+		HDBScan parallel = new HDBScan(4, 30, new EuclideanDistance(), new KDTree(), new ForkJoinPool(4));
+
+		sequential.cluster(large);
+		parallel.cluster(large);
+
+		assertArrayEquals(sequential.getLabels(), parallel.getLabels());
+		assertArrayEquals(sequential.getStabilities(), parallel.getStabilities(), 0);
+	}
+
+	/**
+	 * Test method for {@link de.jail.statistic.clustering.density.HDBScan#HDBScan(int, int)} with a minimum cluster
+	 * size which would make every single point a cluster.
+	 */
+	@Test(expected = IllegalArgumentException.class)
+	public void testMinClusterSize() {
+		new HDBScan(5, 1);
+	}
+
+}
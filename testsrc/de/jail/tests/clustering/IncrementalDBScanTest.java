@@ -0,0 +1,175 @@
+package de.jail.tests.clustering;
+
+import static org.junit.Assert.*;
+import static de.jail.tests.clustering.ClusterAssert.assertSameClusters;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+
+import org.junit.Test;
+
+import de.jail.geometry.distancefunctions.PointBasedDistanceFunction;
+import de.jail.geometry.distancefunctions.impl.EuclideanDistance;
+import de.jail.geometry.schemas.Point;
+import de.jail.statistic.clustering.Cluster;
+import de.jail.statistic.clustering.density.DBScan;
+import de.jail.statistic.clustering.density.IncrementalDBScan;
+
+/**
+ * @author Christian Vogel
+ *
+ */
+public class IncrementalDBScanTest {
+
+	private static final double EPS = 0.8;
+
+	private static final int MIN_PTR = 4;
+
+	/**
+	 * Test method for {@link de.jail.statistic.clustering.density.IncrementalDBScan#insert(Point)} and
+	 * {@link de.jail.statistic.clustering.density.IncrementalDBScan#remove(Point)}, where the clusters have to be
+	 * the same as those of {@link DBScan} for the current points after every batch of changes.
+	 */
+	@Test
+	public void testLikeDBScan() {
+		Random random = new Random(5);
+		List<Point> current = new ArrayList<Point>();
+		IncrementalDBScan incremental = new IncrementalDBScan(EPS, MIN_PTR);
+
+		for(int batch = 0; batch < 12; batch++) {
+			for(int i = 0; i < 150; i++) {
+				Point point = new Point(new double[] {random.nextInt(3) * 6 + random.nextGaussian() * 1.5,
+						random.nextInt(2) * 6 + random.nextGaussian() * 1.5});
+
+				current.add(point);
+				incremental.insert(point);
+			}
+
+			Collections.shuffle(current, random);
+
+			for(int i = 0; i < 100; i++) {
+				assertTrue(incremental.remove(current.remove(current.size() - 1)));
+			}
+
+			assertEquals(current.size(), incremental.size());
+			assertLikeDBScan(current, incremental.getClusters(), EPS, MIN_PTR, new EuclideanDistance());
+		}
+	}
+
+	/**
+	 * Test method for {@link de.jail.statistic.clustering.density.IncrementalDBScan#remove(Point)}, where removing
+	 * the core point of a bridge has to split its cluster and inserting it again has to merge both parts.
+	 */
+	@Test
+	public void testSplitAndMerge() {
+		IncrementalDBScan incremental = new IncrementalDBScan(1.1, 2);
+		List<Point> points = new ArrayList<Point>();
+
+		for(int i = 0; i < 11; i++) {
+			points.add(new Point(new double[] {i, 0}));
+		}
+
+		assertEquals(1, incremental.cluster(points).size());
+
+		Point bridge = new Point(new double[] {5, 0});
+
+		assertTrue(incremental.remove(bridge));
+		assertEquals(2, incremental.getClusters().size());
+
+		incremental.insert(bridge);
+		assertEquals(1, incremental.getClusters().size());
+		assertEquals(11, incremental.getClusters().get(0).size());
+
+		assertFalse(incremental.remove(new Point(new double[] {5, 1})));
+	}
+
+	/**
+	 * Test method for {@link de.jail.statistic.clustering.density.IncrementalDBScan#remove(Point)} with a distance
+	 * function which is not supported by the grid, so all points are scanned. Many small changes of a few points
+	 * create and drop many clusters.
+	 */
+	@Test
+	public void testLinearScan() {
+		PointBasedDistanceFunction distFunction = new PointBasedDistanceFunction() {
+			private final EuclideanDistance euclidean = new EuclideanDistance();
+
+			@Override
+			public double calculate(Point arg1, Point arg2) {
+				return euclidean.calculate(arg1, arg2);
+			}
+		};
+
+		IncrementalDBScan incremental = new IncrementalDBScan(1.1, 2, distFunction);
+		List<Point> points = new ArrayList<Point>();
+
+		for(double[] coordinates : new double[][] {{0, 0}, {-1, 0}, {-2, 0}, {-1, 1}, {1, 0}, {2, 0}, {1, 1},
+				{0, -1}, {0, -2}}) {
+			points.add(new Point(coordinates));
+		}
+
+		incremental.cluster(points);
+		assertTrue(incremental.remove(points.remove(0)));
+		assertEquals(2, incremental.getClusters().size());
+		assertLikeDBScan(points, incremental.getClusters(), 1.1, 2, distFunction);
+
+		Random random = new Random(11);
+		List<Point> current = new ArrayList<Point>();
+		incremental = new IncrementalDBScan(1.5, 3, distFunction);
+
+		for(int change = 0; change < 3000; change++) {
+			if(current.size() < 40 || (current.size() < 80 && random.nextBoolean())) {
+				Point point = new Point(new double[] {random.nextDouble() * 8, random.nextDouble() * 8});
+
+				current.add(point);
+				incremental.insert(point);
+			} else {
+				assertTrue(incremental.remove(current.remove(random.nextInt(current.size()))));
+			}
+
+			if(change % 50 == 0) {
+				assertLikeDBScan(current, incremental.getClusters(), 1.5, 3, distFunction);
+			}
+		}
+	}
+
+	/**
+	 * Test method for {@link de.jail.statistic.clustering.density.IncrementalDBScan#insert(Point)} and
+	 * {@link de.jail.statistic.clustering.density.IncrementalDBScan#remove(Point)} in 12 dimensions, where there are
+	 * far more adjacent cells than non empty cells.
+	 */
+	@Test
+	public void testHighDimension() {
+		Random random = new Random(13);
+		IncrementalDBScan incremental = new IncrementalDBScan(1.5, MIN_PTR, new EuclideanDistance());
+		List<Point> current = new ArrayList<Point>();
+
+		for(int change = 0; change < 600; change++) {
+			if(current.size() < 300 || random.nextInt(3) > 0) {
+				double[] coordinates = new double[12];
+				double center = random.nextInt(3) * 4;
+
+				for(int dim = 0; dim < coordinates.length; dim++) {
+					coordinates[dim] = center + random.nextGaussian() * 0.3;
+				}
+
+				Point point = new Point(coordinates);
+
+				current.add(point);
+				incremental.insert(point);
+			} else {
+				assertTrue(incremental.remove(current.remove(random.nextInt(current.size()))));
+			}
+		}
+
+		assertLikeDBScan(current, incremental.getClusters(), 1.5, MIN_PTR, new EuclideanDistance());
+	}
+
+	private static void assertLikeDBScan(List<Point> points, List<Cluster> actual, double eps, int minPtr,
+			PointBasedDistanceFunction distFunction) {
+		assertSameClusters(points, new DBScan(eps, minPtr, distFunction).cluster(points), actual, eps, minPtr,
+				distFunction);
+	}
+
+}
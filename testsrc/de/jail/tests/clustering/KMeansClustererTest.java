@@ -0,0 +1,189 @@
+package de.jail.tests.clustering;
+
+import static org.junit.Assert.*;
+
+import java.io.File;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Random;
+
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+import de.jail.geometry.schemas.MappedPointSet;
+import de.jail.geometry.schemas.Point;
+import de.jail.geometry.schemas.PointSet;
+import de.jail.statistic.clustering.Cluster;
+import de.jail.statistic.clustering.partitional.kmeans.KMeansCluster;
+import de.jail.statistic.clustering.partitional.kmeans.KMeansClusterer;
+import de.jail.statistic.clustering.partitional.kmeans.KMeansClusterer.Algorithm;
+import de.jail.statistic.clustering.partitional.kmeans.KMeansInitializer;
+import de.jail.statistic.clustering.partitional.kmeans.KMeansParallelInitializer;
+import de.jail.statistic.clustering.partitional.kmeans.KMeansPlusPlusInitializer;
+import de.jail.statistic.clustering.partitional.kmeans.RandomInitializer;
+
+/**
+ * @author Christian Vogel
+ *
+ */
+public class KMeansClustererTest {
+	
+	private static Collection<Point> points;
+
+	/**
+	 * @throws java.lang.Exception
+	 */
+	@BeforeClass
+	public static void setUpBeforeClass() throws Exception {
+		points = new ArrayList<Point>();
+		points.add(new Point(new double[] {3.80286,2.15835}));
+		points.add(new Point(new double[] {5.18384,2.21139}));
+		points.add(new Point(new double[] {3.15722,2.30568}));
+		points.add(new Point(new double[] {5.56977,2.37613}));
+		points.add(new Point(new double[] {4.11252,2.95963}));
+		points.add(new Point(new double[] {5.22759,2.47502}));
+		points.add(new Point(new double[] {4.30611,2.10944}));
+		points.add(new Point(new double[] {5.30211,2.33592}));
+		points.add(new Point(new double[] {5.80744,2.17864}));
+		points.add(new Point(new double[] {5.47962,2.59444}));
+		
+		points.add(new Point(new double[] {10.45085,9.48734}));
+		points.add(new Point(new double[] {9.31804,9.37289}));
+		points.add(new Point(new double[] {9.93597,9.00237}));
+		points.add(new Point(new double[] {10.18147,9.43247}));
+		points.add(new Point(new double[] {10.01732,9.31879}));
+		points.add(new Point(new double[] {10.18090,8.74487}));
+		points.add(new Point(new double[] {10.23984,9.19842}));
+		points.add(new Point(new double[] {10.04680,9.23837}));
+		points.add(new Point(new double[] {9.33601,8.81810}));
+		points.add(new Point(new double[] {10.14558,8.25980}));
+	}
+
+	/**
+	 * Test method for {@link de.jail.statistic.clustering.partitional.kmeans.KMeansClusterer#cluster(java.util.Collection)}.
+	 */
+	@Test
+	public void testCluster() {
+		List<Cluster> cluster = new KMeansClusterer(2, 100, 1e-9, new Random(1)).cluster(points);
+		
+		assertEquals(2, cluster.size());
+		assertEquals(10, cluster.get(0).size());
+		assertEquals(10, cluster.get(1).size());
+		
+		for(Cluster c : cluster) {
+			Point center = ((KMeansCluster)c).getCenter();
+			
+			assertNotNull("center should be set", center);
+			
+			if(center.getVector()[0] < 7) {
+				assertArrayEquals(new double[] {4.794908, 2.370464}, center.getVector(), 1e-9);
+			} else {
+				assertArrayEquals(new double[] {9.985278, 9.087342}, center.getVector(), 1e-9);
+			}
+		}
+	}
+	
+	/**
+	 * Test method for the seeding strategies of {@link de.jail.statistic.clustering.partitional.kmeans.KMeansClusterer}.
+	 */
+	@Test
+	public void testClusterWithInitializers() {
+		KMeansInitializer[] initializers = new KMeansInitializer[] {
+				new RandomInitializer(), new KMeansPlusPlusInitializer(), new KMeansParallelInitializer()};
+		
+		for(KMeansInitializer initializer : initializers) {
+			List<Cluster> cluster = new KMeansClusterer(2, 100, 1e-9, initializer, new Random(3)).cluster(points);
+			
+			assertEquals(2, cluster.size());
+			assertEquals(10, cluster.get(0).size());
+			assertEquals(10, cluster.get(1).size());
+		}
+	}
+	
+	/**
+	 * Test method for the accelerated variants of {@link de.jail.statistic.clustering.partitional.kmeans.KMeansClusterer},
+	 * which have to compute exactly the same clusters as the plain algorithm.
+	 */
+	@Test
+	public void testAcceleratedAlgorithms() {
+		Random random = new Random(11);
+		List<Point> blobs = new ArrayList<Point>();
+		
+		for(int i = 0; i < 3000; i++) {
+			double[] vector = new double[5];
+			
+			for(int dim = 0; dim < vector.length; dim++) {
+				vector[dim] = random.nextInt(4) * 3 + random.nextGaussian();
+			}
+			
+			blobs.add(new Point(vector));
+		}
+		
+		KMeansClusterer lloyd = new KMeansClusterer(12, 300, 0, Algorithm.LLOYD, new KMeansPlusPlusInitializer(), new Random(5));
+		List<Cluster> expected = lloyd.cluster(blobs);
+		
+		for(Algorithm algorithm : new Algorithm[] {Algorithm.HAMERLY, Algorithm.ELKAN}) {
+			KMeansClusterer accelerated = new KMeansClusterer(12, 300, 0, algorithm, new KMeansPlusPlusInitializer(), 
+					new Random(5));
+			List<Cluster> actual = accelerated.cluster(blobs);
+			
+			assertEquals("number of iterations of " + algorithm, lloyd.getIterations(), accelerated.getIterations());
+			
+			for(int c = 0; c < expected.size(); c++) {
+				assertEquals(expected.get(c).getAllPoints(), actual.get(c).getAllPoints());
+				assertArrayEquals(((KMeansCluster)expected.get(c)).getCenter().getVector(), 
+						((KMeansCluster)actual.get(c)).getCenter().getVector(), 0);
+			}
+		}
+	}
+	
+	/**
+	 * Test method for {@link de.jail.statistic.clustering.partitional.kmeans.KMeansClusterer#cluster(PointSet)} with
+	 * a {@link MappedPointSet}, which is read block by block and has to give the same clusters as the same points in
+	 * an array.
+	 */
+	@Test
+	public void testMappedPointSet() throws Exception {
+		Random random = new Random(13);
+		PointSet points = new PointSet(20000, 5);
+		
+		for(int i = 0; i < points.size(); i++) {
+			for(int dim = 0; dim < points.getDimension(); dim++) {
+				points.set(i, dim, random.nextInt(4) * 3 + random.nextGaussian());
+			}
+		}
+		
+		File file = File.createTempFile("points", ".bin");
+		
+		try {
+			MappedPointSet mapped = MappedPointSet.create(file, points.size(), points.getDimension());
+			
+			for(int i = 0; i < points.size(); i++) {
+				mapped.setPoint(i, points.getPoint(i));
+			}
+			
+			for(Algorithm algorithm : Algorithm.values()) {
+				KMeansClusterer fromArray = new KMeansClusterer(8, 100, 0, algorithm, new KMeansPlusPlusInitializer(),
+						new Random(5));
+				KMeansClusterer fromFile = new KMeansClusterer(8, 100, 0, algorithm, new KMeansPlusPlusInitializer(),
+						new Random(5));
+				
+				List<Cluster> expected = fromArray.cluster(points);
+				List<Cluster> actual = fromFile.cluster(mapped);
+				
+				assertEquals("number of iterations of " + algorithm, fromArray.getIterations(), 
+						fromFile.getIterations());
+				
+				for(int c = 0; c < expected.size(); c++) {
+					assertEquals(expected.get(c).size(), actual.get(c).size());
+					assertArrayEquals(((KMeansCluster)expected.get(c)).getCenter().getVector(), 
+							((KMeansCluster)actual.get(c)).getCenter().getVector(), 0);
+				}
+			}
+		} finally {
+			file.delete();
+		}
+	}
+
+}
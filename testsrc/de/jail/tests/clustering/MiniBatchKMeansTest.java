@@ -0,0 +1,170 @@
+package de.jail.tests.clustering;
+
+import static org.junit.Assert.*;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+import de.jail.geometry.schemas.Point;
+import de.jail.geometry.schemas.PointSet;
+import de.jail.statistic.clustering.Cluster;
+import de.jail.statistic.clustering.partitional.kmeans.KMeansCluster;
+import de.jail.statistic.clustering.partitional.kmeans.KMeansPlusPlusInitializer;
+import de.jail.statistic.clustering.partitional.kmeans.MiniBatchKMeans;
+
+/**
+ * @author Christian Vogel
+ *
+ */
+public class MiniBatchKMeansTest {
+
+	private static final double[][] CENTERS = {{0, 0}, {20, 0}, {0, 20}, {20, 20}};
+
+	private static final int BATCH_SIZE = 100;
+
+	private static List<Point> points;
+
+	/**
+	 * @throws java.lang.Exception
+	 */
+	@BeforeClass
+	public static void setUpBeforeClass() throws Exception {
+		Random random = new Random(3);
+		points = new ArrayList<Point>();
+
+		for(int i = 0; i < 24000; i++) {
+			double[] center = CENTERS[random.nextInt(CENTERS.length)];
+
+			points.add(new Point(new double[] {center[0] + random.nextGaussian(), center[1] + random.nextGaussian()}));
+		}
+	}
+
+	/**
+	 * Test method for {@link de.jail.statistic.clustering.partitional.kmeans.MiniBatchKMeans#fit(java.util.Iterator)}
+	 * and {@link de.jail.statistic.clustering.partitional.kmeans.MiniBatchKMeans#predict(Point)}.
+	 */
+	@Test
+	public void testFit() {
+		MiniBatchKMeans model = newModel();
+
+		model.fit(points.iterator());
+
+		assertCentersConverged(model.getClusters());
+
+		int first = model.predict(new Point(CENTERS[0]));
+
+		assertEquals(first, model.predict(new Point(new double[] {1, -1})));
+		assertTrue(first != model.predict(new Point(CENTERS[3])));
+	}
+
+	/**
+	 * Test method for {@link de.jail.statistic.clustering.partitional.kmeans.MiniBatchKMeans#partialFit(
+	 * java.util.Collection)}, where pieces which are multiples of the shuffled window have to give exactly the same
+	 * centers as a single fit.
+	 */
+	@Test
+	public void testPartialFit() {
+		MiniBatchKMeans single = newModel();
+		MiniBatchKMeans pieces = newModel();
+
+		single.fit(points.iterator());
+
+		int piece = 8 * BATCH_SIZE * 5;
+
+		for(int from = 0; from < points.size(); from += piece) {
+			pieces.partialFit(points.subList(from, Math.min(points.size(), from + piece)));
+		}
+
+		List<KMeansCluster> expected = single.getClusters();
+		List<KMeansCluster> actual = pieces.getClusters();
+
+		for(int c = 0; c < CENTERS.length; c++) {
+			assertArrayEquals(expected.get(c).getCenter().getVector(), actual.get(c).getCenter().getVector(), 0);
+		}
+	}
+
+	/**
+	 * Test method for {@link de.jail.statistic.clustering.partitional.kmeans.MiniBatchKMeans#partialFit(PointSet)},
+	 * where the points of the set are sorted by their blob, so the centers only converge if the batches are random.
+	 */
+	@Test
+	public void testPartialFitSorted() {
+		PointSet sorted = new PointSet(points.size(), 2);
+		int index = 0;
+
+		for(double[] center : CENTERS) {
+			for(Point point : points) {
+				if(Math.abs(point.getCoordinate(0) - center[0]) < 10 
+						&& Math.abs(point.getCoordinate(1) - center[1]) < 10) {
+					sorted.setPoint(index++, point);
+				}
+			}
+		}
+
+		assertEquals(points.size(), index);
+
+		MiniBatchKMeans model = newModel();
+		model.partialFit(sorted);
+
+		assertCentersConverged(model.getClusters());
+	}
+
+	/**
+	 * Test method for {@link de.jail.statistic.clustering.partitional.kmeans.MiniBatchKMeans#cluster(PointSet)} and
+	 * {@link de.jail.statistic.clustering.partitional.kmeans.MiniBatchKMeans#cluster(java.util.Collection)}, where
+	 * every call has to train a new model.
+	 */
+	@Test
+	public void testCluster() {
+		MiniBatchKMeans model = newModel();
+		PointSet set = PointSet.fromPoints(points);
+
+		for(int run = 0; run < 2; run++) {
+			List<Cluster> fromSet = model.cluster(set);
+			List<Cluster> fromCollection = model.cluster(points);
+
+			assertEquals(CENTERS.length, fromSet.size());
+			assertEquals(CENTERS.length, fromCollection.size());
+
+			int setSize = 0;
+			int collectionSize = 0;
+
+			for(int c = 0; c < CENTERS.length; c++) {
+				setSize += fromSet.get(c).size();
+				collectionSize += fromCollection.get(c).size();
+
+				assertEquals(points.size() / CENTERS.length, fromSet.get(c).size(), points.size() / 20);
+				assertEquals(points.size() / CENTERS.length, fromCollection.get(c).size(), points.size() / 20);
+			}
+
+			assertEquals(points.size(), setSize);
+			assertEquals(points.size(), collectionSize);
+		}
+	}
+
+	private static MiniBatchKMeans newModel() {
+		return new MiniBatchKMeans(CENTERS.length, BATCH_SIZE, new KMeansPlusPlusInitializer(), new Random(17));
+	}
+
+	private static void assertCentersConverged(List<KMeansCluster> clusters) {
+		assertEquals(CENTERS.length, clusters.size());
+
+		for(double[] center : CENTERS) {
+			double nearest = Double.POSITIVE_INFINITY;
+
+			for(KMeansCluster cluster : clusters) {
+				Point fitted = cluster.getCenter();
+
+				nearest = Math.min(nearest, Math.hypot(fitted.getCoordinate(0) - center[0],
+						fitted.getCoordinate(1) - center[1]));
+			}
+
+			assertEquals(0, nearest, 0.2);
+		}
+	}
+
+}
@@ -0,0 +1,106 @@
+package de.jail.tests.clustering;
+
+import static org.junit.Assert.*;
+import static de.jail.tests.clustering.ClusterAssert.assertSameClusters;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+import de.jail.geometry.distancefunctions.impl.EuclideanDistance;
+import de.jail.geometry.schemas.Point;
+import de.jail.statistic.clustering.Cluster;
+import de.jail.statistic.clustering.density.DBScan;
+import de.jail.statistic.clustering.density.Optics;
+
+/**
+ * @author Christian Vogel
+ *
+ */
+public class OpticsTest {
+
+	private static List<Point> points;
+
+	/**
+	 * @throws java.lang.Exception
+	 */
+	@BeforeClass
+	public static void setUpBeforeClass() throws Exception {
+		Random random = new Random(7);
+
+		points = new ArrayList<Point>();
+
+		for(int i = 0; i < 2000; i++) {
+			double centerX = random.nextInt(4) * 8;
+			double centerY = random.nextInt(4) * 8;
+			double spread = 1 + random.nextInt(3);
+
+			points.add(new Point(new double[] {centerX + random.nextGaussian() * spread,
+					centerY + random.nextGaussian() * spread}));
+		}
+	}
+
+	/**
+	 * Test method for {@link de.jail.statistic.clustering.density.Optics#extractDBScan(double)}, where the clusters
+	 * of the core points and the noise have to be the same as those of {@link DBScan} for every distance.
+	 */
+	@Test
+	public void testExtractLikeDBScan() {
+		Optics optics = new Optics(1.0, 5);
+
+		assertEquals(new DBScan(1.0, 5).cluster(points).size(), optics.cluster(points).size());
+
+		for(double eps : new double[] {0.2, 0.35, 0.5, 0.75, 1.0}) {
+			List<Cluster> expected = new DBScan(eps, 5).cluster(points);
+			List<Cluster> actual = optics.extractDBScan(eps);
+
+			assertSameClusters(points, expected, actual, eps, 5, new EuclideanDistance());
+		}
+	}
+
+	/**
+	 * Test method for {@link de.jail.statistic.clustering.density.Optics#getReachability()}, where the reachability
+	 * of every point but the first one of a cluster is at least the core distance of an earlier point.
+	 */
+	@Test
+	public void testOrdering() {
+		Optics optics = new Optics(1.0, 5);
+		optics.cluster(points);
+
+		int[] ordering = optics.getOrdering();
+		double[] reachability = optics.getReachability();
+		boolean[] seen = new boolean[ordering.length];
+
+		for(int id : ordering) {
+			assertFalse("point is ordered twice", seen[id]);
+			seen[id] = true;
+		}
+
+		assertEquals(Double.POSITIVE_INFINITY, reachability[ordering[0]], 0);
+
+		double minCore = Double.POSITIVE_INFINITY;
+
+		for(double core : optics.getCoreDistances()) {
+			minCore = Math.min(minCore, core);
+		}
+
+		for(double reach : reachability) {
+			assertTrue(reach >= minCore);
+		}
+	}
+
+	/**
+	 * Test method for {@link de.jail.statistic.clustering.density.Optics#extractDBScan(double)} with a distance
+	 * above the maximum distance.
+	 */
+	@Test(expected = IllegalArgumentException.class)
+	public void testExtractAboveMaximum() {
+		Optics optics = new Optics(1.0, 5);
+		optics.cluster(points);
+		optics.extractDBScan(1.5);
+	}
+
+}
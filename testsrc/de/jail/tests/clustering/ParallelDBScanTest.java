@@ -0,0 +1,64 @@
+package de.jail.tests.clustering;
+
+import static org.junit.Assert.*;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+import de.jail.geometry.schemas.Point;
+import de.jail.statistic.clustering.Cluster;
+import de.jail.statistic.clustering.density.DBScan;
+import de.jail.statistic.clustering.density.ParallelDBScan;
+
+/**
+ * @author Christian Vogel
+ *
+ */
+public class ParallelDBScanTest {
+	
+	private static List<Point> points;
+
+	/**
+	 * @throws java.lang.Exception
+	 */
+	@BeforeClass
+	public static void setUpBeforeClass() throws Exception {
+		Random random = new Random(7);
+		
+		points = new ArrayList<Point>();
+		
+		for(int i = 0; i < 5000; i++) {
+			double centerX = random.nextInt(5) * 10;
+			double centerY = random.nextInt(5) * 10;
+			
+			points.add(new Point(new double[] {centerX + random.nextGaussian() * 2, centerY + random.nextGaussian() * 2}));
+		}
+	}
+
+	/**
+	 * Test method for {@link de.jail.statistic.clustering.density.ParallelDBScan#cluster(java.util.Collection)}.
+	 */
+	@Test
+	public void testClusterLikeDBScan() {
+		List<Cluster> expected = new DBScan(0.5, 5).cluster(points);
+		List<Cluster> actual = new ParallelDBScan(0.5, 5).cluster(points);
+		
+		assertEquals("number of clusters should be the same", expected.size(), actual.size());
+		assertEquals("number of clustered points should be the same", countPoints(expected), countPoints(actual));
+	}
+	
+	private static int countPoints(List<Cluster> clusters) {
+		int count = 0;
+		
+		for(Cluster c : clusters) {
+			count += c.size();
+		}
+		
+		return count;
+	}
+
+}
@@ -0,0 +1,175 @@
+package de.jail.tests.geometry;
+
+import static org.junit.Assert.*;
+
+import java.io.File;
+import java.util.Random;
+
+import org.junit.Test;
+
+import de.jail.geometry.distancefunctions.PointBasedDistanceFunction;
+import de.jail.geometry.distancefunctions.impl.EuclideanDistance;
+import de.jail.geometry.distancefunctions.impl.ManhattanDistance;
+import de.jail.geometry.schemas.MappedPointSet;
+import de.jail.geometry.schemas.Point;
+import de.jail.geometry.schemas.PointSet;
+
+/**
+ * @author Christian Vogel
+ *
+ */
+public class DistanceFunctionTest {
+
+	private static final int[] DIMENSIONS = {3, 16, 17, 100};
+
+	/**
+	 * Test method for {@link de.jail.geometry.distancefunctions.impl.EuclideanDistance#calculateWithin(double[], int, 
+	 * double[], int, int, double)}.
+	 */
+	@Test
+	public void testEuclidean() {
+		checkBoundedVariants(new EuclideanDistance());
+	}
+
+	/**
+	 * Test method for {@link de.jail.geometry.distancefunctions.impl.ManhattanDistance#calculateWithin(double[], int, 
+	 * double[], int, int, double)}.
+	 */
+	@Test
+	public void testManhattan() {
+		checkBoundedVariants(new ManhattanDistance());
+	}
+
+	/**
+	 * Test method for the default methods of {@link de.jail.geometry.distancefunctions.PointBasedDistanceFunction}, 
+	 * where a distance function only implements the distance between two points.
+	 */
+	@Test
+	public void testDefaults() {
+		PointBasedDistanceFunction chebyshev = new PointBasedDistanceFunction() {
+			@Override
+			public double calculate(Point arg1, Point arg2) {
+				double distance = 0;
+
+				for(int dim = 0; dim < arg1.getDimension(); dim++) {
+					distance = Math.max(distance, Math.abs(arg1.getCoordinate(dim) - arg2.getCoordinate(dim)));
+				}
+
+				return distance;
+			}
+		};
+
+		Random random = new Random(7);
+		PointSet points = new PointSet(200, 4);
+
+		for(int i = 0; i < points.size(); i++) {
+			for(int dim = 0; dim < points.getDimension(); dim++) {
+				points.set(i, dim, random.nextGaussian());
+			}
+		}
+
+		checkBoundedVariants(chebyshev);
+		checkBatch(chebyshev, points, points);
+	}
+
+	/**
+	 * Test method for {@link de.jail.geometry.distancefunctions.AbstractPointBasedDistanceFunction#calculateMatrix(
+	 * PointSet, int, int, PointSet, int, int, double[], int)}.
+	 */
+	@Test
+	public void testBatch() throws Exception {
+		Random random = new Random(42);
+		PointSet points = new PointSet(1500, 5);
+
+		for(int i = 0; i < points.size(); i++) {
+			for(int dim = 0; dim < points.getDimension(); dim++) {
+				points.set(i, dim, random.nextGaussian());
+			}
+		}
+
+		File file = File.createTempFile("points", ".bin");
+
+		try {
+			MappedPointSet mapped = MappedPointSet.create(file, points.size(), points.getDimension());
+
+			for(int i = 0; i < points.size(); i++) {
+				mapped.setPoint(i, points.getPoint(i));
+			}
+
+			PointBasedDistanceFunction[] functions = {new EuclideanDistance(), new ManhattanDistance()};
+
+			for(PointBasedDistanceFunction distFunction : functions) {
+				checkBatch(distFunction, points, points);
+				checkBatch(distFunction, mapped, points);
+				checkBatch(distFunction, points, mapped);
+			}
+		} finally {
+			file.delete();
+		}
+	}
+
+	private void checkBatch(PointBasedDistanceFunction distFunction, PointSet rows, PointSet columns) {
+		double[] query = new double[rows.getDimension() + 1];
+		rows.readPoint(7, query, 1);
+
+		double[] distances = new double[columns.size() + 2];
+		distFunction.calculateAll(query, 1, columns, 10, columns.size() - 10, distances, 2);
+
+		for(int j = 10; j < columns.size(); j++) {
+			assertEquals(distFunction.calculate(rows.getPoint(7), columns.getPoint(j)), distances[j - 8], 0);
+		}
+
+		int rowCount = 20;
+		int columnCount = columns.size() - 3;
+		double[] matrix = new double[rowCount * columnCount];
+		distFunction.calculateMatrix(rows, 5, rowCount, columns, 3, columnCount, matrix, 0);
+
+		for(int i = 0; i < rowCount; i++) {
+			for(int j = 0; j < columnCount; j++) {
+				assertEquals(distFunction.calculate(rows.getPoint(5 + i), columns.getPoint(3 + j)), 
+						matrix[i * columnCount + j], 0);
+			}
+		}
+	}
+
+	private void checkBoundedVariants(PointBasedDistanceFunction distFunction) {
+		Random random = new Random(42);
+
+		for(int dimension : DIMENSIONS) {
+			double[] a = new double[dimension];
+			double[] b = new double[dimension];
+
+			for(int run = 0; run < 1000; run++) {
+				for(int dim = 0; dim < dimension; dim++) {
+					a[dim] = random.nextGaussian();
+					b[dim] = random.nextGaussian();
+				}
+
+				double distance = distFunction.calculate(a, 0, b, 0, dimension);
+				double threshold = distance * (0.5 + random.nextDouble());
+				double within = distFunction.calculateWithin(a, 0, b, 0, dimension, threshold);
+
+				if(distance < threshold) {
+					assertEquals(distance, within, 1e-12 * distance);
+				} else {
+					assertTrue(within >= threshold);
+				}
+
+				double bound = distFunction.toSurrogate(threshold);
+				double surrogate = distFunction.calculateSurrogate(a, 0, b, 0, dimension, bound);
+
+				assertEquals(surrogate < bound, distance < threshold);
+
+				if(surrogate < bound) {
+					assertEquals(distance, distFunction.fromSurrogate(surrogate), 1e-12 * distance);
+				}
+
+				// no distance is smaller than a negative threshold
+				assertTrue(distFunction.calculateWithin(a, 0, b, 0, dimension, -threshold) >= -threshold);
+				assertFalse(distFunction.calculateSurrogate(a, 0, b, 0, dimension, distFunction.toSurrogate(-threshold))
+						< distFunction.toSurrogate(-threshold));
+			}
+		}
+	}
+
+}
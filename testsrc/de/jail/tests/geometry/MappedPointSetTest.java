@@ -0,0 +1,94 @@
+package de.jail.tests.geometry;
+
+import static org.junit.Assert.*;
+
+import java.io.File;
+import java.util.List;
+import java.util.Random;
+
+import org.junit.AfterClass;
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+import de.jail.geometry.schemas.MappedPointSet;
+import de.jail.geometry.schemas.PointSet;
+import de.jail.statistic.clustering.Cluster;
+import de.jail.statistic.clustering.density.DBScan;
+
+/**
+ * @author Christian Vogel
+ *
+ */
+public class MappedPointSetTest {
+
+	private static File file;
+
+	private static PointSet points;
+
+	/**
+	 * @throws java.lang.Exception
+	 */
+	@BeforeClass
+	public static void setUpBeforeClass() throws Exception {
+		Random random = new Random(42);
+
+		points = new PointSet(2000, 2);
+
+		for(int i = 0; i < points.size(); i++) {
+			points.set(i, 0, random.nextGaussian() + (i % 2) * 5);
+			points.set(i, 1, random.nextGaussian());
+		}
+
+		file = File.createTempFile("points", ".bin");
+
+		MappedPointSet mapped = MappedPointSet.create(file, points.size(), points.getDimension());
+
+		for(int i = 0; i < points.size(); i++) {
+			mapped.setPoint(i, points.getPoint(i));
+		}
+
+		mapped.flush();
+	}
+
+	/**
+	 * @throws java.lang.Exception
+	 */
+	@AfterClass
+	public static void tearDownAfterClass() throws Exception {
+		file.delete();
+	}
+
+	/**
+	 * Test method for {@link de.jail.geometry.schemas.MappedPointSet#open(File, boolean)}.
+	 */
+	@Test
+	public void testOpen() throws Exception {
+		MappedPointSet mapped = MappedPointSet.open(file, false);
+
+		assertFalse(mapped.hasArray());
+		assertEquals(points.size(), mapped.size());
+		assertEquals(points.getDimension(), mapped.getDimension());
+
+		double[] coordinates = new double[points.size() * points.getDimension()];
+		mapped.readPoints(0, mapped.size(), coordinates, 0);
+
+		assertArrayEquals(points.getData(), coordinates, 0);
+	}
+
+	/**
+	 * Test method for {@link de.jail.statistic.clustering.density.DBScan#cluster(PointSet)} with a mapped set.
+	 */
+	@Test
+	public void testClusterMapped() throws Exception {
+		List<Cluster> expected = new DBScan(0.3, 5).cluster(points);
+		List<Cluster> actual = new DBScan(0.3, 5).cluster(MappedPointSet.open(file, false));
+
+		assertEquals(expected.size(), actual.size());
+
+		for(int i = 0; i < expected.size(); i++) {
+			assertEquals(expected.get(i).size(), actual.get(i).size());
+			assertEquals(expected.get(i).getAllPoints(), actual.get(i).getAllPoints());
+		}
+	}
+
+}
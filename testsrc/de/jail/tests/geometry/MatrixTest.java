@@ -0,0 +1,345 @@
+package de.jail.tests.geometry;
+
+import static org.junit.Assert.*;
+
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+
+import org.junit.Test;
+
+import de.jail.exceptions.MatrixException;
+import de.jail.geometry.schemas.matrices.LUDecomposition;
+import de.jail.geometry.schemas.matrices.Matrix;
+import de.jail.geometry.schemas.matrices.Matrix2d;
+import de.jail.geometry.schemas.matrices.Matrix3d;
+import de.jail.geometry.schemas.matrices.SquareMatrix;
+
+/**
+ * @author Christian Vogel
+ *
+ */
+public class MatrixTest {
+
+	/**
+	 * Test method for {@link de.jail.geometry.schemas.matrices.Matrix#multiply(Matrix, ForkJoinPool)}.
+	 */
+	@Test
+	public void testMultiplyBlocked() throws Exception {
+		Random random = new Random(42);
+		Matrix a = randomMatrix(150, 300, random);
+		Matrix b = randomMatrix(300, 270, random);
+
+		double[][] expected = new double[150][270];
+
+		for(int i = 0; i < 150; i++) {
+			for(int j = 0; j < 270; j++) {
+				for(int r = 0; r < 300; r++) {
+					expected[i][j] += a.getElementAt(i, r) * b.getElementAt(r, j);
+				}
+			}
+		}
+
+		ForkJoinPool pool = new ForkJoinPool(4);
+
+		try {
+			Matrix sequential = a.multiply(b, null);
+			Matrix parallel = a.multiply(b, pool);
+
+			for(int i = 0; i < 150; i++) {
+				assertArrayEquals(expected[i], sequential.getElements()[i], 0);
+				assertArrayEquals(expected[i], parallel.getElements()[i], 0);
+			}
+		} finally {
+			pool.shutdown();
+		}
+	}
+
+	/**
+	 * Test method for {@link de.jail.geometry.schemas.matrices.Matrix#transposed()}.
+	 */
+	@Test
+	public void testViews() throws Exception {
+		Matrix matrix = new Matrix(new double[] {1, 2, 3, 4, 5, 6}, 2, 3);
+
+		Matrix transposed = matrix.transposed();
+		assertEquals(3, transposed.numberOfRows());
+		assertEquals(2, transposed.numberOfColumns());
+		assertEquals(6, transposed.getElementAt(2, 1), 0);
+
+		matrix.row(1).setElementAt(0, 2, 60);
+		assertEquals(60, transposed.getElementAt(2, 1), 0);
+
+		transposed.column(0).setElementAt(1, 0, 20);
+		assertEquals(20, matrix.getElementAt(0, 1), 0);
+
+		matrix.transpose();
+		assertEquals(transposed, matrix);
+		assertEquals(new Matrix(new double[] {1, 4, 20, 5, 3, 60}, 3, 2), matrix.clone());
+
+		SquareMatrix square = new SquareMatrix(2);
+		assertTrue(square.clone() instanceof SquareMatrix);
+	}
+
+	/**
+	 * Test method for {@link de.jail.geometry.schemas.matrices.Matrix#multiply(Matrix)} with views as operands.
+	 */
+	@Test
+	public void testMultiplyViews() throws Exception {
+		Random random = new Random(42);
+		Matrix a = randomMatrix(120, 90, random);
+		Matrix b = randomMatrix(120, 100, random);
+
+		Matrix expected = a.transposed().clone().multiply(b.subMatrix(0, 20, 120, 80).clone(), null);
+		Matrix actual = a.transposed().multiply(b.subMatrix(0, 20, 120, 80), null);
+
+		assertEquals(expected, actual);
+
+		Matrix small = a.subMatrix(0, 0, 5, 7).transposed().multiply(b.subMatrix(0, 0, 5, 3));
+
+		for(int i = 0; i < 7; i++) {
+			for(int j = 0; j < 3; j++) {
+				double value = 0;
+
+				for(int r = 0; r < 5; r++) {
+					value += a.getElementAt(r, i) * b.getElementAt(r, j);
+				}
+
+				assertEquals(value, small.getElementAt(i, j), 0);
+			}
+		}
+	}
+
+	/**
+	 * Test method for {@link de.jail.geometry.schemas.matrices.Matrix#multiplyInto(Matrix, Matrix, Matrix)} and the
+	 * other operations which change a matrix in place.
+	 */
+	@Test
+	public void testInPlace() throws Exception {
+		Random random = new Random(42);
+		Matrix a = randomMatrix(100, 80, random);
+		Matrix b = randomMatrix(80, 90, random);
+
+		Matrix expected = a.multiply(b);
+
+		// the product is written into the middle of a larger matrix
+		Matrix target = randomMatrix(110, 100, random);
+		Matrix out = target.subMatrix(5, 5, 100, 90);
+
+		Matrix.multiplyInto(a, b, out, null);
+		assertEquals(expected, out);
+
+		Matrix.multiplyInto(a.subMatrix(0, 0, 10, 80), b, out.subMatrix(0, 0, 10, 90));
+		assertEquals(expected.subMatrix(0, 0, 10, 90), out.subMatrix(0, 0, 10, 90));
+
+		Matrix sum = expected.clone();
+		sum.addInPlace(out);
+		assertEquals(expected.aggregate(out), sum);
+
+		sum.scaleInPlace(0.5);
+		assertEquals(expected.aggregate(out).multiply(0.5), sum);
+
+		sum.axpy(-2, expected);
+
+		for(int i = 0; i < 100; i++) {
+			for(int j = 0; j < 90; j++) {
+				double value = 0.5 * (expected.getElementAt(i, j) + out.getElementAt(i, j))
+						- 2 * expected.getElementAt(i, j);
+
+				assertEquals(value, sum.getElementAt(i, j), 0);
+			}
+		}
+
+		Matrix square = randomMatrix(50, 50, random);
+		Matrix symmetric = square.aggregate(square.transposed());
+		square.addInPlace(square.transposed());
+		assertEquals(symmetric, square);
+	}
+
+	/**
+	 * Test method for {@link de.jail.geometry.schemas.matrices.Matrix#multiplyInto(Matrix, Matrix, Matrix)} with a 
+	 * result which shares its storage with an operand.
+	 */
+	@Test(expected = MatrixException.class)
+	public void testMultiplyIntoOperand() throws Exception {
+		Matrix a = randomMatrix(10, 10, new Random(42));
+
+		Matrix.multiplyInto(a, a.transposed(), a.transposed());
+	}
+
+	/**
+	 * Test method for {@link de.jail.geometry.schemas.matrices.SquareMatrix#multiplyRecursive(SquareMatrix, int,
+	 * ForkJoinPool)} with and without steps of Strassen's algorithm.
+	 */
+	@Test
+	public void testMultiplyRecursive() throws Exception {
+		Random random = new Random(42);
+		ForkJoinPool pool = new ForkJoinPool(4);
+
+		try {
+			for(int order : new int[] {1, 129, 600}) {
+				SquareMatrix a = new SquareMatrix(order);
+				a.setData(randomMatrix(order, order, random).getElements());
+				SquareMatrix b = new SquareMatrix(order);
+				b.setData(randomMatrix(order, order, random).getElements());
+
+				Matrix expected = a.multiply(b, null);
+
+				// the classical recursion sums in the same order as the blocked algorithm
+				assertEquals(expected, a.multiplyRecursive(b, Integer.MAX_VALUE, null));
+				assertEquals(expected, a.multiplyRecursive(b, Integer.MAX_VALUE, pool));
+
+				Matrix strassen = a.multiplyRecursive(b, 16, pool);
+				assertTrue(strassen instanceof SquareMatrix);
+
+				for(int i = 0; i < order; i++) {
+					for(int j = 0; j < order; j++) {
+						assertEquals(expected.getElementAt(i, j), strassen.getElementAt(i, j), 1e-10);
+					}
+				}
+
+				assertEquals(strassen, a.multiplyRecursive(b, 16, null));
+			}
+		} finally {
+			pool.shutdown();
+		}
+	}
+
+	/**
+	 * Test method for {@link de.jail.geometry.schemas.matrices.LUDecomposition} with the decomposition column by
+	 * column and with the blocked decomposition.
+	 */
+	@Test
+	public void testLUDecomposition() throws Exception {
+		Random random = new Random(42);
+
+		for(int order : new int[] {1, 7, 100, 300}) {
+			SquareMatrix a = new SquareMatrix(order);
+			a.setData(randomMatrix(order, order, random).getElements());
+
+			LUDecomposition decomposition = a.getLUDecomposition();
+			assertSame(decomposition, a.getLUDecomposition());
+			assertFalse(decomposition.isSingular());
+
+			// PA = LU
+			Matrix product = decomposition.getLower().multiply(decomposition.getUpper());
+			int[] pivot = decomposition.getPivot();
+
+			for(int i = 0; i < order; i++) {
+				for(int j = 0; j < order; j++) {
+					assertEquals(a.getElementAt(pivot[i], j), product.getElementAt(i, j), 1e-12);
+				}
+			}
+
+			double[] b = new double[order];
+
+			for(int i = 0; i < order; i++) {
+				b[i] = random.nextDouble();
+			}
+
+			double[] x = a.solve(b);
+			double[] residual = a.multiply(new Matrix(x, order, 1)).getArray();
+			assertArrayEquals(b, residual, 1e-9);
+
+			Matrix identity = a.inverse().multiply(a);
+
+			for(int i = 0; i < order; i++) {
+				for(int j = 0; j < order; j++) {
+					assertEquals(i == j ? 1 : 0, identity.getElementAt(i, j), 1e-9);
+				}
+			}
+		}
+
+		SquareMatrix a = new SquareMatrix(new double[] {2, 1, 1, 0, 4, -1, 1, 2, 3, 0, 2, 0, 1, 1, 0, 5}, 4);
+		LUDecomposition decomposition = a.getLUDecomposition();
+		assertEquals(-28, a.determinant(), 1e-12);
+
+		// changing the matrix drops the decomposition
+		a.setElementAt(3, 3, 0);
+		assertNotSame(decomposition, a.getLUDecomposition());
+		assertEquals(2, a.determinant(), 1e-12);
+
+		a.setElementAt(3, 3, 5);
+		a.scaleInPlace(2);
+		assertEquals(-28 * 16, a.determinant(), 1e-9);
+	}
+
+	/**
+	 * Test method for {@link de.jail.geometry.schemas.matrices.SquareMatrix#solve(double[])} with a singular matrix.
+	 */
+	@Test(expected = MatrixException.class)
+	public void testSolveSingular() throws Exception {
+		SquareMatrix a = new SquareMatrix(new double[] {1, 2, 3, 2, 4, 6, 1, 0, 1}, 3);
+
+		assertTrue(a.getLUDecomposition().isSingular());
+		a.solve(new double[] {1, 2, 3});
+	}
+
+	/**
+	 * Test method for {@link de.jail.geometry.schemas.matrices.Matrix2d} and
+	 * {@link de.jail.geometry.schemas.matrices.Matrix3d} against the general square matrix.
+	 */
+	@Test
+	public void testFixedSize() throws Exception {
+		Random random = new Random(42);
+
+		Matrix3d a = Matrix3d.fromMatrix(randomMatrix(3, 3, random));
+		Matrix3d b = Matrix3d.fromMatrix(randomMatrix(3, 3, random));
+		SquareMatrix general = a.toMatrix();
+
+		assertEquals(general.getLUDecomposition().determinant(), a.determinant(), 1e-15);
+		assertEquals(-3, new Matrix3d(1, 2, 3, 4, 5, 6, 7, 8, 10).determinant(), 1e-12);
+		assertEquals(general.multiply(b.toMatrix()), a.multiply(b).toMatrix());
+		assertEquals(general.transposed(), a.transposed().toMatrix());
+
+		Matrix3d identity = a.inverse().multiply(a);
+
+		for(int i = 0; i < 3; i++) {
+			for(int j = 0; j < 3; j++) {
+				assertEquals(i == j ? 1 : 0, identity.getElementAt(i, j), 1e-12);
+			}
+		}
+
+		double[] points = {1, 2, 3, -1, 0.5, 2};
+		double[] expected = general.multiply(new Matrix(points, 2, 3).transposed()).transposed().clone().getArray();
+		a.transform(points, 0, 2, points, 0);
+		assertArrayEquals(expected, points, 1e-15);
+
+		// the product may be written into an operand
+		Matrix3d product = a.multiply(b);
+		assertSame(a, a.multiply(b, a));
+		assertEquals(product, a);
+
+		Matrix2d c = new Matrix2d(3, 1, 4, 2);
+		assertEquals(2, c.determinant(), 0);
+		assertEquals(new Matrix2d(1, -0.5, -2, 1.5), c.inverse());
+		assertEquals(Matrix2d.identity(), c.inverse().multiply(c));
+		assertEquals(c.toMatrix().multiply(Matrix2d.identity().multiply(2).toMatrix()), c.multiply(2).toMatrix());
+
+		c.transpose();
+		assertEquals(4, c.getElementAt(0, 1), 0);
+	}
+
+	/**
+	 * Test method for {@link de.jail.geometry.schemas.matrices.Matrix3d#inverse()} with a singular matrix.
+	 */
+	@Test(expected = MatrixException.class)
+	public void testFixedSizeSingular() throws Exception {
+		new Matrix3d(1, 2, 3, 2, 4, 6, 1, 0, 1).inverse();
+	}
+
+	private static Matrix randomMatrix(int rows, int columns, Random random) throws MatrixException {
+		double[][] data = new double[rows][columns];
+
+		for(int row = 0; row < rows; row++) {
+			for(int column = 0; column < columns; column++) {
+				data[row][column] = random.nextDouble() - 0.5;
+			}
+		}
+
+		Matrix matrix = new Matrix();
+		matrix.setData(data);
+
+		return matrix;
+	}
+
+}
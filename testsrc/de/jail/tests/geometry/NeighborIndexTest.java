@@ -0,0 +1,167 @@
+package de.jail.tests.geometry;
+
+import static org.junit.Assert.*;
+
+import java.util.Arrays;
+import java.util.Random;
+
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+import de.jail.geometry.distancefunctions.PointBasedDistanceFunction;
+import de.jail.geometry.distancefunctions.impl.EuclideanDistance;
+import de.jail.geometry.distancefunctions.impl.ManhattanDistance;
+import de.jail.geometry.neighborsearch.NeighborIndex;
+import de.jail.geometry.neighborsearch.impl.KDTree;
+import de.jail.geometry.neighborsearch.impl.LinearScan;
+import de.jail.geometry.neighborsearch.impl.UniformGrid;
+import de.jail.geometry.schemas.PointSet;
+import de.jail.utils.DoubleList;
+import de.jail.utils.IntList;
+
+/**
+ * @author Christian Vogel
+ *
+ */
+public class NeighborIndexTest {
+	
+	private static PointSet points;
+
+	/**
+	 * @throws java.lang.Exception
+	 */
+	@BeforeClass
+	public static void setUpBeforeClass() throws Exception {
+		Random random = new Random(42);
+		
+		points = new PointSet(500, 3);
+		
+		for(int i = 0; i < points.size(); i++) {
+			points.set(i, 0, random.nextDouble() * 10);
+			points.set(i, 1, random.nextDouble() * 10);
+			points.set(i, 2, random.nextInt(3));
+		}
+	}
+
+	/**
+	 * Test method for {@link de.jail.geometry.neighborsearch.impl.KDTree#rangeQuery(int, double, IntList)}.
+	 */
+	@Test
+	public void testKDTree() {
+		assertSameNeighbors(new KDTree(), new EuclideanDistance(), 0.7);
+		assertSameNeighbors(new KDTree(), new ManhattanDistance(), 0.7);
+	}
+	
+	/**
+	 * Test method for {@link de.jail.geometry.neighborsearch.impl.UniformGrid#rangeQuery(int, double, IntList)}.
+	 */
+	@Test
+	public void testUniformGrid() {
+		assertSameNeighbors(new UniformGrid(0.7), new EuclideanDistance(), 0.7);
+		assertSameNeighbors(new UniformGrid(0.3), new EuclideanDistance(), 0.7);
+		assertSameNeighbors(new UniformGrid(0.7), new ManhattanDistance(), 0.7);
+		assertSameNeighbors(new UniformGrid(0.7), new EuclideanDistance(), 50);
+	}
+	
+	/**
+	 * Test method for {@link de.jail.geometry.neighborsearch.NeighborIndex#rangeQuery(int, double, IntList, 
+	 * DoubleList)}, where the reported distances have to be the distances of the found neighbors.
+	 */
+	@Test
+	public void testDistances() {
+		PointBasedDistanceFunction distFunction = new EuclideanDistance();
+		NeighborIndex[] indices = {new LinearScan(), new KDTree(), new UniformGrid(0.7)};
+		
+		IntList neighbors = new IntList();
+		DoubleList distances = new DoubleList();
+		
+		for(NeighborIndex index : indices) {
+			index.build(points, distFunction);
+			
+			for(int i = 0; i < points.size(); i++) {
+				neighbors.clear();
+				distances.clear();
+				
+				index.rangeQuery(i, 0.7, neighbors, distances);
+				assertEquals(neighbors.size(), distances.size());
+				
+				for(int n = 0; n < neighbors.size(); n++) {
+					double expected = distFunction.calculate(points.getPoint(i), points.getPoint(neighbors.get(n)));
+					
+					assertEquals(expected, distances.get(n), 1e-12);
+					assertTrue(distances.get(n) < 0.7);
+				}
+			}
+		}
+	}
+	
+	/**
+	 * Test method for {@link de.jail.geometry.neighborsearch.NeighborIndex#knnQuery(int, int, IntList, DoubleList)},
+	 * where the reported distances have to be the smallest distances of all other points in ascending order.
+	 */
+	@Test
+	public void testKnn() {
+		PointBasedDistanceFunction distFunction = new EuclideanDistance();
+		NeighborIndex[] indices = {new LinearScan(), new KDTree(), new UniformGrid(0.7), new UniformGrid(0.05)};
+		
+		IntList neighbors = new IntList();
+		DoubleList distances = new DoubleList();
+		double[] expected = new double[points.size() - 1];
+		
+		for(NeighborIndex index : indices) {
+			index.build(points, distFunction);
+			
+			for(int i = 0; i < points.size(); i += 7) {
+				for(int other = 0, n = 0; other < points.size(); other++) {
+					if(other != i) {
+						expected[n++] = distFunction.calculate(points.getPoint(i), points.getPoint(other));
+					}
+				}
+				
+				Arrays.sort(expected);
+				
+				for(int k : new int[] {1, 5, 40, points.size() + 3}) {
+					neighbors.clear();
+					distances.clear();
+					
+					index.knnQuery(i, k, neighbors, distances);
+					assertEquals(Math.min(k, points.size() - 1), neighbors.size());
+					
+					for(int n = 0; n < neighbors.size(); n++) {
+						assertTrue(neighbors.get(n) != i);
+						assertEquals(expected[n], distances.get(n), 1e-12);
+						assertEquals(distFunction.calculate(points.getPoint(i), points.getPoint(neighbors.get(n))), 
+								distances.get(n), 1e-12);
+					}
+				}
+			}
+		}
+	}
+	
+	private static void assertSameNeighbors(NeighborIndex index, PointBasedDistanceFunction distFunction, double eps) {
+		NeighborIndex reference = new LinearScan();
+		
+		reference.build(points, distFunction);
+		index.build(points, distFunction);
+		
+		IntList expected = new IntList();
+		IntList actual = new IntList();
+		
+		for(int i = 0; i < points.size(); i++) {
+			expected.clear();
+			actual.clear();
+			
+			reference.rangeQuery(i, eps, expected);
+			index.rangeQuery(i, eps, actual);
+			
+			int[] expectedIds = expected.toArray();
+			int[] actualIds = actual.toArray();
+			
+			Arrays.sort(expectedIds);
+			Arrays.sort(actualIds);
+			
+			assertArrayEquals("neighbors of point " + i + " differ", expectedIds, actualIds);
+		}
+	}
+
+}
@@ -0,0 +1,102 @@
+package de.jail.tests.geometry;
+
+import static org.junit.Assert.*;
+
+import java.util.Random;
+
+import org.junit.Test;
+
+import de.jail.geometry.schemas.matrices.CSCMatrix;
+import de.jail.geometry.schemas.matrices.CSRMatrix;
+import de.jail.geometry.schemas.matrices.Matrix;
+import de.jail.geometry.schemas.matrices.SparseMatrix;
+
+/**
+ * @author Christian Vogel
+ *
+ */
+public class SparseMatrixTest {
+
+	/**
+	 * Test method for {@link de.jail.geometry.schemas.matrices.CSRMatrix#fromTriplets}.
+	 */
+	@Test
+	public void testFromTriplets() throws Exception {
+		int[] rows = {2, 0, 2, 1, 0, 2};
+		int[] columns = {3, 1, 0, 1, 1, 3};
+		double[] values = {1, 2, 3, 4, 5, 6};
+
+		CSRMatrix csr = CSRMatrix.fromTriplets(3, 4, rows, columns, values);
+		assertEquals(4, csr.numberOfNonZeros());
+		assertArrayEquals(new int[] {0, 1, 2, 4}, csr.getPointers());
+		assertEquals(7, csr.getElementAt(0, 1), 0);
+		assertEquals(4, csr.getElementAt(1, 1), 0);
+		assertEquals(3, csr.getElementAt(2, 0), 0);
+		assertEquals(7, csr.getElementAt(2, 3), 0);
+		assertEquals(0, csr.getElementAt(1, 2), 0);
+
+		CSCMatrix csc = CSCMatrix.fromTriplets(3, 4, rows, columns, values);
+		assertEquals(csr.toDense(), csc.toDense());
+		assertEquals(csr.toDense(), csr.toCSC().toDense());
+		assertEquals(csc.toDense(), csc.toCSR().toDense());
+		assertArrayEquals(csc.getPointers(), csr.toCSC().getPointers());
+		assertArrayEquals(csc.getIndices(), csr.toCSC().getIndices());
+
+		SparseMatrix transposed = csr.transpose();
+		assertEquals(4, transposed.numberOfRows());
+		assertEquals(csr.toDense().transposed(), transposed.toDense());
+		assertEquals(csr.toDense(), CSRMatrix.fromDense(csr.toDense()).toDense());
+	}
+
+	/**
+	 * Test method for {@link de.jail.geometry.schemas.matrices.SparseMatrix#multiply(Matrix)} and
+	 * {@link de.jail.geometry.schemas.matrices.SparseMatrix#multiply(double[])} in both formats.
+	 */
+	@Test
+	public void testMultiply() throws Exception {
+		Random random = new Random(42);
+		int count = 500;
+		int[] rows = new int[count];
+		int[] columns = new int[count];
+		double[] values = new double[count];
+
+		for(int i = 0; i < count; i++) {
+			rows[i] = random.nextInt(120);
+			columns[i] = random.nextInt(90);
+			values[i] = random.nextInt(10) - 5;
+		}
+
+		CSRMatrix csr = CSRMatrix.fromTriplets(120, 90, rows, columns, values);
+		CSCMatrix csc = csr.toCSC();
+		Matrix dense = csr.toDense();
+
+		double[] x = new double[90];
+		double[][] data = new double[90][7];
+
+		for(int i = 0; i < 90; i++) {
+			x[i] = random.nextInt(10);
+
+			for(int j = 0; j < 7; j++) {
+				data[i][j] = random.nextInt(10);
+			}
+		}
+
+		Matrix b = new Matrix();
+		b.setData(data);
+
+		Matrix expected = dense.multiply(new Matrix(x, 90, 1));
+		assertArrayEquals(expected.getArray(), csr.multiply(x), 0);
+		assertArrayEquals(expected.getArray(), csc.multiply(x), 0);
+
+		expected = dense.multiply(b);
+		assertEquals(expected, csr.multiply(b));
+		assertEquals(expected, csc.multiply(b));
+		assertEquals(expected.subMatrix(0, 2, 120, 3), csr.multiply(b.subMatrix(0, 2, 90, 3)));
+
+		// the transpose shares the storage
+		Matrix transposed = dense.transposed().multiply(expected);
+		assertEquals(transposed, csr.transpose().multiply(expected));
+		assertEquals(transposed, csc.transpose().multiply(expected));
+	}
+
+}
@@ -0,0 +1,152 @@
+package de.jail.tests.utils;
+
+import static org.junit.Assert.*;
+
+import java.io.File;
+import java.io.FileWriter;
+import java.io.Writer;
+import java.util.Locale;
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+
+import org.junit.AfterClass;
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+import de.jail.geometry.schemas.Point;
+import de.jail.geometry.schemas.PointSet;
+import de.jail.utils.CsvPointReader;
+import de.jail.utils.FileUtil;
+
+/**
+ * @author Christian Vogel
+ *
+ */
+public class CsvPointReaderTest {
+
+	private static final String[] FORMATS = {"%.5f", "%.17g", "%e", "%.3f", "%.0f"};
+
+	private static File file;
+
+	private static double[] expected;
+
+	/**
+	 * @throws java.lang.Exception
+	 */
+	@BeforeClass
+	public static void setUpBeforeClass() throws Exception {
+		Random random = new Random(42);
+
+		int numberOfPoints = 100000;
+		expected = new double[numberOfPoints * 3];
+
+		file = File.createTempFile("points", ".csv");
+		Writer writer = new FileWriter(file);
+
+		try {
+			writer.write("x;y;z\r\n");
+
+			for(int i = 0; i < numberOfPoints; i++) {
+				for(int dim = 0; dim < 3; dim++) {
+					String value = String.format(Locale.ROOT, FORMATS[(i + dim) % FORMATS.length],
+							(random.nextDouble() - 0.5) * Math.pow(10, random.nextInt(12) - 4));
+
+					expected[i * 3 + dim] = Double.parseDouble(value);
+					writer.write(dim == 0 ? value : "; " + value);
+				}
+
+				writer.write(i % 1000 == 0 ? "\r\n\n" : "\n");
+			}
+		} finally {
+			writer.close();
+		}
+	}
+
+	/**
+	 * @throws java.lang.Exception
+	 */
+	@AfterClass
+	public static void tearDownAfterClass() throws Exception {
+		file.delete();
+	}
+
+	/**
+	 * Test method for {@link de.jail.utils.CsvPointReader#read(File)}.
+	 */
+	@Test
+	public void testRead() throws Exception {
+		PointSet points = new CsvPointReader(';', true).read(file);
+
+		assertEquals(3, points.getDimension());
+		assertArrayEquals(expected, points.getData(), 0);
+	}
+
+	/**
+	 * Test method for {@link de.jail.utils.CsvPointReader#read(File, ForkJoinPool)}.
+	 */
+	@Test
+	public void testReadParallel() throws Exception {
+		ForkJoinPool pool = new ForkJoinPool(4);
+
+		try {
+			PointSet points = new CsvPointReader(';', true).read(file, pool);
+
+			assertEquals(3, points.getDimension());
+			assertArrayEquals(expected, points.getData(), 0);
+		} finally {
+			pool.shutdown();
+		}
+	}
+
+	/**
+	 * Test method for {@link de.jail.utils.CsvPointReader#iterator(File)}.
+	 */
+	@Test
+	public void testIterator() throws Exception {
+		CsvPointReader.PointIterator iterator = new CsvPointReader(';', true).iterator(file);
+
+		int index = 0;
+
+		while(iterator.hasNext()) {
+			Point point = iterator.next();
+
+			for(int dim = 0; dim < 3; dim++) {
+				assertEquals(expected[index * 3 + dim], point.getCoordinate(dim), 0);
+			}
+
+			index++;
+		}
+
+		assertEquals(expected.length / 3, index);
+	}
+
+	/**
+	 * Test method for {@link de.jail.utils.CsvPointReader#read(File)} with empty fields at the end of the lines, which
+	 * are dropped like by {@link String#split(String)}.
+	 */
+	@Test
+	public void testTrailingSeparator() throws Exception {
+		File trailing = File.createTempFile("trailing", ".csv");
+		Writer writer = new FileWriter(trailing);
+
+		try {
+			writer.write("1.0,2.0,\n3.5,-4,,\r\n-0.5,6\n");
+			writer.close();
+
+			double[] values = {1.0, 2.0, 3.5, -4, -0.5, 6};
+			PointSet points = new CsvPointReader(',', false).read(trailing);
+
+			assertEquals(2, points.getDimension());
+			assertArrayEquals(values, points.getData(), 0);
+
+			points = FileUtil.importPointSetFromCsv(trailing.getPath(), ",", false);
+
+			assertEquals(2, points.getDimension());
+			assertArrayEquals(values, points.getData(), 0);
+		} finally {
+			writer.close();
+			trailing.delete();
+		}
+	}
+
+}